@@ -1,6 +1,16 @@
 package org.talend.daikon.content;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
 
 import org.springframework.core.io.WritableResource;
 
@@ -19,4 +29,70 @@ public interface DeletableResource extends WritableResource {
      * @param location The new location for the resource
      */
     void move(String location) throws IOException;
+
+    /**
+     * Opens a stream on the start of the resource content, for instance to read a header. Implementations may read only
+     * the requested bytes from the store (e.g. with a ranged request).
+     *
+     * @param length The number of bytes to read at most.
+     * @return A stream on the start of the content (at least its first <code>length</code> bytes, if any), to be
+     * closed by the caller.
+     */
+    default InputStream getHeadInputStream(int length) throws IOException {
+        return getInputStream();
+    }
+
+    /**
+     * Opens a read-only channel on the resource content, for instance to read only some blocks of a large file.
+     *
+     * @return A channel positioned at the start of the content, to be closed by the caller.
+     */
+    default SeekableByteChannel readableChannel() throws IOException {
+        return Files.newByteChannel(getFile().toPath());
+    }
+
+    /**
+     * Opens a channel replacing the resource content, as {@link #getOutputStream()}.
+     *
+     * @return A channel to be closed by the caller.
+     */
+    default WritableByteChannel writableChannel() throws IOException {
+        return Channels.newChannel(getOutputStream());
+    }
+
+    /**
+     * Maps a region of the resource content in memory, for random access without copying the content to the heap. Only
+     * available for resources on the file system.
+     *
+     * @param position The position of the region in the content.
+     * @param size The size of the region (at most {@link Integer#MAX_VALUE}).
+     * @return A read-only buffer on the region.
+     */
+    default MappedByteBuffer mapReadOnly(long position, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(getFile().toPath(), StandardOpenOption.READ)) {
+            // The mapping remains valid once the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        }
+    }
+
+    /**
+     * Copies the resource content to another resource, replacing its content. Implementations may avoid copying the
+     * content through the heap (e.g. between files).
+     *
+     * @param target The resource to copy the content to.
+     * @return The number of copied bytes.
+     */
+    default long transferTo(DeletableResource target) throws IOException {
+        try (ReadableByteChannel source = Channels.newChannel(getInputStream());
+                WritableByteChannel destination = target.writableChannel()) {
+            final ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            long transferred = 0;
+            while (source.read(buffer) >= 0 || buffer.position() > 0) {
+                buffer.flip();
+                transferred += destination.write(buffer);
+                buffer.compact();
+            }
+            return transferred;
+        }
+    }
 }
@@ -0,0 +1,25 @@
+package org.talend.daikon.content;
+
+/**
+ * Follows the progress of {@link ResourceResolver#moveDirectory(String, String, MoveListener)}.
+ */
+@FunctionalInterface
+public interface MoveListener {
+
+    /**
+     * A listener ignoring all notifications.
+     */
+    MoveListener NONE = (source, target, moved, total) -> {
+        // Nothing to do
+    };
+
+    /**
+     * Called once a resource is moved. Resources may be moved in parallel: implementations must be thread-safe.
+     *
+     * @param source The resource location before the move.
+     * @param target The resource location after the move.
+     * @param moved The number of resources moved so far (including this one).
+     * @param total The total number of resources to move.
+     */
+    void moved(String source, String target, int moved, int total);
+}
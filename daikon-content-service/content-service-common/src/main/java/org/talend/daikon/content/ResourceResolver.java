@@ -1,6 +1,12 @@
 package org.talend.daikon.content;
 
 import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.ResourcePatternResolver;
@@ -19,6 +25,17 @@ public interface ResourceResolver extends ResourcePatternResolver {
     @Override
     DeletableResource getResource(String location);
 
+    /**
+     * Resolves the resources matching a location pattern as {@link #getResources(String)}, implementations may list
+     * them lazily as the stream is consumed (the stream may then throw {@link java.io.UncheckedIOException}).
+     *
+     * @param locationPattern The location pattern to resolve.
+     * @return The matching resources, the stream should be closed once consumed.
+     */
+    default Stream<DeletableResource> stream(String locationPattern) throws IOException {
+        return Arrays.stream(getResources(locationPattern));
+    }
+
     default void clear(String location) throws IOException {
         Resource[] files = getResources(location);
         for (Resource resource : files) {
@@ -26,4 +43,44 @@ public interface ResourceResolver extends ResourcePatternResolver {
         }
     }
 
+    /**
+     * Deletes the resources at the given locations, implementations may group deletions in fewer calls to the
+     * underlying storage.
+     *
+     * @param locations The locations of the resources to delete.
+     */
+    default void delete(Collection<String> locations) throws IOException {
+        for (String location : locations) {
+            getResource(location).delete();
+        }
+    }
+
+    /**
+     * Moves all the resources under a directory to another directory, keeping their path relative to the directory.
+     *
+     * @param sourceDirectory The location of the directory to move resources from.
+     * @param targetDirectory The location of the directory to move resources to.
+     * @param listener Notified after each moved resource.
+     */
+    default void moveDirectory(String sourceDirectory, String targetDirectory, MoveListener listener) throws IOException {
+        final String source = sourceDirectory.endsWith("/") ? sourceDirectory : sourceDirectory + '/';
+        final String target = targetDirectory.endsWith("/") ? targetDirectory : targetDirectory + '/';
+        final URI sourceURI = getResource(source).getURI().normalize();
+        final List<String> relativePaths = new ArrayList<>();
+        for (DeletableResource resource : getResources(source + "**")) {
+            // Directories are not readable and are moved with their content
+            if (resource.isReadable()) {
+                final URI relativeURI = sourceURI.relativize(resource.getURI().normalize());
+                if (!relativeURI.isAbsolute()) {
+                    relativePaths.add(relativeURI.getPath());
+                }
+            }
+        }
+        int moved = 0;
+        for (String relativePath : relativePaths) {
+            getResource(source + relativePath).move(target + relativePath);
+            listener.moved(source + relativePath, target + relativePath, ++moved, relativePaths.size());
+        }
+    }
+
 }
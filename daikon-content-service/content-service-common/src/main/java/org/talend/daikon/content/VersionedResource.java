@@ -0,0 +1,65 @@
+package org.talend.daikon.content;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A {@link DeletableResource} whose content has a version (e.g. an S3 ETag) and can be read only when it changed, for
+ * instance to validate a copy of the content with a conditional request.
+ */
+public interface VersionedResource extends DeletableResource {
+
+    /**
+     * @return A key identifying where the content is stored (e.g. bucket and key), the same for all the resources on the
+     * same content. Keys of the resources under a directory start with the key of the directory.
+     */
+    String getContentKey();
+
+    /**
+     * Reads the content unless its version is the given one.
+     *
+     * @param version The version of a copy of the content, null to always read the content.
+     * @return The content, or null if its version is still <code>version</code>.
+     * @throws java.io.FileNotFoundException If the resource does not exist.
+     */
+    VersionedContent getContentIfModified(String version) throws IOException;
+
+    /**
+     * The content of a resource, with its version. The content stream must be closed by the caller.
+     */
+    final class VersionedContent implements Closeable {
+
+        private final String version;
+
+        private final long length;
+
+        private final InputStream inputStream;
+
+        public VersionedContent(String version, long length, InputStream inputStream) {
+            this.version = version;
+            this.length = length;
+            this.inputStream = inputStream;
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        /**
+         * @return The length of the content (in bytes).
+         */
+        public long getLength() {
+            return length;
+        }
+
+        public InputStream getInputStream() {
+            return inputStream;
+        }
+
+        @Override
+        public void close() throws IOException {
+            inputStream.close();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.talend.daikon.content.async;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.talend.daikon.content.DeletableResource;
+import org.talend.daikon.content.ResourceResolver;
+
+/**
+ * Base of the {@link AsyncContentService} implementations: resolves resources, limits the transfers of each tenant and
+ * owns the threads performing the I/O (shut down by {@link #close()}).
+ */
+public abstract class AbstractAsyncContentService implements AsyncContentService, AutoCloseable {
+
+    /** Size of the chunks of read contents (in bytes). */
+    protected static final int CHUNK_SIZE = 64 * 1024;
+
+    private final ResourceResolver resolver;
+
+    private final ExecutorService executor;
+
+    private final TenantConcurrencyLimiter limiter;
+
+    private final Supplier<String> tenant;
+
+    /**
+     * @param resolver Resolves the locations.
+     * @param executor Performs the I/O.
+     * @param limiter Limits the transfers of each tenant.
+     * @param tenant Returns the tenant of the current thread (called by the thread starting a transfer).
+     */
+    protected AbstractAsyncContentService(ResourceResolver resolver, ExecutorService executor, TenantConcurrencyLimiter limiter,
+            Supplier<String> tenant) {
+        this.resolver = resolver;
+        this.executor = executor;
+        this.limiter = limiter;
+        this.tenant = tenant;
+    }
+
+    /**
+     * @param threads The number of threads.
+     * @return A pool of daemon threads to perform the I/O of a service.
+     */
+    public static ExecutorService newExecutor(int threads) {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, "content-async-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Long> read(String location, ContentConsumer consumer) {
+        final DeletableResource resource = resolver.getResource(location);
+        return limiter.submit(tenant.get(), () -> read(resource, consumer));
+    }
+
+    @Override
+    public CompletableFuture<Long> write(String location, ContentProducer producer) {
+        final DeletableResource resource = resolver.getResource(location);
+        return limiter.submit(tenant.get(), () -> write(resource, producer));
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(String location) {
+        final DeletableResource resource = resolver.getResource(location);
+        return limiter.submit(tenant.get(), () -> CompletableFuture.runAsync(() -> {
+            try {
+                resource.delete();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, executor));
+    }
+
+    /**
+     * Starts reading a resource (called once the tenant is under its limit).
+     */
+    protected abstract CompletableFuture<Long> read(DeletableResource resource, ContentConsumer consumer);
+
+    /**
+     * Starts writing a resource (called once the tenant is under its limit).
+     */
+    protected abstract CompletableFuture<Long> write(DeletableResource resource, ContentProducer producer);
+
+    protected ExecutorService getExecutor() {
+        return executor;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
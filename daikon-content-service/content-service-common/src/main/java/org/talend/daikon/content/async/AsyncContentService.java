@@ -0,0 +1,67 @@
+package org.talend.daikon.content.async;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Asynchronous access to content: transfers are performed chunk by chunk, without a thread blocked for the duration of a
+ * transfer. Transfers of a tenant are limited (see {@link TenantConcurrencyLimiter}), transfers over the limit wait for
+ * previous ones to complete.
+ *
+ * @see org.talend.services.ContentService
+ */
+public interface AsyncContentService {
+
+    /**
+     * Reads the content of the resource at the given location.
+     *
+     * @param location A non-null, non-empty location for the resource.
+     * @param consumer Receives the chunks of the content.
+     * @return The number of read bytes, once the consumer accepted all the chunks.
+     */
+    CompletableFuture<Long> read(String location, ContentConsumer consumer);
+
+    /**
+     * Replaces the content of the resource at the given location.
+     *
+     * @param location A non-null, non-empty location for the resource.
+     * @param producer Produces the chunks of the content.
+     * @return The number of written bytes, once all the chunks are written. If the producer fails, the chunks written so
+     * far may replace the previous content.
+     */
+    CompletableFuture<Long> write(String location, ContentProducer producer);
+
+    /**
+     * Deletes the resource at the given location.
+     *
+     * @param location A non-null, non-empty location for the resource.
+     */
+    CompletableFuture<Void> delete(String location);
+
+    /**
+     * Receives the chunks of a read content.
+     */
+    @FunctionalInterface
+    interface ContentConsumer {
+
+        /**
+         * @param chunk The next chunk of the content, only valid until the returned stage completes.
+         * @return A stage completed once the chunk is consumed, the next chunk is read after it.
+         */
+        CompletionStage<?> accept(ByteBuffer chunk);
+    }
+
+    /**
+     * Produces the chunks of a written content.
+     */
+    @FunctionalInterface
+    interface ContentProducer {
+
+        /**
+         * @return A stage completed with the next chunk of the content (not modified until the next call), or with null at
+         * the end of the content.
+         */
+        CompletionStage<ByteBuffer> next();
+    }
+}
@@ -0,0 +1,172 @@
+package org.talend.daikon.content.async;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channel;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.daikon.content.DeletableResource;
+import org.talend.daikon.content.ResourceResolver;
+
+/**
+ * {@link AsyncContentService} for stores with a blocking client (e.g. S3): each chunk is read or written by a task of a
+ * bounded thread pool, no thread is held while a consumer or a producer is busy.
+ */
+public class ExecutorAsyncContentService extends AbstractAsyncContentService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExecutorAsyncContentService.class);
+
+    public ExecutorAsyncContentService(ResourceResolver resolver, ExecutorService executor, TenantConcurrencyLimiter limiter,
+            Supplier<String> tenant) {
+        super(resolver, executor, limiter, tenant);
+    }
+
+    @Override
+    protected CompletableFuture<Long> read(DeletableResource resource, ContentConsumer consumer) {
+        final CompletableFuture<Long> result = new CompletableFuture<>();
+        getExecutor().execute(() -> {
+            try {
+                new ReadTransfer(Channels.newChannel(resource.getInputStream()), consumer, result).next();
+            } catch (IOException | RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    protected CompletableFuture<Long> write(DeletableResource resource, ContentProducer producer) {
+        final CompletableFuture<Long> result = new CompletableFuture<>();
+        getExecutor().execute(() -> {
+            try {
+                new WriteTransfer(resource.writableChannel(), producer, result).next();
+            } catch (IOException | RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    private static void close(Channel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.debug("Unable to close channel.", e);
+        }
+    }
+
+    /**
+     * Reads a chunk in a task, then the next one once the consumer accepted it.
+     */
+    private class ReadTransfer {
+
+        private final ReadableByteChannel channel;
+
+        private final ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+
+        private final ContentConsumer consumer;
+
+        private final CompletableFuture<Long> result;
+
+        private long transferred;
+
+        private ReadTransfer(ReadableByteChannel channel, ContentConsumer consumer, CompletableFuture<Long> result) {
+            this.channel = channel;
+            this.consumer = consumer;
+            this.result = result;
+        }
+
+        private void next() {
+            try {
+                buffer.clear();
+                int count = 0;
+                while (count == 0) {
+                    count = channel.read(buffer);
+                }
+                if (count < 0) {
+                    close(channel);
+                    result.complete(transferred);
+                    return;
+                }
+                transferred += count;
+                buffer.flip();
+                consumer.accept(buffer).whenComplete((accepted, error) -> {
+                    if (error == null) {
+                        getExecutor().execute(this::next);
+                    } else {
+                        fail(error);
+                    }
+                });
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+            }
+        }
+
+        private void fail(Throwable error) {
+            close(channel);
+            result.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Writes a chunk in a task once the producer produced it, then asks for the next one.
+     */
+    private class WriteTransfer {
+
+        private final WritableByteChannel channel;
+
+        private final ContentProducer producer;
+
+        private final CompletableFuture<Long> result;
+
+        private long transferred;
+
+        private WriteTransfer(WritableByteChannel channel, ContentProducer producer, CompletableFuture<Long> result) {
+            this.channel = channel;
+            this.producer = producer;
+            this.result = result;
+        }
+
+        private void next() {
+            try {
+                producer.next().whenComplete((chunk, error) -> {
+                    if (error != null) {
+                        fail(error);
+                    } else {
+                        getExecutor().execute(() -> write(chunk));
+                    }
+                });
+            } catch (RuntimeException e) {
+                fail(e);
+            }
+        }
+
+        private void write(ByteBuffer chunk) {
+            try {
+                if (chunk == null) {
+                    channel.close();
+                    result.complete(transferred);
+                    return;
+                }
+                while (chunk.hasRemaining()) {
+                    transferred += channel.write(chunk);
+                }
+                next();
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+            }
+        }
+
+        private void fail(Throwable error) {
+            close(channel);
+            result.completeExceptionally(error);
+        }
+    }
+}
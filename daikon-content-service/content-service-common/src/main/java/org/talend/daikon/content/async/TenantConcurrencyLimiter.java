@@ -0,0 +1,159 @@
+package org.talend.daikon.content.async;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Limits the number of asynchronous operations running at the same time for each tenant. Operations over the limit are
+ * queued (without blocking the calling thread) and started once previous operations of the tenant complete. Queued
+ * operations are started in a loop, not from the completion of the previous ones: operations completing synchronously
+ * do not nest calls. Tenants without running or queued operations are forgotten.
+ */
+public class TenantConcurrencyLimiter {
+
+    private final int maxConcurrency;
+
+    private final ConcurrentMap<String, Tenant> tenants = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxConcurrency The maximum number of operations running at the same time for a tenant.
+     */
+    public TenantConcurrencyLimiter(int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency must be positive (was " + maxConcurrency + ").");
+        }
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Starts an operation as soon as the tenant is under its limit.
+     *
+     * @param tenant The tenant of the operation.
+     * @param operation Starts the operation.
+     * @return The result of the operation, once started and completed.
+     */
+    public <T> CompletableFuture<T> submit(String tenant, Supplier<CompletableFuture<T>> operation) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final Supplier<CompletableFuture<?>> start = () -> {
+            CompletableFuture<T> started;
+            try {
+                started = operation.get();
+            } catch (RuntimeException e) {
+                started = new CompletableFuture<>();
+                started.completeExceptionally(e);
+            }
+            started.whenComplete((value, error) -> {
+                if (error == null) {
+                    result.complete(value);
+                } else {
+                    result.completeExceptionally(error);
+                }
+            });
+            return started;
+        };
+        Tenant limits;
+        do {
+            limits = tenants.computeIfAbsent(tenant, Tenant::new);
+        } while (!limits.submit(start));
+        return result;
+    }
+
+    /**
+     * @return The number of operations running for a tenant.
+     */
+    int getRunning(String tenant) {
+        final Tenant limits = tenants.get(tenant);
+        return limits == null ? 0 : limits.getRunning();
+    }
+
+    /**
+     * @return The number of tenants with running or queued operations.
+     */
+    int getTenantCount() {
+        return tenants.size();
+    }
+
+    private class Tenant {
+
+        private final String name;
+
+        private final Queue<Supplier<CompletableFuture<?>>> pending = new ArrayDeque<>();
+
+        private int running;
+
+        /** Whether a thread is starting the queued operations. */
+        private boolean starting;
+
+        /** Whether this tenant was removed from the map once idle, it then accepts no more operations. */
+        private boolean removed;
+
+        private Tenant(String name) {
+            this.name = name;
+        }
+
+        /**
+         * @return false if this tenant was removed (idle), the operation must be submitted to the current one.
+         */
+        boolean submit(Supplier<CompletableFuture<?>> start) {
+            synchronized (this) {
+                if (removed) {
+                    return false;
+                }
+                pending.add(start);
+            }
+            startPending();
+            return true;
+        }
+
+        /**
+         * Starts queued operations while under the limit. Only one thread runs this loop for a tenant: an operation
+         * completing while it is started only releases its slot, the loop then starts the next one.
+         */
+        private void startPending() {
+            synchronized (this) {
+                if (starting) {
+                    return;
+                }
+                starting = true;
+            }
+            while (true) {
+                final Supplier<CompletableFuture<?>> next;
+                synchronized (this) {
+                    if (running >= maxConcurrency || pending.isEmpty()) {
+                        starting = false;
+                        removeIfIdle();
+                        return;
+                    }
+                    next = pending.poll();
+                    running++;
+                }
+                next.get().whenComplete((value, error) -> release());
+            }
+        }
+
+        private void release() {
+            synchronized (this) {
+                running--;
+            }
+            startPending();
+        }
+
+        /**
+         * Removes this tenant from the map when it has nothing to run, must hold the lock.
+         */
+        private void removeIfIdle() {
+            if (running == 0 && pending.isEmpty()) {
+                removed = true;
+                tenants.remove(name, this);
+            }
+        }
+
+        synchronized int getRunning() {
+            return running;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package org.talend.daikon.content.cache;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+import org.springframework.core.io.Resource;
+import org.talend.daikon.content.VersionedResource;
+
+/**
+ * A {@link VersionedResource} read from its copy in a {@link ContentCache}. The copy is validated with a conditional
+ * read before each read, and is replaced if the content changed. Contents too large to be cached are read from the
+ * resource, with a single request.
+ */
+class CachedResource implements VersionedResource {
+
+    private final VersionedResource resource;
+
+    private final ContentCache cache;
+
+    CachedResource(VersionedResource resource, ContentCache cache) {
+        this.resource = resource;
+        this.cache = cache;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        final Closeable content = open();
+        if (content instanceof FileChannel) {
+            return Channels.newInputStream((FileChannel) content);
+        }
+        // Too large to be cached: read the response already received
+        return ((VersionedContent) content).getInputStream();
+    }
+
+    /**
+     * Reads the start of the content from the resource, without caching the content.
+     */
+    @Override
+    public InputStream getHeadInputStream(int length) throws IOException {
+        return resource.getHeadInputStream(length);
+    }
+
+    @Override
+    public SeekableByteChannel readableChannel() throws IOException {
+        if (cache.getVersion(resource.getContentKey()) == null && !cache.isCacheable(resource.contentLength())) {
+            // Not worth a read of the whole content
+            return resource.readableChannel();
+        }
+        final Closeable content = open();
+        if (content instanceof FileChannel) {
+            return (FileChannel) content;
+        }
+        // Content grew too large to be cached since its copy
+        content.close();
+        return resource.readableChannel();
+    }
+
+    /**
+     * @return A {@link FileChannel} on an up-to-date copy of the content, or the {@link VersionedContent} read from the
+     * resource if it is too large to be cached (to be closed by the caller).
+     */
+    private Closeable open() throws IOException {
+        final String key = resource.getContentKey();
+        final String cachedVersion = cache.getVersion(key);
+        VersionedContent content = null;
+        if (cachedVersion != null) {
+            content = getContentIfModified(cachedVersion);
+            if (content == null) {
+                final FileChannel copy = cache.open(key, cachedVersion);
+                if (copy != null) {
+                    return copy;
+                }
+                // Copy evicted since its validation
+            }
+        }
+        if (content == null) {
+            content = getContentIfModified(null);
+        }
+        if (!cache.isCacheable(content.getLength())) {
+            return content;
+        }
+        return store(key, content);
+    }
+
+    private FileChannel store(String key, VersionedContent content) throws IOException {
+        try (VersionedContent stored = content) {
+            return cache.put(key, stored.getVersion(), stored.getInputStream());
+        }
+    }
+
+    @Override
+    public String getContentKey() {
+        return resource.getContentKey();
+    }
+
+    @Override
+    public VersionedContent getContentIfModified(String version) throws IOException {
+        try {
+            return resource.getContentIfModified(version);
+        } catch (FileNotFoundException e) {
+            cache.invalidate(resource.getContentKey());
+            throw e;
+        }
+    }
+
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        cache.invalidate(resource.getContentKey());
+        return resource.getOutputStream();
+    }
+
+    @Override
+    public WritableByteChannel writableChannel() throws IOException {
+        cache.invalidate(resource.getContentKey());
+        return resource.writableChannel();
+    }
+
+    @Override
+    public void delete() throws IOException {
+        cache.invalidate(resource.getContentKey());
+        resource.delete();
+    }
+
+    @Override
+    public void move(String location) throws IOException {
+        cache.invalidate(resource.getContentKey());
+        resource.move(location);
+    }
+
+    @Override
+    public boolean isWritable() {
+        return resource.isWritable();
+    }
+
+    @Override
+    public boolean exists() {
+        return resource.exists();
+    }
+
+    @Override
+    public boolean isReadable() {
+        return resource.isReadable();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return resource.isOpen();
+    }
+
+    @Override
+    public URL getURL() throws IOException {
+        return resource.getURL();
+    }
+
+    @Override
+    public URI getURI() throws IOException {
+        return resource.getURI();
+    }
+
+    @Override
+    public File getFile() throws IOException {
+        return resource.getFile();
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        return resource.contentLength();
+    }
+
+    @Override
+    public long lastModified() throws IOException {
+        return resource.lastModified();
+    }
+
+    @Override
+    public Resource createRelative(String relativePath) throws IOException {
+        final Resource relative = resource.createRelative(relativePath);
+        return relative instanceof VersionedResource ? new CachedResource((VersionedResource) relative, cache) : relative;
+    }
+
+    @Override
+    public String getFilename() {
+        return resource.getFilename();
+    }
+
+    @Override
+    public String getDescription() {
+        return resource.getDescription();
+    }
+}
@@ -0,0 +1,111 @@
+package org.talend.daikon.content.cache;
+
+import static java.util.Arrays.stream;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+import org.talend.daikon.content.DeletableResource;
+import org.talend.daikon.content.MoveListener;
+import org.talend.daikon.content.ResourceResolver;
+import org.talend.daikon.content.VersionedResource;
+
+/**
+ * A {@link ResourceResolver} keeping copies of the content of the resolved resources in a local {@link ContentCache}.
+ * Only {@link VersionedResource versioned resources} (e.g. S3 objects) are cached, a copy being validated with a
+ * conditional read each time the resource is read. Copies are removed when resources are deleted, moved or written
+ * through this resolver.
+ */
+public class CachingResourceResolver implements ResourceResolver {
+
+    private static final String WILDCARDS = "*?{[";
+
+    private final ResourceResolver delegate;
+
+    private final ContentCache cache;
+
+    public CachingResourceResolver(ResourceResolver delegate, ContentCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public DeletableResource[] getResources(String locationPattern) throws IOException {
+        return stream(delegate.getResources(locationPattern)) //
+                .map(this::cached) //
+                .toArray(DeletableResource[]::new);
+    }
+
+    @Override
+    public Stream<DeletableResource> stream(String locationPattern) throws IOException {
+        return delegate.stream(locationPattern).map(this::cached);
+    }
+
+    @Override
+    public DeletableResource getResource(String location) {
+        return cached(delegate.getResource(location));
+    }
+
+    @Override
+    public void clear(String location) throws IOException {
+        try {
+            delegate.clear(location);
+        } finally {
+            invalidate(location);
+        }
+    }
+
+    @Override
+    public void delete(Collection<String> locations) throws IOException {
+        try {
+            delegate.delete(locations);
+        } finally {
+            for (String location : locations) {
+                final DeletableResource resource = delegate.getResource(location);
+                if (resource instanceof VersionedResource) {
+                    cache.invalidate(((VersionedResource) resource).getContentKey());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void moveDirectory(String sourceDirectory, String targetDirectory, MoveListener listener) throws IOException {
+        try {
+            delegate.moveDirectory(sourceDirectory, targetDirectory, listener);
+        } finally {
+            invalidate(sourceDirectory);
+            invalidate(targetDirectory);
+        }
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return delegate.getClassLoader();
+    }
+
+    private DeletableResource cached(DeletableResource resource) {
+        return resource instanceof VersionedResource ? new CachedResource((VersionedResource) resource, cache) : resource;
+    }
+
+    /**
+     * Removes the copies of all the resources matching a location pattern, i.e. all the resources under the location
+     * before its first wildcard.
+     */
+    private void invalidate(String locationPattern) {
+        int prefixLength = 0;
+        while (prefixLength < locationPattern.length() && WILDCARDS.indexOf(locationPattern.charAt(prefixLength)) < 0) {
+            prefixLength++;
+        }
+        final String prefix = locationPattern.substring(0, prefixLength);
+        if (prefix.isEmpty() || "/".equals(prefix)) {
+            cache.invalidatePrefix("");
+            return;
+        }
+        final DeletableResource resource = delegate.getResource(prefix);
+        if (resource instanceof VersionedResource) {
+            cache.invalidatePrefix(((VersionedResource) resource).getContentKey());
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package org.talend.daikon.content.cache;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Copies of resource contents on local disk, by content key and version, evicted in least recently used order once
+ * their total size exceeds a maximum.
+ * <p>
+ * Copies are written to a temporary file then renamed, and are opened as {@link FileChannel}s while the cache is locked:
+ * a copy being read may be evicted (its file is then removed once closed on most systems). Files are not memory mapped
+ * as a mapped file cannot be released (and deleted) before the mapping is garbage collected. The index is kept in
+ * memory, copies left in the directory by a previous instance are deleted on creation.
+ * </p>
+ */
+public class ContentCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContentCache.class);
+
+    private static final String CONTENT_SUFFIX = ".content";
+
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+
+    private final Path directory;
+
+    private final long maxSize;
+
+    private final long maxEntrySize;
+
+    /** Entries by content key, in access order. */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final AtomicLong fileCounter = new AtomicLong();
+
+    private long size;
+
+    /**
+     * @param directory The directory to store copies in, created if needed.
+     * @param maxSize The maximum total size of the copies (in bytes).
+     * @param maxEntrySize The maximum size of a copy (in bytes), larger contents are not cached.
+     */
+    public ContentCache(Path directory, long maxSize, long maxEntrySize) throws IOException {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive (was " + maxSize + ").");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.maxSize = maxSize;
+        this.maxEntrySize = Math.min(maxEntrySize, maxSize);
+        try (DirectoryStream<Path> previousFiles = Files.newDirectoryStream(directory,
+                "*{" + CONTENT_SUFFIX + ',' + TEMPORARY_SUFFIX + '}')) {
+            for (Path previousFile : previousFiles) {
+                deleteFile(previousFile);
+            }
+        }
+    }
+
+    /**
+     * @return <code>true</code> if a content of this length can be cached.
+     */
+    public boolean isCacheable(long length) {
+        return length >= 0 && length <= maxEntrySize;
+    }
+
+    /**
+     * @return The version of the cached copy of a content, null if the content is not cached.
+     */
+    public synchronized String getVersion(String key) {
+        final Entry entry = entries.get(key);
+        return entry == null ? null : entry.version;
+    }
+
+    /**
+     * Opens the cached copy of a content.
+     *
+     * @return A channel on the copy, null if the content is not cached with this version (e.g. evicted meanwhile).
+     */
+    public synchronized FileChannel open(String key, String version) throws IOException {
+        final Entry entry = entries.get(key);
+        if (entry == null || !entry.version.equals(version)) {
+            return null;
+        }
+        try {
+            return FileChannel.open(entry.file, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            LOGGER.debug("Copy of '{}' was removed from cache directory.", key, e);
+            remove(key);
+            return null;
+        }
+    }
+
+    /**
+     * Stores a copy of a content, replacing the previous copy, then opens it. Least recently used copies are evicted if
+     * the cache gets too large.
+     *
+     * @param key The content key.
+     * @param version The content version.
+     * @param content The content, read until its end by this method.
+     * @return A channel on the copy.
+     */
+    public FileChannel put(String key, String version, InputStream content) throws IOException {
+        final long fileId = fileCounter.incrementAndGet();
+        final Path temporaryFile = directory.resolve(fileId + TEMPORARY_SUFFIX);
+        final Path file = directory.resolve(fileId + CONTENT_SUFFIX);
+        final long length;
+        try {
+            length = Files.copy(content, temporaryFile, REPLACE_EXISTING);
+            try {
+                Files.move(temporaryFile, file, ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, file, REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            deleteFile(temporaryFile);
+            throw e;
+        }
+        synchronized (this) {
+            final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            remove(key);
+            entries.put(key, new Entry(version, file, length));
+            size += length;
+            evict(key);
+            return channel;
+        }
+    }
+
+    /**
+     * Removes the copy of a content.
+     */
+    public synchronized void invalidate(String key) {
+        remove(key);
+    }
+
+    /**
+     * Removes the copies of all the contents whose key starts with the given prefix (e.g. all contents in a directory).
+     */
+    public synchronized void invalidatePrefix(String keyPrefix) {
+        final Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<String, Entry> entry = iterator.next();
+            if (entry.getKey().startsWith(keyPrefix)) {
+                iterator.remove();
+                release(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * @return The total size of the cached copies (in bytes).
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    private void remove(String key) {
+        final Entry entry = entries.remove(key);
+        if (entry != null) {
+            release(entry);
+        }
+    }
+
+    /**
+     * Evicts the least recently used copies (except the given one) until the total size is below the maximum.
+     */
+    private void evict(String keptKey) {
+        final Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            final Map.Entry<String, Entry> entry = iterator.next();
+            if (!entry.getKey().equals(keptKey)) {
+                LOGGER.debug("Evict '{}' from content cache.", entry.getKey());
+                iterator.remove();
+                release(entry.getValue());
+            }
+        }
+    }
+
+    private void release(Entry entry) {
+        size -= entry.length;
+        deleteFile(entry.file);
+    }
+
+    private static void deleteFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOGGER.warn("Unable to delete cached content '{}'.", file, e);
+        }
+    }
+
+    private static class Entry {
+
+        private final String version;
+
+        private final Path file;
+
+        private final long length;
+
+        private Entry(String version, Path file, long length) {
+            this.version = version;
+            this.file = file;
+            this.length = length;
+        }
+    }
+}
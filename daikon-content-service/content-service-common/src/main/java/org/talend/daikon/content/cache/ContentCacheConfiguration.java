@@ -0,0 +1,86 @@
+package org.talend.daikon.content.cache;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.talend.daikon.content.ResourceResolver;
+
+/**
+ * Stacks a {@link CachingResourceResolver} over the configured {@link ResourceResolver} (e.g. S3 resolver) when
+ * <code>content-service.cache.enabled</code> is <code>true</code>.
+ */
+@Configuration
+@SuppressWarnings("InsufficientBranchCoverage")
+@ConditionalOnProperty(name = "content-service.cache.enabled", havingValue = "true")
+public class ContentCacheConfiguration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContentCacheConfiguration.class);
+
+    private static final long MB = 1024 * 1024;
+
+    /**
+     * Order of the post processor: the cache wraps the deduplicated resolver, and is wrapped by compression (copies are
+     * kept compressed).
+     */
+    public static final int ORDER = 100;
+
+    @Bean
+    public static CachingResourceResolverPostProcessor cachingResourceResolverPostProcessor(Environment environment) {
+        return new CachingResourceResolverPostProcessor(environment);
+    }
+
+    static class CachingResourceResolverPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final Environment environment;
+
+        private ContentCache cache;
+
+        private CachingResourceResolverPostProcessor(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public int getOrder() {
+            return ORDER;
+        }
+
+        @Override
+        public Object postProcessBeforeInitialization(Object bean, String beanName) {
+            return bean;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof ResourceResolver && !(bean instanceof CachingResourceResolver)) {
+                return new CachingResourceResolver((ResourceResolver) bean, getCache(beanName));
+            }
+            return bean;
+        }
+
+        private synchronized ContentCache getCache(String beanName) {
+            if (cache == null) {
+                final String path = environment.getProperty("content-service.cache.path",
+                        Paths.get(System.getProperty("java.io.tmpdir"), "content-service-cache").toString());
+                final long maxSize = environment.getProperty("content-service.cache.max-size", Long.class, 1024 * MB);
+                final long maxEntrySize = environment.getProperty("content-service.cache.max-entry-size", Long.class,
+                        64 * MB);
+                try {
+                    cache = new ContentCache(Paths.get(path), maxSize, maxEntrySize);
+                } catch (IOException e) {
+                    throw new BeanCreationException(beanName, "Unable to create content cache in '" + path + "'.", e);
+                }
+                LOGGER.info("Content cached to '{}' (up to {} bytes)", path, maxSize);
+            }
+            return cache;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package org.talend.daikon.content.compression;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.channels.SeekableByteChannel;
+
+import org.springframework.core.io.Resource;
+import org.talend.daikon.content.DeletableResource;
+
+/**
+ * A resource of a {@link CompressingResourceResolver}: content is compressed to the resource of the delegate resolver
+ * while it is written, and decompressed while it is read. Compressed content can only be read as a stream.
+ * <p>
+ * The header of the stored content is read once per resource (with {@link DeletableResource#getHeadInputStream(int)}),
+ * and read again only once the resource wrote, moved or deleted its content.
+ * </p>
+ */
+class CompressedResource implements DeletableResource {
+
+    private final CompressingResourceResolver resolver;
+
+    private final DeletableResource resource;
+
+    /** Whether the stored content has a compression header, null until the header is read. */
+    private volatile Boolean compressed;
+
+    CompressedResource(CompressingResourceResolver resolver, DeletableResource resource) {
+        this.resolver = resolver;
+        this.resource = resource;
+    }
+
+    /**
+     * @return <code>true</code> if the stored content has a compression header.
+     */
+    private boolean isCompressed() throws IOException {
+        Boolean result = compressed;
+        if (result == null) {
+            result = readHeader();
+            compressed = result;
+        }
+        return result;
+    }
+
+    private boolean readHeader() throws IOException {
+        if (!resource.exists() || !resource.isReadable()) {
+            return false;
+        }
+        try (PushbackInputStream input = CompressingResourceResolver.newHeaderInput(
+                resource.getHeadInputStream(CompressingResourceResolver.MAX_HEADER_LENGTH))) {
+            return resolver.readCodec(input, getDescription()) != null;
+        }
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return resolver.decompress(resource.getInputStream(), getDescription());
+    }
+
+    /**
+     * @return A channel on the stored content if it is not compressed.
+     * @throws IOException If the content is compressed (only readable as a stream).
+     */
+    @Override
+    public SeekableByteChannel readableChannel() throws IOException {
+        if (isCompressed()) {
+            throw new IOException(getDescription() + " is compressed, it can only be read as a stream.");
+        }
+        return resource.readableChannel();
+    }
+
+    /**
+     * @return A stream compressing the content with the codec of the resource extension.
+     */
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        compressed = null;
+        return resolver.compress(resolver.getCodec(getFilename()), resource.getOutputStream());
+    }
+
+    /**
+     * Copies the stored content, without decompressing it, when the target is compressed by the same resolver.
+     */
+    @Override
+    public long transferTo(DeletableResource target) throws IOException {
+        if (target instanceof CompressedResource && ((CompressedResource) target).resolver == resolver) {
+            final CompressedResource compressedTarget = (CompressedResource) target;
+            compressedTarget.compressed = null;
+            return resource.transferTo(compressedTarget.resource);
+        }
+        return DeletableResource.super.transferTo(target);
+    }
+
+    @Override
+    public void delete() throws IOException {
+        compressed = null;
+        resource.delete();
+    }
+
+    @Override
+    public void move(String location) throws IOException {
+        compressed = null;
+        resource.move(location);
+    }
+
+    @Override
+    public boolean exists() {
+        return resource.exists();
+    }
+
+    @Override
+    public boolean isReadable() {
+        return resource.isReadable();
+    }
+
+    @Override
+    public boolean isWritable() {
+        return resource.isWritable();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return resource.isOpen();
+    }
+
+    @Override
+    public URL getURL() throws IOException {
+        return resource.getURL();
+    }
+
+    @Override
+    public URI getURI() throws IOException {
+        return resource.getURI();
+    }
+
+    /**
+     * @return The file of the stored content if it is not compressed.
+     * @throws FileNotFoundException If the content is compressed.
+     */
+    @Override
+    public File getFile() throws IOException {
+        if (isCompressed()) {
+            throw new FileNotFoundException(getDescription() + " is compressed, it is not available as a file.");
+        }
+        return resource.getFile();
+    }
+
+    /**
+     * @return The length of the stored content, that is the compressed length (header included) for compressed content.
+     * The decompressed length is not recorded, it is the number of bytes read from {@link #getInputStream()}.
+     */
+    @Override
+    public long contentLength() throws IOException {
+        return resource.contentLength();
+    }
+
+    @Override
+    public long lastModified() throws IOException {
+        return resource.lastModified();
+    }
+
+    @Override
+    public Resource createRelative(String relativePath) throws IOException {
+        final Resource relative = resource.createRelative(relativePath);
+        return relative instanceof DeletableResource ? new CompressedResource(resolver, (DeletableResource) relative)
+                : relative;
+    }
+
+    @Override
+    public String getFilename() {
+        return resource.getFilename();
+    }
+
+    @Override
+    public String getDescription() {
+        return resource.getDescription();
+    }
+}
@@ -0,0 +1,203 @@
+package org.talend.daikon.content.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import org.springframework.util.StringUtils;
+import org.talend.daikon.content.DeletableResource;
+import org.talend.daikon.content.MoveListener;
+import org.talend.daikon.content.ResourceResolver;
+
+/**
+ * A {@link ResourceResolver} compressing content while it is written and decompressing it while it is read, whatever
+ * the store of the delegate resolver.
+ * <p>
+ * The codec is chosen by the extension of the resource (formats already compressed such as zip or png are stored as is)
+ * and recorded in a header of the stored content, so content stored with another codec, or before compression was
+ * enabled, is read as well.
+ * </p>
+ */
+public class CompressingResourceResolver implements ResourceResolver {
+
+    /** Start of the header of compressed content, followed by the length and the name of the codec. */
+    private static final byte[] MAGIC = { (byte) 0xC7, 'T', 'Z', 1 };
+
+    /** Maximum length of the header of compressed content (codec names are at most 255 bytes long). */
+    static final int MAX_HEADER_LENGTH = MAGIC.length + 1 + 255;
+
+    /** Extensions of the formats stored as is by default. */
+    private static final Set<String> COMPRESSED_EXTENSIONS = new HashSet<>(Arrays.asList("7z", "avi", "bz2", "docx", "gif",
+            "gz", "jar", "jpeg", "jpg", "lz4", "mp3", "mp4", "png", "pptx", "xlsx", "xz", "zip", "zst"));
+
+    private final ResourceResolver delegate;
+
+    private final CompressionCodec defaultCodec;
+
+    private final Map<String, CompressionCodec> extensionCodecs;
+
+    private final Map<String, CompressionCodec> codecs = new HashMap<>();
+
+    /**
+     * @param delegate The resolver storing compressed content.
+     * @param defaultCodec The codec of the resources whose extension has no codec.
+     * @param extensionCodecs The codecs by extension (lower case, without dot), e.g. {@link StandardCodec#NONE} for a
+     * format already compressed.
+     * @param codecs Additional codecs content may be stored with, {@link StandardCodec} and the given codecs are always
+     * available.
+     */
+    public CompressingResourceResolver(ResourceResolver delegate, CompressionCodec defaultCodec,
+            Map<String, CompressionCodec> extensionCodecs, Collection<CompressionCodec> codecs) {
+        this.delegate = delegate;
+        this.defaultCodec = defaultCodec;
+        this.extensionCodecs = new HashMap<>(extensionCodecs);
+        for (StandardCodec codec : StandardCodec.values()) {
+            this.codecs.put(codec.getName(), codec);
+        }
+        for (CompressionCodec codec : codecs) {
+            this.codecs.put(codec.getName(), codec);
+        }
+        this.codecs.put(defaultCodec.getName(), defaultCodec);
+        this.extensionCodecs.values().forEach(codec -> this.codecs.put(codec.getName(), codec));
+    }
+
+    public ResourceResolver getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public DeletableResource[] getResources(String locationPattern) throws IOException {
+        return Arrays.stream(delegate.getResources(locationPattern)) //
+                .map(resource -> new CompressedResource(this, resource)) //
+                .toArray(DeletableResource[]::new);
+    }
+
+    @Override
+    public Stream<DeletableResource> stream(String locationPattern) throws IOException {
+        return delegate.stream(locationPattern).map(resource -> new CompressedResource(this, resource));
+    }
+
+    @Override
+    public DeletableResource getResource(String location) {
+        return new CompressedResource(this, delegate.getResource(location));
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return delegate.getClassLoader();
+    }
+
+    /**
+     * Content is deleted as stored.
+     */
+    @Override
+    public void clear(String location) throws IOException {
+        delegate.clear(location);
+    }
+
+    @Override
+    public void delete(Collection<String> locations) throws IOException {
+        delegate.delete(locations);
+    }
+
+    /**
+     * Content is moved as stored, without being decompressed.
+     */
+    @Override
+    public void moveDirectory(String sourceDirectory, String targetDirectory, MoveListener listener) throws IOException {
+        delegate.moveDirectory(sourceDirectory, targetDirectory, listener);
+    }
+
+    /**
+     * @return The codec of a resource, after its extension.
+     */
+    CompressionCodec getCodec(String filename) {
+        final String extension = StringUtils.getFilenameExtension(filename);
+        if (extension == null) {
+            return defaultCodec;
+        }
+        final String key = extension.toLowerCase(Locale.ENGLISH);
+        final CompressionCodec codec = extensionCodecs.get(key);
+        if (codec != null) {
+            return codec;
+        }
+        return COMPRESSED_EXTENSIONS.contains(key) ? StandardCodec.NONE : defaultCodec;
+    }
+
+    /**
+     * Writes the header of the codec, the returned stream compresses the content to <code>output</code>.
+     */
+    OutputStream compress(CompressionCodec codec, OutputStream output) throws IOException {
+        if (codec == StandardCodec.NONE) {
+            return output;
+        }
+        final byte[] name = codec.getName().getBytes(StandardCharsets.US_ASCII);
+        output.write(MAGIC);
+        output.write(name.length);
+        output.write(name);
+        return codec.compress(output);
+    }
+
+    /**
+     * @return A stream decompressing the stored content, or the stored content if it has no header.
+     */
+    InputStream decompress(InputStream input, String description) throws IOException {
+        final PushbackInputStream headerInput = newHeaderInput(input);
+        final CompressionCodec codec = readCodec(headerInput, description);
+        return codec == null ? headerInput : codec.decompress(headerInput);
+    }
+
+    /**
+     * @return A stream the start of the stored content can be read again from, see {@link #readCodec}.
+     */
+    static PushbackInputStream newHeaderInput(InputStream input) {
+        return new PushbackInputStream(input, MAGIC.length);
+    }
+
+    /**
+     * Reads the header of the stored content.
+     *
+     * @param input A stream on the stored content, from {@link #newHeaderInput(InputStream)}.
+     * @return The codec of the content, null if the content has no header (stored as is).
+     */
+    CompressionCodec readCodec(PushbackInputStream input, String description) throws IOException {
+        final byte[] magic = new byte[MAGIC.length];
+        final int length = readFully(input, magic);
+        if (length < MAGIC.length || !Arrays.equals(magic, MAGIC)) {
+            if (length > 0) {
+                input.unread(magic, 0, length);
+            }
+            return null;
+        }
+        final int nameLength = input.read();
+        final byte[] name = new byte[Math.max(nameLength, 0)];
+        if (nameLength < 0 || readFully(input, name) < nameLength) {
+            throw new IOException("Truncated compression header in " + description + '.');
+        }
+        final CompressionCodec codec = codecs.get(new String(name, StandardCharsets.US_ASCII));
+        if (codec == null) {
+            throw new IOException("Unknown compression codec '" + new String(name, StandardCharsets.US_ASCII) + "' for "
+                    + description + '.');
+        }
+        return codec;
+    }
+
+    private static int readFully(InputStream input, byte[] buffer) throws IOException {
+        int length = 0;
+        int count;
+        while (length < buffer.length && (count = input.read(buffer, length, buffer.length - length)) >= 0) {
+            length += count;
+        }
+        return length;
+    }
+}
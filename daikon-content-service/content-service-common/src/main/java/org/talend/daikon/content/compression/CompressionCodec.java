@@ -0,0 +1,31 @@
+package org.talend.daikon.content.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * A compression format of a {@link CompressingResourceResolver}. The name of the codec is recorded in the header of the
+ * stored content, the codec must keep its name and format once content is stored with it.
+ *
+ * @see StandardCodec
+ */
+public interface CompressionCodec {
+
+    /**
+     * @return The name of the codec (at most 255 ASCII characters).
+     */
+    String getName();
+
+    /**
+     * @param output The stream of the stored content.
+     * @return A stream compressing the written content to <code>output</code>, closing <code>output</code> when closed.
+     */
+    OutputStream compress(OutputStream output) throws IOException;
+
+    /**
+     * @param input The stream of the stored content.
+     * @return A stream decompressing <code>input</code>, closing <code>input</code> when closed.
+     */
+    InputStream decompress(InputStream input) throws IOException;
+}
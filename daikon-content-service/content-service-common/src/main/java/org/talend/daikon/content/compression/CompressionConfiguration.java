@@ -0,0 +1,93 @@
+package org.talend.daikon.content.compression;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+import org.talend.daikon.content.ResourceResolver;
+import org.talend.daikon.content.cache.ContentCacheConfiguration;
+
+/**
+ * Stacks a {@link CompressingResourceResolver} over the configured {@link ResourceResolver} (e.g. S3 resolver) when
+ * <code>content-service.compression.enabled</code> is <code>true</code>. The local cache, if enabled, keeps compressed
+ * copies.
+ */
+@Configuration
+@SuppressWarnings("InsufficientBranchCoverage")
+@ConditionalOnProperty(name = "content-service.compression.enabled", havingValue = "true")
+public class CompressionConfiguration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompressionConfiguration.class);
+
+    /**
+     * Order of the post processor: compression applies last, over the cache.
+     */
+    public static final int ORDER = ContentCacheConfiguration.ORDER + 10;
+
+    @Bean
+    public static CompressingResourceResolverPostProcessor compressingResourceResolverPostProcessor(
+            Environment environment) {
+        return new CompressingResourceResolverPostProcessor(environment);
+    }
+
+    static class CompressingResourceResolverPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final Environment environment;
+
+        private CompressingResourceResolverPostProcessor(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public int getOrder() {
+            return ORDER;
+        }
+
+        @Override
+        public Object postProcessBeforeInitialization(Object bean, String beanName) {
+            return bean;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof ResourceResolver && !(bean instanceof CompressingResourceResolver)) {
+                final CompressionCodec defaultCodec = getCodec(beanName,
+                        environment.getProperty("content-service.compression.codec", StandardCodec.GZIP.getName()));
+                final Map<String, CompressionCodec> extensionCodecs = new HashMap<>();
+                final String codecByExtension = environment.getProperty("content-service.compression.codec-by-extension", "");
+                for (String pair : StringUtils.commaDelimitedListToStringArray(codecByExtension)) {
+                    final String[] extensionAndCodec = StringUtils.split(pair.trim(), ":");
+                    if (extensionAndCodec == null) {
+                        throw new BeanCreationException(beanName, "Invalid codec by extension '" + pair + "'.");
+                    }
+                    extensionCodecs.put(extensionAndCodec[0].trim().toLowerCase(Locale.ENGLISH),
+                            getCodec(beanName, extensionAndCodec[1].trim()));
+                }
+                LOGGER.info("Content of '{}' compressed with {} (by extension: {})", beanName, defaultCodec.getName(),
+                        codecByExtension);
+                return new CompressingResourceResolver((ResourceResolver) bean, defaultCodec, extensionCodecs,
+                        Collections.emptyList());
+            }
+            return bean;
+        }
+
+        private static CompressionCodec getCodec(String beanName, String name) {
+            final CompressionCodec codec = StandardCodec.forName(name);
+            if (codec == null) {
+                throw new BeanCreationException(beanName, "Unknown compression codec '" + name + "'.");
+            }
+            return codec;
+        }
+    }
+}
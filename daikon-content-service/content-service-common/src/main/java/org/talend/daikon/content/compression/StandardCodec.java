@@ -0,0 +1,113 @@
+package org.talend.daikon.content.compression;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * The codecs available without additional libraries.
+ */
+public enum StandardCodec implements CompressionCodec {
+
+    /**
+     * Content stored as is (e.g. already compressed formats).
+     */
+    NONE("none") {
+
+        @Override
+        public OutputStream compress(OutputStream output) {
+            return output;
+        }
+
+        @Override
+        public InputStream decompress(InputStream input) {
+            return input;
+        }
+    },
+
+    /**
+     * Gzip with the default compression level.
+     */
+    GZIP("gzip") {
+
+        @Override
+        public OutputStream compress(OutputStream output) throws IOException {
+            return new GZIPOutputStream(output, BUFFER_SIZE);
+        }
+
+        @Override
+        public InputStream decompress(InputStream input) throws IOException {
+            return new GZIPInputStream(input, BUFFER_SIZE);
+        }
+    },
+
+    /**
+     * Deflate with the fastest compression level, for content written more often than stored for long.
+     */
+    DEFLATE("deflate") {
+
+        @Override
+        public OutputStream compress(OutputStream output) {
+            final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            return new DeflaterOutputStream(output, deflater, BUFFER_SIZE) {
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        // Not ended by the stream when given
+                        deflater.end();
+                    }
+                }
+            };
+        }
+
+        @Override
+        public InputStream decompress(InputStream input) {
+            final Inflater inflater = new Inflater();
+            return new InflaterInputStream(input, inflater, BUFFER_SIZE) {
+
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        inflater.end();
+                    }
+                }
+            };
+        }
+    };
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String name;
+
+    StandardCodec(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return The codec with the given name, null if none.
+     */
+    public static StandardCodec forName(String name) {
+        for (StandardCodec codec : values()) {
+            if (codec.name.equals(name)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+}
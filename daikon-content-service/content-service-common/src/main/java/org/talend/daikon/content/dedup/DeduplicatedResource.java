@@ -0,0 +1,289 @@
+package org.talend.daikon.content.dedup;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import org.springframework.core.io.Resource;
+import org.talend.daikon.content.DeletableResource;
+import org.talend.daikon.content.VersionedResource;
+
+/**
+ * A resource of a {@link DeduplicatingResourceResolver}: the hash of its content is recorded by the resolver (see
+ * {@link DeduplicatingResourceResolver#getPointer(DeletableResource)}), and the resource of the delegate resolver only
+ * holds a readable pointer (<code>dedup:sha256:&lt;hash&gt;</code>). Without a recorded hash, the resource of the
+ * delegate resolver holds the content itself (e.g. written before deduplication was enabled), even if it looks like a
+ * pointer. The hash of the content is its version, so a pointer is enough to validate a copy of the content.
+ */
+class DeduplicatedResource implements VersionedResource {
+
+    private static final String POINTER_PREFIX = "dedup:sha256:";
+
+    private static final int HASH_LENGTH = 64;
+
+    private final DeduplicatingResourceResolver resolver;
+
+    private final DeletableResource pointer;
+
+    DeduplicatedResource(DeduplicatingResourceResolver resolver, DeletableResource pointer) {
+        this.resolver = resolver;
+        this.pointer = pointer;
+    }
+
+    /**
+     * @return The recorded hash of the content, null if the resource does not exist, is a directory or holds its
+     * content.
+     */
+    private String readHash() throws IOException {
+        if (!pointer.exists()) {
+            return null;
+        }
+        final DeletableResource recorded = resolver.getPointer(pointer);
+        if (!recorded.exists()) {
+            return null;
+        }
+        final byte[] head = new byte[HASH_LENGTH + 1];
+        int length = 0;
+        try (InputStream input = recorded.getHeadInputStream(head.length)) {
+            int count;
+            while (length < head.length && (count = input.read(head, length, head.length - length)) >= 0) {
+                length += count;
+            }
+        }
+        final String hash = new String(head, 0, length, StandardCharsets.US_ASCII);
+        return DeduplicatingResourceResolver.isHash(hash) ? hash : null;
+    }
+
+    /**
+     * @return The resource holding the content: the blob of the hash, or the pointer resource itself.
+     */
+    private DeletableResource getContent() throws IOException {
+        final String hash = readHash();
+        return hash == null ? pointer : resolver.getBlob(hash);
+    }
+
+    /**
+     * Makes this resource point to a stored content, releasing its previous content.
+     */
+    private void point(String hash, Path spool) throws IOException {
+        final String previousHash = readHash();
+        resolver.retain(hash, pointer, spool);
+        try (OutputStream output = resolver.getPointer(pointer).getOutputStream()) {
+            output.write(hash.getBytes(StandardCharsets.US_ASCII));
+        }
+        try (OutputStream output = pointer.getOutputStream()) {
+            output.write((POINTER_PREFIX + hash).getBytes(StandardCharsets.US_ASCII));
+        }
+        if (previousHash != null && !previousHash.equals(hash)) {
+            resolver.release(previousHash, pointer);
+        }
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return getContent().getInputStream();
+    }
+
+    @Override
+    public InputStream getHeadInputStream(int length) throws IOException {
+        return getContent().getHeadInputStream(length);
+    }
+
+    @Override
+    public SeekableByteChannel readableChannel() throws IOException {
+        return getContent().readableChannel();
+    }
+
+    /**
+     * @return A stream spooling the content to a local file while computing its hash, the content is stored (if not
+     * already) when the stream is closed.
+     */
+    @Override
+    public OutputStream getOutputStream() throws IOException {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported.", e);
+        }
+        final Path spool = Files.createTempFile(resolver.getSpoolDirectory(), "dedup-", ".tmp");
+        final OutputStream spoolOutput = new BufferedOutputStream(Files.newOutputStream(spool));
+        return new DigestOutputStream(spoolOutput, digest) {
+
+            private boolean closed;
+
+            @Override
+            public void close() throws IOException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                try {
+                    super.close();
+                    point(DeduplicatingResourceResolver.toHex(digest.digest()), spool);
+                } finally {
+                    Files.deleteIfExists(spool);
+                }
+            }
+        };
+    }
+
+    /**
+     * Copies the content by pointing the target to it when the target is deduplicated by the same resolver, without
+     * reading the content.
+     */
+    @Override
+    public long transferTo(DeletableResource target) throws IOException {
+        final String hash = readHash();
+        if (hash != null && target instanceof DeduplicatedResource && ((DeduplicatedResource) target).resolver == resolver) {
+            ((DeduplicatedResource) target).point(hash, null);
+            return resolver.getBlob(hash).contentLength();
+        }
+        return VersionedResource.super.transferTo(target);
+    }
+
+    @Override
+    public void delete() throws IOException {
+        final String hash = readHash();
+        pointer.delete();
+        if (hash != null) {
+            resolver.getPointer(pointer).delete();
+            resolver.release(hash, pointer);
+        }
+    }
+
+    @Override
+    public void move(String location) throws IOException {
+        final String hash = readHash();
+        if (hash == null) {
+            pointer.move(location);
+            return;
+        }
+        ((DeduplicatedResource) resolver.getResource(location)).point(hash, null);
+        delete();
+    }
+
+    /**
+     * @return The URI of the resource holding the pointer.
+     */
+    @Override
+    public String getContentKey() {
+        try {
+            return "dedup:" + pointer.getURI();
+        } catch (IOException e) {
+            return "dedup:" + pointer.getDescription();
+        }
+    }
+
+    /**
+     * Reads the pointer only, unless the content changed.
+     */
+    @Override
+    public VersionedContent getContentIfModified(String version) throws IOException {
+        final String hash = readHash();
+        if (hash == null) {
+            if (!pointer.exists()) {
+                throw new FileNotFoundException(pointer.getDescription() + " does not exist.");
+            }
+            // Not deduplicated, always read
+            return new VersionedContent("raw:" + pointer.lastModified(), pointer.contentLength(), pointer.getInputStream());
+        }
+        if (hash.equals(version)) {
+            return null;
+        }
+        final DeletableResource blob = resolver.getBlob(hash);
+        return new VersionedContent(hash, blob.contentLength(), blob.getInputStream());
+    }
+
+    @Override
+    public boolean exists() {
+        return pointer.exists();
+    }
+
+    @Override
+    public boolean isReadable() {
+        return pointer.isReadable();
+    }
+
+    @Override
+    public boolean isWritable() {
+        return pointer.isWritable();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return pointer.isOpen();
+    }
+
+    @Override
+    public URL getURL() throws IOException {
+        return pointer.getURL();
+    }
+
+    @Override
+    public URI getURI() throws IOException {
+        return pointer.getURI();
+    }
+
+    /**
+     * @return The file holding the content of a resource written before deduplication was enabled.
+     * @throws FileNotFoundException If the content is deduplicated: its file is shared by all the resources with the
+     * same content, and must not be written through one of them.
+     */
+    @Override
+    public File getFile() throws IOException {
+        final String hash = readHash();
+        if (hash != null) {
+            throw new FileNotFoundException(pointer.getDescription() + " is deduplicated, its content has no own file.");
+        }
+        return pointer.getFile();
+    }
+
+    /**
+     * Maps the shared content read-only, see {@link #getFile()}.
+     */
+    @Override
+    public MappedByteBuffer mapReadOnly(long position, long size) throws IOException {
+        return getContent().mapReadOnly(position, size);
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        return getContent().contentLength();
+    }
+
+    @Override
+    public long lastModified() throws IOException {
+        return pointer.lastModified();
+    }
+
+    @Override
+    public Resource createRelative(String relativePath) throws IOException {
+        final Resource relative = pointer.createRelative(relativePath);
+        return relative instanceof DeletableResource ? new DeduplicatedResource(resolver, (DeletableResource) relative)
+                : relative;
+    }
+
+    @Override
+    public String getFilename() {
+        return pointer.getFilename();
+    }
+
+    @Override
+    public String getDescription() {
+        return pointer.getDescription();
+    }
+}
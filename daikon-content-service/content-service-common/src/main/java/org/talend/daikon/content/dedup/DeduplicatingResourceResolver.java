@@ -0,0 +1,188 @@
+package org.talend.daikon.content.dedup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.daikon.content.DeletableResource;
+import org.talend.daikon.content.ResourceResolver;
+
+/**
+ * A {@link ResourceResolver} storing each distinct content once, whatever the store of the delegate resolver.
+ * <p>
+ * Content written to a resource is spooled to a local file while its SHA-256 is computed, then stored once under
+ * <code>.dedup/blobs/</code> (not uploaded again if already stored). The hash of the content of a location is recorded
+ * under <code>.dedup/pointers/</code>, and each location referencing a content has a marker under
+ * <code>.dedup/refs/&lt;hash&gt;/</code>: the content is deleted with its last reference. Locations without a recorded
+ * hash (e.g. written before deduplication was enabled) are read as is, whatever their content.
+ * </p>
+ * <p>
+ * References of a content are updated under a lock of this resolver: several processes writing and deleting the same
+ * content at the same time may delete a content just referenced.
+ * </p>
+ */
+public class DeduplicatingResourceResolver implements ResourceResolver {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeduplicatingResourceResolver.class);
+
+    /** Directory of the blobs and references, not listed by {@link #getResources(String)}. */
+    static final String INTERNAL_DIRECTORY = ".dedup";
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final ResourceResolver delegate;
+
+    private final Path spoolDirectory;
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    /**
+     * @param delegate The resolver storing pointers, blobs and references.
+     * @param spoolDirectory The local directory of the contents being written.
+     */
+    public DeduplicatingResourceResolver(ResourceResolver delegate, Path spoolDirectory) throws IOException {
+        this.delegate = delegate;
+        this.spoolDirectory = Files.createDirectories(spoolDirectory);
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public ResourceResolver getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public DeletableResource[] getResources(String locationPattern) throws IOException {
+        try (Stream<DeletableResource> resources = stream(locationPattern)) {
+            return resources.toArray(DeletableResource[]::new);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public Stream<DeletableResource> stream(String locationPattern) throws IOException {
+        return delegate.stream(locationPattern) //
+                .filter(resource -> !isInternal(resource)) //
+                .map(resource -> new DeduplicatedResource(this, resource));
+    }
+
+    @Override
+    public DeletableResource getResource(String location) {
+        return new DeduplicatedResource(this, delegate.getResource(location));
+    }
+
+    @Override
+    public ClassLoader getClassLoader() {
+        return delegate.getClassLoader();
+    }
+
+    Path getSpoolDirectory() {
+        return spoolDirectory;
+    }
+
+    /**
+     * Adds a reference to a content, storing the content if not stored yet.
+     *
+     * @param hash The content hash.
+     * @param reference The referencing resource.
+     * @param spool The content, null if it is known to be stored (e.g. referenced by another resource).
+     */
+    void retain(String hash, DeletableResource reference, Path spool) throws IOException {
+        synchronized (lock(hash)) {
+            // Reference first, a content is never deleted while referenced
+            try (OutputStream marker = delegate.getResource(toReferenceLocation(hash, reference)).getOutputStream()) {
+                marker.flush();
+            }
+            final DeletableResource blob = getBlob(hash);
+            if (spool != null && !blob.exists()) {
+                try (OutputStream output = blob.getOutputStream()) {
+                    Files.copy(spool, output);
+                }
+                LOGGER.debug("Stored content {}", hash);
+            } else {
+                LOGGER.debug("Content {} already stored", hash);
+            }
+        }
+    }
+
+    /**
+     * Removes a reference to a content, the content is deleted with its last reference.
+     */
+    void release(String hash, DeletableResource reference) throws IOException {
+        synchronized (lock(hash)) {
+            delegate.getResource(toReferenceLocation(hash, reference)).delete();
+            if (delegate.getResources(INTERNAL_DIRECTORY + "/refs/" + hash + "/*").length == 0) {
+                getBlob(hash).delete();
+                LOGGER.debug("Deleted content {}", hash);
+            }
+        }
+    }
+
+    /**
+     * @return The resource recording the hash of the content of a location, a location is deduplicated only if this
+     * resource exists.
+     */
+    DeletableResource getPointer(DeletableResource reference) throws IOException {
+        return delegate.getResource(INTERNAL_DIRECTORY + "/pointers/" + encode(reference));
+    }
+
+    DeletableResource getBlob(String hash) {
+        return delegate.getResource(INTERNAL_DIRECTORY + "/blobs/" + hash.substring(0, 2) + '/' + hash);
+    }
+
+    private Object lock(String hash) {
+        return locks[Math.floorMod(hash.hashCode(), LOCK_STRIPES)];
+    }
+
+    /**
+     * @return The location of the marker of a reference, named after the URI of the referencing resource.
+     */
+    private static String toReferenceLocation(String hash, DeletableResource reference) throws IOException {
+        return INTERNAL_DIRECTORY + "/refs/" + hash + '/' + encode(reference);
+    }
+
+    /**
+     * @return The URI of a resource, encoded as a single name.
+     */
+    private static String encode(DeletableResource reference) throws IOException {
+        try {
+            return URLEncoder.encode(reference.getURI().toString(), "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException("UTF-8 is not supported.", e);
+        }
+    }
+
+    private static boolean isInternal(DeletableResource resource) {
+        try {
+            final String path = resource.getURI().getPath();
+            return path != null && path.contains('/' + INTERNAL_DIRECTORY + '/');
+        } catch (IOException e) {
+            LOGGER.debug("Unable to get URI of {}.", resource, e);
+            return false;
+        }
+    }
+
+    /**
+     * @return The digest in hexadecimal (lower case).
+     */
+    static String toHex(byte[] digest) {
+        final StringBuilder hex = new StringBuilder(digest.length * 2);
+        for (byte b : digest) {
+            hex.append(Character.forDigit(b >> 4 & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    static boolean isHash(String value) {
+        return value.length() == 64 && value.chars().allMatch(c -> (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'));
+    }
+}
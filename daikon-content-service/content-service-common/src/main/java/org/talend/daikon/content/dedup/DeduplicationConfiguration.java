@@ -0,0 +1,76 @@
+package org.talend.daikon.content.dedup;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanCreationException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.talend.daikon.content.ResourceResolver;
+import org.talend.daikon.content.cache.CachingResourceResolver;
+import org.talend.daikon.content.cache.ContentCacheConfiguration;
+
+/**
+ * Stacks a {@link DeduplicatingResourceResolver} over the configured {@link ResourceResolver} (e.g. S3 resolver) when
+ * <code>content-service.store.dedup.enabled</code> is <code>true</code>. The local cache, if enabled, caches the
+ * deduplicated resources.
+ */
+@Configuration
+@SuppressWarnings("InsufficientBranchCoverage")
+@ConditionalOnProperty(name = "content-service.store.dedup.enabled", havingValue = "true")
+public class DeduplicationConfiguration {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeduplicationConfiguration.class);
+
+    /**
+     * Order of the post processor: deduplication applies to the resolver of the store, before the cache.
+     */
+    public static final int ORDER = ContentCacheConfiguration.ORDER - 10;
+
+    @Bean
+    public static DeduplicatingResourceResolverPostProcessor deduplicatingResourceResolverPostProcessor(
+            Environment environment) {
+        return new DeduplicatingResourceResolverPostProcessor(environment);
+    }
+
+    static class DeduplicatingResourceResolverPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final Environment environment;
+
+        private DeduplicatingResourceResolverPostProcessor(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public int getOrder() {
+            return ORDER;
+        }
+
+        @Override
+        public Object postProcessBeforeInitialization(Object bean, String beanName) {
+            return bean;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof ResourceResolver && !(bean instanceof DeduplicatingResourceResolver)
+                    && !(bean instanceof CachingResourceResolver)) {
+                final String path = environment.getProperty("content-service.store.dedup.spool-path",
+                        Paths.get(System.getProperty("java.io.tmpdir"), "content-service-dedup").toString());
+                try {
+                    LOGGER.info("Content of '{}' deduplicated (spooled to '{}')", beanName, path);
+                    return new DeduplicatingResourceResolver((ResourceResolver) bean, Paths.get(path));
+                } catch (IOException e) {
+                    throw new BeanCreationException(beanName, "Unable to create spool directory '" + path + "'.", e);
+                }
+            }
+            return bean;
+        }
+    }
+}
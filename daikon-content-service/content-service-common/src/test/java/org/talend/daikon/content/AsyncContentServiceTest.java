@@ -0,0 +1,110 @@
+package org.talend.daikon.content;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.talend.daikon.content.async.AsyncContentService;
+
+public abstract class AsyncContentServiceTest extends DeletableLoaderResourceTests {
+
+    private static final String LOCATION = "async/file.txt";
+
+    @Autowired
+    protected AsyncContentService asyncContentService;
+
+    @After
+    public void tearDown() throws Exception {
+        resolver.getResource(LOCATION).delete();
+    }
+
+    @Test
+    public void shouldWriteAndReadContent() throws Exception {
+        // given
+        final byte[] content = new byte[200 * 1024 + 10];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        final int chunkSize = content.length / 3;
+        final Iterator<ByteBuffer> chunks = IntStream.range(0, 3) //
+                .mapToObj(i -> ByteBuffer.wrap(content, i * chunkSize, i < 2 ? chunkSize : content.length - 2 * chunkSize)) //
+                .iterator();
+
+        // when
+        final long written = asyncContentService
+                .write(LOCATION, () -> CompletableFuture.completedFuture(chunks.hasNext() ? chunks.next() : null))
+                .get(10, TimeUnit.SECONDS);
+        final ByteArrayOutputStream read = new ByteArrayOutputStream();
+        final long readCount = asyncContentService.read(LOCATION, chunk -> {
+            final byte[] bytes = new byte[chunk.remaining()];
+            chunk.get(bytes);
+            read.write(bytes, 0, bytes.length);
+            return CompletableFuture.completedFuture(null);
+        }).get(10, TimeUnit.SECONDS);
+
+        // then
+        assertEquals(content.length, written);
+        assertEquals(content.length, readCount);
+        assertArrayEquals(content, read.toByteArray());
+        assertArrayEquals(content, IOUtils.toByteArray(resolver.getResource(LOCATION).getInputStream()));
+    }
+
+    @Test
+    public void shouldDeleteContent() throws Exception {
+        // given
+        asyncContentService.write(LOCATION, new SingleChunk("test")).get(10, TimeUnit.SECONDS);
+
+        // when
+        asyncContentService.delete(LOCATION).get(10, TimeUnit.SECONDS);
+
+        // then
+        assertFalse(resolver.getResource(LOCATION).exists());
+    }
+
+    @Test
+    public void shouldFailWhenConsumerFails() throws Exception {
+        // given
+        asyncContentService.write(LOCATION, new SingleChunk("test")).get(10, TimeUnit.SECONDS);
+
+        // when
+        final CompletableFuture<Long> read = asyncContentService.read(LOCATION, chunk -> {
+            final CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new IllegalStateException("consumer failure"));
+            return failed;
+        });
+
+        // then
+        try {
+            read.get(10, TimeUnit.SECONDS);
+            fail("Expected consumer failure");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    private static class SingleChunk implements AsyncContentService.ContentProducer {
+
+        private ByteBuffer chunk;
+
+        private SingleChunk(String content) {
+            chunk = ByteBuffer.wrap(content.getBytes());
+        }
+
+        @Override
+        public CompletableFuture<ByteBuffer> next() {
+            final ByteBuffer next = chunk;
+            chunk = null;
+            return CompletableFuture.completedFuture(next);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.talend.daikon.content;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.talend.daikon.content.compression.CompressingResourceResolver;
+
+public abstract class CompressingResourceResolverTest extends DeletableLoaderResourceTests {
+
+    private ResourceResolver store;
+
+    @Before
+    public void setUp() throws Exception {
+        store = ((CompressingResourceResolver) resolver).getDelegate();
+        store.clear("/**");
+    }
+
+    @Test
+    public void shouldCompressContent() throws Exception {
+        // given
+        final String content = repeat("id,name,value\n1,compressible,text\n", 10000);
+
+        // when
+        write("compression/file.csv", content);
+
+        // then
+        assertEquals(content, read("compression/file.csv"));
+        assertEquals(store.getResource("compression/file.csv").contentLength(),
+                resolver.getResource("compression/file.csv").contentLength());
+        assertTrue(store.getResource("compression/file.csv").contentLength() < content.length() / 10);
+    }
+
+    @Test
+    public void shouldUseCodecOfExtension() throws Exception {
+        // when
+        write("compression/file.log", "log content");
+
+        // then
+        assertTrue(IOUtils.toString(store.getResource("compression/file.log").getInputStream()).contains("deflate"));
+        assertEquals("log content", read("compression/file.log"));
+    }
+
+    @Test
+    public void shouldStoreCompressedFormatAsIs() throws Exception {
+        // when
+        write("compression/file.zip", "zip content");
+
+        // then
+        assertEquals("zip content", IOUtils.toString(store.getResource("compression/file.zip").getInputStream()));
+        assertEquals("zip content", read("compression/file.zip"));
+    }
+
+    @Test
+    public void shouldReadContentWrittenWithoutCompression() throws Exception {
+        // given
+        try (OutputStream output = store.getResource("compression/legacy.csv").getOutputStream()) {
+            output.write("legacy content".getBytes());
+        }
+
+        // then
+        assertEquals("legacy content", read("compression/legacy.csv"));
+        assertEquals("legacy content".length(), resolver.getResource("compression/legacy.csv").contentLength());
+    }
+
+    @Test
+    public void shouldTransferCompressedContent() throws Exception {
+        // given
+        final String content = repeat("compressible text ", 1000);
+        write("compression/source.txt", content);
+        final DeletableResource target = resolver.getResource("compression/target.txt");
+
+        // when
+        resolver.getResource("compression/source.txt").transferTo(target);
+
+        // then
+        assertEquals(content, read("compression/target.txt"));
+        assertEquals(store.getResource("compression/source.txt").contentLength(),
+                store.getResource("compression/target.txt").contentLength());
+    }
+
+    @Test
+    public void shouldMoveCompressedContent() throws Exception {
+        // given
+        write("compression/file.txt", "content");
+
+        // when
+        resolver.getResource("compression/file.txt").move("compression/moved.txt");
+
+        // then
+        assertFalse(resolver.getResource("compression/file.txt").exists());
+        assertEquals("content", read("compression/moved.txt"));
+    }
+
+    private void write(String location, String content) throws IOException {
+        try (OutputStream output = resolver.getResource(location).getOutputStream()) {
+            output.write(content.getBytes());
+        }
+    }
+
+    private String read(String location) throws IOException {
+        try (InputStream input = resolver.getResource(location).getInputStream()) {
+            return IOUtils.toString(input);
+        }
+    }
+
+    private static String repeat(String value, int count) {
+        final StringBuilder builder = new StringBuilder(value.length() * count);
+        for (int i = 0; i < count; i++) {
+            builder.append(value);
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,157 @@
+package org.talend.daikon.content;
+
+import static org.junit.Assert.*;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Test;
+import org.talend.daikon.content.dedup.DeduplicatingResourceResolver;
+
+public abstract class DeduplicatingResourceResolverTest extends DeletableLoaderResourceTests {
+
+    private ResourceResolver store;
+
+    @Before
+    public void setUp() throws Exception {
+        store = ((DeduplicatingResourceResolver) resolver).getDelegate();
+        store.clear("/**");
+    }
+
+    @Test
+    public void shouldStoreSameContentOnce() throws Exception {
+        // when
+        write("dedup/file1.txt", "same content");
+        write("dedup/file2.txt", "same content");
+        write("dedup/file3.txt", "other content");
+
+        // then
+        assertEquals(2, countBlobs());
+        assertEquals("same content", read("dedup/file1.txt"));
+        assertEquals("same content", read("dedup/file2.txt"));
+        assertEquals("other content", read("dedup/file3.txt"));
+        assertEquals("same content".length(), resolver.getResource("dedup/file2.txt").contentLength());
+    }
+
+    @Test
+    public void shouldDeleteContentWithLastReference() throws Exception {
+        // given
+        write("dedup/file1.txt", "same content");
+        write("dedup/file2.txt", "same content");
+
+        // when
+        resolver.getResource("dedup/file1.txt").delete();
+
+        // then
+        assertEquals(1, countBlobs());
+        assertEquals("same content", read("dedup/file2.txt"));
+
+        // when
+        resolver.getResource("dedup/file2.txt").delete();
+
+        // then
+        assertEquals(0, countBlobs());
+    }
+
+    @Test
+    public void shouldReleaseOverwrittenContent() throws Exception {
+        // given
+        write("dedup/file1.txt", "content");
+
+        // when
+        write("dedup/file1.txt", "new content");
+
+        // then
+        assertEquals(1, countBlobs());
+        assertEquals("new content", read("dedup/file1.txt"));
+    }
+
+    @Test
+    public void shouldMoveReference() throws Exception {
+        // given
+        write("dedup/file1.txt", "content");
+
+        // when
+        resolver.getResource("dedup/file1.txt").move("dedup/moved.txt");
+
+        // then
+        assertFalse(resolver.getResource("dedup/file1.txt").exists());
+        assertEquals("content", read("dedup/moved.txt"));
+        assertEquals(1, countBlobs());
+    }
+
+    @Test
+    public void shouldNotListInternalResources() throws Exception {
+        // given
+        write("dedup/file1.txt", "content");
+
+        // when
+        final DeletableResource[] resources = resolver.getResources("/**");
+
+        // then
+        assertTrue(Arrays.stream(resources).noneMatch(r -> r.getDescription().contains(".dedup")));
+        assertTrue(Arrays.stream(resources).anyMatch(r -> "file1.txt".equals(r.getFilename())));
+    }
+
+    @Test
+    public void shouldReadContentWrittenWithoutDeduplication() throws Exception {
+        // given
+        try (OutputStream output = store.getResource("dedup/legacy.txt").getOutputStream()) {
+            output.write("legacy content".getBytes());
+        }
+
+        // then
+        assertEquals("legacy content", read("dedup/legacy.txt"));
+        resolver.getResource("dedup/legacy.txt").delete();
+        assertFalse(store.getResource("dedup/legacy.txt").exists());
+    }
+
+    @Test
+    public void shouldReadContentLookingLikePointer() throws Exception {
+        // given
+        write("dedup/file1.txt", "content");
+        final String pointer = IOUtils.toString(store.getResource("dedup/file1.txt").getInputStream());
+        try (OutputStream output = store.getResource("dedup/legacy.txt").getOutputStream()) {
+            output.write(pointer.getBytes());
+        }
+
+        // when
+        write("dedup/file2.txt", pointer);
+
+        // then
+        assertEquals(pointer, read("dedup/legacy.txt"));
+        assertEquals(pointer, read("dedup/file2.txt"));
+        assertEquals("content", read("dedup/file1.txt"));
+    }
+
+    @Test(expected = FileNotFoundException.class)
+    public void shouldNotExposeSharedContentFile() throws Exception {
+        // given
+        write("dedup/file1.txt", "same content");
+        write("dedup/file2.txt", "same content");
+
+        // then
+        resolver.getResource("dedup/file1.txt").getFile();
+    }
+
+    private void write(String location, String content) throws IOException {
+        try (OutputStream output = resolver.getResource(location).getOutputStream()) {
+            output.write(content.getBytes());
+        }
+    }
+
+    private String read(String location) throws IOException {
+        return IOUtils.toString(resolver.getResource(location).getInputStream());
+    }
+
+    private long countBlobs() throws IOException {
+        return Arrays.stream(store.getResources(".dedup/blobs/**")) //
+                .filter(DeletableResource::isReadable) //
+                .filter(r -> r.getFilename() != null && r.getFilename().length() == 64) //
+                .count();
+    }
+}
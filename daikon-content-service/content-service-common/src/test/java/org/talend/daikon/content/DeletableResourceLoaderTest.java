@@ -6,6 +6,10 @@ import static org.junit.Assert.assertTrue;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import org.apache.commons.io.IOUtils;
 import org.junit.Test;
@@ -82,6 +86,44 @@ public abstract class DeletableResourceLoaderTest extends DeletableLoaderResourc
         assertFalse(resolver.getResource("file2.txt").exists());
     }
 
+    @Test
+    public void shouldDeleteLocations() throws Exception {
+        // Given
+        createFile("file1.txt");
+        createFile("file2.txt");
+        createFile("file3.txt");
+
+        // When
+        resolver.delete(Arrays.asList("file1.txt", "/file2.txt", "missing.txt"));
+
+        // Then
+        assertFalse(resolver.getResource("file1.txt").exists());
+        assertFalse(resolver.getResource("file2.txt").exists());
+        assertTrue(resolver.getResource("file3.txt").exists());
+    }
+
+    @Test
+    public void shouldMoveDirectory() throws Exception {
+        // Given
+        createFile("source/file1.txt");
+        createFile("source/sub/file2.txt");
+        final List<String> movedTargets = Collections.synchronizedList(new ArrayList<>());
+
+        // When
+        resolver.moveDirectory("source", "target", (source, target, moved, total) -> {
+            assertEquals(2, total);
+            movedTargets.add(target);
+        });
+
+        // Then
+        assertFalse(resolver.getResource("source/file1.txt").exists());
+        assertFalse(resolver.getResource("source/sub/file2.txt").exists());
+        assertEquals("content", IOUtils.toString(resolver.getResource("target/file1.txt").getInputStream()));
+        assertEquals("content", IOUtils.toString(resolver.getResource("target/sub/file2.txt").getInputStream()));
+        Collections.sort(movedTargets);
+        assertEquals(Arrays.asList("target/file1.txt", "target/sub/file2.txt"), movedTargets);
+    }
+
     private void createFile(String fileName) throws IOException {
         final DeletableResource file = resolver.getResource(fileName);
         try (OutputStream outputStream = file.getOutputStream()) {
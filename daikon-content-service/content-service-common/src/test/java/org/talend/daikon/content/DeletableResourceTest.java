@@ -4,6 +4,8 @@ import static org.junit.Assert.*;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 
 import org.apache.commons.io.IOUtils;
 import org.junit.After;
@@ -55,6 +57,35 @@ public abstract class DeletableResourceTest extends DeletableLoaderResourceTests
         assertEquals("test", IOUtils.toString(resolver.getResource("newLocation.txt").getInputStream()));
     }
 
+    @Test
+    public void shouldTransferToResource() throws Exception {
+        // given
+        final DeletableResource target = resolver.getResource("transferred.txt");
+
+        try {
+            // when
+            final long transferred = resource.transferTo(target);
+
+            // then
+            assertEquals(4, transferred);
+            assertEquals("test", IOUtils.toString(resolver.getResource("transferred.txt").getInputStream()));
+            assertEquals("test", IOUtils.toString(resource.getInputStream()));
+        } finally {
+            target.delete();
+        }
+    }
+
+    @Test
+    public void shouldWriteWithChannel() throws Exception {
+        // when
+        try (WritableByteChannel channel = resource.writableChannel()) {
+            channel.write(ByteBuffer.wrap("written".getBytes()));
+        }
+
+        // then
+        assertEquals("written", IOUtils.toString(resolver.getResource(LOCATION).getInputStream()));
+    }
+
     @Test
     public void shouldExist() throws Exception {
         assertTrue(resource.exists());
@@ -0,0 +1,129 @@
+package org.talend.daikon.content.async;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Test;
+
+public class TenantConcurrencyLimiterTest {
+
+    private final TenantConcurrencyLimiter limiter = new TenantConcurrencyLimiter(2);
+
+    @Test
+    public void shouldQueueOperationsOverLimit() throws Exception {
+        // given
+        final List<CompletableFuture<Integer>> operations = new ArrayList<>();
+        final List<CompletableFuture<Integer>> results = new ArrayList<>();
+
+        // when
+        for (int i = 0; i < 4; i++) {
+            final CompletableFuture<Integer> operation = new CompletableFuture<>();
+            operations.add(operation);
+            results.add(limiter.submit("tenant", () -> operation));
+        }
+
+        // then
+        assertEquals(2, limiter.getRunning("tenant"));
+        operations.get(0).complete(0);
+        assertEquals(Integer.valueOf(0), results.get(0).get());
+        assertEquals(2, limiter.getRunning("tenant"));
+        operations.get(1).complete(1);
+        operations.get(2).complete(2);
+        operations.get(3).complete(3);
+        assertEquals(Integer.valueOf(3), results.get(3).get());
+        assertEquals(0, limiter.getRunning("tenant"));
+    }
+
+    @Test
+    public void shouldNotStartQueuedOperationBeforeRelease() {
+        // given
+        final CompletableFuture<Void> first = new CompletableFuture<>();
+        final CompletableFuture<Void> second = new CompletableFuture<>();
+        final boolean[] started = new boolean[1];
+        limiter.submit("tenant", () -> first);
+        limiter.submit("tenant", () -> second);
+
+        // when
+        limiter.submit("tenant", () -> {
+            started[0] = true;
+            return CompletableFuture.completedFuture(null);
+        });
+
+        // then
+        assertFalse(started[0]);
+        first.complete(null);
+        assertTrue(started[0]);
+    }
+
+    @Test
+    public void shouldLimitTenantsSeparately() {
+        // when
+        limiter.submit("tenant1", CompletableFuture::new);
+        limiter.submit("tenant1", CompletableFuture::new);
+        limiter.submit("tenant1", CompletableFuture::new);
+        limiter.submit("tenant2", CompletableFuture::new);
+
+        // then
+        assertEquals(2, limiter.getRunning("tenant1"));
+        assertEquals(1, limiter.getRunning("tenant2"));
+    }
+
+    @Test
+    public void shouldReleaseFailedOperation() throws Exception {
+        // when
+        final CompletableFuture<Object> result = limiter.submit("tenant", () -> {
+            throw new IllegalStateException("failure");
+        });
+
+        // then
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(0, limiter.getRunning("tenant"));
+    }
+
+    @Test
+    public void shouldStartSynchronousOperationsWithoutNesting() throws Exception {
+        // given
+        final CompletableFuture<Void> first = new CompletableFuture<>();
+        limiter.submit("tenant", () -> first);
+        limiter.submit("tenant", () -> first);
+        final int depth = Thread.currentThread().getStackTrace().length;
+        final int[] maxDepth = new int[1];
+        final List<CompletableFuture<Object>> results = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            results.add(limiter.submit("tenant", () -> {
+                maxDepth[0] = Math.max(maxDepth[0], Thread.currentThread().getStackTrace().length);
+                throw new IllegalStateException("failure");
+            }));
+        }
+
+        // when
+        first.complete(null);
+
+        // then
+        for (CompletableFuture<Object> result : results) {
+            assertTrue(result.isCompletedExceptionally());
+        }
+        assertTrue(maxDepth[0] - depth < 100);
+        assertEquals(0, limiter.getRunning("tenant"));
+    }
+
+    @Test
+    public void shouldForgetIdleTenants() {
+        // given
+        final CompletableFuture<Void> operation = new CompletableFuture<>();
+        limiter.submit("tenant1", () -> operation);
+        limiter.submit("tenant2", () -> CompletableFuture.completedFuture(null));
+        assertEquals(1, limiter.getTenantCount());
+
+        // when
+        operation.complete(null);
+
+        // then
+        assertEquals(0, limiter.getTenantCount());
+        limiter.submit("tenant1", CompletableFuture::new);
+        assertEquals(1, limiter.getRunning("tenant1"));
+    }
+}
@@ -0,0 +1,202 @@
+package org.talend.daikon.content.cache;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.isNull;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.talend.daikon.content.DeletableResource;
+import org.talend.daikon.content.ResourceResolver;
+import org.talend.daikon.content.VersionedResource;
+import org.talend.daikon.content.VersionedResource.VersionedContent;
+
+public class CachingResourceResolverTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ResourceResolver delegate = mock(ResourceResolver.class);
+
+    private final VersionedResource resource = mock(VersionedResource.class);
+
+    private ContentCache cache;
+
+    private CachingResourceResolver resolver;
+
+    @Before
+    public void setUp() throws Exception {
+        cache = new ContentCache(folder.getRoot().toPath(), 100, 50);
+        resolver = new CachingResourceResolver(delegate, cache);
+        when(delegate.getResource("dir/file")).thenReturn(resource);
+        when(resource.getContentKey()).thenReturn("store://dir/file");
+    }
+
+    @Test
+    public void shouldReadCopyWhenNotModified() throws Exception {
+        // Given
+        when(resource.getContentIfModified((String) isNull())).thenReturn(content("v1", "content"));
+        when(resource.getContentIfModified("v1")).thenReturn(null);
+
+        // When
+        final String first = read(resolver.getResource("dir/file"));
+        final String second = read(resolver.getResource("dir/file"));
+
+        // Then
+        assertEquals("content", first);
+        assertEquals("content", second);
+        verify(resource).getContentIfModified((String) isNull());
+        verify(resource).getContentIfModified("v1");
+        assertEquals(7, cache.size());
+    }
+
+    @Test
+    public void shouldReplaceCopyWhenModified() throws Exception {
+        // Given
+        when(resource.getContentIfModified((String) isNull())).thenReturn(content("v1", "content"));
+        when(resource.getContentIfModified("v1")).thenReturn(content("v2", "new content"));
+
+        // When
+        read(resolver.getResource("dir/file"));
+        final String modified = read(resolver.getResource("dir/file"));
+
+        // Then
+        assertEquals("new content", modified);
+        assertEquals("v2", cache.getVersion("store://dir/file"));
+        assertEquals(11, cache.size());
+    }
+
+    @Test
+    public void shouldReadLargeContentFromResource() throws Exception {
+        // Given
+        final String large = String.join("", Collections.nCopies(60, "x"));
+        when(resource.getContentIfModified((String) isNull())).thenReturn(content("v1", large));
+
+        // When
+        final String read = read(resolver.getResource("dir/file"));
+
+        // Then
+        assertEquals(large, read);
+        assertNull(cache.getVersion("store://dir/file"));
+        assertEquals(0, cache.size());
+        // Content is read from the first response, not requested again
+        verify(resource).getContentIfModified((String) isNull());
+        verify(resource, never()).getInputStream();
+    }
+
+    @Test
+    public void shouldNotFetchLargeContentForChannel() throws Exception {
+        // Given
+        when(resource.contentLength()).thenReturn(60L);
+        final SeekableByteChannel channel = mock(SeekableByteChannel.class);
+        when(resource.readableChannel()).thenReturn(channel);
+
+        // When
+        final SeekableByteChannel read = resolver.getResource("dir/file").readableChannel();
+
+        // Then
+        assertSame(channel, read);
+        verify(resource, never()).getContentIfModified(anyString());
+        verify(resource, never()).getContentIfModified((String) isNull());
+    }
+
+    @Test
+    public void shouldInvalidateDeletedResource() throws Exception {
+        // Given
+        when(resource.getContentIfModified(anyString())).thenReturn(content("v1", "content"));
+        read(resolver.getResource("dir/file"));
+
+        // When
+        resolver.getResource("dir/file").delete();
+
+        // Then
+        verify(resource).delete();
+        assertNull(cache.getVersion("store://dir/file"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void shouldInvalidateMissingResource() throws Exception {
+        // Given
+        cache.put("store://dir/file", "v1", new ByteArrayInputStream(new byte[10])).close();
+        when(resource.getContentIfModified("v1")).thenThrow(new FileNotFoundException());
+
+        // When
+        try {
+            read(resolver.getResource("dir/file"));
+            fail("Expected missing resource");
+        } catch (FileNotFoundException e) {
+            // Then
+            assertNull(cache.getVersion("store://dir/file"));
+        }
+    }
+
+    @Test
+    public void shouldInvalidateClearedDirectory() throws Exception {
+        // Given
+        final VersionedResource directory = mock(VersionedResource.class);
+        when(directory.getContentKey()).thenReturn("store://dir/");
+        when(delegate.getResource("dir/")).thenReturn(directory);
+        cache.put("store://dir/file", "v1", new ByteArrayInputStream(new byte[10])).close();
+        cache.put("store://other/file", "v1", new ByteArrayInputStream(new byte[10])).close();
+
+        // When
+        resolver.clear("dir/**");
+
+        // Then
+        verify(delegate).clear("dir/**");
+        assertNull(cache.getVersion("store://dir/file"));
+        assertEquals("v1", cache.getVersion("store://other/file"));
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedCopies() throws Exception {
+        // Given
+        cache.put("a", "v1", new ByteArrayInputStream(new byte[40])).close();
+        cache.put("b", "v1", new ByteArrayInputStream(new byte[40])).close();
+        cache.getVersion("a");
+
+        // When
+        cache.put("c", "v1", new ByteArrayInputStream(new byte[40])).close();
+
+        // Then
+        assertEquals("v1", cache.getVersion("a"));
+        assertNull(cache.getVersion("b"));
+        assertEquals("v1", cache.getVersion("c"));
+        assertEquals(80, cache.size());
+        assertEquals(2, folder.getRoot().list().length);
+    }
+
+    @Test
+    public void shouldNotCacheUnversionedResources() throws Exception {
+        // Given
+        final DeletableResource unversioned = mock(DeletableResource.class);
+        when(delegate.getResource("local")).thenReturn(unversioned);
+
+        // Then
+        assertSame(unversioned, resolver.getResource("local"));
+    }
+
+    private static VersionedContent content(String version, String content) {
+        final byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        return new VersionedContent(version, bytes.length, new ByteArrayInputStream(bytes));
+    }
+
+    private static String read(DeletableResource resource) throws IOException {
+        try (InputStream input = resource.getInputStream()) {
+            return IOUtils.toString(input, "UTF-8");
+        }
+    }
+}
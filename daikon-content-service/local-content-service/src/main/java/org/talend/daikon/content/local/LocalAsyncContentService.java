@@ -0,0 +1,184 @@
+package org.talend.daikon.content.local;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.talend.daikon.content.DeletableResource;
+import org.talend.daikon.content.ResourceResolver;
+import org.talend.daikon.content.async.ExecutorAsyncContentService;
+import org.talend.daikon.content.async.TenantConcurrencyLimiter;
+
+/**
+ * {@link org.talend.daikon.content.async.AsyncContentService} reading and writing files with
+ * {@link AsynchronousFileChannel}s, whose completion handlers run on the service executor. Resources of decorated
+ * resolvers (e.g. compressed or deduplicated content) are transferred with their streams.
+ */
+class LocalAsyncContentService extends ExecutorAsyncContentService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalAsyncContentService.class);
+
+    LocalAsyncContentService(ResourceResolver resolver, ExecutorService executor, TenantConcurrencyLimiter limiter,
+            Supplier<String> tenant) {
+        super(resolver, executor, limiter, tenant);
+    }
+
+    @Override
+    protected CompletableFuture<Long> read(DeletableResource resource, ContentConsumer consumer) {
+        if (!(resource instanceof LocalDeletableResource)) {
+            return super.read(resource, consumer);
+        }
+        final CompletableFuture<Long> result = new CompletableFuture<>();
+        try {
+            final AsynchronousFileChannel channel = AsynchronousFileChannel.open(resource.getFile().toPath(),
+                    EnumSet.of(StandardOpenOption.READ), getExecutor());
+            new ReadTransfer(channel, consumer, result).next();
+        } catch (IOException | RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    @Override
+    protected CompletableFuture<Long> write(DeletableResource resource, ContentProducer producer) {
+        if (!(resource instanceof LocalDeletableResource)) {
+            return super.write(resource, producer);
+        }
+        final CompletableFuture<Long> result = new CompletableFuture<>();
+        try {
+            final Path path = ((LocalDeletableResource) resource).prepareWrite();
+            final AsynchronousFileChannel channel = AsynchronousFileChannel.open(path,
+                    EnumSet.of(StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING),
+                    getExecutor());
+            new WriteTransfer(channel, producer, result).next();
+        } catch (IOException | RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    private static void close(AsynchronousFileChannel channel) {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.debug("Unable to close channel.", e);
+        }
+    }
+
+    /**
+     * Reads a chunk at the current position, then the next one once the consumer accepted it.
+     */
+    private static class ReadTransfer implements CompletionHandler<Integer, Void> {
+
+        private final AsynchronousFileChannel channel;
+
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_SIZE);
+
+        private final ContentConsumer consumer;
+
+        private final CompletableFuture<Long> result;
+
+        private long position;
+
+        private ReadTransfer(AsynchronousFileChannel channel, ContentConsumer consumer, CompletableFuture<Long> result) {
+            this.channel = channel;
+            this.consumer = consumer;
+            this.result = result;
+        }
+
+        private void next() {
+            buffer.clear();
+            channel.read(buffer, position, null, this);
+        }
+
+        @Override
+        public void completed(Integer count, Void attachment) {
+            if (count < 0) {
+                close(channel);
+                result.complete(position);
+                return;
+            }
+            position += count;
+            buffer.flip();
+            try {
+                consumer.accept(buffer).whenComplete((accepted, error) -> {
+                    if (error == null) {
+                        next();
+                    } else {
+                        failed(error, null);
+                    }
+                });
+            } catch (RuntimeException e) {
+                failed(e, null);
+            }
+        }
+
+        @Override
+        public void failed(Throwable error, Void attachment) {
+            close(channel);
+            result.completeExceptionally(error);
+        }
+    }
+
+    /**
+     * Writes a chunk once the producer produced it, then asks for the next one.
+     */
+    private static class WriteTransfer implements CompletionHandler<Integer, ByteBuffer> {
+
+        private final AsynchronousFileChannel channel;
+
+        private final ContentProducer producer;
+
+        private final CompletableFuture<Long> result;
+
+        private long position;
+
+        private WriteTransfer(AsynchronousFileChannel channel, ContentProducer producer, CompletableFuture<Long> result) {
+            this.channel = channel;
+            this.producer = producer;
+            this.result = result;
+        }
+
+        private void next() {
+            try {
+                producer.next().whenComplete((chunk, error) -> {
+                    if (error != null) {
+                        failed(error, null);
+                    } else if (chunk == null) {
+                        close(channel);
+                        result.complete(position);
+                    } else {
+                        channel.write(chunk, position, chunk, this);
+                    }
+                });
+            } catch (RuntimeException e) {
+                failed(e, null);
+            }
+        }
+
+        @Override
+        public void completed(Integer count, ByteBuffer chunk) {
+            position += count;
+            if (chunk.hasRemaining()) {
+                channel.write(chunk, position, chunk, this);
+            } else {
+                next();
+            }
+        }
+
+        @Override
+        public void failed(Throwable error, ByteBuffer chunk) {
+            close(channel);
+            result.completeExceptionally(error);
+        }
+    }
+}
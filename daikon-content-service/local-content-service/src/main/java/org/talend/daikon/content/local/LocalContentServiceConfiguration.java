@@ -15,6 +15,9 @@ import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.talend.daikon.content.ContentServiceEnabled;
 import org.talend.daikon.content.ContextualPatternResolver;
 import org.talend.daikon.content.ResourceResolver;
+import org.talend.daikon.content.async.AbstractAsyncContentService;
+import org.talend.daikon.content.async.AsyncContentService;
+import org.talend.daikon.content.async.TenantConcurrencyLimiter;
 
 @Configuration
 @SuppressWarnings("InsufficientBranchCoverage")
@@ -46,6 +49,17 @@ public class LocalContentServiceConfiguration implements ContentServiceEnabled {
         return new LocalResourceResolver(new ContextualPatternResolver(delegate, localPath));
     }
 
+    /**
+     * Asynchronous access to the files, all transfers belong to the same tenant.
+     */
+    @Bean(destroyMethod = "close")
+    public AsyncContentService localAsyncContentService(ResourceResolver resourceResolver, Environment environment) {
+        final int threads = environment.getProperty("content-service.async.threads", Integer.class, 8);
+        final int concurrency = environment.getProperty("content-service.async.tenant-concurrency", Integer.class, 64);
+        return new LocalAsyncContentService(resourceResolver, AbstractAsyncContentService.newExecutor(threads),
+                new TenantConcurrencyLimiter(concurrency), () -> StringUtils.EMPTY);
+    }
+
     /**
      * FileSystemResource that explicitly expresses an absolute path through implementing the ContextResource interface.
      */
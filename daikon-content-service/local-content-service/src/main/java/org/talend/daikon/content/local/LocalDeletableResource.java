@@ -9,10 +9,16 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URL;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileSystemException;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 import org.apache.commons.io.FileUtils;
 import org.slf4j.Logger;
@@ -26,6 +32,11 @@ class LocalDeletableResource implements DeletableResource {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(LocalDeletableResource.class);
 
+    /**
+     * Hard links are only created when the link count of files is available, to not write linked content in place.
+     */
+    private static final boolean HARD_LINKS = FileSystems.getDefault().supportedFileAttributeViews().contains("unix");
+
     private final WritableResource resource;
 
     private final ResourceResolver resolver;
@@ -44,6 +55,7 @@ class LocalDeletableResource implements DeletableResource {
 
     @Override
     public OutputStream getOutputStream() throws IOException {
+        unlink();
         if (!exists()) {
             FileUtils.touch(getFile());
         }
@@ -124,6 +136,7 @@ class LocalDeletableResource implements DeletableResource {
     public void move(String location) throws IOException {
         final Path source = Paths.get(getURI());
         final Path target = Paths.get(resolver.getResource(location).getURI());
+        Files.createDirectories(target.getParent());
         try {
             Files.move(source, target, REPLACE_EXISTING, ATOMIC_MOVE);
         } catch (AtomicMoveNotSupportedException e) {
@@ -131,4 +144,80 @@ class LocalDeletableResource implements DeletableResource {
             Files.move(source, target, REPLACE_EXISTING);
         }
     }
+
+    @Override
+    public WritableByteChannel writableChannel() throws IOException {
+        return FileChannel.open(prepareWrite(), StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    /**
+     * Prepares the file to be written by a channel: creates its directory and unlinks it (see {@link #unlink()}).
+     *
+     * @return The path of the file.
+     */
+    Path prepareWrite() throws IOException {
+        unlink();
+        final Path path = getFile().toPath();
+        Files.createDirectories(path.getParent());
+        isDeleted = false;
+        return path;
+    }
+
+    /**
+     * Copies the content without copying it to the heap: the target is a hard link to this file when possible (the
+     * link is replaced by a new file before a write to either resource), otherwise the content is transferred with
+     * {@link FileChannel#transferTo(long, long, WritableByteChannel)} (sendfile on Linux).
+     */
+    @Override
+    public long transferTo(DeletableResource target) throws IOException {
+        final Path source = getFile().toPath();
+        if (target instanceof LocalDeletableResource && HARD_LINKS) {
+            final Path targetPath = target.getFile().toPath();
+            if (Files.isSameFile(source, targetPath)) {
+                return Files.size(source);
+            }
+            Files.createDirectories(targetPath.getParent());
+            Files.deleteIfExists(targetPath);
+            try {
+                Files.createLink(targetPath, source);
+                ((LocalDeletableResource) target).isDeleted = false;
+                return Files.size(source);
+            } catch (FileSystemException | UnsupportedOperationException e) {
+                LOGGER.debug("Unable to link '{}' to '{}', copying content.", targetPath, source, e);
+            }
+        }
+        try (FileChannel input = FileChannel.open(source, StandardOpenOption.READ);
+                WritableByteChannel output = target.writableChannel()) {
+            final long size = input.size();
+            long transferred = 0;
+            while (transferred < size) {
+                final long count = input.transferTo(transferred, size - transferred, output);
+                if (count <= 0) {
+                    // File truncated meanwhile
+                    break;
+                }
+                transferred += count;
+            }
+            return transferred;
+        }
+    }
+
+    /**
+     * Replaces the file by a new one if it is shared with hard links (see {@link #transferTo(DeletableResource)}), so
+     * writing to it does not modify the linked resources.
+     */
+    private void unlink() throws IOException {
+        if (!HARD_LINKS) {
+            return;
+        }
+        final Path path = getFile().toPath();
+        try {
+            if ((Integer) Files.getAttribute(path, "unix:nlink") > 1) {
+                Files.delete(path);
+            }
+        } catch (NoSuchFileException e) {
+            // Nothing to unlink
+        }
+    }
 }
@@ -0,0 +1,9 @@
+package org.talend.daikon.content.local;
+
+import org.springframework.test.context.TestPropertySource;
+import org.talend.daikon.content.AsyncContentServiceTest;
+
+@TestPropertySource(properties = { "content-service.store=local", "content-service.store.local.path=${java.io.tmpdir}/dataprep" })
+public class LocalAsyncContentServiceTest extends AsyncContentServiceTest {
+    // All standard test
+}
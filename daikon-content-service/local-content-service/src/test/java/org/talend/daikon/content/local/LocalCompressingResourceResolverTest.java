@@ -0,0 +1,10 @@
+package org.talend.daikon.content.local;
+
+import org.springframework.test.context.TestPropertySource;
+import org.talend.daikon.content.CompressingResourceResolverTest;
+
+@TestPropertySource(properties = { "content-service.store=local", "content-service.store.local.path=${java.io.tmpdir}/dataprep",
+        "content-service.compression.enabled=true", "content-service.compression.codec-by-extension=log:deflate" })
+public class LocalCompressingResourceResolverTest extends CompressingResourceResolverTest {
+    // All standard test
+}
@@ -0,0 +1,10 @@
+package org.talend.daikon.content.local;
+
+import org.springframework.test.context.TestPropertySource;
+import org.talend.daikon.content.DeduplicatingResourceResolverTest;
+
+@TestPropertySource(properties = { "content-service.store=local", "content-service.store.local.path=${java.io.tmpdir}/dataprep",
+        "content-service.store.dedup.enabled=true" })
+public class LocalDeduplicatingResourceResolverTest extends DeduplicatingResourceResolverTest {
+    // All standard test
+}
@@ -2,7 +2,14 @@ package org.talend.daikon.content.local;
 
 import static org.junit.Assert.*;
 
+import java.io.OutputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
 import org.springframework.test.context.TestPropertySource;
+import org.talend.daikon.content.DeletableResource;
 import org.talend.daikon.content.DeletableResourceTest;
 
 @TestPropertySource(properties = { "content-service.store=local", "content-service.store.local.path=${java.io.tmpdir}/dataprep" })
@@ -38,4 +45,34 @@ public class LocalDeletableResourceTest extends DeletableResourceTest {
         assertTrue(resource.getDescription().contains("file.txt"));
     }
 
+    @Test
+    public void shouldKeepSourceWhenTransferredResourceIsWritten() throws Exception {
+        // given
+        final DeletableResource target = resolver.getResource("transferred.txt");
+        try {
+            resource.transferTo(target);
+
+            // when
+            try (OutputStream outputStream = target.getOutputStream()) {
+                outputStream.write("modified".getBytes());
+            }
+
+            // then
+            assertEquals("test", IOUtils.toString(resolver.getResource(LOCATION).getInputStream()));
+            assertEquals("modified", IOUtils.toString(resolver.getResource("transferred.txt").getInputStream()));
+        } finally {
+            target.delete();
+        }
+    }
+
+    @Test
+    public void shouldMapContent() throws Exception {
+        // when
+        final MappedByteBuffer buffer = resource.mapReadOnly(1, 2);
+
+        // then
+        final byte[] mapped = new byte[buffer.remaining()];
+        buffer.get(mapped);
+        assertEquals("es", new String(mapped, StandardCharsets.UTF_8));
+    }
 }
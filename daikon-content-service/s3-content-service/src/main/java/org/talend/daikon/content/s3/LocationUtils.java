@@ -28,6 +28,17 @@ class LocationUtils {
         }
     }
 
+    /**
+     * Computes the key of the object stored at a location.
+     *
+     * @param root The root directory of the current tenant (may be empty).
+     * @param location The location of the object, relative to the root.
+     * @return The object key in the S3 bucket.
+     */
+    public static String toS3Key(String root, String location) {
+        return S3PathBuilder.builder().append(root).append(toS3Location(location)).build().substring(1);
+    }
+
     public static class S3PathBuilder {
 
         private final StringBuilder path = new StringBuilder();
@@ -0,0 +1,132 @@
+package org.talend.daikon.content.s3;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+
+/**
+ * Deletes S3 objects with multi-object delete requests of at most {@link #MAX_KEYS_PER_REQUEST} keys. Requests are sent
+ * in parallel by a bounded number of threads, and keys S3 failed to delete are sent again in a new request.
+ */
+class S3BatchDeleter {
+
+    /** Maximum number of keys accepted by S3 in a multi-object delete request. */
+    static final int MAX_KEYS_PER_REQUEST = 1000;
+
+    static final int DEFAULT_CONCURRENCY = 4;
+
+    static final int MAX_ATTEMPTS = 3;
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(S3BatchDeleter.class);
+
+    private static final long RETRY_DELAY_MILLIS = 200;
+
+    private final AmazonS3 amazonS3;
+
+    private final int concurrency;
+
+    S3BatchDeleter(AmazonS3 amazonS3, int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1 (was " + concurrency + ").");
+        }
+        this.amazonS3 = amazonS3;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Deletes objects from a bucket.
+     *
+     * @param bucket The bucket name.
+     * @param keys The keys of the objects to delete, deleting a missing object is not an error.
+     * @throws IOException If some objects could not be deleted after {@link #MAX_ATTEMPTS} attempts.
+     */
+    void delete(String bucket, Collection<String> keys) throws IOException {
+        final List<List<String>> batches = partition(new ArrayList<>(new LinkedHashSet<>(keys)));
+        final List<String> failedKeys = new ArrayList<>();
+        try {
+            if (batches.size() == 1) {
+                failedKeys.addAll(deleteBatch(bucket, batches.get(0)));
+            } else if (batches.size() > 1) {
+                failedKeys.addAll(deleteInParallel(bucket, batches));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while deleting objects in bucket '" + bucket + "'.");
+        }
+        if (!failedKeys.isEmpty()) {
+            throw new IOException("Unable to delete " + failedKeys.size() + " object(s) in bucket '" + bucket + "' (first one: '"
+                    + failedKeys.get(0) + "').");
+        }
+    }
+
+    private List<String> deleteInParallel(String bucket, List<List<String>> batches)
+            throws IOException, InterruptedException {
+        final ExecutorService executor = S3Executors.newExecutor("s3-batch-delete", Math.min(concurrency, batches.size()));
+        try {
+            final List<Future<List<String>>> results = new ArrayList<>(batches.size());
+            for (List<String> batch : batches) {
+                results.add(executor.submit(() -> deleteBatch(bucket, batch)));
+            }
+            final List<String> failedKeys = new ArrayList<>();
+            for (Future<List<String>> result : results) {
+                failedKeys.addAll(result.get());
+            }
+            return failedKeys;
+        } catch (ExecutionException e) {
+            throw new IOException("Unable to delete objects in bucket '" + bucket + "'.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * @return The keys that could not be deleted.
+     */
+    private List<String> deleteBatch(String bucket, List<String> keys) throws InterruptedException {
+        List<String> remainingKeys = keys;
+        for (int attempt = 1;; attempt++) {
+            try {
+                amazonS3.deleteObjects(
+                        new DeleteObjectsRequest(bucket).withKeys(remainingKeys.toArray(new String[0])).withQuiet(true));
+                return Collections.emptyList();
+            } catch (MultiObjectDeleteException e) {
+                remainingKeys = e.getErrors().stream().map(MultiObjectDeleteException.DeleteError::getKey)
+                        .collect(Collectors.toList());
+                LOGGER.debug("Unable to delete {} object(s) in bucket '{}' (attempt {}).", remainingKeys.size(), bucket,
+                        attempt);
+            } catch (AmazonClientException e) {
+                LOGGER.debug("Unable to delete objects in bucket '{}' (attempt {}).", bucket, attempt, e);
+            }
+            if (attempt >= MAX_ATTEMPTS) {
+                LOGGER.error("Unable to delete {} object(s) in bucket '{}' after {} attempts.", remainingKeys.size(), bucket,
+                        attempt);
+                return remainingKeys;
+            }
+            Thread.sleep(RETRY_DELAY_MILLIS * attempt);
+        }
+    }
+
+    private static List<List<String>> partition(List<String> keys) {
+        final List<List<String>> batches = new ArrayList<>();
+        for (int start = 0; start < keys.size(); start += MAX_KEYS_PER_REQUEST) {
+            batches.add(keys.subList(start, Math.min(start + MAX_KEYS_PER_REQUEST, keys.size())));
+        }
+        return batches;
+    }
+}
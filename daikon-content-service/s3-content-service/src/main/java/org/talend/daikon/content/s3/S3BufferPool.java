@@ -0,0 +1,69 @@
+package org.talend.daikon.content.s3;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps released direct buffers for later transfers, so that large transfers do not allocate a new buffer for each
+ * part. At most <code>maxDirectBuffers</code> direct buffers are allocated: once they are all in use, heap buffers are
+ * returned instead (left to the garbage collector on release). The pool never blocks, and many concurrent transfers
+ * cannot exhaust the direct memory.
+ */
+class S3BufferPool {
+
+    private final int bufferSize;
+
+    private final int maxDirectBuffers;
+
+    private final BlockingQueue<ByteBuffer> buffers;
+
+    private final AtomicInteger directBuffers = new AtomicInteger();
+
+    /**
+     * @param bufferSize The size of the buffers (in bytes).
+     * @param maxDirectBuffers The maximum number of direct buffers, in use or kept in the pool.
+     */
+    S3BufferPool(int bufferSize, int maxDirectBuffers) {
+        this.bufferSize = bufferSize;
+        this.maxDirectBuffers = Math.max(1, maxDirectBuffers);
+        this.buffers = new ArrayBlockingQueue<>(this.maxDirectBuffers);
+    }
+
+    int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @return The number of direct buffers allocated by this pool.
+     */
+    int getDirectBuffers() {
+        return directBuffers.get();
+    }
+
+    /**
+     * @return An empty buffer of {@link #getBufferSize()} bytes, a heap buffer if all direct buffers are in use.
+     */
+    ByteBuffer acquire() {
+        final ByteBuffer buffer = buffers.poll();
+        if (buffer != null) {
+            return buffer;
+        }
+        if (directBuffers.incrementAndGet() <= maxDirectBuffers) {
+            return ByteBuffer.allocateDirect(bufferSize);
+        }
+        directBuffers.decrementAndGet();
+        return ByteBuffer.allocate(bufferSize);
+    }
+
+    /**
+     * Gives back a buffer acquired from this pool, it must not be used after this call. Heap buffers are ignored.
+     */
+    void release(ByteBuffer buffer) {
+        if (buffer.isDirect()) {
+            buffer.clear();
+            buffers.offer(buffer);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package org.talend.daikon.content.s3;
 
+import java.util.function.Supplier;
+
 import org.apache.commons.lang.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,6 +17,10 @@ import org.springframework.core.env.Environment;
 import org.springframework.core.io.support.ResourcePatternResolver;
 import org.talend.daikon.content.ContentServiceEnabled;
 import org.talend.daikon.content.ResourceResolver;
+import org.talend.daikon.content.async.AbstractAsyncContentService;
+import org.talend.daikon.content.async.AsyncContentService;
+import org.talend.daikon.content.async.ExecutorAsyncContentService;
+import org.talend.daikon.content.async.TenantConcurrencyLimiter;
 import org.talend.daikon.content.s3.provider.AmazonS3Provider;
 import org.talend.daikon.content.s3.provider.S3BucketProvider;
 
@@ -51,6 +57,39 @@ public class S3ContentServiceConfiguration implements ContentServiceEnabled {
         return builder.withCredentials(new StaticCredentialsProvider(awsCredentials));
     }
 
+    private static S3TransferSettings getTransferSettings(Environment environment) {
+        final S3TransferSettings settings = new S3TransferSettings();
+        settings.setMultipartCopyThreshold(environment.getProperty("content-service.store.s3.copy.multipart-threshold",
+                Long.class, settings.getMultipartCopyThreshold()));
+        settings.setCopyPartSize(
+                environment.getProperty("content-service.store.s3.copy.part-size", Long.class, settings.getCopyPartSize()));
+        settings.setCopyConcurrency(environment.getProperty("content-service.store.s3.copy.concurrency", Integer.class,
+                settings.getCopyConcurrency()));
+        settings.setMoveConcurrency(environment.getProperty("content-service.store.s3.move.concurrency", Integer.class,
+                settings.getMoveConcurrency()));
+        settings.setUploadPartSize(environment.getProperty("content-service.store.s3.upload.part-size", Integer.class,
+                settings.getUploadPartSize()));
+        settings.setUploadConcurrency(environment.getProperty("content-service.store.s3.upload.concurrency", Integer.class,
+                settings.getUploadConcurrency()));
+        settings.setUploadPooledBuffers(environment.getProperty("content-service.store.s3.upload.pooled-buffers",
+                Integer.class, settings.getUploadPooledBuffers()));
+        settings.setUploadThreads(environment.getProperty("content-service.store.s3.upload.threads", Integer.class,
+                settings.getUploadThreads()));
+        settings.setReadRangeSize(environment.getProperty("content-service.store.s3.read.range-size", Integer.class,
+                settings.getReadRangeSize()));
+        settings.setReadPrefetch(environment.getProperty("content-service.store.s3.read.prefetch", Integer.class,
+                settings.getReadPrefetch()));
+        settings.setReadThreads(environment.getProperty("content-service.store.s3.read.threads", Integer.class,
+                settings.getReadThreads()));
+        settings.setListCacheTtl(environment.getProperty("content-service.store.s3.list.cache-ttl", Long.class,
+                settings.getListCacheTtl()));
+        settings.setListCacheMaxKeys(environment.getProperty("content-service.store.s3.list.cache-max-keys", Integer.class,
+                settings.getListCacheMaxKeys()));
+        settings.setDeleteConcurrency(environment.getProperty("content-service.store.s3.delete.concurrency", Integer.class,
+                settings.getDeleteConcurrency()));
+        return settings;
+    }
+
     private static boolean isMultiTenancyEnabled(Environment environment) {
         return environment.getProperty("multi-tenancy.s3.active", Boolean.class, Boolean.FALSE);
     }
@@ -95,7 +134,7 @@ public class S3ContentServiceConfiguration implements ContentServiceEnabled {
         if (isMultiTenancyEnabled(environment)) {
             try {
                 final S3BucketProvider s3BucketProvider = applicationContext.getBean(S3BucketProvider.class);
-                return new S3ResourceResolver(resolver, amazonS3, s3BucketProvider);
+                return new S3ResourceResolver(resolver, amazonS3, s3BucketProvider, getTransferSettings(environment));
             } catch (NoSuchBeanDefinitionException e) {
                 throw new InvalidConfiguration("No S3 bucket name provider in context", S3BucketProvider.class, e);
             }
@@ -112,8 +151,28 @@ public class S3ContentServiceConfiguration implements ContentServiceEnabled {
                     return StringUtils.EMPTY;
                 }
             };
-            return new S3ResourceResolver(resolver, amazonS3, provider);
+            return new S3ResourceResolver(resolver, amazonS3, provider, getTransferSettings(environment));
+        }
+    }
+
+    /**
+     * Asynchronous access to the objects, transfers are performed chunk by chunk on a bounded pool (the S3 client is
+     * blocking). The tenant of a transfer is its bucket and root directory.
+     */
+    @Bean(destroyMethod = "close")
+    public AsyncContentService s3AsyncContentService(ResourceResolver resourceResolver, Environment environment,
+            ApplicationContext applicationContext) {
+        final Supplier<String> tenant;
+        if (isMultiTenancyEnabled(environment)) {
+            final S3BucketProvider provider = applicationContext.getBean(S3BucketProvider.class);
+            tenant = () -> provider.getBucketName() + '/' + provider.getRoot();
+        } else {
+            tenant = () -> StringUtils.EMPTY;
         }
+        final int threads = environment.getProperty("content-service.async.threads", Integer.class, 32);
+        final int concurrency = environment.getProperty("content-service.async.tenant-concurrency", Integer.class, 16);
+        return new ExecutorAsyncContentService(resourceResolver, AbstractAsyncContentService.newExecutor(threads),
+                new TenantConcurrencyLimiter(concurrency), tenant);
     }
 
     @Bean
@@ -1,7 +1,6 @@
 package org.talend.daikon.content.s3;
 
-import static org.talend.daikon.content.s3.LocationUtils.toS3Location;
-import static org.talend.daikon.content.s3.LocationUtils.S3PathBuilder.builder;
+import static org.talend.daikon.content.s3.LocationUtils.toS3Key;
 
 import java.io.File;
 import java.io.IOException;
@@ -9,20 +8,22 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.net.URL;
+import java.nio.channels.SeekableByteChannel;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.WritableResource;
-import org.talend.daikon.content.DeletableResource;
+import org.talend.daikon.content.VersionedResource;
 
 import com.amazonaws.AmazonClientException;
 import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.model.CopyObjectRequest;
-import com.amazonaws.services.s3.model.CopyObjectResult;
 import com.amazonaws.services.s3.model.DeleteObjectRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
 
-class S3DeletableResource implements DeletableResource {
+class S3DeletableResource implements VersionedResource {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(S3DeletableResource.class);
 
@@ -36,14 +37,61 @@ class S3DeletableResource implements DeletableResource {
 
     private final String root;
 
+    private final S3Transfers transfers;
+
+    private final S3ListingCache listings;
+
+    /** The object from a listing (size and last modification), null if not listed or modified since. */
+    private S3ObjectSummary summary;
+
     private boolean isDeleted;
 
-    protected S3DeletableResource(WritableResource resource, AmazonS3 amazonS3, String location, String bucket, String root) {
+    protected S3DeletableResource(WritableResource resource, AmazonS3 amazonS3, String location, String bucket, String root,
+            S3Transfers transfers, S3ListingCache listings) {
+        this(resource, amazonS3, location, bucket, root, transfers, listings, null);
+    }
+
+    /**
+     * @param summary The object from a listing, its metadata is used instead of requesting it.
+     */
+    S3DeletableResource(WritableResource resource, AmazonS3 amazonS3, String location, String bucket, String root,
+            S3Transfers transfers, S3ListingCache listings, S3ObjectSummary summary) {
         this.resource = resource;
         this.amazonS3 = amazonS3;
         this.location = location;
         this.bucket = bucket;
         this.root = root;
+        this.transfers = transfers;
+        this.listings = listings;
+        this.summary = summary;
+    }
+
+    /**
+     * @return The key of the object in the S3 bucket.
+     */
+    String getKey() {
+        return location;
+    }
+
+    /**
+     * @return The object URI (<code>s3://bucket/key</code>).
+     */
+    @Override
+    public String getContentKey() {
+        return "s3://" + bucket + '/' + location;
+    }
+
+    /**
+     * Reads the object with a conditional GET, the version of the object being its ETag.
+     */
+    @Override
+    public VersionedContent getContentIfModified(String version) throws IOException {
+        final S3Object object = transfers.getObjectIfModified(bucket, location, version);
+        if (object == null) {
+            return null;
+        }
+        final ObjectMetadata metadata = object.getObjectMetadata();
+        return new VersionedContent(metadata.getETag(), metadata.getContentLength(), object.getObjectContent());
     }
 
     @Override
@@ -51,26 +99,34 @@ class S3DeletableResource implements DeletableResource {
         try {
             amazonS3.deleteObject(new DeleteObjectRequest(bucket, location));
             isDeleted = true;
+            summary = null;
+            listings.invalidate(bucket, location);
         } catch (AmazonClientException e) {
             throw new IOException("Unable to delete '" + location + "' in bucket '" + bucket + "'.", e);
         }
     }
 
+    /**
+     * Copies the object to the new location on S3 side (in parallel parts for large objects) then deletes it.
+     */
     @Override
     public void move(String location) throws IOException {
-        final String moveLocation = builder().append(root).append(toS3Location(location)).build().substring(1);
-        final CopyObjectResult result = amazonS3.copyObject(new CopyObjectRequest(bucket, this.location, bucket, moveLocation));
-        if (result == null) {
-            LOGGER.error("Unable to move {} to {}", this.location, moveLocation);
-        } else {
-            LOGGER.info("Copied {} to {}, now deleting {}", this.location, moveLocation, this.location);
-            delete();
+        final String moveLocation = toS3Key(root, location);
+        final long size;
+        try {
+            size = summary != null ? summary.getSize() : amazonS3.getObjectMetadata(bucket, this.location).getContentLength();
+        } catch (AmazonClientException e) {
+            throw new IOException("Unable to move '" + this.location + "' in bucket '" + bucket + "'.", e);
         }
+        transfers.copy(bucket, this.location, moveLocation, size);
+        listings.invalidate(bucket, moveLocation);
+        LOGGER.info("Copied {} to {}, now deleting {}", this.location, moveLocation, this.location);
+        delete();
     }
 
     @Override
     public boolean exists() {
-        return !isDeleted && resource.exists();
+        return !isDeleted && (summary != null || resource.exists());
     }
 
     @Override
@@ -100,19 +156,20 @@ class S3DeletableResource implements DeletableResource {
 
     @Override
     public long contentLength() throws IOException {
-        return resource.contentLength();
+        return summary != null ? summary.getSize() : resource.contentLength();
     }
 
     @Override
     public long lastModified() throws IOException {
-        return resource.lastModified();
+        return summary != null ? summary.getLastModified().getTime() : resource.lastModified();
     }
 
     @Override
     public Resource createRelative(String relativePath) throws IOException {
         final Resource relative = resource.createRelative(relativePath);
         if (relative instanceof WritableResource) {
-            return new S3DeletableResource((WritableResource) relative, amazonS3, location, bucket, root);
+            return new S3DeletableResource((WritableResource) relative, amazonS3, location, bucket, root, transfers,
+                    listings);
         } else {
             return relative;
         }
@@ -128,9 +185,29 @@ class S3DeletableResource implements DeletableResource {
         return resource.getDescription();
     }
 
+    /**
+     * @return A stream reading large objects with several ranged requests in parallel.
+     */
     @Override
     public InputStream getInputStream() throws IOException {
-        return resource.getInputStream();
+        return transfers.newInputStream(bucket, location);
+    }
+
+    /**
+     * @return A stream on the start of the object, read with a single ranged request.
+     */
+    @Override
+    public InputStream getHeadInputStream(int length) throws IOException {
+        return transfers.newHeadInputStream(bucket, location, length);
+    }
+
+    /**
+     * @return A channel reading the object with ranged requests (in parallel), only the ranges around the read
+     * positions are downloaded.
+     */
+    @Override
+    public SeekableByteChannel readableChannel() throws IOException {
+        return transfers.newReadChannel(bucket, location);
     }
 
     @Override
@@ -138,16 +215,21 @@ class S3DeletableResource implements DeletableResource {
         return resource.isWritable();
     }
 
+    /**
+     * @return A stream uploading the object in parts while it is written, instead of buffering the whole object.
+     */
     @Override
     public OutputStream getOutputStream() throws IOException {
-        return new CloseLenientOutputStream(resource.getOutputStream());
+        summary = null;
+        listings.invalidate(bucket, location);
+        return new CloseLenientOutputStream(transfers.newOutputStream(bucket, location));
     }
 
     /**
      * An {@link OutputStream} implementation that prevents errors in case someone calls {@link #write(int)} <b>after</b> close
      * (seems to happen with Apache POI when writing Excel files).
      */
-    private static class CloseLenientOutputStream extends OutputStream {
+    private class CloseLenientOutputStream extends OutputStream {
 
         private final OutputStream outputStream;
 
@@ -192,6 +274,8 @@ class S3DeletableResource implements DeletableResource {
                 outputStream.close();
             } finally {
                 isClosed = true;
+                // Listings made while the object was written may miss it
+                listings.invalidate(bucket, location);
             }
         }
     }
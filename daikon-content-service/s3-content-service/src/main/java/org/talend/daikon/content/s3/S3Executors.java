@@ -0,0 +1,53 @@
+package org.talend.daikon.content.s3;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the thread pools used to send parallel requests to S3.
+ */
+class S3Executors {
+
+    /**
+     * Private constructor for utility class.
+     */
+    private S3Executors() {
+        // nothing to do
+    }
+
+    /**
+     * @param name The prefix of the thread names.
+     * @param threads The number of threads.
+     * @return A pool of daemon threads, to be shut down by the caller.
+     */
+    static ExecutorService newExecutor(String name, int threads) {
+        return Executors.newFixedThreadPool(threads, newThreadFactory(name));
+    }
+
+    /**
+     * @param name The prefix of the thread names.
+     * @param threads The maximum number of threads.
+     * @return A pool of daemon threads shared by transfers: threads are stopped after a minute without tasks, so the pool
+     * does not need to be shut down.
+     */
+    static ExecutorService newSharedExecutor(String name, int threads) {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.MINUTES,
+                new LinkedBlockingQueue<>(), newThreadFactory(name));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static ThreadFactory newThreadFactory(String name) {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, name + '-' + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,111 @@
+package org.talend.daikon.content.s3;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+
+/**
+ * Listings of prefixes kept for a short time, so that listing the same prefix several times in a row sends a single
+ * listing. Listings are removed when objects under their prefix are written or deleted through the resolver, changes
+ * made by other clients may be missed until listings expire.
+ */
+class S3ListingCache {
+
+    /** Protects from unbounded sets of listed prefixes, the cache is cleared once full. */
+    static final int MAX_LISTINGS = 256;
+
+    private final long ttlNanos;
+
+    private final int maxKeys;
+
+    /** Listings by bucket and prefix. */
+    private final ConcurrentMap<String, Listing> listings = new ConcurrentHashMap<>();
+
+    /** Incremented by each invalidation, a listing started before an invalidation is not kept. */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * @param ttlMillis The time listings are kept (in milliseconds), 0 to disable the cache.
+     * @param maxKeys The maximum number of objects of a kept listing, larger listings are not kept.
+     */
+    S3ListingCache(long ttlMillis, int maxKeys) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxKeys = maxKeys;
+    }
+
+    boolean isEnabled() {
+        return ttlNanos > 0;
+    }
+
+    int getMaxKeys() {
+        return maxKeys;
+    }
+
+    /**
+     * @return The objects under the prefix, null if the listing is not cached or expired.
+     */
+    List<S3ObjectSummary> get(String bucket, String prefix) {
+        final Listing listing = listings.get(bucket + '/' + prefix);
+        if (listing == null) {
+            return null;
+        }
+        if (System.nanoTime() - listing.time > ttlNanos) {
+            listings.remove(bucket + '/' + prefix, listing);
+            return null;
+        }
+        return listing.objects;
+    }
+
+    /**
+     * @return The current generation, to get before listing a prefix.
+     */
+    long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Keeps a listing, unless listings were invalidated since it started.
+     *
+     * @param listingGeneration The {@link #getGeneration() generation} when the listing started.
+     */
+    void put(String bucket, String prefix, List<S3ObjectSummary> objects, long listingGeneration) {
+        if (isEnabled() && objects.size() <= maxKeys && generation.get() == listingGeneration) {
+            if (listings.size() >= MAX_LISTINGS) {
+                listings.clear();
+            }
+            listings.put(bucket + '/' + prefix, new Listing(Collections.unmodifiableList(objects), System.nanoTime()));
+        }
+    }
+
+    /**
+     * Removes the listings that may contain a key (or keys under a prefix).
+     */
+    void invalidate(String bucket, String keyOrPrefix) {
+        if (!isEnabled()) {
+            return;
+        }
+        generation.incrementAndGet();
+        if (listings.isEmpty()) {
+            return;
+        }
+        final String path = bucket + '/' + keyOrPrefix;
+        listings.keySet().removeIf(listed -> path.startsWith(listed) || listed.startsWith(path));
+    }
+
+    private static class Listing {
+
+        private final List<S3ObjectSummary> objects;
+
+        private final long time;
+
+        private Listing(List<S3ObjectSummary> objects, long time) {
+            this.objects = objects;
+            this.time = time;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package org.talend.daikon.content.s3;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.CopyObjectResult;
+import com.amazonaws.services.s3.model.CopyPartRequest;
+import com.amazonaws.services.s3.model.CopyPartResult;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+
+/**
+ * Copies S3 objects within a bucket, without downloading them: with a single copy request for small objects, and with
+ * parts copied in parallel (multipart upload of <code>UploadPartCopy</code> parts) above
+ * {@link S3TransferSettings#getMultipartCopyThreshold()}. Objects larger than 5 GB can only be copied with parts.
+ */
+class S3MultipartCopier {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(S3MultipartCopier.class);
+
+    private final AmazonS3 amazonS3;
+
+    private final S3TransferSettings settings;
+
+    S3MultipartCopier(AmazonS3 amazonS3, S3TransferSettings settings) {
+        this.amazonS3 = amazonS3;
+        this.settings = settings;
+    }
+
+    /**
+     * Copies an object.
+     *
+     * @param bucket The bucket name.
+     * @param sourceKey The key of the object to copy.
+     * @param targetKey The key of the copy, replaced if it exists.
+     * @param size The size of the object to copy (in bytes).
+     */
+    void copy(String bucket, String sourceKey, String targetKey, long size) throws IOException {
+        if (size < settings.getMultipartCopyThreshold()) {
+            final CopyObjectResult result;
+            try {
+                result = amazonS3.copyObject(new CopyObjectRequest(bucket, sourceKey, bucket, targetKey));
+            } catch (AmazonClientException e) {
+                throw new IOException("Unable to copy '" + sourceKey + "' to '" + targetKey + "' in bucket '" + bucket + "'.",
+                        e);
+            }
+            if (result == null) {
+                throw new IOException("Unable to copy '" + sourceKey + "' to '" + targetKey + "' in bucket '" + bucket + "'.");
+            }
+        } else {
+            multipartCopy(bucket, sourceKey, targetKey, size);
+        }
+    }
+
+    private void multipartCopy(String bucket, String sourceKey, String targetKey, long size) throws IOException {
+        final String uploadId;
+        try {
+            final ObjectMetadata metadata = copyMetadata(amazonS3.getObjectMetadata(bucket, sourceKey));
+            uploadId = amazonS3.initiateMultipartUpload(new InitiateMultipartUploadRequest(bucket, targetKey, metadata))
+                    .getUploadId();
+        } catch (AmazonClientException e) {
+            throw new IOException("Unable to start copy of '" + sourceKey + "' to '" + targetKey + "'.", e);
+        }
+
+        // S3 accepts at most 10000 parts
+        final long partSize = Math.max(settings.getCopyPartSize(), (size + S3TransferSettings.MAX_PARTS - 1)
+                / S3TransferSettings.MAX_PARTS);
+        final int partCount = (int) ((size + partSize - 1) / partSize);
+        LOGGER.debug("Copying '{}' to '{}' in {} parts.", sourceKey, targetKey, partCount);
+        final ExecutorService executor = S3Executors.newExecutor("s3-copy", Math.min(settings.getCopyConcurrency(), partCount));
+        try {
+            final List<Future<PartETag>> parts = new ArrayList<>(partCount);
+            for (int i = 0; i < partCount; i++) {
+                final CopyPartRequest request = new CopyPartRequest() //
+                        .withSourceBucketName(bucket) //
+                        .withSourceKey(sourceKey) //
+                        .withDestinationBucketName(bucket) //
+                        .withDestinationKey(targetKey) //
+                        .withUploadId(uploadId) //
+                        .withPartNumber(i + 1) //
+                        .withFirstByte(i * partSize) //
+                        .withLastByte(Math.min((i + 1) * partSize, size) - 1);
+                parts.add(executor.submit(() -> copyPart(request)));
+            }
+            final List<PartETag> partETags = new ArrayList<>(partCount);
+            for (Future<PartETag> part : parts) {
+                partETags.add(part.get());
+            }
+            amazonS3.completeMultipartUpload(new CompleteMultipartUploadRequest(bucket, targetKey, uploadId, partETags));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(bucket, targetKey, uploadId);
+            throw new InterruptedIOException("Interrupted while copying '" + sourceKey + "' to '" + targetKey + "'.");
+        } catch (ExecutionException | AmazonClientException e) {
+            abort(bucket, targetKey, uploadId);
+            final Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            throw new IOException("Unable to copy '" + sourceKey + "' to '" + targetKey + "' in bucket '" + bucket + "'.",
+                    cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private PartETag copyPart(CopyPartRequest request) {
+        final CopyPartResult result = amazonS3.copyPart(request);
+        if (result == null) {
+            throw new IllegalStateException("Copy of part #" + request.getPartNumber() + " was not done.");
+        }
+        return result.getPartETag();
+    }
+
+    private void abort(String bucket, String key, String uploadId) {
+        try {
+            amazonS3.abortMultipartUpload(new AbortMultipartUploadRequest(bucket, key, uploadId));
+        } catch (AmazonClientException e) {
+            LOGGER.warn("Unable to abort multipart upload '{}' of '{}'.", uploadId, key, e);
+        }
+    }
+
+    /**
+     * @return The metadata of a new object with the same content headers and user metadata as the given object.
+     */
+    private static ObjectMetadata copyMetadata(ObjectMetadata source) {
+        final ObjectMetadata metadata = new ObjectMetadata();
+        if (source.getContentType() != null) {
+            metadata.setContentType(source.getContentType());
+        }
+        if (source.getContentEncoding() != null) {
+            metadata.setContentEncoding(source.getContentEncoding());
+        }
+        if (source.getContentDisposition() != null) {
+            metadata.setContentDisposition(source.getContentDisposition());
+        }
+        if (source.getCacheControl() != null) {
+            metadata.setCacheControl(source.getCacheControl());
+        }
+        metadata.setUserMetadata(source.getUserMetadata());
+        return metadata;
+    }
+}
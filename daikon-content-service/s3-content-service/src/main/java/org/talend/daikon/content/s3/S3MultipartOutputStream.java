@@ -0,0 +1,274 @@
+package org.talend.daikon.content.s3;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+
+/**
+ * An {@link OutputStream} uploading an S3 object while it is written: bytes are written to a buffer of
+ * {@link S3BufferPool#getBufferSize()} bytes, each full buffer is uploaded as a part of a multipart upload in the
+ * background (on an executor shared by the streams). At most {@link S3TransferSettings#getUploadConcurrency()} parts of
+ * a stream are uploaded at the same time, writes block when this limit is reached.
+ * <p>
+ * The first part is written to a small heap buffer, grown up to the part size: objects smaller than one part never
+ * take a buffer from the pool and are uploaded with a single request on {@link #close()}. If a part upload fails, the
+ * multipart upload is aborted and the next write (or {@link #close()}) fails: no partial object is created.
+ * </p>
+ * <p>
+ * An object has at most {@link S3TransferSettings#MAX_PARTS} parts, so its size is limited to this number of parts
+ * (about 78 GB with the default 8 MB parts): the write going over this size fails before the part is uploaded.
+ * </p>
+ */
+class S3MultipartOutputStream extends OutputStream {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(S3MultipartOutputStream.class);
+
+    /** Initial size of the buffer of the first part (in bytes). */
+    static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+
+    private final AmazonS3 amazonS3;
+
+    private final String bucket;
+
+    private final String key;
+
+    private final S3BufferPool bufferPool;
+
+    private final ExecutorService executor;
+
+    private final Semaphore inFlightParts;
+
+    private final int maxParts;
+
+    private final List<Future<PartETag>> parts = new ArrayList<>();
+
+    private ByteBuffer buffer;
+
+    private String uploadId;
+
+    private volatile Throwable failure;
+
+    private volatile boolean aborted;
+
+    private boolean closed;
+
+    /**
+     * @param bufferPool The pool of the part buffers.
+     * @param executor The executor uploading the parts, not shut down by the stream.
+     * @param concurrency The maximum number of parts of this stream uploaded at the same time.
+     */
+    S3MultipartOutputStream(AmazonS3 amazonS3, String bucket, String key, S3BufferPool bufferPool, ExecutorService executor,
+            int concurrency) {
+        this(amazonS3, bucket, key, bufferPool, executor, concurrency, S3TransferSettings.MAX_PARTS);
+    }
+
+    /**
+     * @param maxParts The maximum number of parts of the object.
+     */
+    S3MultipartOutputStream(AmazonS3 amazonS3, String bucket, String key, S3BufferPool bufferPool, ExecutorService executor,
+            int concurrency, int maxParts) {
+        this.amazonS3 = amazonS3;
+        this.bucket = bucket;
+        this.key = key;
+        this.bufferPool = bufferPool;
+        this.executor = executor;
+        this.inFlightParts = new Semaphore(concurrency);
+        this.maxParts = maxParts;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        currentBuffer().put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        ensureOpen();
+        if (offset < 0 || length < 0 || offset + length > bytes.length) {
+            throw new IndexOutOfBoundsException();
+        }
+        int written = 0;
+        while (written < length) {
+            final ByteBuffer current = currentBuffer();
+            final int count = Math.min(length - written, current.remaining());
+            current.put(bytes, offset + written, count);
+            written += count;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (uploadId == null) {
+                putObject();
+            } else {
+                if (buffer != null && buffer.position() > 0) {
+                    uploadPart();
+                }
+                completeUpload();
+            }
+        } catch (IOException | RuntimeException e) {
+            abort();
+            throw e;
+        } finally {
+            if (buffer != null) {
+                bufferPool.release(buffer);
+                buffer = null;
+            }
+        }
+    }
+
+    /**
+     * @return A buffer with remaining space, previous buffer is grown (first part) or uploaded if full.
+     */
+    private ByteBuffer currentBuffer() throws IOException {
+        final int partSize = bufferPool.getBufferSize();
+        if (buffer == null) {
+            buffer = parts.isEmpty() ? ByteBuffer.allocate(Math.min(INITIAL_BUFFER_SIZE, partSize)) : bufferPool.acquire();
+        } else if (!buffer.hasRemaining() && buffer.capacity() < partSize) {
+            final ByteBuffer grown = ByteBuffer.allocate((int) Math.min(2L * buffer.capacity(), partSize));
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        } else if (!buffer.hasRemaining()) {
+            try {
+                uploadPart();
+            } catch (IOException | RuntimeException e) {
+                closed = true;
+                abort();
+                throw e;
+            }
+            buffer = bufferPool.acquire();
+        }
+        return buffer;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream to '" + key + "' is closed.");
+        }
+        if (failure != null) {
+            closed = true;
+            abort();
+            throw new IOException("Unable to upload '" + key + "' in bucket '" + bucket + "'.", failure);
+        }
+    }
+
+    /**
+     * Uploads the current buffer as the next part, and gives away the buffer.
+     */
+    private void uploadPart() throws IOException {
+        if (parts.size() >= maxParts) {
+            throw new IOException("Unable to upload '" + key + "' in bucket '" + bucket + "': more than " + maxParts
+                    + " parts of " + bufferPool.getBufferSize() + " bytes.");
+        }
+        if (uploadId == null) {
+            try {
+                uploadId = amazonS3.initiateMultipartUpload(new InitiateMultipartUploadRequest(bucket, key)).getUploadId();
+            } catch (AmazonClientException e) {
+                throw new IOException("Unable to start upload of '" + key + "' in bucket '" + bucket + "'.", e);
+            }
+        }
+        try {
+            inFlightParts.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while uploading '" + key + "'.");
+        }
+        final ByteBuffer part = buffer;
+        buffer = null;
+        part.flip();
+        final UploadPartRequest request = new UploadPartRequest() //
+                .withBucketName(bucket) //
+                .withKey(key) //
+                .withUploadId(uploadId) //
+                .withPartNumber(parts.size() + 1) //
+                .withPartSize(part.remaining()) //
+                .withInputStream(new ByteBufferInputStream(part));
+        parts.add(executor.submit(() -> {
+            try {
+                if (aborted) {
+                    throw new IllegalStateException("Upload '" + request.getUploadId() + "' of '" + key + "' is aborted.");
+                }
+                return amazonS3.uploadPart(request).getPartETag();
+            } catch (RuntimeException e) {
+                failure = e;
+                throw e;
+            } finally {
+                bufferPool.release(part);
+                inFlightParts.release();
+            }
+        }));
+    }
+
+    private void completeUpload() throws IOException {
+        final List<PartETag> partETags = new ArrayList<>(parts.size());
+        try {
+            for (Future<PartETag> part : parts) {
+                partETags.add(part.get());
+            }
+            amazonS3.completeMultipartUpload(new CompleteMultipartUploadRequest(bucket, key, uploadId, partETags));
+            LOGGER.debug("Uploaded '{}' in {} parts.", key, partETags.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while uploading '" + key + "'.");
+        } catch (ExecutionException e) {
+            throw new IOException("Unable to upload '" + key + "' in bucket '" + bucket + "'.", e.getCause());
+        } catch (AmazonClientException e) {
+            throw new IOException("Unable to upload '" + key + "' in bucket '" + bucket + "'.", e);
+        }
+    }
+
+    private void putObject() throws IOException {
+        final ByteBuffer content = buffer == null ? ByteBuffer.allocate(0) : buffer;
+        content.flip();
+        final ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(content.remaining());
+        try {
+            amazonS3.putObject(new PutObjectRequest(bucket, key, new ByteBufferInputStream(content), metadata));
+        } catch (AmazonClientException e) {
+            throw new IOException("Unable to upload '" + key + "' in bucket '" + bucket + "'.", e);
+        }
+    }
+
+    private void abort() {
+        // Parts not started yet are skipped, they still give back their buffer
+        aborted = true;
+        if (buffer != null) {
+            bufferPool.release(buffer);
+            buffer = null;
+        }
+        if (uploadId != null) {
+            try {
+                amazonS3.abortMultipartUpload(new AbortMultipartUploadRequest(bucket, key, uploadId));
+            } catch (AmazonClientException e) {
+                LOGGER.warn("Unable to abort multipart upload '{}' of '{}'.", uploadId, key, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package org.talend.daikon.content.s3;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.ListObjectsRequest;
+import com.amazonaws.services.s3.model.ObjectListing;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+
+/**
+ * Iterates over the objects under a prefix, the next page of the listing being requested only once the previous one is
+ * consumed: listing a prefix with many objects does not keep them all in memory.
+ */
+class S3ObjectListing implements Iterator<S3ObjectSummary> {
+
+    private final AmazonS3 amazonS3;
+
+    private final String bucket;
+
+    private final String prefix;
+
+    private ObjectListing listing;
+
+    private Iterator<S3ObjectSummary> page;
+
+    /** Objects listed so far, kept for {@link #onComplete} while there are at most {@link #maxCollected}. */
+    private List<S3ObjectSummary> collected;
+
+    private int maxCollected;
+
+    private Consumer<List<S3ObjectSummary>> onComplete;
+
+    /**
+     * Requests the first page of the listing.
+     */
+    S3ObjectListing(AmazonS3 amazonS3, String bucket, String prefix) throws IOException {
+        this.amazonS3 = amazonS3;
+        this.bucket = bucket;
+        this.prefix = prefix;
+        try {
+            this.listing = amazonS3.listObjects(new ListObjectsRequest().withBucketName(bucket).withPrefix(prefix));
+        } catch (AmazonClientException e) {
+            throw toIOException(e);
+        }
+        this.page = listing.getObjectSummaries().iterator();
+    }
+
+    /**
+     * Collects the listed objects, then passes them to <code>onComplete</code> once the listing is fully consumed, unless
+     * there are more than <code>maxCollected</code> objects.
+     */
+    S3ObjectListing collect(int maxCollected, Consumer<List<S3ObjectSummary>> onComplete) {
+        this.collected = new ArrayList<>();
+        this.maxCollected = maxCollected;
+        this.onComplete = onComplete;
+        return this;
+    }
+
+    /**
+     * @return The listed objects, the stream may throw {@link UncheckedIOException} if a page request fails.
+     */
+    Stream<S3ObjectSummary> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL),
+                false);
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!page.hasNext()) {
+            if (!listing.isTruncated()) {
+                complete();
+                return false;
+            }
+            try {
+                listing = amazonS3.listNextBatchOfObjects(listing);
+            } catch (AmazonClientException e) {
+                throw new UncheckedIOException(toIOException(e));
+            }
+            page = listing.getObjectSummaries().iterator();
+        }
+        return true;
+    }
+
+    @Override
+    public S3ObjectSummary next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        final S3ObjectSummary object = page.next();
+        if (collected != null) {
+            if (collected.size() < maxCollected) {
+                collected.add(object);
+            } else {
+                collected = null;
+            }
+        }
+        return object;
+    }
+
+    private void complete() {
+        if (collected != null) {
+            onComplete.accept(collected);
+            collected = null;
+        }
+    }
+
+    private IOException toIOException(AmazonClientException e) {
+        return new IOException("Unable to list '" + prefix + "' in bucket '" + bucket + "'.", e);
+    }
+}
@@ -0,0 +1,269 @@
+package org.talend.daikon.content.s3;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.S3Object;
+
+/**
+ * A read-only {@link SeekableByteChannel} on an S3 object, reading the object by ranges of
+ * {@link S3TransferSettings#getReadRangeSize()} bytes with ranged GET requests.
+ * <p>
+ * When a range is read, the following {@link S3TransferSettings#getReadPrefetch()} ranges are fetched in parallel. Only
+ * the ranges around the current position are kept (the previous range, the current one and the prefetched ones): after
+ * a seek, ranges out of this window are dropped, so only the parts of the object actually read are downloaded. Ranges
+ * are fetched by an executor shared by the channels, a channel that is never closed does not hold any thread. Ranges
+ * are requested with the ETag of the object when the channel was opened: reading fails if the object is overwritten,
+ * instead of mixing the old and new contents.
+ * Instances are not thread-safe.
+ * </p>
+ */
+class S3RangedReadChannel implements SeekableByteChannel {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(S3RangedReadChannel.class);
+
+    private final AmazonS3 amazonS3;
+
+    private final String bucket;
+
+    private final String key;
+
+    private final long size;
+
+    private final int rangeSize;
+
+    private final int prefetch;
+
+    private final String eTag;
+
+    private final ExecutorService executor;
+
+    /** Fetched (or being fetched) ranges, by range index. */
+    private final TreeMap<Long, Future<byte[]>> ranges = new TreeMap<>();
+
+    /** The response of the first range request, until it is read (or the channel closed). */
+    private final AtomicReference<S3Object> firstRange = new AtomicReference<>();
+
+    /** Buffers of dropped ranges, reused for next ranges. */
+    private final Queue<byte[]> freeBuffers = new ConcurrentLinkedQueue<>();
+
+    private long position;
+
+    private boolean open = true;
+
+    S3RangedReadChannel(AmazonS3 amazonS3, String bucket, String key, long size, int rangeSize, int prefetch, String eTag,
+            ExecutorService executor) {
+        this(amazonS3, bucket, key, size, rangeSize, prefetch, eTag, executor, null);
+    }
+
+    /**
+     * @param eTag The ETag of the object, all the ranges must have (null to read any version).
+     * @param executor The executor fetching the ranges, not shut down by the channel.
+     * @param firstRange The response of a GET request of the first range, if already sent (may be null).
+     */
+    S3RangedReadChannel(AmazonS3 amazonS3, String bucket, String key, long size, int rangeSize, int prefetch, String eTag,
+            ExecutorService executor, S3Object firstRange) {
+        this.amazonS3 = amazonS3;
+        this.bucket = bucket;
+        this.key = key;
+        this.size = size;
+        this.rangeSize = rangeSize;
+        this.prefetch = Math.max(0, prefetch);
+        this.eTag = eTag;
+        this.executor = executor;
+        if (firstRange != null) {
+            this.firstRange.set(firstRange);
+            ranges.put(0L, executor.submit(this::readFirstRange));
+        }
+    }
+
+    @Override
+    public int read(ByteBuffer destination) throws IOException {
+        ensureOpen();
+        if (position >= size) {
+            return -1;
+        }
+        final long rangeIndex = position / rangeSize;
+        final byte[] range = getRange(rangeIndex);
+        final int offset = (int) (position - rangeIndex * rangeSize);
+        final int count = Math.min(destination.remaining(), rangeLength(rangeIndex) - offset);
+        destination.put(range, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public long position() throws IOException {
+        ensureOpen();
+        return position;
+    }
+
+    @Override
+    public SeekableByteChannel position(long newPosition) throws IOException {
+        ensureOpen();
+        if (newPosition < 0) {
+            throw new IllegalArgumentException("Position must be positive (was " + newPosition + ").");
+        }
+        position = newPosition;
+        return this;
+    }
+
+    @Override
+    public long size() throws IOException {
+        ensureOpen();
+        return size;
+    }
+
+    @Override
+    public int write(ByteBuffer source) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long size) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() {
+        if (open) {
+            open = false;
+            ranges.values().forEach(range -> range.cancel(true));
+            ranges.clear();
+            freeBuffers.clear();
+            // The first range may not have been read yet: release its connection
+            final S3Object unread = firstRange.getAndSet(null);
+            if (unread != null) {
+                try {
+                    unread.close();
+                } catch (IOException e) {
+                    LOGGER.debug("Unable to close first range of '{}'.", key, e);
+                }
+            }
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (!open) {
+            throw new ClosedChannelException();
+        }
+    }
+
+    /**
+     * @return The content of a range, once fetched. Ranges out of the window of this range are dropped, and the ranges
+     * after it are prefetched.
+     */
+    private byte[] getRange(long rangeIndex) throws IOException {
+        final long lastRangeIndex = (size - 1) / rangeSize;
+        final long windowEnd = Math.min(rangeIndex + prefetch, lastRangeIndex);
+        final Iterator<Map.Entry<Long, Future<byte[]>>> iterator = ranges.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<Long, Future<byte[]>> range = iterator.next();
+            if (range.getKey() < rangeIndex - 1 || range.getKey() > windowEnd) {
+                drop(range.getValue());
+                iterator.remove();
+            }
+        }
+        for (long index = rangeIndex; index <= windowEnd; index++) {
+            if (!ranges.containsKey(index)) {
+                final long start = index * rangeSize;
+                final int length = rangeLength(index);
+                ranges.put(index, executor.submit(() -> fetch(start, length)));
+            }
+        }
+        try {
+            return ranges.get(rangeIndex).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while reading '" + key + "'.");
+        } catch (ExecutionException e) {
+            ranges.remove(rangeIndex);
+            throw new IOException("Unable to read '" + key + "' in bucket '" + bucket + "' at position " + position + ".",
+                    e.getCause());
+        }
+    }
+
+    private int rangeLength(long rangeIndex) {
+        return (int) Math.min(rangeSize, size - rangeIndex * rangeSize);
+    }
+
+    private byte[] readFirstRange() throws IOException {
+        final S3Object range = firstRange.getAndSet(null);
+        if (range == null) {
+            throw new ClosedChannelException();
+        }
+        return read(range, 0, rangeLength(0));
+    }
+
+    private byte[] fetch(long start, int length) throws IOException {
+        final GetObjectRequest request = new GetObjectRequest(bucket, key).withRange(start, start + length - 1);
+        if (eTag != null) {
+            request.withMatchingETagConstraint(eTag);
+        }
+        // Null when the constraint is not met
+        final S3Object range = amazonS3.getObject(request);
+        if (range == null) {
+            throw new IOException("'" + key + "' in bucket '" + bucket + "' was modified while read.");
+        }
+        return read(range, start, length);
+    }
+
+    private byte[] read(S3Object range, long start, int length) throws IOException {
+        byte[] buffer = freeBuffers.poll();
+        if (buffer == null) {
+            buffer = new byte[rangeSize];
+        }
+        try (S3Object object = range; InputStream content = object.getObjectContent()) {
+            int read = 0;
+            while (read < length) {
+                final int count = content.read(buffer, read, length - read);
+                if (count < 0) {
+                    throw new IOException("Unexpected end of '" + key + "' at position " + (start + read) + ".");
+                }
+                read += count;
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Cancels the fetch of a range, its buffer is reused if the range was already fetched.
+     */
+    private void drop(Future<byte[]> range) {
+        if (range.isDone() && !range.isCancelled()) {
+            try {
+                freeBuffers.offer(range.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // Nothing to reuse
+            }
+        } else {
+            range.cancel(true);
+        }
+    }
+}
@@ -1,38 +1,102 @@
 package org.talend.daikon.content.s3;
 
+import static org.talend.daikon.content.s3.LocationUtils.toS3Key;
 import static org.talend.daikon.content.s3.LocationUtils.toS3Location;
 import static org.talend.daikon.content.s3.LocationUtils.S3PathBuilder.builder;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang.StringUtils;
 import org.springframework.core.io.WritableResource;
 import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
 import org.talend.daikon.content.AbstractResourceResolver;
 import org.talend.daikon.content.DeletableResource;
+import org.talend.daikon.content.MoveListener;
 import org.talend.daikon.content.s3.provider.S3BucketProvider;
 
 import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
 
 class S3ResourceResolver extends AbstractResourceResolver {
 
+    private static final PathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private static final String WILDCARDS = "*?{";
+
+    private final ResourcePatternResolver delegate;
+
     private final AmazonS3 amazonS3;
 
     private final S3BucketProvider bucket;
 
+    private final S3BatchDeleter batchDeleter;
+
+    private final S3TransferSettings settings;
+
+    private final S3Transfers transfers;
+
+    private final S3ListingCache listings;
+
     S3ResourceResolver(ResourcePatternResolver delegate, AmazonS3 amazonS3, S3BucketProvider bucket) {
+        this(delegate, amazonS3, bucket, new S3TransferSettings());
+    }
+
+    S3ResourceResolver(ResourcePatternResolver delegate, AmazonS3 amazonS3, S3BucketProvider bucket,
+            S3TransferSettings settings) {
         super(delegate);
+        this.delegate = delegate;
         this.amazonS3 = amazonS3;
         this.bucket = bucket;
+        this.batchDeleter = new S3BatchDeleter(amazonS3, settings.getDeleteConcurrency());
+        this.settings = settings;
+        this.transfers = new S3Transfers(amazonS3, settings);
+        this.listings = new S3ListingCache(settings.getListCacheTtl(), settings.getListCacheMaxKeys());
     }
 
+    /**
+     * Lists the objects under the pattern prefix and matches their keys, see {@link #stream(String)}.
+     */
     @Override
     public DeletableResource[] getResources(String locationPattern) throws IOException {
-        final String location = builder(bucket.getBucketName()) //
-                .append(bucket.getRoot()) //
-                .append(locationPattern) //
-                .build();
-        return super.getResources("s3://" + location);
+        try (Stream<DeletableResource> resources = stream(locationPattern)) {
+            return resources.toArray(DeletableResource[]::new);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Lists the objects under the pattern prefix page by page (as the stream is consumed) and matches their keys. The
+     * resources get their size and last modification from the listing, without a request per object. Listings may be
+     * kept for {@link S3TransferSettings#getListCacheTtl()}.
+     */
+    @Override
+    public Stream<DeletableResource> stream(String locationPattern) throws IOException {
+        final String bucketName = bucket.getBucketName();
+        final String keyPattern = toS3Key(bucket.getRoot(), locationPattern);
+        if (!PATH_MATCHER.isPattern(keyPattern)) {
+            final String location = builder(bucketName) //
+                    .append(bucket.getRoot()) //
+                    .append(locationPattern) //
+                    .build();
+            return Arrays.stream(super.getResources("s3://" + location));
+        }
+        return listObjects(bucketName, keyPattern, true).map(object -> toResource(bucketName, object));
     }
 
     @Override
@@ -52,9 +116,141 @@ class S3ResourceResolver extends AbstractResourceResolver {
         return super.getResource("s3://" + s3Location);
     }
 
+    /**
+     * Deletes the listed objects with multi-object delete requests instead of one request per object. Kept listings are
+     * not used to find the objects to delete.
+     */
+    @Override
+    public void clear(String location) throws IOException {
+        final String bucketName = bucket.getBucketName();
+        final String keyPattern = toS3Key(bucket.getRoot(), location);
+        final List<String> keys;
+        if (PATH_MATCHER.isPattern(keyPattern)) {
+            try {
+                keys = listObjects(bucketName, keyPattern, false).map(S3ObjectSummary::getKey).collect(Collectors.toList());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        } else {
+            keys = Collections.singletonList(keyPattern);
+        }
+        try {
+            batchDeleter.delete(bucketName, keys);
+        } finally {
+            listings.invalidate(bucketName, toKeyPrefix(keyPattern));
+        }
+    }
+
+    @Override
+    public void delete(Collection<String> locations) throws IOException {
+        final String root = bucket.getRoot();
+        final List<String> keys = locations.stream() //
+                .map(location -> toS3Key(root, location)) //
+                .collect(Collectors.toList());
+        try {
+            batchDeleter.delete(bucket.getBucketName(), keys);
+        } finally {
+            keys.forEach(key -> listings.invalidate(bucket.getBucketName(), key));
+        }
+    }
+
+    /**
+     * Moves the objects in parallel (at most {@link S3TransferSettings#getMoveConcurrency()} at a time), each object
+     * being copied on S3 side before it is deleted.
+     */
+    @Override
+    public void moveDirectory(String sourceDirectory, String targetDirectory, MoveListener listener) throws IOException {
+        final String bucketName = bucket.getBucketName();
+        final String root = bucket.getRoot();
+        final String source = sourceDirectory.endsWith("/") ? sourceDirectory : sourceDirectory + '/';
+        final String target = targetDirectory.endsWith("/") ? targetDirectory : targetDirectory + '/';
+        final String sourcePrefix = toDirectoryKey(root, source);
+        final String targetPrefix = toDirectoryKey(root, target);
+        final List<S3ObjectSummary> objects;
+        try {
+            objects = new S3ObjectListing(amazonS3, bucketName, sourcePrefix).stream().collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (objects.isEmpty()) {
+            return;
+        }
+
+        final AtomicInteger moved = new AtomicInteger();
+        final ExecutorService executor = S3Executors.newExecutor("s3-move",
+                Math.min(settings.getMoveConcurrency(), objects.size()));
+        try {
+            final List<Future<?>> moves = new ArrayList<>(objects.size());
+            for (S3ObjectSummary object : objects) {
+                final String relativePath = object.getKey().substring(sourcePrefix.length());
+                moves.add(executor.submit(() -> {
+                    transfers.copy(bucketName, object.getKey(), targetPrefix + relativePath, object.getSize());
+                    amazonS3.deleteObject(bucketName, object.getKey());
+                    listener.moved(source + relativePath, target + relativePath, moved.incrementAndGet(), objects.size());
+                    return null;
+                }));
+            }
+            for (Future<?> move : moves) {
+                move.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while moving '" + sourceDirectory + "' to '" + targetDirectory + "'.");
+        } catch (ExecutionException e) {
+            throw new IOException("Unable to move '" + sourceDirectory + "' to '" + targetDirectory + "'.", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            listings.invalidate(bucketName, sourcePrefix);
+            listings.invalidate(bucketName, targetPrefix);
+        }
+    }
+
+    private static String toDirectoryKey(String root, String directory) {
+        final String key = toS3Key(root, directory);
+        return key.isEmpty() || key.endsWith("/") ? key : key + '/';
+    }
+
+    /**
+     * @return The part of a key pattern before its first wildcard.
+     */
+    private static String toKeyPrefix(String keyPattern) {
+        int prefixLength = 0;
+        while (prefixLength < keyPattern.length() && WILDCARDS.indexOf(keyPattern.charAt(prefixLength)) < 0) {
+            prefixLength++;
+        }
+        return keyPattern.substring(0, prefixLength);
+    }
+
+    /**
+     * @param useCache <code>true</code> to use (and keep) the listing of the pattern prefix.
+     * @return The objects whose key matches the pattern.
+     */
+    private Stream<S3ObjectSummary> listObjects(String bucketName, String keyPattern, boolean useCache) throws IOException {
+        final String prefix = toKeyPrefix(keyPattern);
+        final Stream<S3ObjectSummary> objects;
+        final List<S3ObjectSummary> cached = useCache ? listings.get(bucketName, prefix) : null;
+        if (cached != null) {
+            objects = cached.stream();
+        } else {
+            final long generation = listings.getGeneration();
+            final S3ObjectListing listing = new S3ObjectListing(amazonS3, bucketName, prefix);
+            if (useCache && listings.isEnabled()) {
+                listing.collect(listings.getMaxKeys(), listed -> listings.put(bucketName, prefix, listed, generation));
+            }
+            objects = listing.stream();
+        }
+        return objects.filter(object -> PATH_MATCHER.match(keyPattern, object.getKey()));
+    }
+
+    private DeletableResource toResource(String bucketName, S3ObjectSummary object) {
+        final WritableResource resource = (WritableResource) delegate.getResource("s3://" + bucketName + '/' + object.getKey());
+        return new S3DeletableResource(resource, amazonS3, object.getKey(), bucketName, bucket.getRoot(), transfers, listings,
+                object);
+    }
+
     @Override
     protected DeletableResource convert(WritableResource writableResource) {
         return new S3DeletableResource(writableResource, amazonS3, writableResource.getFilename(), bucket.getBucketName(),
-                bucket.getRoot());
+                bucket.getRoot(), transfers, listings);
     }
 }
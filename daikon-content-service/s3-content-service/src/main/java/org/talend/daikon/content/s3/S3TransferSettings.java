@@ -0,0 +1,216 @@
+package org.talend.daikon.content.s3;
+
+/**
+ * Tuning of the transfers between the content service and S3.
+ */
+class S3TransferSettings {
+
+    private static final long MB = 1024L * 1024L;
+
+    /** Minimum size of a multipart upload part accepted by S3 (except for the last part). */
+    static final long MIN_PART_SIZE = 5 * MB;
+
+    /** Maximum number of parts of a multipart upload accepted by S3. */
+    static final int MAX_PARTS = 10000;
+
+    private long multipartCopyThreshold = 128 * MB;
+
+    private long copyPartSize = 64 * MB;
+
+    private int copyConcurrency = 8;
+
+    private int moveConcurrency = 4;
+
+    private int deleteConcurrency = S3BatchDeleter.DEFAULT_CONCURRENCY;
+
+    private int uploadPartSize = (int) (8 * MB);
+
+    private int uploadConcurrency = 4;
+
+    private int uploadPooledBuffers = 8;
+
+    private int uploadThreads = 16;
+
+    private int readRangeSize = (int) (8 * MB);
+
+    private int readPrefetch = 4;
+
+    private int readThreads = 16;
+
+    private long listCacheTtl = 0;
+
+    private int listCacheMaxKeys = 10000;
+
+    /**
+     * @return The size from which objects are copied with a multipart copy (in bytes).
+     */
+    long getMultipartCopyThreshold() {
+        return multipartCopyThreshold;
+    }
+
+    void setMultipartCopyThreshold(long multipartCopyThreshold) {
+        this.multipartCopyThreshold = multipartCopyThreshold;
+    }
+
+    /**
+     * @return The size of the parts of a multipart copy (in bytes).
+     */
+    long getCopyPartSize() {
+        return copyPartSize;
+    }
+
+    void setCopyPartSize(long copyPartSize) {
+        if (copyPartSize < MIN_PART_SIZE) {
+            throw new IllegalArgumentException("Part size must be at least " + MIN_PART_SIZE + " bytes (was " + copyPartSize
+                    + ").");
+        }
+        this.copyPartSize = copyPartSize;
+    }
+
+    /**
+     * @return The maximum number of parts copied in parallel for an object.
+     */
+    int getCopyConcurrency() {
+        return copyConcurrency;
+    }
+
+    void setCopyConcurrency(int copyConcurrency) {
+        this.copyConcurrency = copyConcurrency;
+    }
+
+    /**
+     * @return The maximum number of objects moved in parallel when moving a directory.
+     */
+    int getMoveConcurrency() {
+        return moveConcurrency;
+    }
+
+    void setMoveConcurrency(int moveConcurrency) {
+        this.moveConcurrency = moveConcurrency;
+    }
+
+    /**
+     * @return The maximum number of multi-object delete requests sent in parallel.
+     */
+    int getDeleteConcurrency() {
+        return deleteConcurrency;
+    }
+
+    void setDeleteConcurrency(int deleteConcurrency) {
+        this.deleteConcurrency = deleteConcurrency;
+    }
+
+    /**
+     * @return The size of the parts uploaded while writing an object (in bytes), this is also the size of the upload
+     * buffers.
+     */
+    int getUploadPartSize() {
+        return uploadPartSize;
+    }
+
+    void setUploadPartSize(int uploadPartSize) {
+        if (uploadPartSize < MIN_PART_SIZE) {
+            throw new IllegalArgumentException("Part size must be at least " + MIN_PART_SIZE + " bytes (was " + uploadPartSize
+                    + ").");
+        }
+        this.uploadPartSize = uploadPartSize;
+    }
+
+    /**
+     * @return The maximum number of parts uploaded in parallel for an object being written, writes block when reached.
+     */
+    int getUploadConcurrency() {
+        return uploadConcurrency;
+    }
+
+    void setUploadConcurrency(int uploadConcurrency) {
+        this.uploadConcurrency = uploadConcurrency;
+    }
+
+    /**
+     * @return The maximum number of direct upload buffers, kept for later uploads (heap buffers are used beyond).
+     */
+    int getUploadPooledBuffers() {
+        return uploadPooledBuffers;
+    }
+
+    void setUploadPooledBuffers(int uploadPooledBuffers) {
+        this.uploadPooledBuffers = uploadPooledBuffers;
+    }
+
+    /**
+     * @return The number of threads uploading the parts of all the objects being written.
+     */
+    int getUploadThreads() {
+        return uploadThreads;
+    }
+
+    void setUploadThreads(int uploadThreads) {
+        if (uploadThreads <= 0) {
+            throw new IllegalArgumentException("Upload threads must be positive (was " + uploadThreads + ").");
+        }
+        this.uploadThreads = uploadThreads;
+    }
+
+    /**
+     * @return The size of the ranges read in parallel from large objects (in bytes), smaller objects are read with a
+     * single request.
+     */
+    int getReadRangeSize() {
+        return readRangeSize;
+    }
+
+    void setReadRangeSize(int readRangeSize) {
+        if (readRangeSize <= 0) {
+            throw new IllegalArgumentException("Range size must be positive (was " + readRangeSize + ").");
+        }
+        this.readRangeSize = readRangeSize;
+    }
+
+    /**
+     * @return The number of ranges fetched ahead of the read position.
+     */
+    int getReadPrefetch() {
+        return readPrefetch;
+    }
+
+    void setReadPrefetch(int readPrefetch) {
+        this.readPrefetch = readPrefetch;
+    }
+
+    /**
+     * @return The number of threads fetching the ranges of all the objects being read.
+     */
+    int getReadThreads() {
+        return readThreads;
+    }
+
+    void setReadThreads(int readThreads) {
+        if (readThreads <= 0) {
+            throw new IllegalArgumentException("Read threads must be positive (was " + readThreads + ").");
+        }
+        this.readThreads = readThreads;
+    }
+
+    /**
+     * @return The time listings of prefixes are kept (in milliseconds), 0 if listings are not kept.
+     */
+    long getListCacheTtl() {
+        return listCacheTtl;
+    }
+
+    void setListCacheTtl(long listCacheTtl) {
+        this.listCacheTtl = listCacheTtl;
+    }
+
+    /**
+     * @return The maximum number of objects of a kept listing.
+     */
+    int getListCacheMaxKeys() {
+        return listCacheMaxKeys;
+    }
+
+    void setListCacheMaxKeys(int listCacheMaxKeys) {
+        this.listCacheMaxKeys = listCacheMaxKeys;
+    }
+}
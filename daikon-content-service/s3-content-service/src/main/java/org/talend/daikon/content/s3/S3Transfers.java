@@ -0,0 +1,162 @@
+package org.talend.daikon.content.s3;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.util.concurrent.ExecutorService;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3Object;
+
+/**
+ * Entry point of the data transfers of the resources of a {@link S3ResourceResolver}: they share the same settings,
+ * buffers and threads.
+ */
+class S3Transfers {
+
+    private final AmazonS3 amazonS3;
+
+    private final S3TransferSettings settings;
+
+    private final S3MultipartCopier copier;
+
+    private final S3BufferPool uploadBuffers;
+
+    private final ExecutorService uploadExecutor;
+
+    private final ExecutorService readExecutor;
+
+    S3Transfers(AmazonS3 amazonS3, S3TransferSettings settings) {
+        this.amazonS3 = amazonS3;
+        this.settings = settings;
+        this.copier = new S3MultipartCopier(amazonS3, settings);
+        this.uploadBuffers = new S3BufferPool(settings.getUploadPartSize(), settings.getUploadPooledBuffers());
+        this.uploadExecutor = S3Executors.newSharedExecutor("s3-upload", settings.getUploadThreads());
+        this.readExecutor = S3Executors.newSharedExecutor("s3-read", settings.getReadThreads());
+    }
+
+    S3TransferSettings getSettings() {
+        return settings;
+    }
+
+    /**
+     * Copies an object, see {@link S3MultipartCopier#copy(String, String, String, long)}.
+     */
+    void copy(String bucket, String sourceKey, String targetKey, long size) throws IOException {
+        copier.copy(bucket, sourceKey, targetKey, size);
+    }
+
+    /**
+     * @return A stream uploading the object while it is written, see {@link S3MultipartOutputStream}.
+     */
+    OutputStream newOutputStream(String bucket, String key) {
+        return new S3MultipartOutputStream(amazonS3, bucket, key, uploadBuffers, uploadExecutor,
+                settings.getUploadConcurrency());
+    }
+
+    /**
+     * Opens an object for reading. The first range of the object is requested at once: objects smaller than a range are
+     * read from this single response, larger objects are read with a {@link S3RangedReadChannel}.
+     *
+     * @return A stream on the object content.
+     */
+    InputStream newInputStream(String bucket, String key) throws IOException {
+        final int rangeSize = settings.getReadRangeSize();
+        final S3Object firstRange;
+        try {
+            firstRange = amazonS3.getObject(new GetObjectRequest(bucket, key).withRange(0, rangeSize - 1L));
+        } catch (AmazonS3Exception e) {
+            if (e.getStatusCode() == 416) {
+                // Empty object, no range can be satisfied
+                return getObject(bucket, key).getObjectContent();
+            }
+            throw toIOException(bucket, key, e);
+        } catch (AmazonClientException e) {
+            throw toIOException(bucket, key, e);
+        }
+        final long size = firstRange.getObjectMetadata().getInstanceLength();
+        if (size <= rangeSize) {
+            return firstRange.getObjectContent();
+        }
+        return Channels.newInputStream(new S3RangedReadChannel(amazonS3, bucket, key, size, rangeSize,
+                settings.getReadPrefetch(), firstRange.getObjectMetadata().getETag(), readExecutor, firstRange));
+    }
+
+    /**
+     * Opens the start of an object with a single ranged request, for instance to read a header.
+     *
+     * @param length The number of bytes to request.
+     * @return A stream on the first <code>length</code> bytes of the object (less if the object is smaller).
+     */
+    InputStream newHeadInputStream(String bucket, String key, int length) throws IOException {
+        try {
+            return amazonS3.getObject(new GetObjectRequest(bucket, key).withRange(0, length - 1L)).getObjectContent();
+        } catch (AmazonS3Exception e) {
+            if (e.getStatusCode() == 416) {
+                // Empty object, no range can be satisfied
+                return getObject(bucket, key).getObjectContent();
+            }
+            throw toIOException(bucket, key, e);
+        } catch (AmazonClientException e) {
+            throw toIOException(bucket, key, e);
+        }
+    }
+
+    /**
+     * @return A channel reading the object with parallel ranged requests, see {@link S3RangedReadChannel}.
+     */
+    SeekableByteChannel newReadChannel(String bucket, String key) throws IOException {
+        final ObjectMetadata metadata;
+        try {
+            metadata = amazonS3.getObjectMetadata(bucket, key);
+        } catch (AmazonClientException e) {
+            throw toIOException(bucket, key, e);
+        }
+        return new S3RangedReadChannel(amazonS3, bucket, key, metadata.getContentLength(), settings.getReadRangeSize(),
+                settings.getReadPrefetch(), metadata.getETag(), readExecutor);
+    }
+
+    /**
+     * Reads an object unless its ETag is the given one (conditional GET).
+     *
+     * @param eTag The ETag of a copy of the object, null to always read the object.
+     * @return The object, null if its ETag is still <code>eTag</code>.
+     */
+    S3Object getObjectIfModified(String bucket, String key, String eTag) throws IOException {
+        final GetObjectRequest request = new GetObjectRequest(bucket, key);
+        if (eTag != null) {
+            request.withNonmatchingETagConstraint(eTag);
+        }
+        try {
+            // Returns null when the constraint is not met (not modified)
+            return amazonS3.getObject(request);
+        } catch (AmazonClientException e) {
+            throw toIOException(bucket, key, e);
+        }
+    }
+
+    private S3Object getObject(String bucket, String key) throws IOException {
+        try {
+            return amazonS3.getObject(new GetObjectRequest(bucket, key));
+        } catch (AmazonClientException e) {
+            throw toIOException(bucket, key, e);
+        }
+    }
+
+    private static IOException toIOException(String bucket, String key, AmazonClientException e) {
+        if (e instanceof AmazonS3Exception && ((AmazonS3Exception) e).getStatusCode() == 404) {
+            final FileNotFoundException notFound = new FileNotFoundException(
+                    "Object '" + key + "' does not exist in bucket '" + bucket + "'.");
+            notFound.initCause(e);
+            return notFound;
+        }
+        return new IOException("Unable to read '" + key + "' in bucket '" + bucket + "'.", e);
+    }
+}
@@ -0,0 +1,12 @@
+package org.talend.daikon.content.s3;
+
+import org.junit.Before;
+import org.talend.daikon.content.AsyncContentServiceTest;
+
+public class S3AsyncContentServiceTest extends AsyncContentServiceTest {
+
+    @Before
+    public void setUp() throws Exception {
+        TestConfiguration.clientNumber.set(0);
+    }
+}
@@ -0,0 +1,113 @@
+package org.talend.daikon.content.s3;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsResult;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+
+public class S3BatchDeleterTest {
+
+    private final AmazonS3 amazonS3 = mock(AmazonS3.class);
+
+    private final S3BatchDeleter deleter = new S3BatchDeleter(amazonS3, 2);
+
+    @Test
+    public void shouldDeleteInBatches() throws Exception {
+        // Given
+        when(amazonS3.deleteObjects(any(DeleteObjectsRequest.class)))
+                .thenReturn(new DeleteObjectsResult(Collections.emptyList()));
+        final List<String> keys = keys(2500);
+
+        // When
+        deleter.delete("bucket", keys);
+
+        // Then
+        final ArgumentCaptor<DeleteObjectsRequest> requests = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+        verify(amazonS3, times(3)).deleteObjects(requests.capture());
+        final Set<String> deletedKeys = new HashSet<>();
+        for (DeleteObjectsRequest request : requests.getAllValues()) {
+            assertEquals("bucket", request.getBucketName());
+            assertTrue(request.getKeys().size() <= S3BatchDeleter.MAX_KEYS_PER_REQUEST);
+            request.getKeys().forEach(key -> deletedKeys.add(key.getKey()));
+        }
+        assertEquals(new HashSet<>(keys), deletedKeys);
+    }
+
+    @Test
+    public void shouldNotCallS3WithoutKeys() throws Exception {
+        deleter.delete("bucket", Collections.emptyList());
+        verifyZeroInteractions(amazonS3);
+    }
+
+    @Test
+    public void shouldRetryFailedKeys() throws Exception {
+        // Given
+        when(amazonS3.deleteObjects(any(DeleteObjectsRequest.class))) //
+                .thenThrow(multiObjectDeleteException("key-1", "key-3")) //
+                .thenThrow(new AmazonClientException("Connection reset")) //
+                .thenReturn(new DeleteObjectsResult(Collections.emptyList()));
+
+        // When
+        deleter.delete("bucket", keys(5));
+
+        // Then
+        final ArgumentCaptor<DeleteObjectsRequest> requests = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+        verify(amazonS3, times(3)).deleteObjects(requests.capture());
+        assertEquals(5, requests.getAllValues().get(0).getKeys().size());
+        assertEquals(2, requests.getAllValues().get(1).getKeys().size());
+        assertEquals(2, requests.getAllValues().get(2).getKeys().size());
+        assertEquals("key-1", requests.getAllValues().get(2).getKeys().get(0).getKey());
+        assertEquals("key-3", requests.getAllValues().get(2).getKeys().get(1).getKey());
+    }
+
+    @Test
+    public void shouldFailAfterMaxAttempts() throws Exception {
+        // Given
+        when(amazonS3.deleteObjects(any(DeleteObjectsRequest.class))).thenThrow(multiObjectDeleteException("key-2"));
+
+        // When
+        try {
+            deleter.delete("bucket", keys(5));
+            fail("Expected an IOException");
+        } catch (IOException e) {
+            // Then
+            assertTrue(e.getMessage(), e.getMessage().contains("'key-2'"));
+        }
+        verify(amazonS3, times(S3BatchDeleter.MAX_ATTEMPTS)).deleteObjects(any(DeleteObjectsRequest.class));
+    }
+
+    private static List<String> keys(int count) {
+        final List<String> keys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            keys.add("key-" + i);
+        }
+        return keys;
+    }
+
+    private static MultiObjectDeleteException multiObjectDeleteException(String... failedKeys) {
+        final List<MultiObjectDeleteException.DeleteError> errors = Arrays.stream(failedKeys).map(key -> {
+            final MultiObjectDeleteException.DeleteError error = new MultiObjectDeleteException.DeleteError();
+            error.setKey(key);
+            error.setCode("InternalError");
+            return error;
+        }).collect(Collectors.toList());
+        return new MultiObjectDeleteException(errors, Collections.emptyList());
+    }
+}
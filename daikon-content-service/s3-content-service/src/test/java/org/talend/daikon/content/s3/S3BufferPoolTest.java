@@ -0,0 +1,39 @@
+package org.talend.daikon.content.s3;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+public class S3BufferPoolTest {
+
+    @Test
+    public void shouldReuseReleasedBuffers() {
+        final S3BufferPool pool = new S3BufferPool(1024, 2);
+        final ByteBuffer buffer = pool.acquire();
+        buffer.put((byte) 1);
+        pool.release(buffer);
+
+        final ByteBuffer reused = pool.acquire();
+        assertSame(buffer, reused);
+        assertEquals(0, reused.position());
+        assertEquals(1, pool.getDirectBuffers());
+    }
+
+    @Test
+    public void shouldUseHeapBuffersBeyondLimit() {
+        final S3BufferPool pool = new S3BufferPool(1024, 2);
+        assertTrue(pool.acquire().isDirect());
+        assertTrue(pool.acquire().isDirect());
+
+        final ByteBuffer heap = pool.acquire();
+        assertFalse(heap.isDirect());
+        assertEquals(1024, heap.capacity());
+        assertEquals(2, pool.getDirectBuffers());
+
+        // Heap buffers are not kept
+        pool.release(heap);
+        assertFalse(pool.acquire().isDirect());
+    }
+}
@@ -0,0 +1,17 @@
+package org.talend.daikon.content.s3;
+
+import org.junit.Before;
+import org.springframework.test.context.TestPropertySource;
+import org.talend.daikon.content.CompressingResourceResolverTest;
+
+@TestPropertySource(properties = { "content-service.compression.enabled=true",
+        "content-service.compression.codec-by-extension=log:deflate" })
+public class S3CompressingResourceResolverTest extends CompressingResourceResolverTest {
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        TestConfiguration.clientNumber.set(0);
+        super.setUp();
+    }
+}
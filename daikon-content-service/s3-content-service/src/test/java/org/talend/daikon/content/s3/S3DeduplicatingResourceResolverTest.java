@@ -0,0 +1,16 @@
+package org.talend.daikon.content.s3;
+
+import org.junit.Before;
+import org.springframework.test.context.TestPropertySource;
+import org.talend.daikon.content.DeduplicatingResourceResolverTest;
+
+@TestPropertySource(properties = "content-service.store.dedup.enabled=true")
+public class S3DeduplicatingResourceResolverTest extends DeduplicatingResourceResolverTest {
+
+    @Before
+    @Override
+    public void setUp() throws Exception {
+        TestConfiguration.clientNumber.set(0);
+        super.setUp();
+    }
+}
@@ -1,7 +1,67 @@
 package org.talend.daikon.content.s3;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.talend.daikon.content.DeletableResource;
 import org.talend.daikon.content.DeletableResourceLoaderTest;
 
 public class S3DeletablePathResolverTest extends DeletableResourceLoaderTest {
-    // All standard test
+
+    @Test
+    public void shouldClearMoreObjectsThanOneRequest() throws Exception {
+        // Given
+        TestConfiguration.clientNumber.set(0);
+        final int count = S3BatchDeleter.MAX_KEYS_PER_REQUEST + 10;
+        for (int i = 0; i < count; i++) {
+            final DeletableResource resource = resolver.getResource("batch/file" + i + ".txt");
+            try (OutputStream outputStream = resource.getOutputStream()) {
+                outputStream.write('a');
+            }
+        }
+        assertEquals(count, resolver.getResources("/batch/**").length);
+
+        // When
+        resolver.clear("/batch/**");
+
+        // Then
+        assertEquals(0, resolver.getResources("/batch/**").length);
+        assertFalse(resolver.getResource("batch/file0.txt").exists());
+    }
+
+    @Test
+    public void shouldStreamListedResources() throws Exception {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            final DeletableResource resource = resolver.getResource("stream/dir" + (i % 2) + "/file" + i + ".txt");
+            try (OutputStream outputStream = resource.getOutputStream()) {
+                outputStream.write(new byte[i + 1]);
+            }
+        }
+
+        try {
+            // When
+            final List<DeletableResource> resources;
+            try (Stream<DeletableResource> stream = resolver.stream("/stream/dir0/*.txt")) {
+                resources = stream.collect(Collectors.toList());
+            }
+
+            // Then
+            assertEquals(3, resources.size());
+            for (DeletableResource resource : resources) {
+                assertTrue(resource.exists());
+                final int index = Integer.parseInt(resource.getFilename().replaceAll(".*file(\\d+)\\.txt", "$1"));
+                assertEquals(index + 1, resource.contentLength());
+            }
+        } finally {
+            resolver.clear("/stream/**");
+        }
+    }
 }
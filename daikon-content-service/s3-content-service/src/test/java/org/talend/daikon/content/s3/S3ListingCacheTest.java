@@ -0,0 +1,96 @@
+package org.talend.daikon.content.s3;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+
+public class S3ListingCacheTest {
+
+    private final S3ListingCache cache = new S3ListingCache(60_000, 2);
+
+    private final List<S3ObjectSummary> listing = singletonList(new S3ObjectSummary());
+
+    @Test
+    public void shouldKeepListing() {
+        // When
+        cache.put("bucket", "dir/", listing, cache.getGeneration());
+
+        // Then
+        assertEquals(listing, cache.get("bucket", "dir/"));
+        assertNull(cache.get("other", "dir/"));
+        assertNull(cache.get("bucket", "dir/sub/"));
+    }
+
+    @Test
+    public void shouldInvalidateListingsContainingKey() {
+        // Given
+        cache.put("bucket", "dir/", listing, cache.getGeneration());
+        cache.put("bucket", "dir/sub/", listing, cache.getGeneration());
+        cache.put("bucket", "other/", listing, cache.getGeneration());
+
+        // When
+        cache.invalidate("bucket", "dir/sub/file.txt");
+
+        // Then
+        assertNull(cache.get("bucket", "dir/"));
+        assertNull(cache.get("bucket", "dir/sub/"));
+        assertNotNull(cache.get("bucket", "other/"));
+    }
+
+    @Test
+    public void shouldInvalidateListingsUnderPrefix() {
+        // Given
+        cache.put("bucket", "dir/sub/", listing, cache.getGeneration());
+
+        // When
+        cache.invalidate("bucket", "dir/");
+
+        // Then
+        assertNull(cache.get("bucket", "dir/sub/"));
+    }
+
+    @Test
+    public void shouldNotKeepListingStartedBeforeInvalidation() {
+        // Given
+        final long generation = cache.getGeneration();
+        cache.invalidate("bucket", "dir/file.txt");
+
+        // When
+        cache.put("bucket", "dir/", listing, generation);
+
+        // Then
+        assertNull(cache.get("bucket", "dir/"));
+    }
+
+    @Test
+    public void shouldNotKeepLargeListings() {
+        // Given
+        final List<S3ObjectSummary> large = asList(new S3ObjectSummary(), new S3ObjectSummary(),
+                new S3ObjectSummary());
+
+        // When
+        cache.put("bucket", "dir/", large, cache.getGeneration());
+
+        // Then
+        assertNull(cache.get("bucket", "dir/"));
+    }
+
+    @Test
+    public void shouldNotKeepListingsWhenDisabled() {
+        // Given
+        final S3ListingCache disabled = new S3ListingCache(0, 2);
+
+        // When
+        disabled.put("bucket", "dir/", listing, disabled.getGeneration());
+
+        // Then
+        assertFalse(disabled.isEnabled());
+        assertNull(disabled.get("bucket", "dir/"));
+    }
+}
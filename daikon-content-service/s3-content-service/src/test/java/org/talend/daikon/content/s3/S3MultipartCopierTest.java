@@ -0,0 +1,125 @@
+package org.talend.daikon.content.s3;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CopyObjectRequest;
+import com.amazonaws.services.s3.model.CopyObjectResult;
+import com.amazonaws.services.s3.model.CopyPartRequest;
+import com.amazonaws.services.s3.model.CopyPartResult;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+
+public class S3MultipartCopierTest {
+
+    private static final long MB = 1024L * 1024L;
+
+    private final AmazonS3 amazonS3 = mock(AmazonS3.class);
+
+    private S3MultipartCopier copier;
+
+    @Before
+    public void setUp() throws Exception {
+        final S3TransferSettings settings = new S3TransferSettings();
+        settings.setMultipartCopyThreshold(10 * MB);
+        settings.setCopyPartSize(5 * MB);
+        copier = new S3MultipartCopier(amazonS3, settings);
+
+        final ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType("text/csv");
+        when(amazonS3.getObjectMetadata("bucket", "source")).thenReturn(metadata);
+        final InitiateMultipartUploadResult initiateResult = new InitiateMultipartUploadResult();
+        initiateResult.setUploadId("upload");
+        when(amazonS3.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class))).thenReturn(initiateResult);
+        when(amazonS3.copyPart(any(CopyPartRequest.class))).thenAnswer(invocation -> {
+            final CopyPartRequest request = (CopyPartRequest) invocation.getArguments()[0];
+            final CopyPartResult result = new CopyPartResult();
+            result.setPartNumber(request.getPartNumber());
+            result.setETag("etag-" + request.getPartNumber());
+            return result;
+        });
+    }
+
+    @Test
+    public void shouldCopySmallObjectAtOnce() throws Exception {
+        // Given
+        when(amazonS3.copyObject(any(CopyObjectRequest.class))).thenReturn(new CopyObjectResult());
+
+        // When
+        copier.copy("bucket", "source", "target", MB);
+
+        // Then
+        verify(amazonS3).copyObject(any(CopyObjectRequest.class));
+        verify(amazonS3, never()).initiateMultipartUpload(any(InitiateMultipartUploadRequest.class));
+    }
+
+    @Test
+    public void shouldCopyLargeObjectInParts() throws Exception {
+        // When
+        copier.copy("bucket", "source", "target", 12 * MB);
+
+        // Then
+        final ArgumentCaptor<InitiateMultipartUploadRequest> initiate = ArgumentCaptor
+                .forClass(InitiateMultipartUploadRequest.class);
+        verify(amazonS3).initiateMultipartUpload(initiate.capture());
+        assertEquals("target", initiate.getValue().getKey());
+        assertEquals("text/csv", initiate.getValue().getObjectMetadata().getContentType());
+
+        final ArgumentCaptor<CopyPartRequest> parts = ArgumentCaptor.forClass(CopyPartRequest.class);
+        verify(amazonS3, times(3)).copyPart(parts.capture());
+        long expectedFirstByte = 0;
+        for (CopyPartRequest part : sortByPartNumber(parts.getAllValues())) {
+            assertEquals("source", part.getSourceKey());
+            assertEquals("target", part.getDestinationKey());
+            assertEquals(expectedFirstByte, part.getFirstByte().longValue());
+            expectedFirstByte = part.getLastByte() + 1;
+        }
+        assertEquals(12 * MB, expectedFirstByte);
+
+        final ArgumentCaptor<CompleteMultipartUploadRequest> complete = ArgumentCaptor
+                .forClass(CompleteMultipartUploadRequest.class);
+        verify(amazonS3).completeMultipartUpload(complete.capture());
+        assertEquals(3, complete.getValue().getPartETags().size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i + 1, complete.getValue().getPartETags().get(i).getPartNumber());
+        }
+        verify(amazonS3, never()).copyObject(any(CopyObjectRequest.class));
+    }
+
+    @Test
+    public void shouldAbortOnPartFailure() throws Exception {
+        // Given
+        when(amazonS3.copyPart(any(CopyPartRequest.class))).thenThrow(new AmazonServiceException("Slow down"));
+
+        // When
+        try {
+            copier.copy("bucket", "source", "target", 12 * MB);
+            fail("Expected an IOException");
+        } catch (IOException e) {
+            // Then
+            assertTrue(e.getCause() instanceof AmazonServiceException);
+        }
+        final ArgumentCaptor<AbortMultipartUploadRequest> abort = ArgumentCaptor.forClass(AbortMultipartUploadRequest.class);
+        verify(amazonS3).abortMultipartUpload(abort.capture());
+        assertEquals("upload", abort.getValue().getUploadId());
+        verify(amazonS3, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    private static List<CopyPartRequest> sortByPartNumber(List<CopyPartRequest> parts) {
+        parts.sort((part1, part2) -> Integer.compare(part1.getPartNumber(), part2.getPartNumber()));
+        return parts;
+    }
+}
@@ -0,0 +1,236 @@
+package org.talend.daikon.content.s3;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadResult;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import com.amazonaws.services.s3.model.UploadPartResult;
+
+public class S3MultipartOutputStreamTest {
+
+    private static final int PART_SIZE = 5 * 1024 * 1024;
+
+    private final AmazonS3 amazonS3 = mock(AmazonS3.class);
+
+    private final S3BufferPool bufferPool = new S3BufferPool(PART_SIZE, 2);
+
+    private final ExecutorService executor = S3Executors.newSharedExecutor("s3-upload-test", 4);
+
+    /** Content of uploaded parts, by part number. */
+    private final Map<Integer, byte[]> uploadedParts = new ConcurrentHashMap<>();
+
+    private final AtomicInteger inFlightParts = new AtomicInteger();
+
+    private final AtomicInteger maxInFlightParts = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        final InitiateMultipartUploadResult initiateResult = new InitiateMultipartUploadResult();
+        initiateResult.setUploadId("upload");
+        when(amazonS3.initiateMultipartUpload(any(InitiateMultipartUploadRequest.class))).thenReturn(initiateResult);
+        when(amazonS3.uploadPart(any(UploadPartRequest.class))).thenAnswer(invocation -> {
+            final int inFlight = inFlightParts.incrementAndGet();
+            maxInFlightParts.accumulateAndGet(inFlight, Math::max);
+            try {
+                final UploadPartRequest request = (UploadPartRequest) invocation.getArguments()[0];
+                uploadedParts.put(request.getPartNumber(), readFully(request.getInputStream()));
+                Thread.sleep(20);
+                final UploadPartResult result = new UploadPartResult();
+                result.setPartNumber(request.getPartNumber());
+                result.setETag("etag-" + request.getPartNumber());
+                return result;
+            } finally {
+                inFlightParts.decrementAndGet();
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldPutSmallObject() throws Exception {
+        // Given
+        final ArgumentCaptor<PutObjectRequest> put = ArgumentCaptor.forClass(PutObjectRequest.class);
+        final AtomicInteger putSize = new AtomicInteger(-1);
+        when(amazonS3.putObject(put.capture())).thenAnswer(invocation -> {
+            final PutObjectRequest request = (PutObjectRequest) invocation.getArguments()[0];
+            assertArrayEquals("small content".getBytes(), readFully(request.getInputStream()));
+            putSize.set((int) request.getMetadata().getContentLength());
+            return null;
+        });
+
+        // When
+        try (OutputStream outputStream = new S3MultipartOutputStream(amazonS3, "bucket", "key", bufferPool, executor, 2)) {
+            outputStream.write("small content".getBytes());
+        }
+
+        // Then
+        assertEquals(13, putSize.get());
+        verify(amazonS3, never()).initiateMultipartUpload(any(InitiateMultipartUploadRequest.class));
+        assertEquals(0, bufferPool.getDirectBuffers());
+    }
+
+    @Test
+    public void shouldPutObjectOfOnePart() throws Exception {
+        // Given
+        final byte[] content = new byte[PART_SIZE];
+        new Random(42).nextBytes(content);
+        final AtomicInteger putSize = new AtomicInteger(-1);
+        when(amazonS3.putObject(any(PutObjectRequest.class))).thenAnswer(invocation -> {
+            final PutObjectRequest request = (PutObjectRequest) invocation.getArguments()[0];
+            assertArrayEquals(content, readFully(request.getInputStream()));
+            putSize.set((int) request.getMetadata().getContentLength());
+            return null;
+        });
+
+        // When
+        try (OutputStream outputStream = new S3MultipartOutputStream(amazonS3, "bucket", "key", bufferPool, executor, 2)) {
+            for (int offset = 0; offset < content.length; offset += 100_000) {
+                outputStream.write(content, offset, Math.min(100_000, content.length - offset));
+            }
+        }
+
+        // Then
+        assertEquals(PART_SIZE, putSize.get());
+        verify(amazonS3, never()).initiateMultipartUpload(any(InitiateMultipartUploadRequest.class));
+    }
+
+    @Test
+    public void shouldUploadPartsWhileWriting() throws Exception {
+        // Given
+        final byte[] content = new byte[6 * PART_SIZE + 1000];
+        new Random(42).nextBytes(content);
+
+        // When
+        try (OutputStream outputStream = new S3MultipartOutputStream(amazonS3, "bucket", "key", bufferPool, executor, 2)) {
+            for (int offset = 0; offset < content.length; offset += 100_000) {
+                outputStream.write(content, offset, Math.min(100_000, content.length - offset));
+            }
+        }
+
+        // Then
+        assertEquals(7, uploadedParts.size());
+        final ByteArrayOutputStream uploaded = new ByteArrayOutputStream();
+        for (int part = 1; part <= 7; part++) {
+            uploaded.write(uploadedParts.get(part));
+        }
+        assertArrayEquals(content, uploaded.toByteArray());
+        assertTrue(maxInFlightParts.get() <= 2);
+        assertTrue(bufferPool.getDirectBuffers() <= 2);
+
+        final ArgumentCaptor<CompleteMultipartUploadRequest> complete = ArgumentCaptor
+                .forClass(CompleteMultipartUploadRequest.class);
+        verify(amazonS3).completeMultipartUpload(complete.capture());
+        int partNumber = 1;
+        for (PartETag partETag : complete.getValue().getPartETags()) {
+            assertEquals(partNumber++, partETag.getPartNumber());
+        }
+        verify(amazonS3, never()).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+    }
+
+    @Test
+    public void shouldAbortOnPartFailure() throws Exception {
+        // Given
+        when(amazonS3.uploadPart(any(UploadPartRequest.class))).thenThrow(new AmazonServiceException("Slow down"));
+        final OutputStream outputStream = new S3MultipartOutputStream(amazonS3, "bucket", "key", bufferPool, executor, 2);
+
+        // When
+        try {
+            outputStream.write(new byte[3 * PART_SIZE]);
+            outputStream.close();
+            fail("Expected an IOException");
+        } catch (IOException e) {
+            // Then
+            verify(amazonS3).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+            verify(amazonS3, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+        }
+    }
+
+    @Test
+    public void shouldReleaseBufferOnPartFailure() throws Exception {
+        // Given
+        when(amazonS3.uploadPart(any(UploadPartRequest.class))).thenThrow(new AmazonServiceException("Slow down"));
+        final OutputStream outputStream = new S3MultipartOutputStream(amazonS3, "bucket", "key", bufferPool, executor, 2);
+
+        // When
+        try {
+            for (int i = 0; i < 20; i++) {
+                outputStream.write(new byte[PART_SIZE]);
+                Thread.sleep(20);
+            }
+            fail("Expected an IOException");
+        } catch (IOException e) {
+            // Then
+            outputStream.close();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+            assertTrue(bufferPool.acquire().isDirect());
+            assertTrue(bufferPool.acquire().isDirect());
+        }
+    }
+
+    @Test
+    public void shouldFailBeforeExceedingMaxParts() throws Exception {
+        // Given
+        final OutputStream outputStream = new S3MultipartOutputStream(amazonS3, "bucket", "key", bufferPool, executor, 2, 2);
+
+        // When
+        try {
+            outputStream.write(new byte[3 * PART_SIZE + 1]);
+            fail("Expected an IOException");
+        } catch (IOException e) {
+            // Then
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+            assertTrue(uploadedParts.size() <= 2);
+            verify(amazonS3, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+            verify(amazonS3).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+            outputStream.close();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldNotWriteAfterClose() throws Exception {
+        final OutputStream outputStream = new S3MultipartOutputStream(amazonS3, "bucket", "key", bufferPool, executor, 2);
+        outputStream.close();
+        outputStream.write('a');
+    }
+
+    private static byte[] readFully(InputStream inputStream) throws IOException {
+        final ByteArrayOutputStream content = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int count;
+        while ((count = inputStream.read(buffer)) >= 0) {
+            content.write(buffer, 0, count);
+        }
+        return content.toByteArray();
+    }
+}
@@ -0,0 +1,239 @@
+package org.talend.daikon.content.s3;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.S3Object;
+
+public class S3RangedReadChannelTest {
+
+    private static final int RANGE_SIZE = 1024;
+
+    private final AmazonS3 amazonS3 = mock(AmazonS3.class);
+
+    private final ExecutorService executor = S3Executors.newSharedExecutor("s3-read-test", 4);
+
+    private final byte[] content = new byte[10 * RANGE_SIZE + 100];
+
+    /** Start offsets of the requested ranges. */
+    private final List<Long> requestedRanges = new CopyOnWriteArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        new Random(42).nextBytes(content);
+        when(amazonS3.getObject(any(GetObjectRequest.class))).thenAnswer(invocation -> {
+            final long[] range = ((GetObjectRequest) invocation.getArguments()[0]).getRange();
+            requestedRanges.add(range[0]);
+            assertEquals(Collections.singletonList("etag"),
+                    ((GetObjectRequest) invocation.getArguments()[0]).getMatchingETagConstraints());
+            return object(range[0], range[1]);
+        });
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void shouldReadSequentially() throws Exception {
+        // When
+        final byte[] read;
+        try (S3RangedReadChannel channel = new S3RangedReadChannel(amazonS3, "bucket", "key", content.length, RANGE_SIZE,
+                2, "etag", executor)) {
+            read = readFully(channel, 300);
+        }
+
+        // Then
+        assertArrayEquals(content, read);
+        assertEquals(11, requestedRanges.size());
+        for (int i = 0; i < 11; i++) {
+            assertTrue(requestedRanges.contains((long) i * RANGE_SIZE));
+        }
+    }
+
+    @Test
+    public void shouldUseFirstRange() throws Exception {
+        // When
+        final byte[] read;
+        try (S3RangedReadChannel channel = new S3RangedReadChannel(amazonS3, "bucket", "key", content.length, RANGE_SIZE,
+                2, "etag", executor, object(0, RANGE_SIZE - 1))) {
+            read = readFully(channel, 4096);
+        }
+
+        // Then
+        assertArrayEquals(content, read);
+        assertFalse(requestedRanges.contains(0L));
+    }
+
+    @Test
+    public void shouldCloseUnreadFirstRange() throws Exception {
+        // Given
+        final AtomicBoolean closed = new AtomicBoolean();
+        final S3Object firstRange = new S3Object();
+        firstRange.setObjectContent(new ByteArrayInputStream(content, 0, RANGE_SIZE) {
+
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        });
+        final CountDownLatch busy = new CountDownLatch(1);
+        final ExecutorService busyExecutor = Executors.newSingleThreadExecutor();
+        busyExecutor.submit(() -> {
+            busy.await();
+            return null;
+        });
+
+        // When
+        try {
+            new S3RangedReadChannel(amazonS3, "bucket", "key", content.length, RANGE_SIZE, 2, "etag", busyExecutor,
+                    firstRange)
+                    .close();
+
+            // Then
+            assertTrue(closed.get());
+        } finally {
+            busy.countDown();
+            busyExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void shouldOnlyFetchRangesAroundPosition() throws Exception {
+        // Given
+        final ByteBuffer buffer = ByteBuffer.allocate(10);
+
+        // When
+        try (S3RangedReadChannel channel = new S3RangedReadChannel(amazonS3, "bucket", "key", content.length, RANGE_SIZE,
+                1, "etag", executor)) {
+            channel.position(8 * RANGE_SIZE + 5);
+            assertEquals(10, channel.read(buffer));
+            assertEquals(8 * RANGE_SIZE + 15, channel.position());
+        }
+
+        // Then
+        assertArrayEquals(Arrays.copyOfRange(content, 8 * RANGE_SIZE + 5, 8 * RANGE_SIZE + 15), buffer.array());
+        assertFalse(requestedRanges.contains(0L));
+        assertTrue(requestedRanges.contains(8L * RANGE_SIZE));
+    }
+
+    @Test
+    public void shouldReadAfterBackwardSeek() throws Exception {
+        // Given
+        final ByteBuffer buffer = ByteBuffer.allocate(RANGE_SIZE);
+
+        // When
+        try (S3RangedReadChannel channel = new S3RangedReadChannel(amazonS3, "bucket", "key", content.length, RANGE_SIZE,
+                2, "etag", executor)) {
+            channel.position(9 * RANGE_SIZE);
+            channel.read(buffer);
+            buffer.clear();
+            channel.position(RANGE_SIZE + 1);
+            assertEquals(RANGE_SIZE - 1, channel.read(buffer));
+        }
+
+        // Then
+        buffer.flip();
+        final byte[] read = new byte[buffer.remaining()];
+        buffer.get(read);
+        assertArrayEquals(Arrays.copyOfRange(content, RANGE_SIZE + 1, 2 * RANGE_SIZE), read);
+    }
+
+    @Test
+    public void shouldReturnEndOfStream() throws Exception {
+        try (S3RangedReadChannel channel = new S3RangedReadChannel(amazonS3, "bucket", "key", content.length, RANGE_SIZE,
+                2, "etag", executor)) {
+            assertEquals(content.length, channel.size());
+            channel.position(content.length);
+            assertEquals(-1, channel.read(ByteBuffer.allocate(10)));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldFailWhenModified() throws Exception {
+        // Given
+        reset(amazonS3);
+        when(amazonS3.getObject(any(GetObjectRequest.class))).thenReturn(null); // ETag constraint not met
+
+        // When
+        try (S3RangedReadChannel channel = new S3RangedReadChannel(amazonS3, "bucket", "key", content.length, RANGE_SIZE,
+                2, "etag", executor)) {
+            channel.read(ByteBuffer.allocate(10));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void shouldFailOnReadError() throws Exception {
+        // Given
+        reset(amazonS3);
+        when(amazonS3.getObject(any(GetObjectRequest.class))).thenThrow(new AmazonServiceException("unavailable"));
+
+        // When
+        try (S3RangedReadChannel channel = new S3RangedReadChannel(amazonS3, "bucket", "key", content.length, RANGE_SIZE,
+                2, "etag", executor)) {
+            channel.read(ByteBuffer.allocate(10));
+        }
+    }
+
+    @Test(expected = NonWritableChannelException.class)
+    public void shouldNotWrite() throws Exception {
+        try (S3RangedReadChannel channel = new S3RangedReadChannel(amazonS3, "bucket", "key", content.length, RANGE_SIZE,
+                2, "etag", executor)) {
+            channel.write(ByteBuffer.allocate(10));
+        }
+    }
+
+    @Test(expected = ClosedChannelException.class)
+    public void shouldNotReadOnceClosed() throws Exception {
+        // Given
+        final S3RangedReadChannel channel = new S3RangedReadChannel(amazonS3, "bucket", "key", content.length, RANGE_SIZE,
+                2, "etag", executor);
+        channel.close();
+
+        // Then
+        assertFalse(channel.isOpen());
+        channel.read(ByteBuffer.allocate(10));
+    }
+
+    private S3Object object(long start, long end) {
+        final S3Object object = new S3Object();
+        object.setObjectContent(new ByteArrayInputStream(content, (int) start, (int) (end - start + 1)));
+        return object;
+    }
+
+    private static byte[] readFully(S3RangedReadChannel channel, int bufferSize) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final ByteBuffer buffer = ByteBuffer.allocate(bufferSize);
+        while (channel.read(buffer) >= 0) {
+            buffer.flip();
+            output.write(buffer.array(), 0, buffer.limit());
+            buffer.clear();
+        }
+        return output.toByteArray();
+    }
+}
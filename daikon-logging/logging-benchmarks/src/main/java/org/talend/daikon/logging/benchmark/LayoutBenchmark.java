@@ -0,0 +1,161 @@
+package org.talend.daikon.logging.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.spi.LocationInfo;
+import org.apache.log4j.spi.ThrowableInformation;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.AbstractStringLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.util.StringMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.talend.daikon.logging.event.layout.Log4j2JSONLayout;
+import org.talend.daikon.logging.event.layout.Log4jJSONLayout;
+import org.talend.daikon.logging.event.layout.LogbackJSONLayout;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.spi.ThrowableProxy;
+
+/**
+ * Formats the same event with each JSON layout, see {@link LayoutBenchmarkRunner} to run it with the reference options
+ * (throughput, latency percentiles and allocation rate, with 1 and 8 threads).
+ * <p>
+ * Events are built once per trial: only the layouts are measured, not the creation of the events by the loggers.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LayoutBenchmark {
+
+    private static final String LOGGER_NAME = "org.talend.daikon.logging.benchmark.LayoutBenchmark";
+
+    private static final StackTraceElement CALLER = new StackTraceElement("org.talend.daikon.logging.benchmark.Caller",
+            "call", "Caller.java", 42);
+
+    /** Length of the log message, in characters. */
+    @Param({ "64", "1024" })
+    private int messageSize;
+
+    /** Number of MDC entries. */
+    @Param({ "0", "4", "16" })
+    private int mdcSize;
+
+    @Param({ "false", "true" })
+    private boolean exception;
+
+    @Param({ "false", "true" })
+    private boolean locationInfo;
+
+    private LogbackJSONLayout logbackLayout;
+
+    private LoggingEvent logbackEvent;
+
+    private AbstractStringLayout log4j2Layout;
+
+    private LogEvent log4j2Event;
+
+    private Log4jJSONLayout log4jLayout;
+
+    private org.apache.log4j.spi.LoggingEvent log4jEvent;
+
+    @Setup
+    public void setup() {
+        String message = message(messageSize);
+        Map<String, String> mdc = mdc(mdcSize);
+        Throwable thrown = exception ? new IllegalStateException("Benchmark failure", new RuntimeException("Cause")) : null;
+        long timestamp = System.currentTimeMillis();
+        String threadName = Thread.currentThread().getName();
+
+        logbackLayout = new LogbackJSONLayout(locationInfo);
+        logbackLayout.setUserFields("service:benchmark,version:1");
+        logbackLayout.start();
+        logbackEvent = new LoggingEvent();
+        logbackEvent.setLoggerName(LOGGER_NAME);
+        logbackEvent.setLevel(Level.INFO);
+        logbackEvent.setThreadName(threadName);
+        logbackEvent.setMessage(message);
+        logbackEvent.setMDCPropertyMap(mdc);
+        logbackEvent.setTimeStamp(timestamp);
+        logbackEvent.setCallerData(new StackTraceElement[] { CALLER });
+        if (thrown != null) {
+            logbackEvent.setThrowableProxy(new ThrowableProxy(thrown));
+        }
+
+        log4j2Layout = Log4j2JSONLayout.createLayout(locationInfo, false, false, true, false, StandardCharsets.UTF_8, null);
+        StringMap contextData = ContextDataFactory.createContextData();
+        mdc.forEach(contextData::putValue);
+        log4j2Event = Log4jLogEvent.newBuilder().setLoggerName(LOGGER_NAME).setLevel(org.apache.logging.log4j.Level.INFO)
+                .setThreadName(threadName).setMessage(new SimpleMessage(message)).setContextData(contextData)
+                .setTimeMillis(timestamp).setIncludeLocation(locationInfo).setSource(CALLER).setThrown(thrown).build();
+
+        log4jLayout = new Log4jJSONLayout(locationInfo);
+        log4jLayout.setUserFields("service:benchmark,version:1");
+        org.apache.log4j.Logger logger = org.apache.log4j.Logger.getLogger(LOGGER_NAME);
+        log4jEvent = new org.apache.log4j.spi.LoggingEvent(LOGGER_NAME, logger, timestamp, org.apache.log4j.Level.INFO,
+                message, threadName, thrown == null ? null : new ThrowableInformation(thrown), null,
+                new LocationInfo(CALLER.getFileName(), CALLER.getClassName(), CALLER.getMethodName(),
+                        String.valueOf(CALLER.getLineNumber())),
+                mdc);
+    }
+
+    @Benchmark
+    public String logback() {
+        return logbackLayout.doLayout(logbackEvent);
+    }
+
+    @Benchmark
+    public String log4j2() {
+        return log4j2Layout.toSerializable(log4j2Event);
+    }
+
+    @Benchmark
+    public String log4j() {
+        return log4jLayout.format(log4jEvent);
+    }
+
+    /**
+     * @return a message of the given length, with some characters to escape.
+     */
+    static String message(int size) {
+        String words = "Processed record \"%d\" of dataset in \\tmp\\datasets, é\t";
+        StringBuilder message = new StringBuilder(size);
+        for (int i = 0; message.length() < size; i++) {
+            message.append(words.replace("%d", String.valueOf(i)));
+        }
+        message.setLength(size);
+        return message.toString();
+    }
+
+    static Map<String, String> mdc(int size) {
+        Map<String, String> mdc = new HashMap<>();
+        if (size > 0) {
+            // Sleuth fields, written at the root of the events
+            mdc.put("X-B3-TraceId", "5a1b3c7d9e2f4a6b");
+        }
+        for (int i = mdc.size(); i < size; i++) {
+            mdc.put("key" + i, "value-" + i);
+        }
+        return Collections.unmodifiableMap(mdc);
+    }
+}
@@ -0,0 +1,42 @@
+package org.talend.daikon.logging.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs {@link LayoutBenchmark} once with a single thread and once with 8 threads, with the GC profiler (allocation
+ * rate) and writes the results as JSON files (<code>layout-benchmark-1-thread.json</code> and
+ * <code>layout-benchmark-8-threads.json</code>) that can be compared between releases, for instance with
+ * <a href="http://jmh.morethan.io">JMH Visualizer</a>.
+ * <p>
+ * Other JMH options can be given on the command line, for instance <code>-p mdcSize=4</code> to run a subset of the
+ * parameters. Use <code>java -cp benchmarks.jar org.openjdk.jmh.Main</code> for the default JMH runner.
+ * </p>
+ */
+public class LayoutBenchmarkRunner {
+
+    static final int[] THREADS = { 1, 8 };
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        for (int threads : THREADS) {
+            ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine)
+                    .include(LayoutBenchmark.class.getSimpleName()).threads(threads).addProfiler(GCProfiler.class);
+            if (!commandLine.getResult().hasValue()) {
+                options.resultFormat(ResultFormatType.JSON)
+                        .result("layout-benchmark-" + threads + (threads == 1 ? "-thread" : "-threads") + ".json");
+            }
+            new Runner(options.build()).run();
+        }
+    }
+
+    private LayoutBenchmarkRunner() {
+        // not to be instantiated
+    }
+}
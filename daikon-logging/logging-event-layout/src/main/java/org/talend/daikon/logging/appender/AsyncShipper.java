@@ -0,0 +1,286 @@
+package org.talend.daikon.logging.appender;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Ships log events to a {@link LogSink} from a background thread, independently of the logging framework.
+ * <p>
+ * Logging threads only put events in a bounded lock-free queue ({@link #offer(Object)}), what happens when it is full
+ * depends on the {@link Backpressure}. The shipping thread encodes events (with a JSON layout), groups them in batches
+ * of new-line separated events, optionally compressed with gzip, and writes a batch when it is full or when the flush
+ * interval elapsed. A batch that cannot be written is dropped: the shipping thread never retries, so that it keeps
+ * up with the logging threads.
+ * </p>
+ *
+ * @param <E> the log event type.
+ */
+public class AsyncShipper<E> {
+
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final Function<E, String> encoder;
+
+    private final LogSink sink;
+
+    private final BiConsumer<String, Throwable> errorHandler;
+
+    private final RingBuffer<E> queue;
+
+    private final ShippingMetrics metrics;
+
+    private final Backpressure backpressure;
+
+    private final int sampleRate;
+
+    private final int batchSize;
+
+    private final int maxBatchBytes;
+
+    private final long flushIntervalNanos;
+
+    private final long shutdownTimeoutMillis;
+
+    private final boolean gzip;
+
+    private final Thread thread;
+
+    private final Batch batch = new Batch();
+
+    private volatile boolean running;
+
+    /** Set while the shipping thread is parked, so that producers only unpark it when needed. */
+    private volatile boolean parked;
+
+    /** Only accessed by the shipping thread, errors are reported once until a batch is shipped again. */
+    private boolean failing;
+
+    /**
+     * @param name the shipper name, used for the thread name.
+     * @param encoder encodes an event, typically with a JSON layout.
+     * @param sink the destination.
+     * @param settings the queue and batch settings.
+     * @param errorHandler receives errors (encoding or write failures).
+     */
+    public AsyncShipper(String name, Function<E, String> encoder, LogSink sink, ShippingSettings settings,
+            BiConsumer<String, Throwable> errorHandler) {
+        this.encoder = encoder;
+        this.sink = sink;
+        this.errorHandler = errorHandler;
+        this.queue = new RingBuffer<>(settings.getQueueSize());
+        this.metrics = new ShippingMetrics(queue::size);
+        this.backpressure = settings.getBackpressure();
+        this.sampleRate = Math.max(1, settings.getSampleRate());
+        this.batchSize = Math.max(1, settings.getBatchSize());
+        this.maxBatchBytes = settings.getMaxBatchBytes();
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(settings.getFlushIntervalMillis());
+        this.shutdownTimeoutMillis = settings.getShutdownTimeoutMillis();
+        this.gzip = settings.isGzip();
+        this.thread = new Thread(this::run, "log-shipper-" + name);
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        running = true;
+        thread.start();
+    }
+
+    /**
+     * Stops accepting events and waits (at most the shutdown timeout) for the queued events to be shipped.
+     *
+     * @return <code>true</code> if all queued events were processed.
+     */
+    public boolean stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(shutdownTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return !thread.isAlive();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public ShippingMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Queues an event, called by logging threads. The event must not change once queued.
+     *
+     * @param event the event to ship.
+     * @return <code>true</code> if the event was queued, <code>false</code> if it was dropped.
+     */
+    public boolean offer(E event) {
+        if (!running) {
+            metrics.dropped.increment();
+            return false;
+        }
+        if (backpressure == Backpressure.SAMPLE && queue.size() >= queue.capacity() / 2
+                && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            metrics.sampledOut.increment();
+            return false;
+        }
+        boolean queued = queue.offer(event);
+        while (!queued && backpressure == Backpressure.BLOCK && running) {
+            wakeUp();
+            LockSupport.parkNanos(this, BLOCK_PARK_NANOS);
+            queued = queue.offer(event);
+        }
+        if (!queued) {
+            metrics.dropped.increment();
+            wakeUp();
+            return false;
+        }
+        metrics.enqueued.increment();
+        if (parked && queue.size() >= batchSize) {
+            wakeUp();
+        }
+        return true;
+    }
+
+    private void wakeUp() {
+        if (parked) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    private void run() {
+        long batchStart = 0;
+        while (running || !queue.isEmpty()) {
+            E event = queue.poll();
+            if (event != null) {
+                if (batch.events == 0) {
+                    batchStart = System.nanoTime();
+                }
+                append(event);
+                if (batch.events >= batchSize || batch.uncompressedBytes >= maxBatchBytes) {
+                    ship();
+                }
+                continue;
+            }
+            long waitNanos = flushIntervalNanos;
+            if (batch.events > 0) {
+                waitNanos = batchStart + flushIntervalNanos - System.nanoTime();
+                if (waitNanos <= 0) {
+                    ship();
+                    continue;
+                }
+            }
+            parked = true;
+            if (queue.isEmpty() && running) {
+                LockSupport.parkNanos(this, waitNanos);
+            }
+            parked = false;
+        }
+        ship();
+        try {
+            sink.close();
+        } catch (IOException e) {
+            errorHandler.accept("Unable to close " + sink, e);
+        }
+    }
+
+    private void append(E event) {
+        try {
+            String line = encoder.apply(event);
+            batch.append(line);
+            if (!line.endsWith("\n")) {
+                batch.append("\n");
+            }
+            batch.events++;
+        } catch (IOException | RuntimeException e) {
+            metrics.failed.increment();
+            errorHandler.accept("Unable to encode log event", e);
+        }
+    }
+
+    private void ship() {
+        if (batch.events == 0) {
+            return;
+        }
+        int events = batch.events;
+        try {
+            batch.finish();
+            sink.write(batch.buffer(), batch.size());
+            metrics.shipped.add(events);
+            metrics.batches.increment();
+            metrics.bytes.add(batch.size());
+            failing = false;
+        } catch (IOException | RuntimeException e) {
+            metrics.failed.add(events);
+            if (!failing) {
+                failing = true;
+                errorHandler.accept("Unable to write log events to " + sink + ", dropping them until it is available again",
+                        e);
+            }
+        } finally {
+            batch.clear();
+        }
+    }
+
+    /**
+     * Content of the current batch.
+     */
+    private class Batch extends ByteArrayOutputStream {
+
+        private int events;
+
+        private long uncompressedBytes;
+
+        private OutputStream output;
+
+        private Batch() {
+            super(64 * 1024);
+        }
+
+        private void append(String line) throws IOException {
+            if (output == null) {
+                output = gzip ? new GZIPOutputStream(this, 8192) : this;
+            }
+            byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+            output.write(bytes, 0, bytes.length);
+            uncompressedBytes += bytes.length;
+        }
+
+        private void finish() throws IOException {
+            if (output instanceof GZIPOutputStream) {
+                // Also releases the deflater
+                output.close();
+            }
+        }
+
+        private byte[] buffer() {
+            return buf;
+        }
+
+        private void clear() {
+            if (output instanceof GZIPOutputStream) {
+                try {
+                    output.close();
+                } catch (IOException e) {
+                    // In memory
+                }
+            }
+            output = null;
+            events = 0;
+            uncompressedBytes = 0;
+            reset();
+            if (buf.length > 4 * maxBatchBytes) {
+                buf = new byte[64 * 1024];
+            }
+        }
+    }
+}
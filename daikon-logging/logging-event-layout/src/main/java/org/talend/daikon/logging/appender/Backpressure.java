@@ -0,0 +1,24 @@
+package org.talend.daikon.logging.appender;
+
+/**
+ * What a shipping appender does with an event when its queue is (nearly) full.
+ */
+public enum Backpressure {
+
+    /**
+     * Drop events while the queue is full, the logging thread never waits.
+     */
+    DROP,
+
+    /**
+     * Wait for room in the queue. Only for logs that must not be lost: the logging thread stalls while the destination
+     * is slow or unreachable.
+     */
+    BLOCK,
+
+    /**
+     * Keep one event out of {@link ShippingSettings#getSampleRate() sampleRate} once the queue is half full, drop events
+     * while it is full. The logging thread never waits.
+     */
+    SAMPLE
+}
@@ -0,0 +1,55 @@
+package org.talend.daikon.logging.appender;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Appends batches to a file. Compressed batches are written as consecutive gzip members, which is still a valid gzip
+ * file.
+ */
+public class FileSink implements LogSink {
+
+    private final File file;
+
+    private OutputStream output;
+
+    public FileSink(File file) {
+        this.file = file;
+    }
+
+    @Override
+    public void write(byte[] batch, int length) throws IOException {
+        if (output == null) {
+            File parent = file.getAbsoluteFile().getParentFile();
+            if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+                throw new IOException("Unable to create directory " + parent);
+            }
+            output = new FileOutputStream(file, true);
+        }
+        try {
+            output.write(batch, 0, length);
+            output.flush();
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (output != null) {
+            try {
+                output.close();
+            } finally {
+                output = null;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FileSink{" + file + '}';
+    }
+}
@@ -0,0 +1,64 @@
+package org.talend.daikon.logging.appender;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+
+/**
+ * Posts each batch to an HTTP endpoint (<code>application/x-ndjson</code>, with <code>Content-Encoding: gzip</code> for
+ * compressed batches).
+ */
+public class HttpSink implements LogSink {
+
+    private final URL url;
+
+    private final boolean gzip;
+
+    private final int timeoutMillis;
+
+    public HttpSink(URL url, boolean gzip, int timeoutMillis) {
+        this.url = url;
+        this.gzip = gzip;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @Override
+    public void write(byte[] batch, int length) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try {
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setConnectTimeout(timeoutMillis);
+            connection.setReadTimeout(timeoutMillis);
+            connection.setFixedLengthStreamingMode(length);
+            connection.setRequestProperty("Content-Type", "application/x-ndjson");
+            if (gzip) {
+                connection.setRequestProperty("Content-Encoding", "gzip");
+            }
+            try (OutputStream output = connection.getOutputStream()) {
+                output.write(batch, 0, length);
+            }
+            int status = connection.getResponseCode();
+            if (status < 200 || status >= 300) {
+                throw new IOException("Unexpected status " + status + " from " + url);
+            }
+            // Read the response so the connection can be reused
+            try (InputStream input = connection.getInputStream()) {
+                byte[] buffer = new byte[1024];
+                while (input.read(buffer) >= 0) {
+                    // Ignore the response body
+                }
+            }
+        } catch (IOException e) {
+            connection.disconnect();
+            throw e;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "HttpSink{" + url + '}';
+    }
+}
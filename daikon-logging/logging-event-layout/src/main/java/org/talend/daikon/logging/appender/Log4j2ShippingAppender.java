@@ -0,0 +1,149 @@
+package org.talend.daikon.logging.appender;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.core.Filter;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.appender.AbstractAppender;
+import org.apache.logging.log4j.core.config.plugins.Plugin;
+import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
+import org.apache.logging.log4j.core.config.plugins.PluginElement;
+import org.apache.logging.log4j.core.config.plugins.PluginFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.talend.daikon.logging.event.field.HostMetadata;
+import org.talend.daikon.logging.event.layout.Log4j2JSONLayout;
+
+/**
+ * Log4j2 appender shipping events in batches from a background thread (see {@link AsyncShipper}), encoded with a
+ * {@link Log4j2JSONLayout} unless another layout is set.
+ *
+ * <pre>
+ * &lt;ShippingAppender name="Shipping" host="logs.example.com" port="5000" gzip="true" backpressure="drop"/&gt;
+ * </pre>
+ */
+@Plugin(name = "ShippingAppender", category = "Core", elementType = "appender", printObject = true)
+public class Log4j2ShippingAppender extends AbstractAppender {
+
+    private final boolean includeLocation;
+
+    private final AsyncShipper<LogEvent> shipper;
+
+    protected Log4j2ShippingAppender(final String name, final Filter filter, final Layout<? extends Serializable> layout,
+            final boolean ignoreExceptions, final boolean includeLocation, final ShippingSettings settings) {
+        super(name, filter, layout, ignoreExceptions);
+        this.includeLocation = includeLocation;
+        AsyncShipper<LogEvent> asyncShipper;
+        try {
+            asyncShipper = new AsyncShipper<>(name, this::encode, settings.createSink(), settings, LOGGER::error);
+        } catch (IllegalStateException e) {
+            LOGGER.error("Unable to create sink of appender {}", name, e);
+            asyncShipper = null;
+        }
+        this.shipper = asyncShipper;
+    }
+
+    /**
+     * Creates a shipping appender, see {@link ShippingSettings} for the settings.
+     *
+     * @return the appender, null if it is not valid.
+     */
+    @PluginFactory
+    public static Log4j2ShippingAppender createAppender(
+            // @formatter:off
+            @PluginAttribute("name") final String name,
+            @PluginElement("Filter") final Filter filter,
+            @PluginElement("Layout") Layout<? extends Serializable> layout,
+            @PluginAttribute(value = "ignoreExceptions", defaultBoolean = true) final boolean ignoreExceptions,
+            @PluginAttribute(value = "includeLocation", defaultBoolean = false) final boolean includeLocation,
+            @PluginAttribute(value = "queueSize", defaultInt = 8192) final int queueSize,
+            @PluginAttribute(value = "batchSize", defaultInt = 512) final int batchSize,
+            @PluginAttribute(value = "maxBatchBytes", defaultInt = 1024 * 1024) final int maxBatchBytes,
+            @PluginAttribute(value = "flushIntervalMillis", defaultLong = 1000) final long flushIntervalMillis,
+            @PluginAttribute(value = "shutdownTimeoutMillis", defaultLong = 5000) final long shutdownTimeoutMillis,
+            @PluginAttribute(value = "backpressure", defaultString = "DROP") final String backpressure,
+            @PluginAttribute(value = "sampleRate", defaultInt = 10) final int sampleRate,
+            @PluginAttribute(value = "gzip", defaultBoolean = false) final boolean gzip,
+            @PluginAttribute("file") final String file,
+            @PluginAttribute("host") final String host,
+            @PluginAttribute(value = "port", defaultInt = 0) final int port,
+            @PluginAttribute("url") final String url,
+            @PluginAttribute(value = "timeoutMillis", defaultInt = 5000) final int timeoutMillis
+            // @formatter:on
+    ) {
+        if (name == null) {
+            LOGGER.error("No name provided for ShippingAppender");
+            return null;
+        }
+        if (url == null && host == null && file == null) {
+            LOGGER.error("No destination (url, host or file) provided for ShippingAppender {}", name);
+            return null;
+        }
+        if (layout == null) {
+            layout = Log4j2JSONLayout.createLayout(includeLocation, false, false, true, false, StandardCharsets.UTF_8, null);
+        }
+        ShippingSettings settings = new ShippingSettings();
+        settings.setQueueSize(queueSize);
+        settings.setBatchSize(batchSize);
+        settings.setMaxBatchBytes(maxBatchBytes);
+        settings.setFlushIntervalMillis(flushIntervalMillis);
+        settings.setShutdownTimeoutMillis(shutdownTimeoutMillis);
+        settings.setBackpressure(Backpressure.valueOf(backpressure.trim().toUpperCase(Locale.ENGLISH)));
+        settings.setSampleRate(sampleRate);
+        settings.setGzip(gzip);
+        settings.setFile(file);
+        settings.setHost(host);
+        settings.setPort(port);
+        settings.setUrl(url);
+        settings.setTimeoutMillis(timeoutMillis);
+        return new Log4j2ShippingAppender(name, filter, layout, ignoreExceptions, includeLocation, settings);
+    }
+
+    @Override
+    public void start() {
+        if (shipper == null) {
+            // Same as an appender that failed to start: events are rejected, the rest of the configuration still works
+            LOGGER.error("Unable to start appender {}: no sink", getName());
+            return;
+        }
+        shipper.start();
+        super.start();
+    }
+
+    @Override
+    public boolean stop(final long timeout, final TimeUnit timeUnit) {
+        setStopping();
+        boolean stopped = super.stop(timeout, timeUnit, false);
+        if (shipper != null && !shipper.stop()) {
+            LOGGER.warn("Some log events were not shipped before the end of {} shutdown", getName());
+        }
+        // Log4j2 layouts are not stopped, the next event of any layout starts the refresh again
+        HostMetadata.shutdown();
+        setStopped();
+        return stopped;
+    }
+
+    @Override
+    public void append(final LogEvent event) {
+        // The event may be reused by the logging thread once this method returns
+        shipper.offer(Log4jLogEvent.createMemento(event, includeLocation));
+    }
+
+    /**
+     * @return the appender metrics, null if the appender has no sink.
+     */
+    public ShippingMetrics getMetrics() {
+        return shipper == null ? null : shipper.getMetrics();
+    }
+
+    private String encode(LogEvent event) {
+        Serializable serialized = getLayout().toSerializable(event);
+        if (serialized instanceof String) {
+            return (String) serialized;
+        }
+        return new String(getLayout().toByteArray(event), StandardCharsets.UTF_8);
+    }
+}
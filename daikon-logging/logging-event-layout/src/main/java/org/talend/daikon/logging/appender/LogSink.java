@@ -0,0 +1,25 @@
+package org.talend.daikon.logging.appender;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Destination of the batches of a shipping appender. A batch is a sequence of JSON events separated by new lines,
+ * possibly compressed with gzip. Sinks are only used by the shipping thread.
+ */
+public interface LogSink extends Closeable {
+
+    /**
+     * Writes a batch. A sink failing to write a batch must be able to write the next one (e.g. by reconnecting).
+     *
+     * @param batch the batch content.
+     * @param length the number of bytes of the batch.
+     * @throws IOException if the batch could not be written, it is then dropped.
+     */
+    void write(byte[] batch, int length) throws IOException;
+
+    @Override
+    default void close() throws IOException {
+        // Nothing to release by default
+    }
+}
@@ -0,0 +1,161 @@
+package org.talend.daikon.logging.appender;
+
+import java.util.Locale;
+
+import org.talend.daikon.logging.event.layout.LogbackJSONLayout;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Layout;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+
+/**
+ * Logback appender shipping events in batches from a background thread (see {@link AsyncShipper}), encoded with a
+ * {@link LogbackJSONLayout} (without location information) unless another layout is set.
+ *
+ * <pre>
+ * &lt;appender name="SHIPPING" class="org.talend.daikon.logging.appender.LogbackShippingAppender"&gt;
+ *     &lt;host&gt;logs.example.com&lt;/host&gt;
+ *     &lt;port&gt;5000&lt;/port&gt;
+ *     &lt;gzip&gt;true&lt;/gzip&gt;
+ *     &lt;backpressure&gt;drop&lt;/backpressure&gt;
+ * &lt;/appender&gt;
+ * </pre>
+ */
+public class LogbackShippingAppender extends UnsynchronizedAppenderBase<ILoggingEvent> {
+
+    private final ShippingSettings settings = new ShippingSettings();
+
+    private Layout<ILoggingEvent> layout;
+
+    private boolean includeCallerData;
+
+    private boolean callerData;
+
+    private AsyncShipper<ILoggingEvent> shipper;
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (layout == null) {
+            LogbackJSONLayout jsonLayout = new LogbackJSONLayout(false);
+            jsonLayout.setContext(getContext());
+            jsonLayout.start();
+            layout = jsonLayout;
+        }
+        LogSink sink;
+        try {
+            sink = settings.createSink();
+        } catch (IllegalStateException e) {
+            addError("Unable to start appender " + getName(), e);
+            return;
+        }
+        // Caller data can only be computed by the logging thread
+        callerData = includeCallerData
+                || (layout instanceof LogbackJSONLayout && ((LogbackJSONLayout) layout).getLocationInfo());
+        shipper = new AsyncShipper<>(getName(), layout::doLayout, sink, settings, this::addError);
+        shipper.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        if (!shipper.stop()) {
+            addWarn("Some log events were not shipped before the end of " + getName() + " shutdown");
+        }
+        // Once the queued events are encoded
+        layout.stop();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        event.prepareForDeferredProcessing();
+        if (callerData) {
+            event.getCallerData();
+        }
+        shipper.offer(event);
+    }
+
+    /**
+     * @return the appender metrics, null if the appender is not started.
+     */
+    public ShippingMetrics getMetrics() {
+        return shipper == null ? null : shipper.getMetrics();
+    }
+
+    public Layout<ILoggingEvent> getLayout() {
+        return layout;
+    }
+
+    public void setLayout(Layout<ILoggingEvent> layout) {
+        this.layout = layout;
+    }
+
+    public boolean isIncludeCallerData() {
+        return includeCallerData;
+    }
+
+    public void setIncludeCallerData(boolean includeCallerData) {
+        this.includeCallerData = includeCallerData;
+    }
+
+    public void setQueueSize(int queueSize) {
+        settings.setQueueSize(queueSize);
+    }
+
+    public void setBatchSize(int batchSize) {
+        settings.setBatchSize(batchSize);
+    }
+
+    public void setMaxBatchBytes(int maxBatchBytes) {
+        settings.setMaxBatchBytes(maxBatchBytes);
+    }
+
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        settings.setFlushIntervalMillis(flushIntervalMillis);
+    }
+
+    public void setShutdownTimeoutMillis(long shutdownTimeoutMillis) {
+        settings.setShutdownTimeoutMillis(shutdownTimeoutMillis);
+    }
+
+    /**
+     * @param backpressure one of <code>drop</code>, <code>block</code> or <code>sample</code>.
+     */
+    public void setBackpressure(String backpressure) {
+        settings.setBackpressure(Backpressure.valueOf(backpressure.trim().toUpperCase(Locale.ENGLISH)));
+    }
+
+    public void setSampleRate(int sampleRate) {
+        settings.setSampleRate(sampleRate);
+    }
+
+    public void setGzip(boolean gzip) {
+        settings.setGzip(gzip);
+    }
+
+    public void setFile(String file) {
+        settings.setFile(file);
+    }
+
+    public void setHost(String host) {
+        settings.setHost(host);
+    }
+
+    public void setPort(int port) {
+        settings.setPort(port);
+    }
+
+    public void setUrl(String url) {
+        settings.setUrl(url);
+    }
+
+    public void setTimeoutMillis(int timeoutMillis) {
+        settings.setTimeoutMillis(timeoutMillis);
+    }
+}
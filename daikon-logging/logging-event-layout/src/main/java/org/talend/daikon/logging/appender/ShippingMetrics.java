@@ -0,0 +1,93 @@
+package org.talend.daikon.logging.appender;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Counters of a shipping appender, safe to read from any thread.
+ */
+public class ShippingMetrics {
+
+    final LongAdder enqueued = new LongAdder();
+
+    final LongAdder dropped = new LongAdder();
+
+    final LongAdder sampledOut = new LongAdder();
+
+    final LongAdder failed = new LongAdder();
+
+    final LongAdder shipped = new LongAdder();
+
+    final LongAdder batches = new LongAdder();
+
+    final LongAdder bytes = new LongAdder();
+
+    private final IntSupplier queueDepth;
+
+    ShippingMetrics(IntSupplier queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    /**
+     * @return the number of events accepted in the queue.
+     */
+    public long getEnqueued() {
+        return enqueued.sum();
+    }
+
+    /**
+     * @return the number of events dropped because the queue was full.
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return the number of events dropped by {@link Backpressure#SAMPLE sampling}.
+     */
+    public long getSampledOut() {
+        return sampledOut.sum();
+    }
+
+    /**
+     * @return the number of events lost after being queued (encoding error or batch that could not be written).
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * @return the number of events written to the destination.
+     */
+    public long getShipped() {
+        return shipped.sum();
+    }
+
+    /**
+     * @return the number of batches written to the destination.
+     */
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    /**
+     * @return the number of bytes (compressed if enabled) written to the destination.
+     */
+    public long getBytes() {
+        return bytes.sum();
+    }
+
+    /**
+     * @return the number of events waiting in the queue.
+     */
+    public int getQueueDepth() {
+        return queueDepth.getAsInt();
+    }
+
+    @Override
+    public String toString() {
+        return "ShippingMetrics{enqueued=" + getEnqueued() + ", dropped=" + getDropped() + ", sampledOut=" + getSampledOut()
+                + ", failed=" + getFailed() + ", shipped=" + getShipped() + ", batches=" + getBatches() + ", bytes="
+                + getBytes() + ", queueDepth=" + getQueueDepth() + '}';
+    }
+}
@@ -0,0 +1,185 @@
+package org.talend.daikon.logging.appender;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+
+/**
+ * Settings of a shipping appender. The destination is an HTTP endpoint if {@link #setUrl(String) url} is set, otherwise
+ * a TCP endpoint if {@link #setHost(String) host} is set, otherwise a {@link #setFile(String) file}.
+ */
+public class ShippingSettings {
+
+    private int queueSize = 8192;
+
+    private int batchSize = 512;
+
+    private int maxBatchBytes = 1024 * 1024;
+
+    private long flushIntervalMillis = 1000;
+
+    private long shutdownTimeoutMillis = 5000;
+
+    private Backpressure backpressure = Backpressure.DROP;
+
+    private int sampleRate = 10;
+
+    private boolean gzip;
+
+    private String file;
+
+    private String host;
+
+    private int port;
+
+    private String url;
+
+    private int timeoutMillis = 5000;
+
+    /**
+     * @return a new sink for the configured destination.
+     * @throws IllegalStateException if no destination is configured.
+     */
+    public LogSink createSink() {
+        if (url != null) {
+            try {
+                return new HttpSink(new URL(url), gzip, timeoutMillis);
+            } catch (MalformedURLException e) {
+                throw new IllegalStateException("Invalid url " + url, e);
+            }
+        }
+        if (host != null) {
+            return new SocketSink(host, port, timeoutMillis);
+        }
+        if (file != null) {
+            return new FileSink(new File(file));
+        }
+        throw new IllegalStateException("No destination: url, host or file must be set");
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    /**
+     * @param queueSize maximum number of events waiting to be shipped (rounded up to a power of two).
+     */
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @param batchSize maximum number of events per batch.
+     */
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxBatchBytes() {
+        return maxBatchBytes;
+    }
+
+    /**
+     * @param maxBatchBytes size of encoded events (before compression) after which a batch is shipped.
+     */
+    public void setMaxBatchBytes(int maxBatchBytes) {
+        this.maxBatchBytes = maxBatchBytes;
+    }
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    /**
+     * @param flushIntervalMillis maximum time an event waits before its batch is shipped.
+     */
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public long getShutdownTimeoutMillis() {
+        return shutdownTimeoutMillis;
+    }
+
+    /**
+     * @param shutdownTimeoutMillis maximum time to ship the queued events when the appender stops.
+     */
+    public void setShutdownTimeoutMillis(long shutdownTimeoutMillis) {
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+    }
+
+    public Backpressure getBackpressure() {
+        return backpressure;
+    }
+
+    public void setBackpressure(Backpressure backpressure) {
+        this.backpressure = backpressure;
+    }
+
+    public int getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * @param sampleRate with {@link Backpressure#SAMPLE}, one event out of sampleRate is kept when the queue is half
+     * full.
+     */
+    public void setSampleRate(int sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    public boolean isGzip() {
+        return gzip;
+    }
+
+    public void setGzip(boolean gzip) {
+        this.gzip = gzip;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    public void setFile(String file) {
+        this.file = file;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public int getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * @param timeoutMillis connect and read timeout of network destinations.
+     */
+    public void setTimeoutMillis(int timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+}
@@ -0,0 +1,61 @@
+package org.talend.daikon.logging.appender;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+
+/**
+ * Writes batches to a TCP connection, opened on first write and opened again after a failure.
+ */
+public class SocketSink implements LogSink {
+
+    private final String host;
+
+    private final int port;
+
+    private final int connectTimeoutMillis;
+
+    private Socket socket;
+
+    private OutputStream output;
+
+    public SocketSink(String host, int port, int connectTimeoutMillis) {
+        this.host = host;
+        this.port = port;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+    }
+
+    @Override
+    public void write(byte[] batch, int length) throws IOException {
+        try {
+            if (socket == null) {
+                socket = new Socket();
+                socket.connect(new InetSocketAddress(host, port), connectTimeoutMillis);
+                output = socket.getOutputStream();
+            }
+            output.write(batch, 0, length);
+            output.flush();
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (socket != null) {
+            try {
+                socket.close();
+            } finally {
+                socket = null;
+                output = null;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SocketSink{" + host + ':' + port + '}';
+    }
+}
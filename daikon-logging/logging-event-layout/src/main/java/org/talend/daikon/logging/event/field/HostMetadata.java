@@ -0,0 +1,167 @@
+package org.talend.daikon.logging.event.field;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.talend.daikon.logging.event.layout.JsonWriter;
+
+/**
+ * Host and process informations shared by the layouts.
+ * <p>
+ * Unlike {@link HostData}, the host is not resolved for each event: it is resolved by a background thread started by
+ * the first {@link #getInstance()} call, then refreshed periodically, so a slow name resolution never blocks a log call.
+ * Until the first resolution completes, the host name is taken from the environment (<code>HOSTNAME</code> or
+ * <code>COMPUTERNAME</code>, {@value #UNKNOWN_HOST} if none is set) and the host address is null. Values are also
+ * available as pre-encoded JSON fields.
+ * </p>
+ * <p>
+ * {@link #shutdown()} stops the background thread (e.g. when the layouts are stopped, so that the thread does not keep
+ * an undeployed application loaded), the next {@link #getInstance()} call starts it again.
+ * </p>
+ */
+public final class HostMetadata {
+
+    static final long REFRESH_PERIOD_MINUTES = 5;
+
+    static final String UNKNOWN_HOST = "unknown-host";
+
+    private static final HostMetadata INSTANCE = new HostMetadata(InetAddress::getLocalHost);
+
+    /** Executor of the refresh task, null when not started. */
+    private static volatile ScheduledExecutorService refreshExecutor;
+
+    private final HostResolver resolver;
+
+    private final Long processId;
+
+    private final String processIdFields;
+
+    private volatile Host host;
+
+    HostMetadata(HostResolver resolver) {
+        this.resolver = resolver;
+        this.processId = parseProcessId(ManagementFactory.getRuntimeMXBean().getName());
+        this.processIdFields = processId == null ? "" : new JsonWriter().field(LayoutFields.PROCESS_ID, processId).toString();
+        this.host = new Host(fallbackHostName(), null);
+    }
+
+    /**
+     * @return the metadata of the current host and process.
+     */
+    public static HostMetadata getInstance() {
+        if (refreshExecutor == null) {
+            startRefresh();
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Stops the refresh of the host, the values resolved so far are kept.
+     */
+    public static synchronized void shutdown() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+            refreshExecutor = null;
+        }
+    }
+
+    private static synchronized void startRefresh() {
+        if (refreshExecutor != null) {
+            return;
+        }
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "logging-host-metadata");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // First resolution in the background, events use the fallback host until it completes
+        executor.scheduleWithFixedDelay(INSTANCE::refresh, 0, REFRESH_PERIOD_MINUTES, TimeUnit.MINUTES);
+        refreshExecutor = executor;
+    }
+
+    public String getHostName() {
+        return host.hostName;
+    }
+
+    public String getHostAddress() {
+        return host.hostAddress;
+    }
+
+    /**
+     * @return the current process id, null if unknown.
+     */
+    public Long getProcessId() {
+        return processId;
+    }
+
+    /**
+     * @return the {@link LayoutFields#HOST_NAME} and {@link LayoutFields#HOST_IP} fields, encoded in JSON.
+     */
+    public String getHostFields() {
+        return host.fields;
+    }
+
+    /**
+     * @return the {@link LayoutFields#PROCESS_ID} field encoded in JSON, empty if the process id is unknown.
+     */
+    public String getProcessIdFields() {
+        return processIdFields;
+    }
+
+    /**
+     * Resolves the host again, the previous values are kept if the resolution fails.
+     */
+    void refresh() {
+        try {
+            InetAddress address = resolver.resolve();
+            host = new Host(address.getHostName(), address.getHostAddress());
+        } catch (UnknownHostException | RuntimeException e) {
+            // Keep the previous (or unknown) host
+        }
+    }
+
+    /**
+     * @return the host name from the environment, {@link #UNKNOWN_HOST} if not set.
+     */
+    static String fallbackHostName() {
+        String hostName = System.getenv("HOSTNAME");
+        if (hostName == null || hostName.isEmpty()) {
+            hostName = System.getenv("COMPUTERNAME");
+        }
+        return hostName == null || hostName.isEmpty() ? UNKNOWN_HOST : hostName;
+    }
+
+    static Long parseProcessId(String jvmName) {
+        try {
+            return Long.valueOf(jvmName.split("@")[0]);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    interface HostResolver {
+
+        InetAddress resolve() throws UnknownHostException;
+    }
+
+    private static class Host {
+
+        private final String hostName;
+
+        private final String hostAddress;
+
+        private final String fields;
+
+        private Host(String hostName, String hostAddress) {
+            this.hostName = hostName;
+            this.hostAddress = hostAddress;
+            this.fields = new JsonWriter().field(LayoutFields.HOST_NAME, hostName).field(LayoutFields.HOST_IP, hostAddress)
+                    .toString();
+        }
+    }
+}
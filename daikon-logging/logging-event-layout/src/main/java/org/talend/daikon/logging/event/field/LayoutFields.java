@@ -43,6 +43,10 @@ public final class LayoutFields {
 
     public static final String STACK_TRACE = "stackTrace";
 
+    public static final String STACK_TRACE_FINGERPRINT = "stackTraceFingerprint";
+
+    public static final String STACK_TRACE_REPEAT_COUNT = "stackTraceRepeatCount";
+
     public static final String CLASS_NAME = "class.name";
 
     public static final String FILE_NAME = "file.name";
@@ -0,0 +1,232 @@
+package org.talend.daikon.logging.event.layout;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.BiConsumer;
+
+import org.talend.daikon.logging.event.field.LayoutFields;
+
+/**
+ * User fields and MDC routing of a layout, compiled once when the layout is configured (see
+ * {@link LayoutUtils#compileFields(String, String, String)}).
+ * <p>
+ * User fields are kept encoded in JSON. Each MDC key is routed once to the root of the event (Spring Cloud Sleuth
+ * fields), to the {@link LayoutFields#CUSTOM_INFO} object or nowhere (keys out of the whitelist), with its encoded
+ * output name; routes are then looked up by key. A configuration is immutable and can be shared between threads.
+ * </p>
+ */
+public final class FieldsConfiguration {
+
+    /**
+     * No user fields, all MDC keys written with their own name.
+     */
+    public static final FieldsConfiguration DEFAULT = new FieldsConfiguration(Collections.emptyMap(), null,
+            Collections.emptyMap());
+
+    /** Routes of further keys are computed for every event, protects from MDC with unbounded key sets. */
+    static final int MAX_ROUTES = 1024;
+
+    private final Map<String, String> userFields;
+
+    private final String encodedUserFields;
+
+    private final Set<String> mdcWhitelist;
+
+    private final Map<String, String> mdcRenames;
+
+    private final ConcurrentMap<String, Route> routes = new ConcurrentHashMap<>();
+
+    /**
+     * @param userFields the fields always written in the custom info.
+     * @param mdcWhitelist the MDC keys to write in the custom info, null to write all keys (Sleuth fields are always
+     * written).
+     * @param mdcRenames the names to write MDC keys with, by MDC key.
+     */
+    public FieldsConfiguration(Map<String, String> userFields, Collection<String> mdcWhitelist,
+            Map<String, String> mdcRenames) {
+        this.userFields = Collections.unmodifiableMap(new LinkedHashMap<>(userFields));
+        this.mdcWhitelist = mdcWhitelist == null ? null : Collections.unmodifiableSet(new HashSet<>(mdcWhitelist));
+        this.mdcRenames = Collections.unmodifiableMap(new LinkedHashMap<>(mdcRenames));
+        JsonWriter writer = new JsonWriter();
+        for (Map.Entry<String, String> userField : this.userFields.entrySet()) {
+            writer.field(userField.getKey(), userField.getValue());
+        }
+        this.encodedUserFields = writer.toString();
+    }
+
+    public Map<String, String> getUserFields() {
+        return userFields;
+    }
+
+    /**
+     * Writes the MDC fields routed to the root of the event.
+     *
+     * @param mdc the event MDC.
+     * @param writer the event writer.
+     */
+    public void writeRootFields(Map<String, ?> mdc, JsonWriter writer) {
+        writeRootFields(mdc::forEach, writer);
+    }
+
+    /**
+     * Writes the MDC fields routed to the root of the event.
+     *
+     * @param mdc the event MDC, iterated without being copied.
+     * @param writer the event writer.
+     */
+    public void writeRootFields(Mdc mdc, JsonWriter writer) {
+        mdc.forEach((key, value) -> {
+            Route route = route(key);
+            if (route.target == Target.ROOT) {
+                writer.encodedField(route.encodedName, mdcValue(value));
+            }
+        });
+    }
+
+    /**
+     * Writes the {@link LayoutFields#CUSTOM_INFO} object, if not empty: the MDC fields routed to it, then the user
+     * fields (MDC fields take precedence over user fields with the same name).
+     *
+     * @param mdc the event MDC.
+     * @param writer the event writer.
+     */
+    public void writeCustomInfo(Map<String, ?> mdc, JsonWriter writer) {
+        writeCustomInfo(mdc::forEach, writer);
+    }
+
+    /**
+     * Writes the {@link LayoutFields#CUSTOM_INFO} object, see {@link #writeCustomInfo(Map, JsonWriter)}.
+     *
+     * @param mdc the event MDC, iterated without being copied.
+     * @param writer the event writer.
+     */
+    public void writeCustomInfo(Mdc mdc, JsonWriter writer) {
+        CustomInfoWriter customInfo = new CustomInfoWriter(writer);
+        mdc.forEach(customInfo);
+        boolean empty = customInfo.empty;
+        Set<String> shadowedUserFields = customInfo.shadowedUserFields;
+        if (shadowedUserFields == null) {
+            if (!userFields.isEmpty()) {
+                empty = beginCustomInfo(writer, empty);
+                writer.rawFields(encodedUserFields);
+            }
+        } else {
+            for (Map.Entry<String, String> userField : userFields.entrySet()) {
+                if (!shadowedUserFields.contains(userField.getKey())) {
+                    empty = beginCustomInfo(writer, empty);
+                    writer.field(userField.getKey(), userField.getValue());
+                }
+            }
+        }
+        if (!empty) {
+            writer.endObject();
+        }
+    }
+
+    /**
+     * @return the string written for an MDC value (values may be any object with Log4j 1).
+     */
+    private static String mdcValue(Object value) {
+        return value == null || value instanceof String ? (String) value : String.valueOf(value);
+    }
+
+    private static boolean beginCustomInfo(JsonWriter writer, boolean empty) {
+        if (empty) {
+            writer.beginObject(LayoutFields.CUSTOM_INFO);
+        }
+        return false;
+    }
+
+    private Route route(String key) {
+        Route route = routes.get(key);
+        if (route == null) {
+            route = createRoute(key);
+            if (routes.size() < MAX_ROUTES) {
+                routes.putIfAbsent(key, route);
+            }
+        }
+        return route;
+    }
+
+    private Route createRoute(String key) {
+        String name = mdcRenames.containsKey(key) ? mdcRenames.get(key) : key;
+        if (LayoutUtils.isSleuthField(key)) {
+            return new Route(Target.ROOT, name, false);
+        }
+        if (mdcWhitelist != null && !mdcWhitelist.contains(key)) {
+            return new Route(Target.NONE, name, false);
+        }
+        return new Route(Target.CUSTOM_INFO, name, userFields.containsKey(name));
+    }
+
+    /**
+     * The MDC of an event, for MDC implementations iterated without being copied to a {@link Map} (e.g. Log4j2 context
+     * data).
+     */
+    @FunctionalInterface
+    public interface Mdc {
+
+        void forEach(BiConsumer<String, Object> action);
+    }
+
+    /**
+     * Writes the MDC fields routed to the custom info, remembering the user fields they shadow.
+     */
+    private class CustomInfoWriter implements BiConsumer<String, Object> {
+
+        private final JsonWriter writer;
+
+        private boolean empty = true;
+
+        private Set<String> shadowedUserFields;
+
+        private CustomInfoWriter(JsonWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void accept(String key, Object value) {
+            Route route = route(key);
+            if (route.target == Target.CUSTOM_INFO) {
+                empty = beginCustomInfo(writer, empty);
+                writer.encodedField(route.encodedName, mdcValue(value));
+                if (route.shadowsUserField) {
+                    if (shadowedUserFields == null) {
+                        shadowedUserFields = new HashSet<>();
+                    }
+                    shadowedUserFields.add(route.name);
+                }
+            }
+        }
+    }
+
+    private enum Target {
+        ROOT,
+        CUSTOM_INFO,
+        NONE
+    }
+
+    private static class Route {
+
+        private final Target target;
+
+        private final String name;
+
+        private final String encodedName;
+
+        private final boolean shadowsUserField;
+
+        private Route(Target target, String name, boolean shadowsUserField) {
+            this.target = target;
+            this.name = name;
+            this.encodedName = JsonWriter.encodeName(name);
+            this.shadowsUserField = shadowsUserField;
+        }
+    }
+}
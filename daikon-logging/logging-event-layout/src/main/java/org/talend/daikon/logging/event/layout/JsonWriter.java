@@ -0,0 +1,282 @@
+package org.talend.daikon.logging.event.layout;
+
+/**
+ * Streaming JSON writer used by the JSON layouts.
+ * <p>
+ * Fields are appended with their JSON escaping to a {@link StringBuilder} reused by the current thread (see
+ * {@link #acquire()}): formatting an event does not build any intermediate map and timestamps are formatted without
+ * allocation.
+ * </p>
+ */
+public final class JsonWriter {
+
+    static final int DEFAULT_CAPACITY = 1024;
+
+    /**
+     * Builders that grew above this capacity (e.g. for a large stack trace) are not kept for the next event.
+     */
+    static final int MAX_REUSED_CAPACITY = 32 * 1024;
+
+    private static final ThreadLocal<JsonWriter> WRITERS = ThreadLocal.withInitial(JsonWriter::new);
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private StringBuilder builder;
+
+    /** <code>true</code> until the first field of the current object is written. */
+    private boolean first = true;
+
+    private boolean inUse;
+
+    public JsonWriter() {
+        this(new StringBuilder(DEFAULT_CAPACITY));
+    }
+
+    public JsonWriter(StringBuilder builder) {
+        this.builder = builder;
+    }
+
+    /**
+     * Returns the empty writer of the current thread, it must be {@link #release() released} once the event is written.
+     * A nested call (an event logged while formatting another one) gets a new writer.
+     *
+     * @return an empty writer.
+     */
+    public static JsonWriter acquire() {
+        JsonWriter writer = WRITERS.get();
+        if (writer.inUse) {
+            return new JsonWriter();
+        }
+        writer.inUse = true;
+        writer.builder.setLength(0);
+        writer.first = true;
+        return writer;
+    }
+
+    /**
+     * Makes this writer available for the next event of the thread.
+     */
+    public void release() {
+        inUse = false;
+        if (builder.capacity() > MAX_REUSED_CAPACITY) {
+            builder = new StringBuilder(DEFAULT_CAPACITY);
+        }
+    }
+
+    public JsonWriter beginObject() {
+        builder.append('{');
+        first = true;
+        return this;
+    }
+
+    public JsonWriter beginObject(String name) {
+        name(name);
+        return beginObject();
+    }
+
+    public JsonWriter endObject() {
+        builder.append('}');
+        first = false;
+        return this;
+    }
+
+    public JsonWriter field(String name, String value) {
+        name(name);
+        string(value);
+        return this;
+    }
+
+    public JsonWriter field(String name, long value) {
+        name(name);
+        builder.append(value);
+        return this;
+    }
+
+    /**
+     * Writes a field whose name is already encoded.
+     *
+     * @param encodedName the field name encoded by {@link #encodeName(String)}.
+     * @param value the field value.
+     */
+    public JsonWriter encodedField(String encodedName, String value) {
+        if (!first) {
+            builder.append(',');
+        }
+        first = false;
+        builder.append(encodedName);
+        string(value);
+        return this;
+    }
+
+    /**
+     * Writes a timestamp with the {@link org.talend.daikon.logging.event.field.LayoutFields#DATETIME_TIME_FORMAT layout
+     * format}.
+     */
+    public JsonWriter timestampField(String name, long millis) {
+        name(name);
+        builder.append('"');
+        appendTimestamp(builder, millis);
+        builder.append('"');
+        return this;
+    }
+
+    /**
+     * Writes an already encoded JSON value.
+     */
+    public JsonWriter rawField(String name, CharSequence json) {
+        name(name);
+        builder.append(json);
+        return this;
+    }
+
+    /**
+     * Writes already encoded fields (<code>"name":value</code> separated by commas), for instance written by a
+     * {@link #JsonWriter() writer} before any {@link #beginObject()}. An empty fragment writes nothing.
+     */
+    public JsonWriter rawFields(CharSequence fields) {
+        if (fields.length() > 0) {
+            if (!first) {
+                builder.append(',');
+            }
+            first = false;
+            builder.append(fields);
+        }
+        return this;
+    }
+
+    public JsonWriter newLine() {
+        builder.append('\n');
+        return this;
+    }
+
+    /**
+     * @return the builder holding the JSON written so far.
+     */
+    public StringBuilder getBuilder() {
+        return builder;
+    }
+
+    @Override
+    public String toString() {
+        return builder.toString();
+    }
+
+    /**
+     * @return the field name encoded in JSON, with its separator (<code>"name":</code>).
+     */
+    public static String encodeName(String name) {
+        StringBuilder encoded = new StringBuilder(name.length() + 3).append('"');
+        escape(name, encoded);
+        return encoded.append("\":").toString();
+    }
+
+    private void name(String name) {
+        if (!first) {
+            builder.append(',');
+        }
+        first = false;
+        string(name);
+        builder.append(':');
+    }
+
+    private void string(String value) {
+        if (value == null) {
+            builder.append("null");
+            return;
+        }
+        builder.append('"');
+        escape(value, builder);
+        builder.append('"');
+    }
+
+    /**
+     * Appends a string with its JSON escaping (same escaped characters as json-smart).
+     */
+    static void escape(String value, StringBuilder out) {
+        int length = value.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x20 && c != '"' && c != '\\' && (c < 0x7F || c > 0x9F) && (c < 0x2000 || c > 0x20FF)) {
+                continue;
+            }
+            out.append(value, start, i);
+            start = i + 1;
+            switch (c) {
+            case '"':
+                out.append("\\\"");
+                break;
+            case '\\':
+                out.append("\\\\");
+                break;
+            case '\b':
+                out.append("\\b");
+                break;
+            case '\f':
+                out.append("\\f");
+                break;
+            case '\n':
+                out.append("\\n");
+                break;
+            case '\r':
+                out.append("\\r");
+                break;
+            case '\t':
+                out.append("\\t");
+                break;
+            default:
+                out.append("\\u").append(HEX[c >> 12 & 0xF]).append(HEX[c >> 8 & 0xF]).append(HEX[c >> 4 & 0xF])
+                        .append(HEX[c & 0xF]);
+            }
+        }
+        out.append(value, start, length);
+    }
+
+    /**
+     * Appends a timestamp as <code>yyyy-MM-dd'T'HH:mm:ss.SSS'Z'</code> (UTC), without allocation.
+     */
+    static void appendTimestamp(StringBuilder out, long millis) {
+        long days = Math.floorDiv(millis, MILLIS_PER_DAY);
+        int millisOfDay = (int) Math.floorMod(millis, MILLIS_PER_DAY);
+        // Civil date from the number of days since epoch (proleptic Gregorian calendar)
+        long z = days + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * shiftedMonth + 2) / 5 + 1);
+        int month = (int) (shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        if (year >= 0 && year < 1000) {
+            pad(out, (int) year, 4);
+        } else {
+            out.append(year);
+        }
+        out.append('-');
+        pad(out, month, 2);
+        out.append('-');
+        pad(out, day, 2);
+        out.append('T');
+        pad(out, millisOfDay / 3_600_000, 2);
+        out.append(':');
+        pad(out, millisOfDay / 60_000 % 60, 2);
+        out.append(':');
+        pad(out, millisOfDay / 1000 % 60, 2);
+        out.append('.');
+        pad(out, millisOfDay % 1000, 3);
+        out.append('Z');
+    }
+
+    private static void pad(StringBuilder out, int value, int digits) {
+        for (int limit = 10, i = 1; i < digits; i++, limit *= 10) {
+            if (value < limit) {
+                out.append('0');
+            }
+        }
+        out.append(value);
+    }
+}
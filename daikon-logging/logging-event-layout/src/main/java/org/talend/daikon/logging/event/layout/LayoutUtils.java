@@ -1,6 +1,12 @@
 package org.talend.daikon.logging.event.layout;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.talend.daikon.logging.event.field.LayoutFields;
 
@@ -13,6 +19,9 @@ import net.minidev.json.JSONObject;
  */
 public final class LayoutUtils {
 
+    private static final Set<String> SLEUTH_FIELDS = Collections
+            .unmodifiableSet(new HashSet<>(Arrays.asList("service", "X-B3-SpanId", "X-B3-TraceId", "X-Span-Export")));
+
     /**
      * 
      * @param mdc
@@ -68,14 +77,53 @@ public final class LayoutUtils {
         }
     }
 
+    /**
+     * Parses pairs defined as <code>key1:value1,key2:value2</code> (user fields, MDC renames).
+     *
+     * @param data the pairs, may be null
+     * @return the values by key, in definition order
+     */
+    public static Map<String, String> parsePairs(String data) {
+        if (data == null) {
+            return Collections.emptyMap();
+        }
+        Map<String, String> pairs = new LinkedHashMap<>();
+        for (String pair : data.split(",")) {
+            String[] keyValue = pair.split(":", 2);
+            pairs.put(keyValue[0], keyValue[1]);
+        }
+        return pairs;
+    }
+
+    /**
+     * Compiles the user fields and MDC routing of a layout, done once when the layout is configured.
+     *
+     * @param userFields the user fields (<code>key1:value1,key2:value2</code>), may be null
+     * @param mdcWhitelist the MDC keys to write in the custom info (<code>key1,key2</code>), null to write all keys
+     * @param mdcRenames the names to write MDC keys with (<code>key1:name1,key2:name2</code>), may be null
+     * @return the compiled configuration
+     */
+    public static FieldsConfiguration compileFields(String userFields, String mdcWhitelist, String mdcRenames) {
+        return new FieldsConfiguration(parsePairs(userFields), parseList(mdcWhitelist), parsePairs(mdcRenames));
+    }
+
+    /**
+     * Parses values separated by commas.
+     *
+     * @param data the values, may be null
+     * @return the values, null if data is null
+     */
+    public static List<String> parseList(String data) {
+        return data == null ? null : Arrays.asList(data.split(","));
+    }
+
     /**
      *  Check if this field name added by Spring Cloud Sleuth
      * @param fieldName
      * @return true if the fieldName represent added by Spring Cloud Sleuth 
      */
     public static boolean isSleuthField(String fieldName) {
-        return "service".equals(fieldName) || "X-B3-SpanId".equals(fieldName) || "X-B3-TraceId".equals(fieldName)
-                || "X-Span-Export".equals(fieldName);
+        return SLEUTH_FIELDS.contains(fieldName);
     }
 
     private LayoutUtils() {
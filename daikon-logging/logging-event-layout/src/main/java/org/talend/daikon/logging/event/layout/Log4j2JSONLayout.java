@@ -1,10 +1,8 @@
 
 package org.talend.daikon.logging.event.layout;
 
-import java.lang.management.ManagementFactory;
-import java.lang.management.RuntimeMXBean;
 import java.nio.charset.Charset;
-import java.util.Date;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -14,13 +12,13 @@ import org.apache.logging.log4j.core.config.plugins.PluginAttribute;
 import org.apache.logging.log4j.core.config.plugins.PluginElement;
 import org.apache.logging.log4j.core.config.plugins.PluginFactory;
 import org.apache.logging.log4j.core.layout.AbstractStringLayout;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
 import org.apache.logging.log4j.core.pattern.ThrowablePatternConverter;
 import org.apache.logging.log4j.core.util.KeyValuePair;
-import org.talend.daikon.logging.event.field.HostData;
+import org.apache.logging.log4j.util.ReadOnlyStringMap;
+import org.talend.daikon.logging.event.field.HostMetadata;
 import org.talend.daikon.logging.event.field.LayoutFields;
 
-import net.minidev.json.JSONObject;
-
 /**
  * Log4j2 JSON Layout
  * @author sdiallo
@@ -31,19 +29,51 @@ public class Log4j2JSONLayout extends AbstractStringLayout {
 
     static final String CONTENT_TYPE = "application/json";
 
-    private static final Map<String, String> ADDITIONNAL_ATTRIBUTES = new HashMap<>();
-
     private boolean locationInfo;
 
     private String customUserFields;
 
-    private JSONObject logstashEvent;
+    /**
+     * Fields from log4j2 config and MDC routing, never modified once the layout is created.
+     */
+    private final FieldsConfiguration fieldsConfiguration;
 
     protected Log4j2JSONLayout(final Boolean locationInfo, final Charset charset,
             final Map<String, String> additionalLogAttributes) {
+        this(locationInfo, charset, new FieldsConfiguration(additionalLogAttributes, null, Collections.emptyMap()));
+    }
+
+    protected Log4j2JSONLayout(final Boolean locationInfo, final Charset charset,
+            final FieldsConfiguration fieldsConfiguration) {
         super(charset);
         setLocationInfo(locationInfo);
-        Log4j2JSONLayout.ADDITIONNAL_ATTRIBUTES.putAll(additionalLogAttributes);
+        this.fieldsConfiguration = fieldsConfiguration;
+    }
+
+    /**
+     * Creates a JSON Layout.
+     *
+     * @param locationInfo
+     *        If "true", includes the location information in the generated JSON.
+     * @param properties
+     *        If "true", includes the thread context in the generated JSON.
+     * @param complete
+     *        If "true", includes the JSON header and footer, defaults to "false".
+     * @param compact
+     *        If "true", does not use end-of-lines and indentation, defaults to "false".
+     * @param eventEol
+     *        If "true", forces an EOL after each log event (even if compact is "true"), defaults to "false". This
+     *        allows one even per line, even in compact mode.
+     * @param charset
+     *        The character set to use, if {@code null}, uses "UTF-8".
+     * @param pairs
+     *          MDC attributes
+     * @return A JSON Layout.
+     */
+    public static AbstractStringLayout createLayout(final boolean locationInfo, final boolean properties,
+            final boolean complete, final boolean compact, final boolean eventEol, final Charset charset,
+            final KeyValuePair[] pairs) {
+        return createLayout(locationInfo, properties, complete, compact, eventEol, charset, pairs, null, null);
     }
 
     /**
@@ -64,6 +94,10 @@ public class Log4j2JSONLayout extends AbstractStringLayout {
      *        The character set to use, if {@code null}, uses "UTF-8".
      * @param pairs
      *          MDC attributes
+     * @param mdcWhitelist
+     *        The MDC keys written in the custom info, separated by commas, all keys are written if {@code null}.
+     * @param mdcRenames
+     *        The names to write MDC keys with, as "key1:name1,key2:name2".
      * @return A JSON Layout.
      */
     @PluginFactory
@@ -75,13 +109,17 @@ public class Log4j2JSONLayout extends AbstractStringLayout {
             @PluginAttribute(value = "compact", defaultBoolean = false) final boolean compact,
             @PluginAttribute(value = "eventEol", defaultBoolean = false) final boolean eventEol,
             @PluginAttribute(value = "charset", defaultString = "UTF-8") final Charset charset,
-            @PluginElement("Pairs") final KeyValuePair[] pairs
+            @PluginElement("Pairs") final KeyValuePair[] pairs,
+            @PluginAttribute(value = "mdcWhitelist") final String mdcWhitelist,
+            @PluginAttribute(value = "mdcRenames") final String mdcRenames
             // @formatter:on
     ) {
 
         //Unpacke the pairs list
         final Map<String, String> additionalLogAttributes = unpackPairs(pairs);
-        return new Log4j2JSONLayout(locationInfo, charset, additionalLogAttributes);
+        final FieldsConfiguration fieldsConfiguration = new FieldsConfiguration(additionalLogAttributes,
+                LayoutUtils.parseList(mdcWhitelist), LayoutUtils.parsePairs(mdcRenames));
+        return new Log4j2JSONLayout(locationInfo, charset, fieldsConfiguration);
 
     }
 
@@ -93,35 +131,57 @@ public class Log4j2JSONLayout extends AbstractStringLayout {
      */
     @Override
     public String toSerializable(final LogEvent loggingEvent) {
-        logstashEvent = new JSONObject();
-        JSONObject userFieldsEvent = new JSONObject();
-        HostData host = new HostData();
-        Map<String, String> mdc = loggingEvent.getContextData().toMap();
-
-        /**
-         * Extract and add fields from log4j2 config, if defined
-         */
-        LayoutUtils.addUserFields(ADDITIONNAL_ATTRIBUTES, userFieldsEvent);
-
-        /**
-         * Now we start injecting our own stuff.
-         */
-        addEventData(LayoutFields.VERSION, LayoutFields.VERSION_VALUE);
-        addEventData(LayoutFields.TIME_STAMP, LayoutUtils.dateFormat(loggingEvent.getTimeMillis()));
-        addEventData(LayoutFields.SEVERITY, loggingEvent.getLevel().toString());
-        addEventData(LayoutFields.THREAD_NAME, loggingEvent.getThreadName());
-        addEventData(LayoutFields.AGENT_TIME_STAMP, LayoutUtils.dateFormat(new Date().getTime()));
-        addEventData(LayoutFields.LOG_MESSAGE, loggingEvent.getMessage().getFormattedMessage());
-        handleThrown(loggingEvent);
-        JSONObject logSourceEvent = createLogSourceEvent(loggingEvent, host);
-        addEventData(LayoutFields.LOG_SOURCE, logSourceEvent);
-        LayoutUtils.addMDC(mdc, userFieldsEvent, logstashEvent);
-
-        if (!userFieldsEvent.isEmpty()) {
-            addEventData(LayoutFields.CUSTOM_INFO, userFieldsEvent);
+        JsonWriter writer = JsonWriter.acquire();
+        try {
+            writeEvent(loggingEvent, writer);
+            return writer.toString();
+        } finally {
+            writer.release();
+        }
+    }
+
+    /**
+     * Encodes a {@link org.apache.logging.log4j.core.LogEvent} directly to the destination, without creating the
+     * intermediate JSON string (garbage-free path of Log4j2 appenders).
+     *
+     * @param loggingEvent The LogEvent.
+     * @param destination The destination of the JSON representation of the LogEvent.
+     */
+    @Override
+    public void encode(final LogEvent loggingEvent, final ByteBufferDestination destination) {
+        JsonWriter writer = JsonWriter.acquire();
+        try {
+            writeEvent(loggingEvent, writer);
+            getStringBuilderEncoder().encode(writer.getBuilder(), destination);
+        } finally {
+            writer.release();
         }
+    }
+
+    private void writeEvent(final LogEvent loggingEvent, JsonWriter writer) {
+        // Context data iterated as is, not copied to a map
+        ReadOnlyStringMap contextData = loggingEvent.getContextData();
+        FieldsConfiguration.Mdc mdc = contextData::forEach;
 
-        return logstashEvent.toString() + "\n";
+        writer.beginObject();
+        writer.field(LayoutFields.VERSION, LayoutFields.VERSION_VALUE);
+        writer.timestampField(LayoutFields.TIME_STAMP, loggingEvent.getTimeMillis());
+        writer.field(LayoutFields.SEVERITY, loggingEvent.getLevel().toString());
+        String threadName = loggingEvent.getThreadName();
+        if (threadName != null) {
+            writer.field(LayoutFields.THREAD_NAME, threadName);
+        }
+        writer.timestampField(LayoutFields.AGENT_TIME_STAMP, System.currentTimeMillis());
+        String message = loggingEvent.getMessage().getFormattedMessage();
+        if (message != null) {
+            writer.field(LayoutFields.LOG_MESSAGE, message);
+        }
+        handleThrown(loggingEvent, writer);
+        writeLogSource(loggingEvent, writer);
+        fieldsConfiguration.writeRootFields(mdc, writer);
+        fieldsConfiguration.writeCustomInfo(mdc, writer);
+        writer.endObject();
+        writer.newLine();
     }
 
     /**
@@ -150,12 +210,6 @@ public class Log4j2JSONLayout extends AbstractStringLayout {
         this.customUserFields = userFields;
     }
 
-    private void addEventData(String keyname, Object keyval) {
-        if (null != keyval) {
-            logstashEvent.put(keyname, keyval);
-        }
-    }
-
     private static Map<String, String> unpackPairs(final KeyValuePair[] pairs) {
         final Map<String, String> additionalLogAttributes = new HashMap<>();
         if (pairs != null && pairs.length > 0) {
@@ -177,44 +231,43 @@ public class Log4j2JSONLayout extends AbstractStringLayout {
         return additionalLogAttributes;
     }
 
-    private JSONObject createLogSourceEvent(final LogEvent loggingEvent, HostData host) {
-        JSONObject logSourceEvent = new JSONObject();
-        if (locationInfo && loggingEvent.getSource() != null) {
-            logSourceEvent.put(LayoutFields.FILE_NAME, loggingEvent.getSource().getFileName());
-            logSourceEvent.put(LayoutFields.LINE_NUMBER, loggingEvent.getSource().getLineNumber());
-            logSourceEvent.put(LayoutFields.CLASS_NAME, loggingEvent.getSource().getClassName());
-            logSourceEvent.put(LayoutFields.METHOD_NAME, loggingEvent.getSource().getMethodName());
-            logSourceEvent.put(LayoutFields.LOGGER_NAME, loggingEvent.getLoggerName());
-            RuntimeMXBean runtimeBean = ManagementFactory.getRuntimeMXBean();
-            String jvmName = runtimeBean.getName();
-            logSourceEvent.put(LayoutFields.PROCESS_ID, Long.valueOf(jvmName.split("@")[0]));
+    private void writeLogSource(final LogEvent loggingEvent, JsonWriter writer) {
+        HostMetadata metadata = HostMetadata.getInstance();
+        writer.beginObject(LayoutFields.LOG_SOURCE);
+        StackTraceElement source = locationInfo ? loggingEvent.getSource() : null;
+        if (source != null) {
+            writer.field(LayoutFields.FILE_NAME, source.getFileName());
+            writer.field(LayoutFields.LINE_NUMBER, source.getLineNumber());
+            writer.field(LayoutFields.CLASS_NAME, source.getClassName());
+            writer.field(LayoutFields.METHOD_NAME, source.getMethodName());
+            writer.field(LayoutFields.LOGGER_NAME, loggingEvent.getLoggerName());
+            writer.rawFields(metadata.getProcessIdFields());
         }
-        logSourceEvent.put(LayoutFields.HOST_NAME, host.getHostName());
-        logSourceEvent.put(LayoutFields.HOST_IP, host.getHostAddress());
-        return logSourceEvent;
+        writer.rawFields(metadata.getHostFields());
+        writer.endObject();
     }
 
-    private void handleThrown(final LogEvent loggingEvent) {
-        if (loggingEvent.getThrown() != null) {
-            if (loggingEvent.getThrown().getClass() != null && loggingEvent.getThrown().getClass().getCanonicalName() != null) {
-                addEventData(LayoutFields.EXCEPTION_CLASS, loggingEvent.getThrown().getClass().getCanonicalName());
+    private void handleThrown(final LogEvent loggingEvent, JsonWriter writer) {
+        Throwable thrown = loggingEvent.getThrown();
+        if (thrown != null) {
+            if (thrown.getClass().getCanonicalName() != null) {
+                writer.field(LayoutFields.EXCEPTION_CLASS, thrown.getClass().getCanonicalName());
             }
 
-            if (loggingEvent.getThrown().getMessage() != null) {
-                addEventData(LayoutFields.EXCEPTION_MESSAGE, loggingEvent.getThrown().getMessage());
+            if (thrown.getMessage() != null) {
+                writer.field(LayoutFields.EXCEPTION_MESSAGE, thrown.getMessage());
             }
-            createStackTraceEvent(loggingEvent);
+            createStackTraceEvent(loggingEvent, writer);
         }
     }
 
-    private void createStackTraceEvent(final LogEvent loggingEvent) {
+    private void createStackTraceEvent(final LogEvent loggingEvent, JsonWriter writer) {
         if (loggingEvent.getThrown().getStackTrace() != null) {
             final String[] options = { "full" };
             final ThrowablePatternConverter converter = ThrowablePatternConverter.newInstance(options);
             final StringBuilder sb = new StringBuilder();
             converter.format(loggingEvent, sb);
-            final String stackTrace = sb.toString();
-            addEventData(LayoutFields.STACK_TRACE, stackTrace);
+            writer.field(LayoutFields.STACK_TRACE, sb.toString());
         }
     }
 
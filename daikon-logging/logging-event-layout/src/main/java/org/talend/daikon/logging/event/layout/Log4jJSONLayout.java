@@ -1,8 +1,5 @@
 package org.talend.daikon.logging.event.layout;
 
-import java.lang.management.ManagementFactory;
-import java.lang.management.RuntimeMXBean;
-import java.util.Date;
 import java.util.Map;
 
 import org.apache.log4j.Layout;
@@ -10,11 +7,9 @@ import org.apache.log4j.pattern.ThrowableInformationPatternConverter;
 import org.apache.log4j.spi.LocationInfo;
 import org.apache.log4j.spi.LoggingEvent;
 import org.apache.log4j.spi.ThrowableInformation;
-import org.talend.daikon.logging.event.field.HostData;
+import org.talend.daikon.logging.event.field.HostMetadata;
 import org.talend.daikon.logging.event.field.LayoutFields;
 
-import net.minidev.json.JSONObject;
-
 /**
  * Log4j JSON Layout
  * @author sdiallo
@@ -26,9 +21,13 @@ public class Log4jJSONLayout extends Layout {
 
     private String customUserFields;
 
-    private boolean ignoreThrowable;
+    private String mdcWhitelist;
+
+    private String mdcRenames;
+
+    private volatile FieldsConfiguration fieldsConfiguration = FieldsConfiguration.DEFAULT;
 
-    private JSONObject logstashEvent;
+    private boolean ignoreThrowable;
 
     /**
      * For backwards compatibility, the default is to generate location information
@@ -47,43 +46,46 @@ public class Log4jJSONLayout extends Layout {
         this.locationInfo = locationInfo;
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public String format(LoggingEvent loggingEvent) {
-        logstashEvent = new JSONObject();
-        JSONObject userFieldsEvent = new JSONObject();
-        HostData host = new HostData();
-        Map<String, String> mdc = loggingEvent.getProperties();
+        JsonWriter writer = JsonWriter.acquire();
+        try {
+            writeEvent(loggingEvent, writer);
+            return writer.toString();
+        } finally {
+            writer.release();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeEvent(LoggingEvent loggingEvent, JsonWriter writer) {
+        // log4j MDC values can be any object, FieldsConfiguration writes them with String.valueOf
+        Map<String, ?> mdc = loggingEvent.getProperties();
         String ndc = loggingEvent.getNDC();
 
-        /**
-         * Extract and add fields from log4j config, if defined
-         */
-        if (getUserFields() != null) {
-            String userFlds = getUserFields();
-            LayoutUtils.addUserFields(userFlds, userFieldsEvent);
+        writer.beginObject();
+        writer.field(LayoutFields.VERSION, LayoutFields.VERSION_VALUE);
+        writer.timestampField(LayoutFields.TIME_STAMP, loggingEvent.getTimeStamp());
+        writer.timestampField(LayoutFields.AGENT_TIME_STAMP, System.currentTimeMillis());
+        if (ndc != null) {
+            writer.field(LayoutFields.NDC, ndc);
         }
-
-        /**
-         * Now we start injecting our own stuff.
-         */
-        addEventData(LayoutFields.VERSION, LayoutFields.VERSION_VALUE);
-        addEventData(LayoutFields.TIME_STAMP, LayoutUtils.dateFormat(loggingEvent.getTimeStamp()));
-        addEventData(LayoutFields.AGENT_TIME_STAMP, LayoutUtils.dateFormat(new Date().getTime()));
-        addEventData(LayoutFields.NDC, ndc);
-        addEventData(LayoutFields.SEVERITY, loggingEvent.getLevel().toString());
-        addEventData(LayoutFields.THREAD_NAME, loggingEvent.getThreadName());
-        addEventData(LayoutFields.LOG_MESSAGE, loggingEvent.getRenderedMessage());
-        handleThrown(loggingEvent);
-        JSONObject logSourceEvent = createLogSourceEvent(loggingEvent, host);
-        addEventData(LayoutFields.LOG_SOURCE, logSourceEvent);
-        LayoutUtils.addMDC(mdc, userFieldsEvent, logstashEvent);
-
-        if (!userFieldsEvent.isEmpty()) {
-            addEventData(LayoutFields.CUSTOM_INFO, userFieldsEvent);
+        writer.field(LayoutFields.SEVERITY, loggingEvent.getLevel().toString());
+        String threadName = loggingEvent.getThreadName();
+        if (threadName != null) {
+            writer.field(LayoutFields.THREAD_NAME, threadName);
         }
-
-        return logstashEvent.toString() + "\n";
+        String message = loggingEvent.getRenderedMessage();
+        if (message != null) {
+            writer.field(LayoutFields.LOG_MESSAGE, message);
+        }
+        handleThrown(loggingEvent, writer);
+        writeLogSource(loggingEvent, writer);
+        FieldsConfiguration fields = fieldsConfiguration;
+        fields.writeRootFields(mdc, writer);
+        fields.writeCustomInfo(mdc, writer);
+        writer.endObject();
+        writer.newLine();
     }
 
     @Override
@@ -115,6 +117,39 @@ public class Log4jJSONLayout extends Layout {
 
     public void setUserFields(String userFields) {
         this.customUserFields = userFields;
+        compileFields();
+    }
+
+    public String getMdcWhitelist() {
+        return mdcWhitelist;
+    }
+
+    /**
+     * Set the MDC keys written in the custom info, all keys are written by default.
+     *
+     * @param mdcWhitelist the MDC keys, separated by commas.
+     */
+    public void setMdcWhitelist(String mdcWhitelist) {
+        this.mdcWhitelist = mdcWhitelist;
+        compileFields();
+    }
+
+    public String getMdcRenames() {
+        return mdcRenames;
+    }
+
+    /**
+     * Set the names to write MDC keys with.
+     *
+     * @param mdcRenames the names, as <code>key1:name1,key2:name2</code>.
+     */
+    public void setMdcRenames(String mdcRenames) {
+        this.mdcRenames = mdcRenames;
+        compileFields();
+    }
+
+    private void compileFields() {
+        fieldsConfiguration = LayoutUtils.compileFields(customUserFields, mdcWhitelist, mdcRenames);
     }
 
     @Override
@@ -122,52 +157,44 @@ public class Log4jJSONLayout extends Layout {
         //Not used
     }
 
-    private JSONObject createLogSourceEvent(LoggingEvent loggingEvent, HostData host) {
-        JSONObject logSourceEvent = new JSONObject();
+    private void writeLogSource(LoggingEvent loggingEvent, JsonWriter writer) {
+        HostMetadata metadata = HostMetadata.getInstance();
+        writer.beginObject(LayoutFields.LOG_SOURCE);
         if (locationInfo) {
             LocationInfo info = loggingEvent.getLocationInformation();
-            logSourceEvent.put(LayoutFields.FILE_NAME, info.getFileName());
-            logSourceEvent.put(LayoutFields.LINE_NUMBER, info.getLineNumber());
-            logSourceEvent.put(LayoutFields.CLASS_NAME, info.getClassName());
-            logSourceEvent.put(LayoutFields.METHOD_NAME, info.getMethodName());
-            logSourceEvent.put(LayoutFields.LOGGER_NAME, loggingEvent.getLoggerName());
-            RuntimeMXBean runtimeBean = ManagementFactory.getRuntimeMXBean();
-            String jvmName = runtimeBean.getName();
-            logSourceEvent.put(LayoutFields.PROCESS_ID, Long.valueOf(jvmName.split("@")[0]));
-        }
-        logSourceEvent.put(LayoutFields.HOST_NAME, host.getHostName());
-        logSourceEvent.put(LayoutFields.HOST_IP, host.getHostAddress());
-        return logSourceEvent;
-    }
-
-    private void addEventData(String keyname, Object keyval) {
-        if (null != keyval) {
-            logstashEvent.put(keyname, keyval);
+            writer.field(LayoutFields.FILE_NAME, info.getFileName());
+            writer.field(LayoutFields.LINE_NUMBER, info.getLineNumber());
+            writer.field(LayoutFields.CLASS_NAME, info.getClassName());
+            writer.field(LayoutFields.METHOD_NAME, info.getMethodName());
+            writer.field(LayoutFields.LOGGER_NAME, loggingEvent.getLoggerName());
+            writer.rawFields(metadata.getProcessIdFields());
         }
+        writer.rawFields(metadata.getHostFields());
+        writer.endObject();
     }
 
-    private void handleThrown(LoggingEvent loggingEvent) {
+    private void handleThrown(LoggingEvent loggingEvent, JsonWriter writer) {
         if (loggingEvent.getThrowableInformation() != null) {
             final ThrowableInformation throwableInformation = loggingEvent.getThrowableInformation();
             if (throwableInformation.getThrowable().getClass().getCanonicalName() != null) {
-                addEventData(LayoutFields.EXCEPTION_CLASS, throwableInformation.getThrowable().getClass().getCanonicalName());
+                writer.field(LayoutFields.EXCEPTION_CLASS, throwableInformation.getThrowable().getClass().getCanonicalName());
             }
 
             if (throwableInformation.getThrowable().getMessage() != null) {
-                addEventData(LayoutFields.EXCEPTION_MESSAGE, throwableInformation.getThrowable().getMessage());
+                writer.field(LayoutFields.EXCEPTION_MESSAGE, throwableInformation.getThrowable().getMessage());
             }
-            createStackTraceEvent(loggingEvent, throwableInformation);
+            createStackTraceEvent(loggingEvent, throwableInformation, writer);
         }
     }
 
-    private void createStackTraceEvent(LoggingEvent loggingEvent, final ThrowableInformation throwableInformation) {
+    private void createStackTraceEvent(LoggingEvent loggingEvent, final ThrowableInformation throwableInformation,
+            JsonWriter writer) {
         if (throwableInformation.getThrowableStrRep() != null) {
             final String[] options = { "full" };
             final ThrowableInformationPatternConverter converter = ThrowableInformationPatternConverter.newInstance(options);
             final StringBuffer sb = new StringBuffer();
             converter.format(loggingEvent, sb);
-            final String stackTrace = sb.toString();
-            addEventData(LayoutFields.STACK_TRACE, stackTrace);
+            writer.field(LayoutFields.STACK_TRACE, sb.toString());
         }
     }
 
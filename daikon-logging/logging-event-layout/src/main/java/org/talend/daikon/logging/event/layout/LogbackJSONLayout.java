@@ -1,19 +1,18 @@
 package org.talend.daikon.logging.event.layout;
 
-import java.lang.management.ManagementFactory;
-import java.lang.management.RuntimeMXBean;
 import java.util.Arrays;
-import java.util.Date;
 import java.util.Map;
-import java.util.UUID;
 
-import org.talend.daikon.logging.event.field.HostData;
+import org.talend.daikon.logging.event.field.HostMetadata;
 import org.talend.daikon.logging.event.field.LayoutFields;
+import org.talend.daikon.logging.id.IdGenerator;
+import org.talend.daikon.logging.id.UlidGenerator;
 
 import ch.qos.logback.classic.pattern.RootCauseFirstThrowableProxyConverter;
 import ch.qos.logback.classic.pattern.ThrowableProxyConverter;
 import ch.qos.logback.classic.spi.ILoggingEvent;
-import net.minidev.json.JSONObject;
+import ch.qos.logback.classic.spi.IThrowableProxy;
+import ch.qos.logback.classic.spi.StackTraceElementProxy;
 
 /**
  * Logback JSON Layout
@@ -26,7 +25,25 @@ public class LogbackJSONLayout extends JsonLayout<ILoggingEvent> {
 
     private String customUserFields;
 
-    private JSONObject logstashEvent;
+    private String mdcWhitelist;
+
+    private String mdcRenames;
+
+    private volatile FieldsConfiguration fieldsConfiguration = FieldsConfiguration.DEFAULT;
+
+    /**
+     * Started once, the converter does not keep any state between events.
+     */
+    private final ThrowableProxyConverter throwableConverter = createThrowableConverter();
+
+    private IdGenerator idGenerator = new UlidGenerator();
+
+    private long stackTraceDedupWindowMillis;
+
+    /**
+     * Null when every stack trace is written in full.
+     */
+    private volatile StackTraceDeduplicator stackTraceDeduplicator;
 
     /**
      * For backwards compatibility, the default is to generate location information
@@ -45,42 +62,50 @@ public class LogbackJSONLayout extends JsonLayout<ILoggingEvent> {
         this.locationInfo = locationInfo;
     }
 
+    /**
+     * Also stops the refresh of the {@link HostMetadata}, restarted by the next event of any layout.
+     */
+    @Override
+    public void stop() {
+        super.stop();
+        HostMetadata.shutdown();
+    }
+
     @Override
     public String doLayout(ILoggingEvent loggingEvent) {
-        logstashEvent = new JSONObject();
-        JSONObject userFieldsEvent = new JSONObject();
-        HostData host = new HostData();
+        JsonWriter writer = JsonWriter.acquire();
+        try {
+            writeEvent(loggingEvent, writer);
+            return writer.toString();
+        } finally {
+            writer.release();
+        }
+    }
+
+    private void writeEvent(ILoggingEvent loggingEvent, JsonWriter writer) {
         Map<String, String> mdc = loggingEvent.getMDCPropertyMap();
 
-        /**
-         * Extract and add fields from log4j config, if defined
-         */
-        if (getUserFields() != null) {
-            String userFlds = getUserFields();
-            LayoutUtils.addUserFields(userFlds, userFieldsEvent);
+        writer.beginObject();
+        writer.field(LayoutFields.VERSION, LayoutFields.VERSION_VALUE);
+        writer.field(LayoutFields.EVENT_UUID, idGenerator.nextId());
+        writer.timestampField(LayoutFields.TIME_STAMP, loggingEvent.getTimeStamp());
+        writer.field(LayoutFields.SEVERITY, loggingEvent.getLevel().toString());
+        String threadName = loggingEvent.getThreadName();
+        if (threadName != null) {
+            writer.field(LayoutFields.THREAD_NAME, threadName);
         }
-
-        /**
-         * Now we start injecting our own stuff.
-         */
-        addEventData(LayoutFields.VERSION, LayoutFields.VERSION_VALUE);
-        addEventData(LayoutFields.EVENT_UUID, UUID.randomUUID().toString());
-        addEventData(LayoutFields.TIME_STAMP, dateFormat(loggingEvent.getTimeStamp()));
-        addEventData(LayoutFields.SEVERITY, loggingEvent.getLevel().toString());
-        addEventData(LayoutFields.THREAD_NAME, loggingEvent.getThreadName());
-        addEventData(LayoutFields.AGENT_TIME_STAMP, dateFormat(new Date().getTime()));
-        addEventData(LayoutFields.LOG_MESSAGE, loggingEvent.getFormattedMessage());
-        handleThrown(loggingEvent);
-        JSONObject logSourceEvent = createLogSourceEvent(loggingEvent, host);
-        addEventData(LayoutFields.LOG_SOURCE, logSourceEvent);
-        LayoutUtils.addMDC(mdc, userFieldsEvent, logstashEvent);
-
-        if (!userFieldsEvent.isEmpty()) {
-            addEventData(LayoutFields.CUSTOM_INFO, userFieldsEvent);
+        writer.timestampField(LayoutFields.AGENT_TIME_STAMP, System.currentTimeMillis());
+        String message = loggingEvent.getFormattedMessage();
+        if (message != null) {
+            writer.field(LayoutFields.LOG_MESSAGE, message);
         }
-
-        return logstashEvent.toString() + "\n";
-
+        handleThrown(loggingEvent, writer);
+        writeLogSource(loggingEvent, writer);
+        FieldsConfiguration fields = fieldsConfiguration;
+        fields.writeRootFields(mdc, writer);
+        fields.writeCustomInfo(mdc, writer);
+        writer.endObject();
+        writer.newLine();
     }
 
     /**
@@ -107,51 +132,137 @@ public class LogbackJSONLayout extends JsonLayout<ILoggingEvent> {
 
     public void setUserFields(String userFields) {
         this.customUserFields = userFields;
+        compileFields();
+    }
+
+    public String getMdcWhitelist() {
+        return mdcWhitelist;
+    }
+
+    /**
+     * Set the MDC keys written in the custom info, all keys are written by default.
+     *
+     * @param mdcWhitelist the MDC keys, separated by commas.
+     */
+    public void setMdcWhitelist(String mdcWhitelist) {
+        this.mdcWhitelist = mdcWhitelist;
+        compileFields();
+    }
+
+    public String getMdcRenames() {
+        return mdcRenames;
     }
 
-    private void handleThrown(ILoggingEvent loggingEvent) {
+    /**
+     * Set the names to write MDC keys with.
+     *
+     * @param mdcRenames the names, as <code>key1:name1,key2:name2</code>.
+     */
+    public void setMdcRenames(String mdcRenames) {
+        this.mdcRenames = mdcRenames;
+        compileFields();
+    }
+
+    public IdGenerator getIdGenerator() {
+        return idGenerator;
+    }
+
+    /**
+     * Set the generator of the {@link LayoutFields#EVENT_UUID} field, {@link UlidGenerator} by default.
+     *
+     * @param idGenerator the event id generator.
+     */
+    public void setIdGenerator(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+
+    public long getStackTraceDedupWindowMillis() {
+        return stackTraceDedupWindowMillis;
+    }
+
+    /**
+     * Set the window during which identical stack traces (same exception classes and frames) are written only once.
+     * The following occurrences in the window are written with the {@link LayoutFields#STACK_TRACE_FINGERPRINT} and
+     * {@link LayoutFields#STACK_TRACE_REPEAT_COUNT} fields instead of the {@link LayoutFields#STACK_TRACE}.
+     *
+     * @param stackTraceDedupWindowMillis the window duration, 0 (default) to always write stack traces in full.
+     */
+    public void setStackTraceDedupWindowMillis(long stackTraceDedupWindowMillis) {
+        this.stackTraceDedupWindowMillis = stackTraceDedupWindowMillis;
+        this.stackTraceDeduplicator = stackTraceDedupWindowMillis > 0
+                ? new StackTraceDeduplicator(stackTraceDedupWindowMillis) : null;
+    }
+
+    private void compileFields() {
+        fieldsConfiguration = LayoutUtils.compileFields(customUserFields, mdcWhitelist, mdcRenames);
+    }
+
+    private void handleThrown(ILoggingEvent loggingEvent, JsonWriter writer) {
         if (loggingEvent.getThrowableProxy() != null) {
 
             if (loggingEvent.getThrowableProxy().getClass().getCanonicalName() != null) {
-                addEventData(LayoutFields.EXCEPTION_CLASS, loggingEvent.getThrowableProxy().getClass().getCanonicalName());
+                writer.field(LayoutFields.EXCEPTION_CLASS, loggingEvent.getThrowableProxy().getClass().getCanonicalName());
             }
 
             if (loggingEvent.getThrowableProxy().getMessage() != null) {
-                addEventData(LayoutFields.EXCEPTION_MESSAGE, loggingEvent.getThrowableProxy().getMessage());
+                writer.field(LayoutFields.EXCEPTION_MESSAGE, loggingEvent.getThrowableProxy().getMessage());
             }
 
-            ThrowableProxyConverter converter = new RootCauseFirstThrowableProxyConverter();
-            converter.setOptionList(Arrays.asList("full"));
-            converter.start();
-            String stackTrace = converter.convert(loggingEvent);
-            addEventData(LayoutFields.STACK_TRACE, stackTrace);
+            StackTraceDeduplicator deduplicator = stackTraceDeduplicator;
+            if (deduplicator != null) {
+                long fingerprint = fingerprint(loggingEvent.getThrowableProxy());
+                writer.field(LayoutFields.STACK_TRACE_FINGERPRINT, StackTraceDeduplicator.format(fingerprint));
+                long repeats = deduplicator.occurrence(fingerprint, loggingEvent.getTimeStamp());
+                if (repeats > 0) {
+                    writer.field(LayoutFields.STACK_TRACE_REPEAT_COUNT, repeats);
+                    return;
+                }
+            }
+            writer.field(LayoutFields.STACK_TRACE, throwableConverter.convert(loggingEvent));
         }
     }
 
-    private JSONObject createLogSourceEvent(ILoggingEvent loggingEvent, HostData host) {
-        JSONObject logSourceEvent = new JSONObject();
-        if (locationInfo) {
-            StackTraceElement callerData = extractCallerData(loggingEvent);
-            if (callerData != null) {
-                logSourceEvent.put(LayoutFields.FILE_NAME, callerData.getFileName());
-                logSourceEvent.put(LayoutFields.LINE_NUMBER, callerData.getLineNumber());
-                logSourceEvent.put(LayoutFields.CLASS_NAME, callerData.getClassName());
-                logSourceEvent.put(LayoutFields.METHOD_NAME, callerData.getMethodName());
-                logSourceEvent.put(LayoutFields.LOGGER_NAME, loggingEvent.getLoggerName());
+    private static ThrowableProxyConverter createThrowableConverter() {
+        ThrowableProxyConverter converter = new RootCauseFirstThrowableProxyConverter();
+        converter.setOptionList(Arrays.asList("full"));
+        converter.start();
+        return converter;
+    }
+
+    /**
+     * Hashes the exception classes and stack frames of a throwable and its causes, messages are left out as they often
+     * hold event specific values.
+     */
+    static long fingerprint(IThrowableProxy throwableProxy) {
+        long hash = StackTraceDeduplicator.FINGERPRINT_SEED;
+        for (IThrowableProxy current = throwableProxy; current != null; current = current.getCause()) {
+            hash = StackTraceDeduplicator.mix(hash, current.getClassName());
+            StackTraceElementProxy[] frames = current.getStackTraceElementProxyArray();
+            if (frames != null) {
+                for (StackTraceElementProxy frame : frames) {
+                    hash = StackTraceDeduplicator.mix(hash, frame.getStackTraceElement());
+                }
             }
-            RuntimeMXBean runtimeBean = ManagementFactory.getRuntimeMXBean();
-            String jvmName = runtimeBean.getName();
-            logSourceEvent.put(LayoutFields.PROCESS_ID, Long.valueOf(jvmName.split("@")[0]));
         }
-        logSourceEvent.put(LayoutFields.HOST_NAME, host.getHostName());
-        logSourceEvent.put(LayoutFields.HOST_IP, host.getHostAddress());
-        return logSourceEvent;
+        return hash;
     }
 
-    private void addEventData(String keyname, Object keyval) {
-        if (null != keyval) {
-            logstashEvent.put(keyname, keyval);
+    private void writeLogSource(ILoggingEvent loggingEvent, JsonWriter writer) {
+        HostMetadata metadata = HostMetadata.getInstance();
+        writer.beginObject(LayoutFields.LOG_SOURCE);
+        if (locationInfo) {
+            StackTraceElement callerData = extractCallerData(loggingEvent);
+            if (callerData != null) {
+                writer.field(LayoutFields.FILE_NAME, callerData.getFileName());
+                writer.field(LayoutFields.LINE_NUMBER, callerData.getLineNumber());
+                writer.field(LayoutFields.CLASS_NAME, callerData.getClassName());
+                writer.field(LayoutFields.METHOD_NAME, callerData.getMethodName());
+                writer.field(LayoutFields.LOGGER_NAME, loggingEvent.getLoggerName());
+            }
+            writer.rawFields(metadata.getProcessIdFields());
         }
+        writer.rawFields(metadata.getHostFields());
+        writer.endObject();
     }
 
     private StackTraceElement extractCallerData(final ILoggingEvent event) {
@@ -162,8 +273,4 @@ public class LogbackJSONLayout extends JsonLayout<ILoggingEvent> {
         return ste[0];
     }
 
-    private String dateFormat(long timestamp) {
-        return LayoutFields.DATETIME_TIME_FORMAT.format(timestamp);
-    }
-
 }
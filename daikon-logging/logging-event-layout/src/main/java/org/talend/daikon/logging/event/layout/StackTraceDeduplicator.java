@@ -0,0 +1,99 @@
+package org.talend.daikon.logging.event.layout;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides whether a stack trace must be written in full, based on its fingerprint: a stack trace is written once per
+ * fingerprint and time window, the following occurrences in the window only count repeats. Thread-safe.
+ */
+public class StackTraceDeduplicator {
+
+    /** Initial value of the fingerprints, see {@link #mix(long, String)}. */
+    public static final long FINGERPRINT_SEED = 0xCBF29CE484222325L;
+
+    private static final long FINGERPRINT_PRIME = 0x100000001B3L;
+
+    /** Windows are forgotten when more fingerprints are tracked, protects from unbounded growth. */
+    static final int MAX_FINGERPRINTS = 1024;
+
+    private final long windowMillis;
+
+    private final ConcurrentMap<Long, Window> windows = new ConcurrentHashMap<>();
+
+    /**
+     * @param windowMillis the duration during which a stack trace is written only once.
+     */
+    public StackTraceDeduplicator(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    /**
+     * Records an occurrence of a stack trace.
+     *
+     * @param fingerprint the stack trace fingerprint.
+     * @param now the current time, in milliseconds.
+     * @return 0 if the stack trace must be written in full, otherwise the number of repeats since it was written in the
+     * current window.
+     */
+    public long occurrence(long fingerprint, long now) {
+        Long key = fingerprint;
+        while (true) {
+            Window window = windows.get(key);
+            if (window != null && now - window.start < windowMillis) {
+                return window.repeats.incrementAndGet();
+            }
+            if (window == null && windows.size() >= MAX_FINGERPRINTS) {
+                windows.clear();
+            }
+            // only the thread that installs the new window writes the stack trace, the others retry and count a repeat
+            Window started = new Window(now);
+            if (window == null ? windows.putIfAbsent(key, started) == null : windows.replace(key, window, started)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * @return the fingerprint encoded for the logs.
+     */
+    public static String format(long fingerprint) {
+        return Long.toHexString(fingerprint);
+    }
+
+    /**
+     * Adds a value to a fingerprint.
+     *
+     * @param hash the fingerprint so far, {@link #FINGERPRINT_SEED} for the first value.
+     * @param value the value to add, may be null.
+     * @return the new fingerprint.
+     */
+    public static long mix(long hash, String value) {
+        return (hash ^ (value == null ? 0 : value.hashCode())) * FINGERPRINT_PRIME;
+    }
+
+    /**
+     * Adds a stack frame (class, method and line) to a fingerprint.
+     */
+    public static long mix(long hash, StackTraceElement frame) {
+        long mixed = mix(hash, frame.getClassName());
+        mixed = mix(mixed, frame.getMethodName());
+        return (mixed ^ frame.getLineNumber()) * FINGERPRINT_PRIME;
+    }
+
+    private static class Window {
+
+        private final long start;
+
+        private final AtomicLong repeats = new AtomicLong();
+
+        private Window(long start) {
+            this.start = start;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.talend.daikon.logging.id;
+
+/**
+ * Generates the identifiers of log events and user activities.
+ * <p>
+ * Implementations are called on the logging and request paths: they must be thread-safe and must not block.
+ * </p>
+ */
+@FunctionalInterface
+public interface IdGenerator {
+
+    /**
+     * @return a new identifier.
+     */
+    String nextId();
+}
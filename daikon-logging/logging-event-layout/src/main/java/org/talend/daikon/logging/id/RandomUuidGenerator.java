@@ -0,0 +1,15 @@
+package org.talend.daikon.logging.id;
+
+import java.util.UUID;
+
+/**
+ * Generates random {@link UUID}s, as previous versions did. {@link UUID#randomUUID()} shares a single
+ * {@link java.security.SecureRandom} between threads, prefer {@link UlidGenerator} under load.
+ */
+public class RandomUuidGenerator implements IdGenerator {
+
+    @Override
+    public String nextId() {
+        return UUID.randomUUID().toString();
+    }
+}
@@ -0,0 +1,106 @@
+package org.talend.daikon.logging.id;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Generates time-ordered identifiers with the <a href="https://github.com/ulid/spec">ULID</a> layout: 26 characters
+ * of Crockford's base 32, the first 10 ones encoding the milliseconds since epoch, the 16 others a random value.
+ * <p>
+ * Each thread draws a random value once and then increments it for every identifier, so generating an identifier
+ * neither locks nor reads a shared random generator. Identifiers of a thread are strictly increasing (the timestamp
+ * never goes back, even if the clock does); identifiers of different threads are ordered by millisecond.
+ * </p>
+ */
+public class UlidGenerator implements IdGenerator {
+
+    public static final int LENGTH = 26;
+
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private static final long MAX_TIMESTAMP = (1L << 48) - 1;
+
+    private static final long MASK_40_BITS = (1L << 40) - 1;
+
+    private static final ThreadLocal<ThreadState> STATES = ThreadLocal.withInitial(ThreadState::new);
+
+    @Override
+    public String nextId() {
+        return STATES.get().next(System.currentTimeMillis());
+    }
+
+    /**
+     * @return the milliseconds since epoch encoded in a ULID.
+     */
+    public static long getTimestamp(String ulid) {
+        if (ulid.length() != LENGTH) {
+            throw new IllegalArgumentException("Not a ULID: " + ulid);
+        }
+        long timestamp = 0;
+        for (int i = 0; i < 10; i++) {
+            int value = indexOf(ulid.charAt(i));
+            if (value < 0) {
+                throw new IllegalArgumentException("Not a ULID: " + ulid);
+            }
+            timestamp = timestamp << 5 | value;
+        }
+        return timestamp;
+    }
+
+    private static int indexOf(char c) {
+        for (int i = 0; i < ALPHABET.length; i++) {
+            if (ALPHABET[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Encodes the lowest <code>5 * length</code> bits of a value.
+     */
+    private static void encode(long value, char[] out, int offset, int length) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            out[i] = ALPHABET[(int) (value & 0x1F)];
+            value >>>= 5;
+        }
+    }
+
+    private static class ThreadState {
+
+        private final char[] chars = new char[LENGTH];
+
+        private long lastTimestamp = -1;
+
+        /** Highest 40 bits of the random part. */
+        private long high;
+
+        /** Lowest 40 bits of the random part. */
+        private long low;
+
+        private ThreadState() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            high = random.nextLong() & MASK_40_BITS;
+            // Leaves room for 2^39 increments before the high bits change
+            low = random.nextLong() & MASK_40_BITS >>> 1;
+        }
+
+        private String next(long now) {
+            long timestamp = Math.min(Math.max(now, lastTimestamp), MAX_TIMESTAMP);
+            low = (low + 1) & MASK_40_BITS;
+            if (low == 0) {
+                high = (high + 1) & MASK_40_BITS;
+                if (high == 0) {
+                    // The whole random part overflowed: borrow the next millisecond to stay increasing
+                    timestamp = Math.min(timestamp + 1, MAX_TIMESTAMP);
+                }
+            }
+            if (timestamp != lastTimestamp) {
+                encode(timestamp, chars, 0, 10);
+                lastTimestamp = timestamp;
+            }
+            encode(high, chars, 10, 8);
+            encode(low, chars, 18, 8);
+            return new String(chars);
+        }
+    }
+}
@@ -1,7 +1,6 @@
 package org.talend.daikon.logging.user;
 
 import java.io.IOException;
-import java.util.UUID;
 
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
@@ -16,19 +15,42 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.slf4j.MDC;
 import org.talend.daikon.logging.event.field.MdcKeys;
+import org.talend.daikon.logging.id.IdGenerator;
+import org.talend.daikon.logging.id.UlidGenerator;
 
 /**
  * Checks for atcivity id in the header.
  * If it doesn't exist,  establishes a new  id.
+ * The id generator can be set with the {@value #ID_GENERATOR_PARAMETER} init parameter (class name of an
+ * {@link IdGenerator}), {@link UlidGenerator} is used by default.
  * @author sdiallo
  */
 public class RequestUserActivityFilter implements Filter {
 
+    public static final String ID_GENERATOR_PARAMETER = "idGenerator";
+
     private static final Logger LOGGER = LoggerFactory.getLogger(RequestUserActivityFilter.class);
 
+    private IdGenerator idGenerator;
+
+    public RequestUserActivityFilter() {
+        this(new UlidGenerator());
+    }
+
+    public RequestUserActivityFilter(IdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+    }
+
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {
-        // NoOp
+        String generatorClass = filterConfig.getInitParameter(ID_GENERATOR_PARAMETER);
+        if (StringUtils.isNotEmpty(generatorClass)) {
+            try {
+                idGenerator = (IdGenerator) Class.forName(generatorClass).newInstance();
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                throw new ServletException("Unable to create id generator " + generatorClass, e);
+            }
+        }
     }
 
     @Override
@@ -40,7 +62,7 @@ public class RequestUserActivityFilter implements Filter {
         String userActivityId = httpServletRequest.getHeader(MdcKeys.HEADER_REQUEST_USER_ACTIVITY_ID);
 
         if (StringUtils.isEmpty(userActivityId)) {
-            userActivityId = UUID.randomUUID().toString();
+            userActivityId = idGenerator.nextId();
         }
 
         RequestUserActivityContext.getCurrent().setCorrelationId(userActivityId);
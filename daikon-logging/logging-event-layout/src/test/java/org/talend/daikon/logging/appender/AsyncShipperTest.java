@@ -0,0 +1,194 @@
+package org.talend.daikon.logging.appender;
+
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class AsyncShipperTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private LoopbackServer server;
+
+    @Before
+    public void startServer() throws IOException {
+        server = new LoopbackServer();
+    }
+
+    @After
+    public void stopServer() throws IOException {
+        server.close();
+    }
+
+    @Test
+    public void testShipToSocketWithGzip() throws Exception {
+        ShippingSettings settings = new ShippingSettings();
+        settings.setHost(server.getHost());
+        settings.setPort(server.getLocalPort());
+        settings.setGzip(true);
+        settings.setBatchSize(100);
+        settings.setFlushIntervalMillis(50);
+        settings.setBackpressure(Backpressure.BLOCK);
+        List<String> errors = new ArrayList<>();
+        AsyncShipper<String> shipper = new AsyncShipper<>("test", event -> "{\"logMessage\":\"" + event + "\"}\n",
+                settings.createSink(), settings, (message, error) -> errors.add(message));
+        shipper.start();
+
+        int threads = 8;
+        int events = 10000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String prefix = "thread-" + t + "-";
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < events; i++) {
+                        assertTrue(shipper.offer(prefix + i));
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(shipper.stop());
+
+        byte[] received = server.awaitReceived();
+        Set<String> lines = readLines(new GZIPInputStream(new ByteArrayInputStream(received)));
+        assertEquals(threads * events, lines.size());
+        assertTrue(lines.contains("{\"logMessage\":\"thread-3-42\"}"));
+        ShippingMetrics metrics = shipper.getMetrics();
+        assertEquals(threads * events, metrics.getEnqueued());
+        assertEquals(threads * events, metrics.getShipped());
+        assertEquals(0, metrics.getDropped());
+        assertEquals(received.length, metrics.getBytes());
+        assertEquals(0, metrics.getQueueDepth());
+        assertTrue(errors.isEmpty());
+    }
+
+    @Test
+    public void testShipToFile() throws Exception {
+        File file = new File(folder.getRoot(), "logs/events.log");
+        ShippingSettings settings = new ShippingSettings();
+        settings.setFile(file.getPath());
+        AsyncShipper<String> shipper = new AsyncShipper<>("file", event -> event, settings.createSink(), settings,
+                (message, error) -> fail(message));
+        shipper.start();
+        for (int i = 0; i < 1000; i++) {
+            shipper.offer("event " + i);
+        }
+        assertTrue(shipper.stop());
+        assertEquals(1000, readLines(new FileInputStream(file)).size());
+    }
+
+    @Test
+    public void testDropWhenQueueIsFull() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        ShippingSettings settings = new ShippingSettings();
+        settings.setQueueSize(16);
+        settings.setBatchSize(4);
+        AsyncShipper<String> shipper = new AsyncShipper<>("drop", event -> event, (batch, length) -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, settings, (message, error) -> fail(message));
+        shipper.start();
+        int accepted = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (shipper.offer("event " + i)) {
+                accepted++;
+            }
+        }
+        ShippingMetrics metrics = shipper.getMetrics();
+        assertTrue(accepted < 1000);
+        assertEquals(accepted, metrics.getEnqueued());
+        assertEquals(1000 - accepted, metrics.getDropped());
+        blocked.countDown();
+        assertTrue(shipper.stop());
+        assertEquals(accepted, metrics.getShipped());
+    }
+
+    @Test
+    public void testSampleWhenQueueIsHalfFull() throws Exception {
+        CountDownLatch blocked = new CountDownLatch(1);
+        ShippingSettings settings = new ShippingSettings();
+        settings.setQueueSize(1024);
+        settings.setBatchSize(1);
+        settings.setBackpressure(Backpressure.SAMPLE);
+        settings.setSampleRate(10);
+        AsyncShipper<String> shipper = new AsyncShipper<>("sample", event -> event, (batch, length) -> {
+            try {
+                blocked.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, settings, (message, error) -> fail(message));
+        shipper.start();
+        for (int i = 0; i < 2000; i++) {
+            shipper.offer("event " + i);
+        }
+        ShippingMetrics metrics = shipper.getMetrics();
+        assertTrue(metrics.getSampledOut() > 0);
+        assertEquals(2000, metrics.getEnqueued() + metrics.getSampledOut() + metrics.getDropped());
+        // Half of the queue is filled without sampling, then 1 event out of 10 is kept
+        assertTrue(metrics.getEnqueued() < 512 + 300);
+        blocked.countDown();
+        shipper.stop();
+    }
+
+    @Test
+    public void testFailedBatchesAreCounted() throws Exception {
+        ShippingSettings settings = new ShippingSettings();
+        settings.setBatchSize(10);
+        List<String> errors = new ArrayList<>();
+        AsyncShipper<String> shipper = new AsyncShipper<>("failing", event -> event, (batch, length) -> {
+            throw new IOException("Unreachable");
+        }, settings, (message, error) -> errors.add(message));
+        shipper.start();
+        for (int i = 0; i < 100; i++) {
+            shipper.offer("event " + i);
+        }
+        assertTrue(shipper.stop());
+        assertEquals(100, shipper.getMetrics().getFailed());
+        // Reported once
+        assertEquals(1, errors.size());
+    }
+
+    static Set<String> readLines(InputStream input) throws IOException {
+        Set<String> lines = new HashSet<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,119 @@
+package org.talend.daikon.logging.appender;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.Layout;
+import org.apache.logging.log4j.core.LogEvent;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.impl.MutableLogEvent;
+import org.apache.logging.log4j.core.layout.AbstractLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.util.StringMap;
+import org.junit.Test;
+
+import net.minidev.json.JSONObject;
+import net.minidev.json.JSONValue;
+
+public class Log4j2ShippingAppenderTest {
+
+    @Test
+    public void testShipJsonEvents() throws Exception {
+        try (LoopbackServer server = new LoopbackServer()) {
+            Log4j2ShippingAppender appender = createAppender(null, server);
+            appender.start();
+            assertTrue(appender.isStarted());
+
+            appendEvents(appender, 100);
+            appender.stop();
+
+            Set<String> lines = AsyncShipperTest.readLines(new ByteArrayInputStream(server.awaitReceived()));
+            // Events are reused by the caller: distinct lines only if the appender kept copies
+            assertEquals(100, lines.size());
+            for (String line : lines) {
+                JSONObject event = (JSONObject) JSONValue.parseStrict(line);
+                assertTrue(((String) event.get("logMessage")).startsWith("message "));
+                assertEquals("bar", ((JSONObject) event.get("customInfo")).get("foo"));
+            }
+            assertEquals(100, appender.getMetrics().getShipped());
+        }
+    }
+
+    @Test
+    public void testShipWithNonStringLayout() throws Exception {
+        try (LoopbackServer server = new LoopbackServer()) {
+            Log4j2ShippingAppender appender = createAppender(new MessageLayout(), server);
+            appender.start();
+
+            appendEvents(appender, 10);
+            appender.stop();
+
+            Set<String> lines = AsyncShipperTest.readLines(new ByteArrayInputStream(server.awaitReceived()));
+            assertEquals(10, lines.size());
+            assertTrue(lines.contains("message 7"));
+            assertEquals(10, appender.getMetrics().getShipped());
+        }
+    }
+
+    @Test
+    public void testInvalidDestination() {
+        Log4j2ShippingAppender appender = Log4j2ShippingAppender.createAppender("shipping", null, null, true, false, 8192, 512,
+                1024 * 1024, 1000, 5000, "DROP", 10, false, null, null, 0, "not a url", 5000);
+        assertNotNull(appender);
+        assertNull(appender.getMetrics());
+        appender.start();
+        assertFalse(appender.isStarted());
+        appender.stop();
+    }
+
+    private static Log4j2ShippingAppender createAppender(Layout<StringBuilder> layout, LoopbackServer server) {
+        return Log4j2ShippingAppender.createAppender("shipping", null, layout, true, false, 8192, 512, 1024 * 1024, 50, 5000,
+                "block", 10, false, null, server.getHost(), server.getPort(), null, 5000);
+    }
+
+    /**
+     * Appends events the way asynchronous loggers do: the same mutable event is filled again for each message.
+     */
+    private static void appendEvents(Log4j2ShippingAppender appender, int count) {
+        StringMap contextData = ContextDataFactory.createContextData();
+        contextData.putValue("foo", "bar");
+        MutableLogEvent reused = new MutableLogEvent();
+        for (int i = 0; i < count; i++) {
+            LogEvent event = Log4jLogEvent.newBuilder().setLoggerName(Log4j2ShippingAppenderTest.class.getName())
+                    .setLevel(Level.INFO).setContextData(contextData).setMessage(new SimpleMessage("message " + i)).build();
+            reused.initFrom(event);
+            appender.append(reused);
+        }
+    }
+
+    /**
+     * Layout serializing events to a {@link StringBuilder}, so the appender encodes them with
+     * {@link Layout#toByteArray(LogEvent)}.
+     */
+    private static class MessageLayout extends AbstractLayout<StringBuilder> {
+
+        MessageLayout() {
+            super(null, null, null);
+        }
+
+        @Override
+        public StringBuilder toSerializable(LogEvent event) {
+            return new StringBuilder(event.getMessage().getFormattedMessage()).append('\n');
+        }
+
+        @Override
+        public byte[] toByteArray(LogEvent event) {
+            return toSerializable(event).toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String getContentType() {
+            return "text/plain";
+        }
+    }
+}
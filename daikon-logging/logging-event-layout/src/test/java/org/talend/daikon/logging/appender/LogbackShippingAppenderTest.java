@@ -0,0 +1,64 @@
+package org.talend.daikon.logging.appender;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.util.Set;
+
+import org.junit.Test;
+import org.slf4j.MDC;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import net.minidev.json.JSONObject;
+import net.minidev.json.JSONValue;
+
+public class LogbackShippingAppenderTest {
+
+    @Test
+    public void testShipJsonEvents() throws Exception {
+        try (LoopbackServer server = new LoopbackServer()) {
+            LoggerContext context = new LoggerContext();
+            LogbackShippingAppender appender = new LogbackShippingAppender();
+            appender.setContext(context);
+            appender.setName("shipping");
+            appender.setHost(server.getHost());
+            appender.setPort(server.getPort());
+            appender.setFlushIntervalMillis(50);
+            appender.setBackpressure("block");
+            appender.start();
+            assertTrue(appender.isStarted());
+
+            Logger logger = context.getLogger(LogbackShippingAppenderTest.class);
+            logger.setAdditive(false);
+            logger.addAppender(appender);
+            MDC.put("foo", "bar");
+            try {
+                for (int i = 0; i < 100; i++) {
+                    logger.info("message {}", i);
+                }
+            } finally {
+                MDC.remove("foo");
+            }
+            appender.stop();
+
+            Set<String> lines = AsyncShipperTest.readLines(new ByteArrayInputStream(server.awaitReceived()));
+            assertEquals(100, lines.size());
+            for (String line : lines) {
+                JSONObject event = (JSONObject) JSONValue.parseStrict(line);
+                assertTrue(((String) event.get("logMessage")).startsWith("message "));
+                assertEquals("bar", ((JSONObject) event.get("customInfo")).get("foo"));
+            }
+            assertEquals(100, appender.getMetrics().getShipped());
+        }
+    }
+
+    @Test
+    public void testNoDestination() {
+        LogbackShippingAppender appender = new LogbackShippingAppender();
+        appender.setContext(new LoggerContext());
+        appender.setName("shipping");
+        appender.start();
+        assertFalse(appender.isStarted());
+    }
+}
@@ -0,0 +1,64 @@
+package org.talend.daikon.logging.appender;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+/**
+ * TCP server on the loopback interface keeping the bytes sent by its first client.
+ */
+class LoopbackServer implements Closeable {
+
+    private final ServerSocket server;
+
+    private final Thread thread;
+
+    private final ByteArrayOutputStream received = new ByteArrayOutputStream();
+
+    LoopbackServer() throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        thread = new Thread(() -> {
+            try (Socket socket = server.accept(); InputStream input = socket.getInputStream()) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = input.read(buffer)) >= 0) {
+                    synchronized (received) {
+                        received.write(buffer, 0, read);
+                    }
+                }
+            } catch (IOException e) {
+                // Server closed
+            }
+        });
+        thread.start();
+    }
+
+    String getHost() {
+        return server.getInetAddress().getHostAddress();
+    }
+
+    int getPort() {
+        return server.getLocalPort();
+    }
+
+    /**
+     * Waits for the client to close the connection.
+     *
+     * @return the received bytes.
+     */
+    byte[] awaitReceived() throws InterruptedException {
+        thread.join(5000);
+        synchronized (received) {
+            return received.toByteArray();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+    }
+}
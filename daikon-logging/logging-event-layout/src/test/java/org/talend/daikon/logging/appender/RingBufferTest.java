@@ -0,0 +1,79 @@
+package org.talend.daikon.logging.appender;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class RingBufferTest {
+
+    @Test
+    public void testBounded() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(3);
+        assertEquals(4, buffer.capacity());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+        assertEquals(Integer.valueOf(0), buffer.poll());
+        assertTrue(buffer.offer(4));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(Integer.valueOf(i), buffer.poll());
+        }
+        assertNull(buffer.poll());
+        assertTrue(buffer.isEmpty());
+    }
+
+    @Test
+    public void testConcurrentProducers() throws Exception {
+        int producers = 4;
+        int perProducer = 100000;
+        RingBuffer<Integer> buffer = new RingBuffer<>(1024);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int first = p * perProducer;
+                results.add(executor.submit(() -> {
+                    for (int i = first; i < first + perProducer; i++) {
+                        while (!buffer.offer(i)) {
+                            Thread.yield();
+                        }
+                    }
+                }));
+            }
+            BitSet received = new BitSet();
+            int[] lastByProducer = new int[producers];
+            java.util.Arrays.fill(lastByProducer, -1);
+            int count = 0;
+            while (count < producers * perProducer) {
+                Integer value = buffer.poll();
+                if (value == null) {
+                    Thread.yield();
+                    continue;
+                }
+                assertFalse("Received twice: " + value, received.get(value));
+                received.set(value);
+                // Events of a producer are received in order
+                int producer = value / perProducer;
+                assertTrue(value > lastByProducer[producer]);
+                lastByProducer[producer] = value;
+                count++;
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+            assertEquals(producers * perProducer, received.cardinality());
+            assertNull(buffer.poll());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package org.talend.daikon.logging.event.field;
+
+import static org.junit.Assert.*;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+import org.junit.Test;
+
+import net.minidev.json.JSONObject;
+import net.minidev.json.JSONValue;
+
+public class HostMetadataTest {
+
+    @Test
+    public void testInstanceIsResolvedAtStartup() throws Exception {
+        HostMetadata metadata = HostMetadata.getInstance();
+        assertSame(metadata, HostMetadata.getInstance());
+        // Resolved in the background
+        for (int i = 0; i < 500 && metadata.getHostAddress() == null; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(InetAddress.getLocalHost().getHostName(), metadata.getHostName());
+        assertEquals(InetAddress.getLocalHost().getHostAddress(), metadata.getHostAddress());
+        assertNotNull(metadata.getProcessId());
+    }
+
+    @Test
+    public void testShutdownStopsRefresh() throws Exception {
+        HostMetadata.getInstance();
+        assertTrue(awaitRefreshThread(true));
+        HostMetadata.shutdown();
+        assertTrue(awaitRefreshThread(false));
+        // Started again on demand
+        assertNotNull(HostMetadata.getInstance().getHostName());
+        assertTrue(awaitRefreshThread(true));
+    }
+
+    private static boolean awaitRefreshThread(boolean alive) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            boolean found = Thread.getAllStackTraces().keySet().stream()
+                    .anyMatch(thread -> "logging-host-metadata".equals(thread.getName()));
+            if (found == alive) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+
+    @Test
+    public void testFieldsAreEncoded() throws Exception {
+        HostMetadata metadata = new HostMetadata(() -> InetAddress.getByAddress("my\"host", new byte[] { 10, 0, 0, 1 }));
+        metadata.refresh();
+        JSONObject fields = (JSONObject) JSONValue
+                .parse("{" + metadata.getHostFields() + "," + metadata.getProcessIdFields() + "}");
+        assertEquals("my\"host", fields.get(LayoutFields.HOST_NAME));
+        assertEquals("10.0.0.1", fields.get(LayoutFields.HOST_IP));
+        assertEquals(metadata.getProcessId().longValue(), ((Number) fields.get(LayoutFields.PROCESS_ID)).longValue());
+    }
+
+    @Test
+    public void testFailedRefreshKeepsPreviousHost() throws Exception {
+        boolean[] fail = { false };
+        HostMetadata metadata = new HostMetadata(() -> {
+            if (fail[0]) {
+                throw new UnknownHostException("no DNS");
+            }
+            return InetAddress.getByAddress("host", new byte[] { 10, 0, 0, 1 });
+        });
+        // Not resolved yet
+        assertEquals(HostMetadata.fallbackHostName(), metadata.getHostName());
+        assertNull(metadata.getHostAddress());
+
+        metadata.refresh();
+        assertEquals("host", metadata.getHostName());
+        fail[0] = true;
+        metadata.refresh();
+        assertEquals("host", metadata.getHostName());
+        assertEquals("10.0.0.1", metadata.getHostAddress());
+    }
+
+    @Test
+    public void testParseProcessId() {
+        assertEquals(Long.valueOf(1234), HostMetadata.parseProcessId("1234@host"));
+        assertNull(HostMetadata.parseProcessId("host"));
+    }
+}
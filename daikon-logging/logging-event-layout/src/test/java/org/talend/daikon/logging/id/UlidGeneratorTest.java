@@ -0,0 +1,72 @@
+package org.talend.daikon.logging.id;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class UlidGeneratorTest {
+
+    private final UlidGenerator generator = new UlidGenerator();
+
+    @Test
+    public void testFormat() {
+        long before = System.currentTimeMillis();
+        String id = generator.nextId();
+        long after = System.currentTimeMillis();
+
+        assertEquals(UlidGenerator.LENGTH, id.length());
+        assertTrue(id, id.matches("[0-9A-HJKMNP-TV-Z]{26}"));
+        long timestamp = UlidGenerator.getTimestamp(id);
+        assertTrue(timestamp >= before && timestamp <= after);
+    }
+
+    @Test
+    public void testIdsOfThreadAreIncreasing() {
+        String previous = generator.nextId();
+        for (int i = 0; i < 100000; i++) {
+            String id = generator.nextId();
+            assertTrue(previous + " >= " + id, previous.compareTo(id) < 0);
+            previous = id;
+        }
+    }
+
+    @Test
+    public void testIdsAreUniqueBetweenThreads() throws Exception {
+        int threads = 8;
+        int idsPerThread = 20000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit((Callable<List<String>>) () -> {
+                    List<String> ids = new ArrayList<>(idsPerThread);
+                    for (int j = 0; j < idsPerThread; j++) {
+                        ids.add(generator.nextId());
+                    }
+                    return ids;
+                }));
+            }
+            Set<String> ids = new HashSet<>();
+            for (Future<List<String>> result : results) {
+                ids.addAll(result.get());
+            }
+            assertEquals(threads * idsPerThread, ids.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidTimestamp() {
+        UlidGenerator.getTimestamp("not-a-ulid");
+    }
+}
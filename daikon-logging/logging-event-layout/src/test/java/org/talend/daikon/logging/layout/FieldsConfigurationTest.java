@@ -0,0 +1,74 @@
+package org.talend.daikon.logging.layout;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.talend.daikon.logging.event.layout.FieldsConfiguration;
+import org.talend.daikon.logging.event.layout.JsonWriter;
+import org.talend.daikon.logging.event.layout.LayoutUtils;
+
+public class FieldsConfigurationTest {
+
+    @Test
+    public void testUserFieldsAndMdc() {
+        FieldsConfiguration fields = LayoutUtils.compileFields("a:1,b:x\"y", null, null);
+        assertEquals("{\"service\":\"s\",\"customInfo\":{\"foo\":\"f\",\"a\":\"1\",\"b\":\"x\\\"y\"}}",
+                write(fields, mdc("service", "s", "foo", "f")));
+        assertEquals("{\"customInfo\":{\"a\":\"1\",\"b\":\"x\\\"y\"}}", write(fields, Collections.emptyMap()));
+    }
+
+    @Test
+    public void testMdcOverridesUserFields() {
+        FieldsConfiguration fields = LayoutUtils.compileFields("a:1,b:2", null, null);
+        assertEquals("{\"customInfo\":{\"a\":\"mdc\",\"b\":\"2\"}}", write(fields, mdc("a", "mdc")));
+    }
+
+    @Test
+    public void testNoCustomInfo() {
+        assertEquals("{\"X-B3-TraceId\":\"t\"}", write(FieldsConfiguration.DEFAULT, mdc("X-B3-TraceId", "t")));
+    }
+
+    @Test
+    public void testWhitelist() {
+        FieldsConfiguration fields = LayoutUtils.compileFields(null, "foo,bar", null);
+        // Sleuth fields are always written
+        assertEquals("{\"X-B3-SpanId\":\"s\",\"customInfo\":{\"foo\":\"f\"}}",
+                write(fields, mdc("X-B3-SpanId", "s", "foo", "f", "other", "o")));
+        assertEquals("{}", write(fields, mdc("other", "o")));
+    }
+
+    @Test
+    public void testRenames() {
+        FieldsConfiguration fields = LayoutUtils.compileFields("user:u", null, "X-B3-TraceId:traceId,userId:user");
+        assertEquals("{\"traceId\":\"t\",\"customInfo\":{\"user\":\"42\"}}",
+                write(fields, mdc("X-B3-TraceId", "t", "userId", "42")));
+    }
+
+    @Test
+    public void testManyMdcKeys() {
+        FieldsConfiguration fields = LayoutUtils.compileFields(null, null, null);
+        for (int i = 0; i < 5000; i++) {
+            assertEquals("{\"customInfo\":{\"key" + i + "\":\"" + i + "\"}}", write(fields, mdc("key" + i, "" + i)));
+        }
+    }
+
+    private static String write(FieldsConfiguration fields, Map<String, String> mdc) {
+        JsonWriter writer = new JsonWriter();
+        writer.beginObject();
+        fields.writeRootFields(mdc, writer);
+        fields.writeCustomInfo(mdc, writer);
+        return writer.endObject().toString();
+    }
+
+    private static Map<String, String> mdc(String... keyValues) {
+        Map<String, String> mdc = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            mdc.put(keyValues[i], keyValues[i + 1]);
+        }
+        return mdc;
+    }
+}
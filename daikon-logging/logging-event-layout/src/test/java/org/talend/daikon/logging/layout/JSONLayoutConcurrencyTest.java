@@ -0,0 +1,137 @@
+package org.talend.daikon.logging.layout;
+
+import static org.junit.Assert.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+
+import org.apache.log4j.spi.LocationInfo;
+import org.apache.logging.log4j.core.impl.ContextDataFactory;
+import org.apache.logging.log4j.core.impl.Log4jLogEvent;
+import org.apache.logging.log4j.core.layout.AbstractStringLayout;
+import org.apache.logging.log4j.message.SimpleMessage;
+import org.apache.logging.log4j.util.StringMap;
+import org.junit.Test;
+import org.talend.daikon.logging.event.layout.Log4j2JSONLayout;
+import org.talend.daikon.logging.event.layout.Log4jJSONLayout;
+import org.talend.daikon.logging.event.layout.LogbackJSONLayout;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.spi.ThrowableProxy;
+import net.minidev.json.JSONObject;
+import net.minidev.json.JSONValue;
+
+/**
+ * Formats events from several threads with the same layout instance: each event must only contain its own data.
+ */
+public class JSONLayoutConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    private static final int EVENTS = 2000;
+
+    @Test
+    public void testLogbackLayout() throws Exception {
+        LogbackJSONLayout layout = new LogbackJSONLayout();
+        layout.setUserFields("user:field");
+        layout.start();
+        assertConcurrentLayout((id, mdc) -> {
+            LoggingEvent event = new LoggingEvent();
+            event.setLoggerName("LogbackJSONLayout");
+            event.setLevel(Level.INFO);
+            event.setThreadName(Thread.currentThread().getName());
+            event.setMessage(id);
+            event.setMDCPropertyMap(mdc);
+            event.setTimeStamp(System.currentTimeMillis());
+            event.setCallerData(new StackTraceElement[] { new StackTraceElement("Class", "method", "File.java", 12) });
+            if (id.endsWith("0")) {
+                event.setThrowableProxy(new ThrowableProxy(new IllegalStateException(id)));
+            }
+            return layout.doLayout(event);
+        }, true);
+    }
+
+    @Test
+    public void testLog4j2Layout() throws Exception {
+        AbstractStringLayout layout = Log4j2JSONLayout.createLayout(true, false, false, true, false, StandardCharsets.UTF_8,
+                null);
+        assertConcurrentLayout((id, mdc) -> {
+            StringMap contextData = ContextDataFactory.createContextData();
+            mdc.forEach(contextData::putValue);
+            Log4jLogEvent.Builder builder = Log4jLogEvent.newBuilder().setLoggerName("Log4j2JSONLayout")
+                    .setLevel(org.apache.logging.log4j.Level.INFO).setContextData(contextData).setIncludeLocation(true)
+                    .setMessage(new SimpleMessage(id));
+            if (id.endsWith("0")) {
+                builder.setThrown(new IllegalStateException(id));
+            }
+            return layout.toSerializable(builder.build());
+        }, true);
+    }
+
+    @Test
+    public void testLog4jLayout() throws Exception {
+        Log4jJSONLayout layout = new Log4jJSONLayout();
+        layout.setUserFields("user:field");
+        org.apache.log4j.Logger logger = org.apache.log4j.Logger.getLogger(JSONLayoutConcurrencyTest.class);
+        // No throwable attached to the events
+        assertConcurrentLayout((id, mdc) -> {
+            org.apache.log4j.spi.LoggingEvent event = new org.apache.log4j.spi.LoggingEvent(
+                    JSONLayoutConcurrencyTest.class.getName(), logger, System.currentTimeMillis(), org.apache.log4j.Level.INFO,
+                    id, Thread.currentThread().getName(), null, null, new LocationInfo("File.java", "Class", "method", "12"),
+                    mdc);
+            return layout.format(event);
+        }, false);
+    }
+
+    /**
+     * @param expectsException whether the events with an id ending with "0" have a throwable (with the id as message).
+     */
+    private void assertConcurrentLayout(BiFunction<String, Map<String, String>, String> format, boolean expectsException)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                String prefix = "thread-" + thread + "-event-";
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < EVENTS; i++) {
+                        String id = prefix + i;
+                        Map<String, String> mdc = new HashMap<>();
+                        mdc.put("foo", id);
+                        mdc.put("service", id);
+                        String json = format.apply(id, Collections.unmodifiableMap(mdc));
+                        assertTrue(json.endsWith("}\n"));
+                        JSONObject event = (JSONObject) JSONValue.parseStrict(json.trim());
+                        assertEquals(id, event.get("logMessage"));
+                        assertEquals(id, event.get("service"));
+                        assertEquals(id, ((JSONObject) event.get("customInfo")).get("foo"));
+                        if (expectsException && id.endsWith("0")) {
+                            assertEquals(id, event.get("exceptionMessage"));
+                        } else {
+                            assertFalse(event.containsKey("exceptionMessage"));
+                        }
+                    }
+                    return EVENTS;
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                assertEquals(EVENTS, result.get().intValue());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package org.talend.daikon.logging.layout;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+import org.talend.daikon.logging.event.field.LayoutFields;
+import org.talend.daikon.logging.event.layout.JsonWriter;
+
+import net.minidev.json.JSONObject;
+import net.minidev.json.JSONValue;
+
+public class JsonWriterTest {
+
+    @Test
+    public void testNestedObjects() {
+        JsonWriter writer = new JsonWriter();
+        writer.beginObject().field("a", "b").beginObject("c").field("d", 1).endObject().beginObject("e").endObject()
+                .field("f", null).endObject();
+        assertEquals("{\"a\":\"b\",\"c\":{\"d\":1},\"e\":{},\"f\":null}", writer.toString());
+    }
+
+    @Test
+    public void testEscapingIsSameAsJsonSmart() {
+        String value = "quote \" backslash \\ slash / tab \t new line \n\r \b\f accents éàü 日本";
+        JsonWriter writer = new JsonWriter();
+        writer.beginObject().field("value", value).endObject();
+        JSONObject expected = new JSONObject();
+        expected.put("value", value);
+        assertEquals(expected.toString(), writer.toString());
+    }
+
+    @Test
+    public void testControlCharactersAreEscaped() {
+        String value = "\u0000 \u0001 \u001F \u007F \u2028";
+        JsonWriter writer = new JsonWriter();
+        writer.beginObject().field("value", value).endObject();
+        assertEquals("{\"value\":\"\\u0000 \\u0001 \\u001F \\u007F \\u2028\"}", writer.toString());
+        assertEquals(value, ((JSONObject) JSONValue.parse(writer.toString())).get("value"));
+    }
+
+    @Test
+    public void testTimestampIsSameAsDateFormat() {
+        Random random = new Random(42);
+        long[] timestamps = new long[1000];
+        timestamps[0] = 0;
+        timestamps[1] = 1364844991207L;
+        timestamps[2] = 951782400000L; // 2000-02-29
+        for (int i = 3; i < timestamps.length; i++) {
+            // Between 1970 and 2100
+            timestamps[i] = (long) (random.nextDouble() * 4102444800000L);
+        }
+        for (long timestamp : timestamps) {
+            JsonWriter writer = new JsonWriter();
+            writer.beginObject().timestampField("t", timestamp).endObject();
+            assertEquals("{\"t\":\"" + LayoutFields.DATETIME_TIME_FORMAT.format(timestamp) + "\"}", writer.toString());
+        }
+    }
+
+    @Test
+    public void testThreadWriterIsReused() {
+        JsonWriter writer = JsonWriter.acquire();
+        writer.beginObject().field("a", "b");
+        // Nested use (while the first one is not released) gets another writer
+        JsonWriter nested = JsonWriter.acquire();
+        assertNotSame(writer, nested);
+        nested.release();
+        writer.release();
+
+        JsonWriter reused = JsonWriter.acquire();
+        assertSame(writer, reused);
+        assertEquals("", reused.toString());
+        reused.release();
+    }
+}
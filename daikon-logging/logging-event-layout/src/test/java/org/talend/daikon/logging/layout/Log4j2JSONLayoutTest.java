@@ -1,6 +1,10 @@
 package org.talend.daikon.logging.layout;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static uk.co.datumedge.hamcrest.json.SameJSONAs.sameJSONAs;
 
@@ -11,6 +15,7 @@ import org.apache.logging.log4j.core.LogEvent;
 import org.apache.logging.log4j.core.impl.ContextDataFactory;
 import org.apache.logging.log4j.core.impl.Log4jLogEvent;
 import org.apache.logging.log4j.core.layout.AbstractStringLayout;
+import org.apache.logging.log4j.core.layout.ByteBufferDestination;
 
 import org.apache.logging.log4j.message.Message;
 import org.apache.logging.log4j.message.SimpleMessage;
@@ -49,4 +54,52 @@ public class Log4j2JSONLayoutTest {
                 sameJSONAs(EXPECTED_BASIC_SIMPLE_JSON_TEST).allowingExtraUnexpectedFields().allowingAnyArrayOrdering());
 
     }
+
+    @Test
+    public void encodeIsSameAsSerializable() {
+        final StringMap contextData = ContextDataFactory.createContextData();
+        contextData.putValue("service", "log4j2");
+        contextData.putValue("foo", "bär \"quoted\"");
+        final LogEvent event = Log4jLogEvent.newBuilder().setLoggerName(LOGGER.getName()).setLevel(Level.ERROR)
+                .setContextData(contextData).setThrown(new IllegalStateException("My goodness"))
+                .setMessage(new SimpleMessage("Test Message")).setTimeMillis(1364844991207L).build();
+        AbstractStringLayout layout = Log4j2JSONLayout.createLayout(false, false, false, true, false, StandardCharsets.UTF_8,
+                null);
+
+        // Small buffer to check draining
+        ByteBufferDestination destination = new ByteBufferDestination() {
+
+            private final ByteBuffer buffer = ByteBuffer.allocate(64);
+
+            private final ByteBuffer drained = ByteBuffer.allocate(64 * 1024);
+
+            @Override
+            public ByteBuffer getByteBuffer() {
+                return buffer;
+            }
+
+            @Override
+            public ByteBuffer drain(ByteBuffer buf) {
+                buf.flip();
+                drained.put(buf);
+                buf.clear();
+                return buf;
+            }
+
+            @Override
+            public String toString() {
+                drain(buffer);
+                return new String(drained.array(), 0, drained.position(), StandardCharsets.UTF_8);
+            }
+        };
+        layout.encode(event, destination);
+        String encoded = destination.toString();
+        String serialized = layout.toSerializable(event);
+        // Only the agent timestamp may differ
+        String agentTimestamp = "\"agentTimestamp\":\"[^\"]*\"";
+        assertEquals(serialized.replaceAll(agentTimestamp, ""), encoded.replaceAll(agentTimestamp, ""));
+        assertThat(encoded, sameJSONAs("{\"logTimestamp\":\"2013-04-01T19:36:31.207Z\",\"service\":\"log4j2\","
+                + "\"customInfo\":{\"foo\":\"bär \\\"quoted\\\"\"},\"exceptionMessage\":\"My goodness\"}")
+                        .allowingExtraUnexpectedFields());
+    }
 }
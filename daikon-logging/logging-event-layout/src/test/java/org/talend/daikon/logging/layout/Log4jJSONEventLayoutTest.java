@@ -2,12 +2,15 @@ package org.talend.daikon.logging.layout;
 
 import static org.junit.Assert.*;
 
+import org.apache.log4j.Level;
 import org.apache.log4j.Logger;
 import org.apache.log4j.MDC;
 import org.apache.log4j.NDC;
+import org.apache.log4j.spi.LoggingEvent;
 import org.junit.After;
 import org.junit.Test;
 import org.talend.daikon.logging.event.field.LayoutFields;
+import org.talend.daikon.logging.event.layout.Log4jJSONLayout;
 
 import net.minidev.json.JSONObject;
 import net.minidev.json.JSONValue;
@@ -28,6 +31,7 @@ public class Log4jJSONEventLayoutTest {
     @After
     public void clearTestAppender() {
         NDC.clear();
+        MDC.remove("count");
     }
 
     @Test
@@ -46,6 +50,16 @@ public class Log4jJSONEventLayoutTest {
         assertEquals("MDC is wrong", "bar", jsonObject.get("foo"));
     }
 
+    @Test
+    public void testJSONEventLayoutHasNonStringMDC() {
+        MDC.put("count", 42);
+        LoggingEvent event = new LoggingEvent(Log4jJSONEventLayoutTest.class.getName(), LOGGER, Level.INFO,
+                "I should have non string MDC data in my log", null);
+        JSONObject jsonObject = (JSONObject) JSONValue.parse(new Log4jJSONLayout().format(event));
+        JSONObject customInfo = (JSONObject) jsonObject.get(LayoutFields.CUSTOM_INFO);
+        assertEquals("MDC is wrong", "42", customInfo.get("count"));
+    }
+
     @Test
     public void testJSONEventLayoutHasNestedMDC() {
         MDC.put("foo", "bar");
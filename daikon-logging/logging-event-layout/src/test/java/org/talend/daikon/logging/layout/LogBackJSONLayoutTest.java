@@ -102,6 +102,60 @@ public class LogBackJSONLayoutTest {
         assertEquals(jsonObject.get("stackTrace"), ThrowableProxyUtil.asString(throwableProxy));
     }
 
+    @Test
+    public void testStackTraceIsDeduplicatedInWindow() {
+        LogbackJSONLayout layout = new LogbackJSONLayout();
+        layout.setStackTraceDedupWindowMillis(60000);
+        layout.start();
+
+        JSONObject first = layoutError(layout, newException("first"), 1000);
+        assertNotNull(first.get(LayoutFields.STACK_TRACE));
+        assertNull(first.get(LayoutFields.STACK_TRACE_REPEAT_COUNT));
+        Object fingerprint = first.get(LayoutFields.STACK_TRACE_FINGERPRINT);
+        assertNotNull(fingerprint);
+
+        // Same frames, another message: only the fingerprint and the repeats are written
+        for (int i = 1; i <= 3; i++) {
+            JSONObject repeated = layoutError(layout, newException("repeated " + i), 1000 + i);
+            assertNull(repeated.get(LayoutFields.STACK_TRACE));
+            assertEquals(fingerprint, repeated.get(LayoutFields.STACK_TRACE_FINGERPRINT));
+            assertEquals(i, ((Number) repeated.get(LayoutFields.STACK_TRACE_REPEAT_COUNT)).intValue());
+            assertEquals("repeated " + i, repeated.get(LayoutFields.EXCEPTION_MESSAGE));
+        }
+
+        // Other frames
+        JSONObject other = layoutError(layout, new IllegalStateException("other"), 2000);
+        assertNotNull(other.get(LayoutFields.STACK_TRACE));
+        assertNotEquals(fingerprint, other.get(LayoutFields.STACK_TRACE_FINGERPRINT));
+
+        // Next window
+        JSONObject next = layoutError(layout, newException("next"), 61000);
+        assertNotNull(next.get(LayoutFields.STACK_TRACE));
+        assertEquals(fingerprint, next.get(LayoutFields.STACK_TRACE_FINGERPRINT));
+    }
+
+    @Test
+    public void testStackTraceIsNotDeduplicatedByDefault() {
+        LogbackJSONLayout layout = new LogbackJSONLayout();
+        layout.start();
+        for (int i = 0; i < 2; i++) {
+            JSONObject jsonObject = layoutError(layout, newException("error"), 1000);
+            assertNotNull(jsonObject.get(LayoutFields.STACK_TRACE));
+            assertNull(jsonObject.get(LayoutFields.STACK_TRACE_FINGERPRINT));
+        }
+    }
+
+    private static Exception newException(String message) {
+        return new Exception(message);
+    }
+
+    private JSONObject layoutError(LogbackJSONLayout layout, Exception exception, long timestamp) {
+        ILoggingEvent event = mockBasicILoggingEvent(Level.ERROR);
+        Mockito.when(event.getThrowableProxy()).thenReturn(new ThrowableProxy(exception));
+        Mockito.when(event.getTimeStamp()).thenReturn(timestamp);
+        return (JSONObject) JSONValue.parse(layout.doLayout(event));
+    }
+
     @Test
     public void testDateFormat() {
         long timestamp = 1364844991207L;
@@ -0,0 +1,64 @@
+package org.talend.daikon.logging.layout;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.talend.daikon.logging.event.layout.StackTraceDeduplicator;
+
+public class StackTraceDeduplicatorTest {
+
+    private static final int THREADS = 8;
+
+    private static final int OCCURRENCES = 1000;
+
+    @Test
+    public void testWindow() {
+        StackTraceDeduplicator deduplicator = new StackTraceDeduplicator(1000);
+        assertEquals(0, deduplicator.occurrence(1, 0));
+        assertEquals(1, deduplicator.occurrence(1, 10));
+        assertEquals(0, deduplicator.occurrence(2, 10));
+        assertEquals(2, deduplicator.occurrence(1, 999));
+        assertEquals(0, deduplicator.occurrence(1, 1000));
+    }
+
+    @Test
+    public void testConcurrentOccurrences() throws Exception {
+        StackTraceDeduplicator deduplicator = new StackTraceDeduplicator(60_000);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<List<Long>>> results = new ArrayList<>();
+            for (int thread = 0; thread < THREADS; thread++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    List<Long> occurrences = new ArrayList<>();
+                    for (int i = 0; i < OCCURRENCES; i++) {
+                        occurrences.add(deduplicator.occurrence(42, 0));
+                    }
+                    return occurrences;
+                }));
+            }
+            start.countDown();
+            Set<Long> occurrences = new HashSet<>();
+            for (Future<List<Long>> result : results) {
+                occurrences.addAll(result.get());
+            }
+            // written in full once, then every repeat is counted once
+            assertEquals(THREADS * OCCURRENCES, occurrences.size());
+            for (long i = 0; i < THREADS * OCCURRENCES; i++) {
+                assertTrue(occurrences.contains(i));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.talend.daikon.logging.user;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.servlet.FilterChain;
+import javax.servlet.FilterConfig;
+import javax.servlet.ServletException;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.slf4j.MDC;
+import org.talend.daikon.logging.event.field.MdcKeys;
+import org.talend.daikon.logging.id.RandomUuidGenerator;
+
+public class RequestUserActivityFilterTest {
+
+    @Test
+    public void testGeneratedActivityId() throws Exception {
+        RequestUserActivityFilter filter = new RequestUserActivityFilter(() -> "generated-id");
+        assertEquals("generated-id", filterActivityId(filter, null));
+        assertNull(MDC.get(MdcKeys.USER_ACTIVITY_ID));
+    }
+
+    @Test
+    public void testActivityIdFromHeader() throws Exception {
+        RequestUserActivityFilter filter = new RequestUserActivityFilter(() -> "generated-id");
+        assertEquals("header-id", filterActivityId(filter, "header-id"));
+    }
+
+    @Test
+    public void testIdGeneratorParameter() throws Exception {
+        RequestUserActivityFilter filter = new RequestUserActivityFilter();
+        FilterConfig config = Mockito.mock(FilterConfig.class);
+        Mockito.when(config.getInitParameter(RequestUserActivityFilter.ID_GENERATOR_PARAMETER))
+                .thenReturn(RandomUuidGenerator.class.getName());
+        filter.init(config);
+        assertEquals(36, filterActivityId(filter, null).length());
+    }
+
+    @Test(expected = ServletException.class)
+    public void testInvalidIdGeneratorParameter() throws Exception {
+        FilterConfig config = Mockito.mock(FilterConfig.class);
+        Mockito.when(config.getInitParameter(RequestUserActivityFilter.ID_GENERATOR_PARAMETER))
+                .thenReturn(String.class.getName());
+        new RequestUserActivityFilter().init(config);
+    }
+
+    private static String filterActivityId(RequestUserActivityFilter filter, String header) throws Exception {
+        HttpServletRequest request = Mockito.mock(HttpServletRequest.class);
+        Mockito.when(request.getHeader(MdcKeys.HEADER_REQUEST_USER_ACTIVITY_ID)).thenReturn(header);
+        AtomicReference<String> activityId = new AtomicReference<>();
+        FilterChain chain = (req, resp) -> {
+            activityId.set(MDC.get(MdcKeys.USER_ACTIVITY_ID));
+            assertEquals(activityId.get(), RequestUserActivityContext.getCurrent().getCorrelationId());
+        };
+        filter.doFilter(request, Mockito.mock(ServletResponse.class), chain);
+        return activityId.get();
+    }
+}
@@ -1,8 +1,13 @@
 package org.talend.daikon.service;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -42,6 +47,9 @@ public class GatewayOperations {
     @Autowired
     ClientService clientService;
 
+    /** Dispatches of {@link Call}-annotated methods, created on first invocation. */
+    private final ConcurrentMap<Method, Dispatch> dispatches = new ConcurrentHashMap<>();
+
     /**
      * Handle {@link Call}-annotated methods.
      * @param pjp The wrapped method
@@ -52,22 +60,69 @@ public class GatewayOperations {
     public Object call(ProceedingJoinPoint pjp) throws Throwable {
         MethodSignature ms = (MethodSignature) pjp.getSignature();
         Method m = ms.getMethod();
+        Dispatch dispatch = dispatches.get(m);
+        if (dispatch == null) {
+            dispatch = createDispatch(m);
+            dispatches.putIfAbsent(m, dispatch);
+        }
+        return dispatch.invoke(pjp);
+    }
+
+    /**
+     * Resolves once what an invocation of <code>m</code> calls: the service method and client, or the Hystrix command.
+     */
+    private Dispatch createDispatch(Method m) throws IllegalAccessException {
         final Call callAnnotation = AnnotationUtils.getAnnotation(m, Call.class);
-        if (callAnnotation != null) {
-            final Object[] args = pjp.getArgs();
-            if (!callAnnotation.using().equals(DefaultHystrixCommand.class)) {
-                if (!ClassUtils.isAssignable(callAnnotation.service(), DefaultService.class) || StringUtils.isEmpty(callAnnotation.operation())) {
-                    LOGGER.warn("Method '{}' use custom invocation but also sets service and operation name", m.getName());
-                }
-                return handleCustomExecution(callAnnotation, args);
-            } else {
-                return handleServiceForward(callAnnotation, args);
+        if (callAnnotation == null) {
+            return ProceedingJoinPoint::proceed;
+        }
+        if (!callAnnotation.using().equals(DefaultHystrixCommand.class)) {
+            if (!ClassUtils.isAssignable(callAnnotation.service(), DefaultService.class) || StringUtils.isEmpty(callAnnotation.operation())) {
+                LOGGER.warn("Method '{}' use custom invocation but also sets service and operation name", m.getName());
             }
+            return createCustomExecution(callAnnotation, m.getParameterTypes());
+        } else {
+            return createServiceForward(callAnnotation, m.getParameterTypes());
+        }
+    }
+
+    private Dispatch createServiceForward(Call callAnnotation, Class<?>[] parameterTypes) throws IllegalAccessException {
+        final Class<?> serviceClass = callAnnotation.service();
+        final Method method = ReflectionUtils.findMethod(serviceClass, callAnnotation.operation(), parameterTypes);
+        if (method == null) {
+            // Operation with other parameter types (or missing): looked up with the argument types of each invocation
+            return pjp -> handleServiceForward(callAnnotation, pjp.getArgs());
         }
-        return pjp.proceed();
+        ReflectionUtils.makeAccessible(method);
+        final MethodHandle handle = MethodHandles.lookup().unreflect(method).asSpreader(Object[].class, parameterTypes.length);
+        final Object client = clientService.of(serviceClass);
+        return pjp -> handle.invoke(client, pjp.getArgs());
+    }
+
+    private Dispatch createCustomExecution(Call callAnnotation, Class<?>[] parameterTypes) throws IllegalAccessException {
+        final Class<? extends HystrixCommand> commandClass = callAnnotation.using();
+        final String[] hystrixBeans = context.getBeanNamesForType(commandClass);
+        if (hystrixBeans.length == 1) {
+            final String beanName = hystrixBeans[0];
+            return pjp -> ((HystrixCommand) context.getBean(beanName, pjp.getArgs())).execute();
+        }
+        final Constructor constructor = ConstructorUtils.getMatchingAccessibleConstructor(commandClass, parameterTypes);
+        if (constructor == null) {
+            return pjp -> {
+                try {
+                    return ((HystrixCommand) ConstructorUtils.invokeConstructor(commandClass, pjp.getArgs())).execute();
+                } catch (InvocationTargetException e) {
+                    // Same exception as the constructor handle
+                    throw e.getTargetException();
+                }
+            };
+        }
+        final MethodHandle handle = MethodHandles.lookup().unreflectConstructor(constructor).asSpreader(Object[].class,
+                parameterTypes.length);
+        return pjp -> ((HystrixCommand) handle.invoke(pjp.getArgs())).execute();
     }
 
-    private Object handleServiceForward(Call callAnnotation, Object[] args) throws IllegalAccessException, InvocationTargetException {
+    private Object handleServiceForward(Call callAnnotation, Object[] args) throws Throwable {
         final Class<?> serviceClass = callAnnotation.service();
         final List<? extends Class<?>> argList = Stream.of(args).map(Object::getClass).collect(Collectors.toList());
         final Class[] objects = argList.toArray(new Class[argList.size()]);
@@ -85,18 +140,21 @@ public class GatewayOperations {
             }
         }
         final Object client = clientService.of(serviceClass);
-        return method.invoke(client, args);
+        try {
+            return method.invoke(client, args);
+        } catch (InvocationTargetException e) {
+            // Same exception as the method handle
+            throw e.getTargetException();
+        }
     }
 
-    private Object handleCustomExecution(Call callAnnotation, Object[] args) throws NoSuchMethodException, IllegalAccessException, InvocationTargetException, InstantiationException {
-        final String[] hystrixBeans = context.getBeanNamesForType(callAnnotation.using());
-        if (hystrixBeans.length == 1) {
-            final HystrixCommand bean = (HystrixCommand) context.getBean(hystrixBeans[0], args);
-            return bean.execute();
-        } else {
-            final HystrixCommand newInstance = (HystrixCommand) ConstructorUtils.invokeConstructor(callAnnotation.using(), args);
-            return newInstance.execute();
-        }
+    /**
+     * The invocation of a {@link Call}-annotated method.
+     */
+    @FunctionalInterface
+    private interface Dispatch {
+
+        Object invoke(ProceedingJoinPoint pjp) throws Throwable;
     }
 
 }
@@ -5,7 +5,10 @@ import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Stream;
 
 import org.slf4j.Logger;
@@ -35,7 +38,13 @@ class InheritedAnnotationArgumentResolver implements HandlerMethodArgumentResolv
 
     private final ApplicationContext context;
 
-    private List<HandlerMethodArgumentResolver> cachedContextResolvers;
+    private volatile List<HandlerMethodArgumentResolver> cachedContextResolvers;
+
+    /**
+     * Resolutions by handler method parameter (empty when no resolver supports the parameter): parameters are resolved
+     * for each request, and checked by {@link #supportsParameter(MethodParameter)} before.
+     */
+    private final ConcurrentMap<ParameterKey, Optional<Resolution>> resolutions = new ConcurrentHashMap<>();
 
     InheritedAnnotationArgumentResolver(ApplicationContext context) {
         this.context = context;
@@ -74,6 +83,21 @@ class InheritedAnnotationArgumentResolver implements HandlerMethodArgumentResolv
     }
 
     private Resolution findContextResolver(MethodParameter parameter) {
+        final ParameterKey key = new ParameterKey(parameter);
+        final Optional<Resolution> cached = resolutions.get(key);
+        if (cached != null) {
+            return cached.orElse(null);
+        }
+        final List<HandlerMethodArgumentResolver> contextResolvers = getContextArgumentResolvers();
+        final Resolution resolution = createResolution(parameter, contextResolvers);
+        if (cachedContextResolvers != null) {
+            // Not cached out of a web context, the resolvers may be available later
+            resolutions.putIfAbsent(key, Optional.ofNullable(resolution));
+        }
+        return resolution;
+    }
+
+    private Resolution createResolution(MethodParameter parameter, List<HandlerMethodArgumentResolver> contextResolvers) {
         final Optional<Class> serviceDefinition = Stream.of(((Class) parameter.getContainingClass()).getInterfaces()) //
                 .filter(c -> AnnotationUtils.findAnnotation(c, Service.class) != null) //
                 .findFirst();
@@ -81,42 +105,97 @@ class InheritedAnnotationArgumentResolver implements HandlerMethodArgumentResolv
             final Method parameterMethod = parameter.getMethod();
             final Method method = ReflectionUtils.findMethod(serviceDefinition.get(), parameterMethod.getName(),
                     parameterMethod.getParameterTypes());
-
-            Resolution resolution = null;
-            for (HandlerMethodArgumentResolver contextArgumentResolver : getContextArgumentResolvers()) {
+            if (method == null) {
+                return null;
+            }
+            final MethodParameter methodParameter = new InheritedMethodParameter(parameter, method);
+            for (HandlerMethodArgumentResolver contextArgumentResolver : contextResolvers) {
                 if (contextArgumentResolver == this) {
                     // Prevent stack overflow
                     continue;
                 }
-                final MethodParameter methodParameter = new MethodParameter(parameter) {
-
-                    @Override
-                    public Method getMethod() {
-                        return method;
-                    }
-
-                    @Override
-                    public AnnotatedElement getAnnotatedElement() {
-                        return method.getParameters()[parameter.getParameterIndex()];
-                    }
-
-                    @Override
-                    public Annotation[] getParameterAnnotations() {
-                        return getAnnotatedElement().getAnnotations();
-                    }
-                };
                 if (contextArgumentResolver.supportsParameter(methodParameter)) {
-                    resolution = new Resolution(methodParameter, contextArgumentResolver);
-                    break;
+                    return new Resolution(methodParameter, contextArgumentResolver);
                 }
             }
-            return resolution;
+            return null;
         } else {
             return null;
         }
     }
 
-    class Resolution {
+    /**
+     * A parameter of a controller method, with the annotations of the same parameter in the {@link Service} interface.
+     */
+    private static class InheritedMethodParameter extends MethodParameter {
+
+        private final Method method;
+
+        private final AnnotatedElement annotatedElement;
+
+        private final Annotation[] annotations;
+
+        private InheritedMethodParameter(MethodParameter parameter, Method method) {
+            super(parameter);
+            this.method = method;
+            this.annotatedElement = method.getParameters()[parameter.getParameterIndex()];
+            this.annotations = annotatedElement.getAnnotations();
+        }
+
+        @Override
+        public Method getMethod() {
+            return method;
+        }
+
+        @Override
+        public AnnotatedElement getAnnotatedElement() {
+            return annotatedElement;
+        }
+
+        @Override
+        public Annotation[] getParameterAnnotations() {
+            return annotations;
+        }
+    }
+
+    /**
+     * Key of a parameter in {@link #resolutions}: unlike {@link MethodParameter#equals(Object)}, includes the containing
+     * class, as controllers sharing a handler method of a base class may implement different {@link Service} interfaces.
+     */
+    private static class ParameterKey {
+
+        private final Class<?> containingClass;
+
+        private final Method method;
+
+        private final int parameterIndex;
+
+        private ParameterKey(MethodParameter parameter) {
+            this.containingClass = parameter.getContainingClass();
+            this.method = parameter.getMethod();
+            this.parameterIndex = parameter.getParameterIndex();
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof ParameterKey)) {
+                return false;
+            }
+            final ParameterKey key = (ParameterKey) other;
+            return containingClass == key.containingClass && Objects.equals(method, key.method)
+                    && parameterIndex == key.parameterIndex;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(containingClass, method, parameterIndex);
+        }
+    }
+
+    private static class Resolution {
 
         final private MethodParameter parameter;
 
@@ -40,4 +40,35 @@ public class GatewayServiceTest extends ServiceBaseTests {
         final String response = clients.of(GatewayService.class).custom();
         assertEquals("custom", response);
     }
+
+    @Test
+    public void sayMyNameTwice() throws Exception {
+        // Second call uses the dispatch created by the first one
+        final GatewayService gateway = clients.of(GatewayService.class);
+        assertEquals("Hi World", gateway.sayMyName("World"));
+        assertEquals("Hi Moon", gateway.sayMyName("Moon"));
+    }
+
+    @Test
+    public void sayMyNameByArgumentType() throws Exception {
+        // No operation with the declared parameter types: looked up with the argument types
+        final GatewayService gateway = clients.of(GatewayService.class);
+        assertEquals("Hi World", gateway.sayMyNameByArgumentType("World"));
+        assertEquals("Hi Moon", gateway.sayMyNameByArgumentType("Moon"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void fail() throws Exception {
+        clients.of(GatewayService.class).fail("World");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void failByArgumentType() throws Exception {
+        clients.of(GatewayService.class).failByArgumentType("World");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void failingCommand() throws Exception {
+        clients.of(GatewayService.class).failingCommand("World");
+    }
 }
@@ -0,0 +1,142 @@
+package org.talend.daikon.service;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.MethodParameter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.PathVariableMethodArgumentResolver;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.talend.daikon.annotation.Service;
+import org.talend.daikon.services.TestService;
+import org.talend.daikon.services.TestServiceImpl;
+
+public class InheritedAnnotationArgumentResolverTest {
+
+    private final HandlerMethodArgumentResolver pathVariables = spy(new PathVariableMethodArgumentResolver());
+
+    private InheritedAnnotationArgumentResolver resolver;
+
+    @Before
+    public void setUp() {
+        final ApplicationContext context = mock(ApplicationContext.class);
+        final RequestMappingHandlerAdapter adapter = mock(RequestMappingHandlerAdapter.class);
+        when(context.getBean(RequestMappingHandlerAdapter.class)).thenReturn(adapter);
+        when(adapter.getArgumentResolvers()).thenReturn(Collections.singletonList(pathVariables));
+        resolver = new InheritedAnnotationArgumentResolver(context);
+    }
+
+    @Test
+    public void shouldResolveAnnotationOfServiceInterface() throws Exception {
+        // given
+        final MethodParameter name = new MethodParameter(TestServiceImpl.class.getMethod("sayHiWithMyName", String.class), 0);
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Collections.singletonMap("name", "World"));
+
+        // when
+        final boolean supported = resolver.supportsParameter(name);
+        final Object first = resolver.resolveArgument(name, null, new ServletWebRequest(request), null);
+        final Object second = resolver.resolveArgument(name, null, new ServletWebRequest(request), null);
+
+        // then
+        assertTrue(supported);
+        assertEquals("World", first);
+        assertEquals("World", second);
+        // resolution is looked up once, then served from the cache
+        verify(pathVariables, times(1)).supportsParameter(any(MethodParameter.class));
+    }
+
+    @Test
+    public void shouldCacheUnsupportedParameter() throws Exception {
+        // given
+        final MethodParameter body = new MethodParameter(
+                TestServiceImpl.class.getMethod("sayHiWithMyNameAndValue", String.class, String.class, String.class), 2);
+
+        // then
+        assertFalse(resolver.supportsParameter(body));
+        assertFalse(resolver.supportsParameter(body));
+        verify(pathVariables, times(1)).supportsParameter(any(MethodParameter.class));
+    }
+
+    @Test
+    public void shouldNotSupportMethodOutOfServiceInterface() throws Exception {
+        // given
+        final MethodParameter parameter = new MethodParameter(ExtendedService.class.getMethod("sayBye", String.class), 0);
+
+        // then
+        assertFalse(resolver.supportsParameter(parameter));
+        verify(pathVariables, never()).supportsParameter(any(MethodParameter.class));
+    }
+
+    @Test
+    public void shouldResolveAnnotationOfServiceInterfaceOfEachController() throws Exception {
+        // given
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        final Map<String, String> variables = new HashMap<>();
+        variables.put("name", "World");
+        variables.put("id", "42");
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, variables);
+        // Same method and index, but different containing classes
+        final MethodParameter byName = new HandlerMethod(new ControllerByName(), "greet", String.class)
+                .getMethodParameters()[0];
+        final MethodParameter byId = new HandlerMethod(new ControllerById(), "greet", String.class).getMethodParameters()[0];
+
+        // when
+        final Object name = resolver.resolveArgument(byName, null, new ServletWebRequest(request), null);
+        final Object id = resolver.resolveArgument(byId, null, new ServletWebRequest(request), null);
+
+        // then
+        assertEquals("World", name);
+        assertEquals("42", id);
+    }
+
+    @Service(name = "GreetingByName")
+    interface GreetingByName {
+
+        @RequestMapping(value = "/greet/name/{name}", method = RequestMethod.GET)
+        String greet(@PathVariable("name") String name);
+    }
+
+    @Service(name = "GreetingById")
+    interface GreetingById {
+
+        @RequestMapping(value = "/greet/id/{id}", method = RequestMethod.GET)
+        String greet(@PathVariable("id") String id);
+    }
+
+    private abstract class GreetingController {
+
+        public String greet(String value) {
+            return "Hello " + value;
+        }
+    }
+
+    private class ControllerByName extends GreetingController implements GreetingByName {
+    }
+
+    private class ControllerById extends GreetingController implements GreetingById {
+    }
+
+    // Not static: not picked up as a service implementation by the component scan of other tests
+    private class ExtendedService extends TestServiceImpl implements TestService {
+
+        public String sayBye(String name) {
+            return "Bye " + name;
+        }
+    }
+}
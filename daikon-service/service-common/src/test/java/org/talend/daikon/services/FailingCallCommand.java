@@ -0,0 +1,19 @@
+package org.talend.daikon.services;
+
+import com.netflix.hystrix.HystrixCommand;
+
+/**
+ * A command that is not a bean and cannot be created.
+ */
+public class FailingCallCommand extends HystrixCommand<String> {
+
+    public FailingCallCommand(String name) {
+        super(() -> "customGroup");
+        throw new IllegalStateException("Unable to call " + name);
+    }
+
+    @Override
+    protected String run() throws Exception {
+        return "failing";
+    }
+}
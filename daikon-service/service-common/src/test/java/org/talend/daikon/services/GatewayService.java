@@ -25,4 +25,16 @@ public interface GatewayService {
     @RequestMapping(value = "/api/custom", method = RequestMethod.GET)
     String custom();
 
+    @RequestMapping(value = "/api/sayMyNameByArgumentType", method = RequestMethod.GET)
+    String sayMyNameByArgumentType(@RequestParam("name") Object name);
+
+    @RequestMapping(value = "/api/fail", method = RequestMethod.GET)
+    String fail(@RequestParam("name") String name);
+
+    @RequestMapping(value = "/api/failByArgumentType", method = RequestMethod.GET)
+    String failByArgumentType(@RequestParam("name") Object name);
+
+    @RequestMapping(value = "/api/failingCommand", method = RequestMethod.GET)
+    String failingCommand(@RequestParam("name") Object name);
+
 }
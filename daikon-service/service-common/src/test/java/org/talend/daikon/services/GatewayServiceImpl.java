@@ -28,4 +28,20 @@ public class GatewayServiceImpl implements GatewayService {
         return "MyString";
     }
 
+    @Override
+    @Call(service = TestService.class, operation = "sayHiWithMyName")
+    public native String sayMyNameByArgumentType(Object name);
+
+    @Override
+    @Call(service = TestService.class, operation = "fail")
+    public native String fail(String name);
+
+    @Override
+    @Call(service = TestService.class, operation = "fail")
+    public native String failByArgumentType(Object name);
+
+    @Override
+    @Call(using = FailingCallCommand.class)
+    public native String failingCommand(Object name);
+
 }
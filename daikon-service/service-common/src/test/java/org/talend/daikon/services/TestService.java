@@ -25,4 +25,7 @@ public interface TestService {
                                    @PathVariable("value") String value, //
                                    @RequestBody String body);
 
+    @RequestMapping(value = "/path/to/service/fail/{name}", method = RequestMethod.GET)
+    String fail(@PathVariable("name") String name);
+
 }
@@ -25,4 +25,9 @@ public class TestServiceImpl implements TestService {
     public String sayHiWithMyNameAndValue(String name, String value, String body) {
         return "Hi " + name + " " + value + " " + body;
     }
+
+    @Override
+    public String fail(String name) {
+        throw new UnsupportedOperationException("Unable to say hi to " + name);
+    }
 }
@@ -0,0 +1,100 @@
+package org.talend.tql.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.talend.tql.eval.BatchEvaluator;
+import org.talend.tql.eval.BatchPredicate;
+import org.talend.tql.eval.Bitmaps;
+import org.talend.tql.eval.ColumnBatch;
+import org.talend.tql.eval.FieldAccessor;
+import org.talend.tql.eval.PredicateVisitor;
+import org.talend.tql.model.Expression;
+import org.talend.tql.parser.Tql;
+
+/**
+ * Compares row-at-a-time TQL evaluation ({@link PredicateVisitor}) with columnar evaluation ({@link BatchEvaluator}),
+ * with and without the cost of extracting columns from the records.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchEvaluationBenchmark {
+
+    private static final FieldAccessor<Map<String, Object>> ACCESSOR = Map::get;
+
+    private static final String[] NAMES = { "ghassen", "Ghassen", "Benoit", "Benoit 2eme", "", "Hervé", "Alice", "Bob" };
+
+    @Param({ "1024", "65536" })
+    private int size;
+
+    @Param({ "age > 30", "age between [20, 40] and score < 50.5", "age > 30 or not (name contains 'ssen')" })
+    private String query;
+
+    private List<Map<String, Object>> records;
+
+    private ColumnBatch extractedBatch;
+
+    private Predicate<Map<String, Object>> predicate;
+
+    private BatchPredicate batchPredicate;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        records = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Map<String, Object> record = new HashMap<>();
+            record.put("name", NAMES[random.nextInt(NAMES.length)]);
+            record.put("age", random.nextInt(80));
+            record.put("score", random.nextDouble() * 100);
+            records.add(record);
+        }
+        Expression expression = Tql.parse(query);
+        predicate = PredicateVisitor.compile(expression, ACCESSOR);
+        batchPredicate = BatchEvaluator.compile(expression);
+        extractedBatch = ColumnBatch.of(records, ACCESSOR);
+        // Extract columns once
+        batchPredicate.select(extractedBatch);
+    }
+
+    @Benchmark
+    public int rowAtATime() {
+        int count = 0;
+        for (Map<String, Object> record : records) {
+            if (predicate.test(record)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int batchWithExtraction() {
+        return Bitmaps.cardinality(batchPredicate.select(ColumnBatch.of(records, ACCESSOR)));
+    }
+
+    @Benchmark
+    public int batchOnColumns() {
+        return Bitmaps.cardinality(batchPredicate.select(extractedBatch));
+    }
+}
@@ -0,0 +1,93 @@
+package org.talend.tql.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.IndexedRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.talend.tql.eval.PredicateVisitor;
+import org.talend.tql.model.Expression;
+import org.talend.tql.parser.Tql;
+import org.talend.tqlindex.IndexedRecordAccessor;
+import org.talend.tqlindex.TqlIndex;
+
+/**
+ * Compares a full scan of {@link IndexedRecord records} with a lookup through a {@link TqlIndex}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IndexBenchmark {
+
+    private static final Schema SCHEMA = SchemaBuilder.record("person").fields() //
+            .name("id").type().intType().noDefault() //
+            .name("name").type().stringType().noDefault() //
+            .name("age").type().intType().noDefault() //
+            .endRecord();
+
+    @Param({ "100000", "1000000" })
+    private int size;
+
+    @Param({ "id = 4242", "name = 'name 42' and age > 30", "age between [20, 22] and name contains '7'" })
+    private String query;
+
+    private List<IndexedRecord> records;
+
+    private Expression expression;
+
+    private Predicate<IndexedRecord> predicate;
+
+    private TqlIndex<IndexedRecord> index;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(42);
+        records = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            GenericData.Record record = new GenericData.Record(SCHEMA);
+            record.put("id", i);
+            record.put("name", "name " + random.nextInt(1000));
+            record.put("age", random.nextInt(80));
+            records.add(record);
+        }
+        expression = Tql.parse(query);
+        predicate = PredicateVisitor.compile(expression, IndexedRecordAccessor.INSTANCE);
+        index = TqlIndex.of(records, Arrays.asList("id", "name"), Arrays.asList("id", "age"));
+    }
+
+    @Benchmark
+    public int fullScan() {
+        int count = 0;
+        for (IndexedRecord record : records) {
+            if (predicate.test(record)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int indexed() {
+        return index.filter(expression).size();
+    }
+}
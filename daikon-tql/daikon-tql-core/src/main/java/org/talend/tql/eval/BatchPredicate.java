@@ -0,0 +1,14 @@
+package org.talend.tql.eval;
+
+/**
+ * A TQL expression compiled by {@link BatchEvaluator}, selecting records of a {@link ColumnBatch}.
+ */
+@FunctionalInterface
+public interface BatchPredicate {
+
+    /**
+     * @param batch the records to evaluate.
+     * @return a new selection bitmap of the matching records (see {@link Bitmaps}).
+     */
+    long[] select(ColumnBatch batch);
+}
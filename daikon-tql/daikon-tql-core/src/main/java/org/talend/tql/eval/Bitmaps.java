@@ -0,0 +1,125 @@
+package org.talend.tql.eval;
+
+import java.util.Arrays;
+
+/**
+ * Operations on selection bitmaps: bit <code>i</code> of word <code>i / 64</code> is set when record <code>i</code> is
+ * selected. Bits past the batch size are always clear.
+ */
+public final class Bitmaps {
+
+    private Bitmaps() {
+    }
+
+    /**
+     * @return an empty bitmap for <code>size</code> records.
+     */
+    public static long[] create(int size) {
+        return new long[(size + 63) >>> 6];
+    }
+
+    /**
+     * @return a bitmap selecting all of the <code>size</code> records.
+     */
+    public static long[] all(int size) {
+        long[] bitmap = create(size);
+        Arrays.fill(bitmap, -1L);
+        clearTail(bitmap, size);
+        return bitmap;
+    }
+
+    /**
+     * Intersects <code>bitmap</code> with <code>other</code>, in place.
+     *
+     * @return <code>bitmap</code>.
+     */
+    public static long[] and(long[] bitmap, long[] other) {
+        for (int w = 0; w < bitmap.length; w++) {
+            bitmap[w] &= other[w];
+        }
+        return bitmap;
+    }
+
+    /**
+     * Unites <code>bitmap</code> with <code>other</code>, in place.
+     *
+     * @return <code>bitmap</code>.
+     */
+    public static long[] or(long[] bitmap, long[] other) {
+        for (int w = 0; w < bitmap.length; w++) {
+            bitmap[w] |= other[w];
+        }
+        return bitmap;
+    }
+
+    /**
+     * Complements <code>bitmap</code> for a batch of <code>size</code> records, in place.
+     *
+     * @return <code>bitmap</code>.
+     */
+    public static long[] not(long[] bitmap, int size) {
+        for (int w = 0; w < bitmap.length; w++) {
+            bitmap[w] = ~bitmap[w];
+        }
+        clearTail(bitmap, size);
+        return bitmap;
+    }
+
+    public static boolean get(long[] bitmap, int index) {
+        return (bitmap[index >>> 6] & (1L << index)) != 0;
+    }
+
+    public static void set(long[] bitmap, int index) {
+        bitmap[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * @return <code>true</code> if no record is selected.
+     */
+    public static boolean isEmpty(long[] bitmap) {
+        for (long word : bitmap) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of selected records.
+     */
+    public static int cardinality(long[] bitmap) {
+        int count = 0;
+        for (long word : bitmap) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * @return the index of the first selected record at or after <code>from</code>, <code>-1</code> if none.
+     */
+    public static int nextSetBit(long[] bitmap, int from) {
+        int w = from >>> 6;
+        if (w >= bitmap.length) {
+            return -1;
+        }
+        long word = bitmap[w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++w == bitmap.length) {
+                return -1;
+            }
+            word = bitmap[w];
+        }
+    }
+
+    private static void clearTail(long[] bitmap, int size) {
+        int tail = size & 63;
+        if (tail != 0) {
+            bitmap[bitmap.length - 1] &= (1L << tail) - 1;
+        }
+    }
+}
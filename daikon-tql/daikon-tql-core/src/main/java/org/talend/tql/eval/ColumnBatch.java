@@ -0,0 +1,133 @@
+package org.talend.tql.eval;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A batch of records seen as columns, as consumed by {@link BatchEvaluator}.
+ * <p>
+ * Columns are extracted lazily (only fields used by the evaluated queries are read) and their numeric and string
+ * views are computed once and kept, so evaluating several queries over the same batch pays the extraction only once.
+ * A batch is not thread-safe.
+ * </p>
+ */
+public class ColumnBatch {
+
+    private final int size;
+
+    private final Map<String, Column> columns = new HashMap<>();
+
+    private final ColumnExtractor extractor;
+
+    private ColumnBatch(int size, ColumnExtractor extractor) {
+        this.size = size;
+        this.extractor = extractor;
+    }
+
+    /**
+     * Creates a batch over a list of records, columns are read from records on first use.
+     *
+     * @param records the records of the batch, the record index in the list is its index in the selection bitmaps.
+     * @param accessor the accessor used to read record fields.
+     * @param <T> the record type.
+     * @return a new batch.
+     */
+    public static <T> ColumnBatch of(List<T> records, FieldAccessor<T> accessor) {
+        return new ColumnBatch(records.size(), field -> {
+            Object[] values = new Object[records.size()];
+            int i = 0;
+            for (T record : records) {
+                values[i++] = accessor.get(record, field);
+            }
+            return values;
+        });
+    }
+
+    /**
+     * Creates a batch from already extracted columns.
+     *
+     * @param size the number of records in the batch.
+     * @param columns the column values by field name, each array holds at least <code>size</code> values. Fields not
+     * present are considered missing for all records.
+     * @return a new batch.
+     */
+    public static ColumnBatch of(int size, Map<String, Object[]> columns) {
+        return new ColumnBatch(size, field -> {
+            Object[] values = columns.get(field);
+            return values == null ? new Object[size] : values;
+        });
+    }
+
+    /**
+     * @return the number of records in this batch.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the raw values of the field.
+     */
+    public Object[] values(String field) {
+        return column(field).values;
+    }
+
+    /**
+     * @return the numeric values of the field, {@link Double#NaN} for non numeric values.
+     */
+    public double[] numbers(String field) {
+        Column column = column(field);
+        if (column.numbers == null) {
+            double[] numbers = new double[size];
+            for (int i = 0; i < size; i++) {
+                numbers[i] = Values.toDouble(column.values[i]);
+            }
+            column.numbers = numbers;
+        }
+        return column.numbers;
+    }
+
+    /**
+     * @return the string values of the field, <code>null</code> for missing values.
+     */
+    public String[] strings(String field) {
+        Column column = column(field);
+        if (column.strings == null) {
+            String[] strings = new String[size];
+            for (int i = 0; i < size; i++) {
+                strings[i] = Values.toString(column.values[i]);
+            }
+            column.strings = strings;
+        }
+        return column.strings;
+    }
+
+    private Column column(String field) {
+        Column column = columns.get(field);
+        if (column == null) {
+            column = new Column(extractor.extract(field));
+            columns.put(field, column);
+        }
+        return column;
+    }
+
+    @FunctionalInterface
+    private interface ColumnExtractor {
+
+        Object[] extract(String field);
+    }
+
+    private static class Column {
+
+        private final Object[] values;
+
+        private double[] numbers;
+
+        private String[] strings;
+
+        private Column(Object[] values) {
+            this.values = values;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package org.talend.tql.eval;
+
+/**
+ * Reads the value of a field (as named in TQL queries) from a record.
+ *
+ * @param <T> the record type.
+ */
+@FunctionalInterface
+public interface FieldAccessor<T> {
+
+    /**
+     * @param record the record to read.
+     * @param field the field name, as found in the TQL query.
+     * @return the field value, or <code>null</code> if absent.
+     */
+    Object get(T record, String field);
+}
@@ -0,0 +1,340 @@
+package org.talend.tql.eval;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.talend.tql.excp.TqlException;
+import org.talend.tql.model.*;
+import org.talend.tql.visitor.IASTVisitor;
+
+/**
+ * Keeps track of the records matching a TQL query while records are inserted, updated and deleted.
+ * <p>
+ * For each record, the matcher keeps the result of every clause (atom) of the query and the values of the fields the
+ * query reads. An update only re-evaluates the clauses reading a modified field, then combines the stored clause
+ * results: the cost of a change is proportional to the change, not to the number of tracked records. Each operation
+ * returns the {@link MatchChanges membership changes} it caused.
+ * </p>
+ * <p>
+ * Clauses are evaluated with the same rules as {@link PredicateVisitor}. A matcher is not thread-safe.
+ * </p>
+ *
+ * @param <K> the record key type.
+ * @param <T> the record type.
+ */
+public class IncrementalMatcher<K, T> {
+
+    private final FieldAccessor<T> accessor;
+
+    /** Fields read by the query, a record state keeps their values in this order. */
+    private final List<String> fields = new ArrayList<>();
+
+    private final List<Clause<T>> clauses = new ArrayList<>();
+
+    private final Node root;
+
+    private final Map<K, RecordState> states = new HashMap<>();
+
+    private final Set<K> matches = new LinkedHashSet<>();
+
+    public IncrementalMatcher(TqlElement expression, FieldAccessor<T> accessor) {
+        this.accessor = accessor;
+        this.root = (Node) expression.accept(new ClauseTreeBuilder());
+    }
+
+    /**
+     * Inserts or updates records, then deletes records.
+     *
+     * @param upserts the records to insert or update, by key.
+     * @param deletes the keys of the records to delete.
+     * @return the changes of the matching records.
+     */
+    public MatchChanges<K> apply(Map<K, T> upserts, Collection<K> deletes) {
+        MatchChanges<K> changes = new MatchChanges<>();
+        for (Map.Entry<K, T> upsert : upserts.entrySet()) {
+            upsert(upsert.getKey(), upsert.getValue(), changes);
+        }
+        for (K key : deletes) {
+            delete(key, changes);
+        }
+        return changes;
+    }
+
+    /**
+     * Inserts a record, or updates it if the key is already known.
+     *
+     * @param key the record key.
+     * @param record the record (new) values.
+     * @return the changes of the matching records.
+     */
+    public MatchChanges<K> upsert(K key, T record) {
+        MatchChanges<K> changes = new MatchChanges<>();
+        upsert(key, record, changes);
+        return changes;
+    }
+
+    /**
+     * Deletes a record, unknown keys are ignored.
+     *
+     * @param key the record key.
+     * @return the changes of the matching records.
+     */
+    public MatchChanges<K> delete(K key) {
+        MatchChanges<K> changes = new MatchChanges<>();
+        delete(key, changes);
+        return changes;
+    }
+
+    /**
+     * @return <code>true</code> if the record with this key currently matches the query.
+     */
+    public boolean matches(K key) {
+        return matches.contains(key);
+    }
+
+    /**
+     * @return keys of the records currently matching the query.
+     */
+    public Set<K> getMatches() {
+        return Collections.unmodifiableSet(matches);
+    }
+
+    /**
+     * @return the number of tracked records.
+     */
+    public int size() {
+        return states.size();
+    }
+
+    private void upsert(K key, T record, MatchChanges<K> changes) {
+        Object[] values = new Object[fields.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = accessor.get(record, fields.get(i));
+        }
+        RecordState state = states.get(key);
+        if (state == null) {
+            state = new RecordState(values, new boolean[clauses.size()]);
+            for (int i = 0; i < clauses.size(); i++) {
+                state.results[i] = clauses.get(i).predicate.test(record);
+            }
+            states.put(key, state);
+        } else {
+            boolean changed = false;
+            for (int i = 0; i < clauses.size(); i++) {
+                Clause<T> clause = clauses.get(i);
+                if (clause.reads(state.values, values)) {
+                    boolean result = clause.predicate.test(record);
+                    changed |= result != state.results[i];
+                    state.results[i] = result;
+                }
+            }
+            state.values = values;
+            if (!changed) {
+                return;
+            }
+        }
+        boolean match = root.eval(state.results);
+        if (match && matches.add(key)) {
+            changes.add(key);
+        } else if (!match && matches.remove(key)) {
+            changes.remove(key);
+        }
+    }
+
+    private void delete(K key, MatchChanges<K> changes) {
+        if (states.remove(key) != null && matches.remove(key)) {
+            changes.remove(key);
+        }
+    }
+
+    private static class RecordState {
+
+        private Object[] values;
+
+        private final boolean[] results;
+
+        private RecordState(Object[] values, boolean[] results) {
+            this.values = values;
+            this.results = results;
+        }
+    }
+
+    /**
+     * An atom of the query, with the indexes (in {@link #fields}) of the fields it reads.
+     */
+    private static class Clause<T> {
+
+        private final Predicate<T> predicate;
+
+        private final int[] fieldIndexes;
+
+        private Clause(Predicate<T> predicate, int[] fieldIndexes) {
+            this.predicate = predicate;
+            this.fieldIndexes = fieldIndexes;
+        }
+
+        /**
+         * @return <code>true</code> if one of the fields read by this clause changed.
+         */
+        private boolean reads(Object[] oldValues, Object[] newValues) {
+            for (int index : fieldIndexes) {
+                if (!Objects.equals(oldValues[index], newValues[index])) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Logical structure of the query, evaluated over the clause results of a record.
+     */
+    @FunctionalInterface
+    private interface Node {
+
+        boolean eval(boolean[] results);
+    }
+
+    /**
+     * Builds the {@link Node} tree of a query and registers its clauses.
+     */
+    private class ClauseTreeBuilder implements IASTVisitor<Object> {
+
+        @Override
+        public Object visit(TqlElement elt) {
+            throw new TqlException("Should not enter here!!");
+        }
+
+        @Override
+        public Object visit(ComparisonOperator elt) {
+            throw new TqlException("Should not enter here!!");
+        }
+
+        @Override
+        public Object visit(LiteralValue elt) {
+            throw new TqlException("Should not enter here!!");
+        }
+
+        @Override
+        public Object visit(FieldReference elt) {
+            throw new TqlException("Should not enter here!!");
+        }
+
+        @Override
+        public Object visit(Expression elt) {
+            throw new TqlException("Should not enter here!!");
+        }
+
+        @Override
+        public Node visit(AndExpression elt) {
+            Node[] nodes = visitAll(elt.getExpressions());
+            return results -> {
+                for (Node node : nodes) {
+                    if (!node.eval(results)) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        }
+
+        @Override
+        public Node visit(OrExpression elt) {
+            Node[] nodes = visitAll(elt.getExpressions());
+            return results -> {
+                for (Node node : nodes) {
+                    if (node.eval(results)) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+        }
+
+        @Override
+        public Node visit(NotExpression elt) {
+            Node node = (Node) elt.getExpression().accept(this);
+            return results -> !node.eval(results);
+        }
+
+        @Override
+        public Node visit(ComparisonExpression elt) {
+            TqlElement valueOrField = elt.getValueOrField();
+            if (valueOrField instanceof FieldReference) {
+                return clause(elt, elt.getField().getPath(), ((FieldReference) valueOrField).getPath());
+            }
+            return clause(elt, elt.getField().getPath());
+        }
+
+        @Override
+        public Node visit(FieldInExpression elt) {
+            return clause(elt, elt.getFieldName());
+        }
+
+        @Override
+        public Node visit(FieldIsEmptyExpression elt) {
+            return clause(elt, elt.getFieldName());
+        }
+
+        @Override
+        public Node visit(FieldIsValidExpression elt) {
+            return clause(elt, elt.getFieldName());
+        }
+
+        @Override
+        public Node visit(FieldIsInvalidExpression elt) {
+            return clause(elt, elt.getFieldName());
+        }
+
+        @Override
+        public Node visit(FieldMatchesRegex elt) {
+            return clause(elt, elt.getFieldName());
+        }
+
+        @Override
+        public Node visit(FieldCompliesPattern elt) {
+            return clause(elt, elt.getFieldName());
+        }
+
+        @Override
+        public Node visit(FieldBetweenExpression elt) {
+            return clause(elt, elt.getFieldName());
+        }
+
+        @Override
+        public Node visit(FieldContainsExpression elt) {
+            return clause(elt, elt.getFieldName());
+        }
+
+        private Node[] visitAll(Expression[] expressions) {
+            Node[] nodes = new Node[expressions.length];
+            for (int i = 0; i < expressions.length; i++) {
+                nodes[i] = (Node) expressions[i].accept(this);
+            }
+            return nodes;
+        }
+
+        private Node clause(Atom atom, String... clauseFields) {
+            int[] fieldIndexes = new int[clauseFields.length];
+            for (int i = 0; i < clauseFields.length; i++) {
+                int index = fields.indexOf(clauseFields[i]);
+                if (index < 0) {
+                    index = fields.size();
+                    fields.add(clauseFields[i]);
+                }
+                fieldIndexes[i] = index;
+            }
+            final int clauseIndex = clauses.size();
+            clauses.add(new Clause<>(PredicateVisitor.compile(atom, accessor), fieldIndexes));
+            return results -> results[clauseIndex];
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.talend.tql.eval;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Changes in the set of records matching a query, as returned by {@link IncrementalMatcher}.
+ *
+ * @param <K> the record key type.
+ */
+public class MatchChanges<K> {
+
+    private final Set<K> added = new LinkedHashSet<>();
+
+    private final Set<K> removed = new LinkedHashSet<>();
+
+    MatchChanges() {
+    }
+
+    /**
+     * @return keys of the records that now match and did not before.
+     */
+    public Set<K> getAdded() {
+        return Collections.unmodifiableSet(added);
+    }
+
+    /**
+     * @return keys of the records that matched before and no longer do (including deleted records).
+     */
+    public Set<K> getRemoved() {
+        return Collections.unmodifiableSet(removed);
+    }
+
+    /**
+     * @return <code>true</code> if the set of matching records did not change.
+     */
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty();
+    }
+
+    void add(K key) {
+        // A record removed then added again within the same changes did not change
+        if (!removed.remove(key)) {
+            added.add(key);
+        }
+    }
+
+    void remove(K key) {
+        if (!added.remove(key)) {
+            removed.add(key);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "MatchChanges{" + "added=" + added + ", removed=" + removed + '}';
+    }
+}
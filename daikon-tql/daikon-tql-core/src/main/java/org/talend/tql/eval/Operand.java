@@ -0,0 +1,71 @@
+package org.talend.tql.eval;
+
+import org.talend.tql.model.ComparisonOperator;
+import org.talend.tql.model.LiteralValue;
+
+/**
+ * A TQL literal prepared once for repeated comparisons (see {@link Values} for comparison rules).
+ */
+final class Operand {
+
+    private final LiteralValue.Enum type;
+
+    private final String text;
+
+    private final double number;
+
+    private Operand(LiteralValue.Enum type, String text, double number) {
+        this.type = type;
+        this.text = text;
+        this.number = number;
+    }
+
+    static Operand of(LiteralValue literal) {
+        LiteralValue.Enum type = literal.getLiteral();
+        String value = literal.getValue();
+        switch (type) {
+        case INT:
+        case DECIMAL:
+            return new Operand(type, value, Double.parseDouble(value));
+        case QUOTED_VALUE:
+        case BOOLEAN:
+            return new Operand(type, value, Double.NaN);
+        default:
+            throw new IllegalArgumentException("Unknown literal value type: " + type);
+        }
+    }
+
+    boolean isNumeric() {
+        return type == LiteralValue.Enum.INT || type == LiteralValue.Enum.DECIMAL;
+    }
+
+    boolean isBoolean() {
+        return type == LiteralValue.Enum.BOOLEAN;
+    }
+
+    double number() {
+        return number;
+    }
+
+    String text() {
+        return text;
+    }
+
+    boolean test(Object value, ComparisonOperator.Enum operator) {
+        if (isNumeric()) {
+            return Values.test(Values.toDouble(value), operator, number);
+        }
+        return test(Values.toString(value), operator);
+    }
+
+    /**
+     * Compares a string value (as stored in a string column) with this operand, numeric operands excluded.
+     */
+    boolean test(String value, ComparisonOperator.Enum operator) {
+        if (value == null) {
+            return operator == ComparisonOperator.Enum.NEQ;
+        }
+        int comparison = isBoolean() ? value.compareToIgnoreCase(text) : value.compareTo(text);
+        return Values.test(comparison, operator);
+    }
+}
@@ -0,0 +1,203 @@
+package org.talend.tql.eval;
+
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import org.talend.tql.excp.TqlException;
+import org.talend.tql.model.*;
+import org.talend.tql.visitor.IASTVisitor;
+
+/**
+ * Compiles a TQL expression into a {@link Predicate} evaluated one record at a time.
+ * <p>
+ * Literals, regular expressions and patterns are prepared once at compile time, the returned predicate is stateless and
+ * can be shared between threads.
+ * </p>
+ *
+ * @param <T> the record type.
+ * @see BatchEvaluator for evaluation over a batch of records.
+ */
+public class PredicateVisitor<T> implements IASTVisitor<Object> {
+
+    private final FieldAccessor<T> accessor;
+
+    public PredicateVisitor(FieldAccessor<T> accessor) {
+        this.accessor = accessor;
+    }
+
+    /**
+     * Compiles a TQL expression.
+     *
+     * @param expression the TQL expression.
+     * @param accessor the accessor used to read record fields.
+     * @param <T> the record type.
+     * @return a predicate matching the records selected by the expression.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Predicate<T> compile(TqlElement expression, FieldAccessor<T> accessor) {
+        return (Predicate<T>) expression.accept(new PredicateVisitor<>(accessor));
+    }
+
+    @Override
+    public Object visit(TqlElement elt) {
+        throw new TqlException("Should not enter here!!");
+    }
+
+    @Override
+    public ComparisonOperator.Enum visit(ComparisonOperator elt) {
+        return elt.getOperator();
+    }
+
+    @Override
+    public Object visit(LiteralValue elt) {
+        return Operand.of(elt);
+    }
+
+    @Override
+    public String visit(FieldReference elt) {
+        return elt.getPath();
+    }
+
+    @Override
+    public Object visit(Expression elt) {
+        throw new TqlException("Should not enter here!!");
+    }
+
+    @Override
+    public Predicate<T> visit(AndExpression elt) {
+        Predicate<T>[] predicates = visitAll(elt.getExpressions());
+        if (predicates.length == 1) {
+            return predicates[0];
+        }
+        return record -> {
+            for (Predicate<T> predicate : predicates) {
+                if (!predicate.test(record)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    @Override
+    public Predicate<T> visit(OrExpression elt) {
+        Predicate<T>[] predicates = visitAll(elt.getExpressions());
+        if (predicates.length == 1) {
+            return predicates[0];
+        }
+        return record -> {
+            for (Predicate<T> predicate : predicates) {
+                if (predicate.test(record)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    @Override
+    public Predicate<T> visit(ComparisonExpression elt) {
+        String field = elt.getField().getPath();
+        ComparisonOperator.Enum operator = elt.getOperator().getOperator();
+        TqlElement valueOrField = elt.getValueOrField();
+        if (valueOrField instanceof FieldReference) {
+            String other = ((FieldReference) valueOrField).getPath();
+            return record -> Values.test(accessor.get(record, field), operator, accessor.get(record, other));
+        }
+        Operand operand = Operand.of((LiteralValue) valueOrField);
+        return record -> operand.test(accessor.get(record, field), operator);
+    }
+
+    @Override
+    public Predicate<T> visit(FieldInExpression elt) {
+        String field = elt.getFieldName();
+        LiteralValue[] values = elt.getValues();
+        Operand[] operands = new Operand[values.length];
+        for (int i = 0; i < values.length; i++) {
+            operands[i] = Operand.of(values[i]);
+        }
+        return record -> {
+            Object value = accessor.get(record, field);
+            for (Operand operand : operands) {
+                if (operand.test(value, ComparisonOperator.Enum.EQ)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    @Override
+    public Predicate<T> visit(FieldIsEmptyExpression elt) {
+        String field = elt.getFieldName();
+        return record -> Values.isEmpty(accessor.get(record, field));
+    }
+
+    @Override
+    public Object visit(FieldIsValidExpression elt) {
+        throw new TqlException("Unsupported expression");
+    }
+
+    @Override
+    public Object visit(FieldIsInvalidExpression elt) {
+        throw new TqlException("Unsupported expression");
+    }
+
+    @Override
+    public Predicate<T> visit(FieldMatchesRegex elt) {
+        String field = elt.getFieldName();
+        String regex = elt.getRegex();
+        if (regex == null || regex.isEmpty()) {
+            return record -> "".equals(Values.toString(accessor.get(record, field)));
+        }
+        Pattern pattern = Pattern.compile(regex);
+        return record -> {
+            String value = Values.toString(accessor.get(record, field));
+            return value != null && pattern.matcher(value).find();
+        };
+    }
+
+    @Override
+    public Predicate<T> visit(FieldCompliesPattern elt) {
+        String field = elt.getFieldName();
+        String pattern = elt.getPattern() == null ? "" : elt.getPattern();
+        return record -> Values.complies(Values.toString(accessor.get(record, field)), pattern);
+    }
+
+    @Override
+    public Predicate<T> visit(FieldContainsExpression elt) {
+        String field = elt.getFieldName();
+        String contained = elt.getValue();
+        return record -> {
+            String value = Values.toString(accessor.get(record, field));
+            return value != null && value.contains(contained);
+        };
+    }
+
+    @Override
+    public Predicate<T> visit(FieldBetweenExpression elt) {
+        // Lower bound included, upper bound excluded (same as MongoDB translation)
+        String field = elt.getFieldName();
+        Operand left = Operand.of(elt.getLeft());
+        Operand right = Operand.of(elt.getRight());
+        return record -> {
+            Object value = accessor.get(record, field);
+            return left.test(value, ComparisonOperator.Enum.GET) && right.test(value, ComparisonOperator.Enum.LT);
+        };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Predicate<T> visit(NotExpression elt) {
+        return ((Predicate<T>) elt.getExpression().accept(this)).negate();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Predicate<T>[] visitAll(Expression[] expressions) {
+        Predicate<T>[] predicates = new Predicate[expressions.length];
+        for (int i = 0; i < expressions.length; i++) {
+            predicates[i] = (Predicate<T>) expressions[i].accept(this);
+        }
+        return predicates;
+    }
+}
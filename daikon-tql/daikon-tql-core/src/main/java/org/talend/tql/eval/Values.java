@@ -0,0 +1,160 @@
+package org.talend.tql.eval;
+
+import org.talend.tql.model.ComparisonOperator;
+
+/**
+ * Conversion and comparison rules shared by all in-memory TQL evaluators, so that row and column evaluations always
+ * agree:
+ * <ul>
+ * <li>numbers (and strings holding a number) compare numerically to numeric literals,</li>
+ * <li>other values compare as strings (case insensitive for boolean literals),</li>
+ * <li>a missing value only matches <code>!=</code>, which is always the exact complement of <code>=</code>.</li>
+ * </ul>
+ */
+final class Values {
+
+    private Values() {
+    }
+
+    /**
+     * @return the numeric value of <code>value</code>, {@link Double#NaN} if not a number.
+     */
+    static double toDouble(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        if (value instanceof CharSequence) {
+            String s = value.toString().trim();
+            if (looksNumeric(s)) {
+                try {
+                    return Double.parseDouble(s);
+                } catch (NumberFormatException e) {
+                    return Double.NaN;
+                }
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * @return the string value of <code>value</code>, or <code>null</code>.
+     */
+    static String toString(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    static boolean isEmpty(Object value) {
+        return value == null || value.toString().isEmpty();
+    }
+
+    /**
+     * Numeric comparison, any comparison with {@link Double#NaN} is false except <code>!=</code>.
+     */
+    static boolean test(double value, ComparisonOperator.Enum operator, double operand) {
+        switch (operator) {
+        case EQ:
+            return value == operand;
+        case NEQ:
+            return !(value == operand);
+        case LT:
+            return value < operand;
+        case GT:
+            return value > operand;
+        case LET:
+            return value <= operand;
+        case GET:
+            return value >= operand;
+        default:
+            throw new IllegalArgumentException("Unknown operator: " + operator);
+        }
+    }
+
+    /**
+     * Applies the operator to the result of a {@link Comparable#compareTo(Object)}.
+     */
+    static boolean test(int comparison, ComparisonOperator.Enum operator) {
+        switch (operator) {
+        case EQ:
+            return comparison == 0;
+        case NEQ:
+            return comparison != 0;
+        case LT:
+            return comparison < 0;
+        case GT:
+            return comparison > 0;
+        case LET:
+            return comparison <= 0;
+        case GET:
+            return comparison >= 0;
+        default:
+            throw new IllegalArgumentException("Unknown operator: " + operator);
+        }
+    }
+
+    /**
+     * Compares two field values: numerically if both are numbers, as strings otherwise.
+     */
+    static boolean test(Object value, ComparisonOperator.Enum operator, Object other) {
+        double d1 = toDouble(value);
+        double d2 = toDouble(other);
+        if (!Double.isNaN(d1) && !Double.isNaN(d2)) {
+            return test(d1, operator, d2);
+        }
+        if (value == null || other == null) {
+            return operator == ComparisonOperator.Enum.NEQ;
+        }
+        return test(value.toString().compareTo(other.toString()), operator);
+    }
+
+    /**
+     * Checks a value against a TQL "complies" pattern (a: lower case letter, A: upper case letter, 9: digit, any other
+     * character must be present as is).
+     */
+    static boolean complies(String value, String pattern) {
+        if (value == null) {
+            return false;
+        }
+        if (value.length() != pattern.length()) {
+            return false;
+        }
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = value.charAt(i);
+            switch (pattern.charAt(i)) {
+            case 'a':
+                if (!((c >= 'a' && c <= 'z') || (c >= 'à' && c <= 'ÿ'))) {
+                    return false;
+                }
+                break;
+            case 'A':
+                if (!((c >= 'A' && c <= 'Z') || (c >= 'À' && c <= 'ß'))) {
+                    return false;
+                }
+                break;
+            case '9':
+                if (c < '0' || c > '9') {
+                    return false;
+                }
+                break;
+            default:
+                if (c != pattern.charAt(i)) {
+                    return false;
+                }
+                break;
+            }
+        }
+        return true;
+    }
+
+    private static boolean looksNumeric(String s) {
+        if (s.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if ((c < '0' || c > '9') && c != '.' && c != '-' && c != '+' && c != 'e' && c != 'E') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
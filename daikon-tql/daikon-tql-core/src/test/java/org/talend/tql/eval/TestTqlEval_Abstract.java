@@ -0,0 +1,62 @@
+package org.talend.tql.eval;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.talend.tql.TestTqlParser_Abstract;
+import org.talend.tql.model.TqlElement;
+
+/**
+ * Evaluates queries over a small set of records, both row by row and as a batch.
+ */
+public abstract class TestTqlEval_Abstract extends TestTqlParser_Abstract {
+
+    protected static final FieldAccessor<Map<String, Object>> MAP_ACCESSOR = Map::get;
+
+    protected static final List<Map<String, Object>> RECORDS = Arrays.asList( //
+            record("ghassen", 30d, true), //
+            record("Ghassen", 31.2d, false), //
+            record("Benoit", 29, false), //
+            record("Benoit 2eme", "28.8", false), //
+            record("", 10L, "TRUE"), //
+            record(null, null, null));
+
+    protected static Map<String, Object> record(String name, Object age, Object isGoodBoy) {
+        Map<String, Object> record = new HashMap<>();
+        record.put("name", name);
+        record.put("age", age);
+        record.put("isGoodBoy", isGoodBoy);
+        return record;
+    }
+
+    /**
+     * @return the names of the records matching the query, evaluated one record at a time.
+     */
+    protected List<String> filter(String query) throws Exception {
+        TqlElement expression = doTest(query);
+        Predicate<Map<String, Object>> predicate = PredicateVisitor.compile(expression, MAP_ACCESSOR);
+        List<String> names = new ArrayList<>();
+        for (Map<String, Object> record : RECORDS) {
+            if (predicate.test(record)) {
+                names.add((String) record.get("name"));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * @return the names of the records matching the query, evaluated over the whole batch.
+     */
+    protected List<String> filterBatch(String query) throws Exception {
+        long[] selection = BatchEvaluator.evaluate(doTest(query), ColumnBatch.of(RECORDS, MAP_ACCESSOR));
+        List<String> names = new ArrayList<>();
+        for (int i = Bitmaps.nextSetBit(selection, 0); i >= 0; i = Bitmaps.nextSetBit(selection, i + 1)) {
+            names.add((String) RECORDS.get(i).get("name"));
+        }
+        return names;
+    }
+}
@@ -0,0 +1,83 @@
+package org.talend.tql.eval;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.talend.tql.model.TqlElement;
+
+public class TestTqlEval_Batch extends TestTqlEval_Abstract {
+
+    private static final String[] QUERIES = { "name = 'Benoit'", "name != 'Benoit'", "age = 29 or age = 28.8", "age < 30",
+            "age <= 30", "age > 30", "age >= 30", "age != 30", "isGoodBoy = true", "name = field(name)", "age > field(score)",
+            "name in ['Benoit', 'ghassen']", "age in [10, 29]", "isGoodBoy in [true]", "age between [28, 30]",
+            "name between ['B', 'H']", "name is empty", "name contains 'ssen'", "name complies 'Aaaaaa'", "name ~ '^[gG]'",
+            "not (name contains 'noi')", "age > 20 and (name contains 'a' or not (isGoodBoy = true))",
+            "not (age < 10 or age > 50) and name is empty" };
+
+    @Test
+    public void testSameResultsAsPredicate() throws Exception {
+        for (String query : QUERIES) {
+            Assert.assertEquals(query, filter(query), filterBatch(query));
+        }
+    }
+
+    @Test
+    public void testSameResultsAsPredicateOnRandomRecords() throws Exception {
+        Random random = new Random(42);
+        String[] names = { "ghassen", "Ghassen", "Benoit", "Benoit 2eme", "", null, "Hervé", "abc" };
+        // Sizes around word boundaries
+        for (int size : new int[] { 0, 1, 63, 64, 65, 200 }) {
+            List<Map<String, Object>> records = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                Map<String, Object> record = new HashMap<>();
+                record.put("name", names[random.nextInt(names.length)]);
+                record.put("age", random.nextInt(10) == 0 ? null : random.nextInt(60));
+                record.put("score", random.nextDouble() * 60);
+                record.put("isGoodBoy", random.nextBoolean());
+                records.add(record);
+            }
+            ColumnBatch batch = ColumnBatch.of(records, MAP_ACCESSOR);
+            for (String query : QUERIES) {
+                TqlElement expression = doTest(query);
+                Predicate<Map<String, Object>> predicate = PredicateVisitor.compile(expression, MAP_ACCESSOR);
+                long[] selection = BatchEvaluator.compile(expression).select(batch);
+                for (int i = 0; i < size; i++) {
+                    Assert.assertEquals(query + " #" + i, predicate.test(records.get(i)), Bitmaps.get(selection, i));
+                }
+                Assert.assertEquals(query, records.stream().filter(predicate).count(), Bitmaps.cardinality(selection));
+            }
+        }
+    }
+
+    @Test
+    public void testPreExtractedColumns() throws Exception {
+        Map<String, Object[]> columns = new HashMap<>();
+        columns.put("age", new Object[] { 1, 2.5d, "3", null, 70 });
+        ColumnBatch batch = ColumnBatch.of(5, columns);
+        long[] selection = BatchEvaluator.evaluate(doTest("age between [2, 4] or missing is empty and age > 60"), batch);
+        Assert.assertEquals(3, Bitmaps.cardinality(selection));
+        Assert.assertTrue(Bitmaps.get(selection, 1));
+        Assert.assertTrue(Bitmaps.get(selection, 2));
+        Assert.assertTrue(Bitmaps.get(selection, 4));
+    }
+
+    @Test
+    public void testBitmaps() throws Exception {
+        long[] all = Bitmaps.all(70);
+        Assert.assertEquals(70, Bitmaps.cardinality(all));
+        Assert.assertTrue(Bitmaps.isEmpty(Bitmaps.not(all, 70)));
+        long[] bitmap = Bitmaps.create(130);
+        Bitmaps.set(bitmap, 3);
+        Bitmaps.set(bitmap, 129);
+        Assert.assertEquals(3, Bitmaps.nextSetBit(bitmap, 0));
+        Assert.assertEquals(129, Bitmaps.nextSetBit(bitmap, 4));
+        Assert.assertEquals(-1, Bitmaps.nextSetBit(bitmap, 130));
+        Assert.assertEquals(128, Bitmaps.cardinality(Bitmaps.not(bitmap, 130)));
+    }
+}
@@ -0,0 +1,128 @@
+package org.talend.tql.eval;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.talend.tql.model.TqlElement;
+
+public class TestTqlEval_Incremental extends TestTqlEval_Abstract {
+
+    @Test
+    public void testInsertUpdateDelete() throws Exception {
+        IncrementalMatcher<Integer, Map<String, Object>> matcher = new IncrementalMatcher<>(
+                doTest("age > 30 and not (name contains 'noi')"), MAP_ACCESSOR);
+
+        MatchChanges<Integer> changes = matcher.upsert(1, record("ghassen", 35, true));
+        Assert.assertEquals(Collections.singleton(1), changes.getAdded());
+        Assert.assertTrue(changes.getRemoved().isEmpty());
+
+        Assert.assertTrue(matcher.upsert(2, record("Benoit", 35, true)).isEmpty());
+        Assert.assertEquals(Collections.singleton(1), matcher.getMatches());
+
+        // Unrelated change: nothing to report
+        Assert.assertTrue(matcher.upsert(1, record("ghassen", 35, false)).isEmpty());
+
+        changes = matcher.upsert(1, record("ghassen", 20, false));
+        Assert.assertEquals(Collections.singleton(1), changes.getRemoved());
+        Assert.assertFalse(matcher.matches(1));
+
+        changes = matcher.upsert(2, record("Ben", 35, true));
+        Assert.assertEquals(Collections.singleton(2), changes.getAdded());
+
+        changes = matcher.delete(2);
+        Assert.assertEquals(Collections.singleton(2), changes.getRemoved());
+        Assert.assertTrue(matcher.delete(2).isEmpty());
+        Assert.assertTrue(matcher.delete(1).isEmpty());
+        Assert.assertEquals(0, matcher.size());
+    }
+
+    @Test
+    public void testApply() throws Exception {
+        IncrementalMatcher<Integer, Map<String, Object>> matcher = new IncrementalMatcher<>(doTest("name is empty"),
+                MAP_ACCESSOR);
+        Map<Integer, Map<String, Object>> upserts = new LinkedHashMap<>();
+        upserts.put(1, record("", 1, true));
+        upserts.put(2, record("a", 1, true));
+        upserts.put(3, record(null, 1, true));
+        MatchChanges<Integer> changes = matcher.apply(upserts, Collections.singleton(3));
+        // 3 was added then deleted in the same changes
+        Assert.assertEquals(Collections.singleton(1), changes.getAdded());
+        Assert.assertTrue(changes.getRemoved().isEmpty());
+        Assert.assertEquals(2, matcher.size());
+    }
+
+    @Test
+    public void testOnlyChangedClausesAreEvaluated() throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        FieldAccessor<Map<String, Object>> countingAccessor = (record, field) -> {
+            if ("name".equals(field)) {
+                reads.incrementAndGet();
+            }
+            return record.get(field);
+        };
+        IncrementalMatcher<Integer, Map<String, Object>> matcher = new IncrementalMatcher<>(
+                doTest("name contains 'a' or age > 30"), countingAccessor);
+        matcher.upsert(1, record("ghassen", 20, true));
+        int readsAfterInsert = reads.get();
+        // Only the age clause is re-evaluated: name is read once to detect changes, not to evaluate the clause
+        matcher.upsert(1, record("ghassen", 40, true));
+        Assert.assertEquals(readsAfterInsert + 1, reads.get());
+    }
+
+    @Test
+    public void testSameResultsAsPredicate() throws Exception {
+        String[] queries = { "age > 30 and not (name contains 'noi')", "name in ['a', 'b'] or age between [10, 20]",
+                "not (name = field(other) or age <= 5) and name complies 'a'", "name is empty or isGoodBoy = true" };
+        String[] names = { "a", "b", "c", "", null, "Benoit" };
+        Random random = new Random(42);
+        for (String query : queries) {
+            TqlElement expression = doTest(query);
+            Predicate<Map<String, Object>> predicate = PredicateVisitor.compile(expression, MAP_ACCESSOR);
+            IncrementalMatcher<Integer, Map<String, Object>> matcher = new IncrementalMatcher<>(expression, MAP_ACCESSOR);
+            Map<Integer, Map<String, Object>> dataset = new HashMap<>();
+            Set<Integer> expected = new HashSet<>();
+            for (int i = 0; i < 2000; i++) {
+                Integer key = random.nextInt(50);
+                Set<Integer> before = new HashSet<>(expected);
+                MatchChanges<Integer> changes;
+                if (random.nextInt(5) == 0) {
+                    dataset.remove(key);
+                    expected.remove(key);
+                    changes = matcher.delete(key);
+                } else {
+                    Map<String, Object> record = record(names[random.nextInt(names.length)], random.nextInt(40),
+                            random.nextBoolean());
+                    record.put("other", names[random.nextInt(names.length)]);
+                    dataset.put(key, record);
+                    if (predicate.test(record)) {
+                        expected.add(key);
+                    } else {
+                        expected.remove(key);
+                    }
+                    changes = matcher.upsert(key, record);
+                }
+                Assert.assertEquals(query, expected, matcher.getMatches());
+                Set<Integer> replayed = new HashSet<>(before);
+                replayed.removeAll(changes.getRemoved());
+                replayed.addAll(changes.getAdded());
+                Assert.assertEquals(query, expected, replayed);
+                Assert.assertEquals(dataset.size(), matcher.size());
+            }
+        }
+    }
+
+    @Test
+    public void testUnsupportedExpression() throws Exception {
+        expectedException.expectMessage("Unsupported expression");
+        new IncrementalMatcher<>(doTest("name is valid"), MAP_ACCESSOR);
+    }
+}
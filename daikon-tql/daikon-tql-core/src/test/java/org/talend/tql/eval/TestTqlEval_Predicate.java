@@ -0,0 +1,83 @@
+package org.talend.tql.eval;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestTqlEval_Predicate extends TestTqlEval_Abstract {
+
+    @Test
+    public void testEqualsString() throws Exception {
+        Assert.assertEquals(Collections.singletonList("Benoit"), filter("name = 'Benoit'"));
+    }
+
+    @Test
+    public void testNotEqualsIncludesMissingValues() throws Exception {
+        Assert.assertEquals(Arrays.asList("ghassen", "Ghassen", "Benoit 2eme", "", null), filter("name != 'Benoit'"));
+    }
+
+    @Test
+    public void testNumericComparisons() throws Exception {
+        Assert.assertEquals(Arrays.asList("Benoit", "Benoit 2eme"), filter("age = 29 or age = 28.8"));
+        Assert.assertEquals(Arrays.asList("Benoit", "Benoit 2eme", ""), filter("age < 30"));
+        Assert.assertEquals(Arrays.asList("ghassen", "Benoit", "Benoit 2eme", ""), filter("age <= 30"));
+        Assert.assertEquals(Collections.singletonList("Ghassen"), filter("age > 30"));
+        Assert.assertEquals(Arrays.asList("ghassen", "Ghassen"), filter("age >= 30"));
+    }
+
+    @Test
+    public void testBoolean() throws Exception {
+        Assert.assertEquals(Arrays.asList("ghassen", ""), filter("isGoodBoy = true"));
+    }
+
+    @Test
+    public void testFieldComparison() throws Exception {
+        Assert.assertEquals(Arrays.asList("ghassen", "Ghassen", "Benoit", "Benoit 2eme", ""), filter("name = field(name)"));
+    }
+
+    @Test
+    public void testIn() throws Exception {
+        Assert.assertEquals(Arrays.asList("ghassen", "Benoit"), filter("name in ['Benoit', 'ghassen']"));
+        Assert.assertEquals(Arrays.asList("Benoit", ""), filter("age in [10, 29]"));
+    }
+
+    @Test
+    public void testBetween() throws Exception {
+        Assert.assertEquals(Arrays.asList("Benoit", "Benoit 2eme"), filter("age between [28, 30]"));
+    }
+
+    @Test
+    public void testIsEmpty() throws Exception {
+        Assert.assertEquals(Arrays.asList("", null), filter("name is empty"));
+    }
+
+    @Test
+    public void testContains() throws Exception {
+        Assert.assertEquals(Arrays.asList("ghassen", "Ghassen"), filter("name contains 'ssen'"));
+    }
+
+    @Test
+    public void testComplies() throws Exception {
+        Assert.assertEquals(Collections.singletonList("Benoit"), filter("name complies 'Aaaaaa'"));
+        Assert.assertEquals(Collections.singletonList("Benoit 2eme"), filter("name complies 'Aaaaaa 9aaa'"));
+    }
+
+    @Test
+    public void testMatches() throws Exception {
+        Assert.assertEquals(Arrays.asList("ghassen", "Ghassen"), filter("name ~ '^[gG]'"));
+    }
+
+    @Test
+    public void testNot() throws Exception {
+        Assert.assertEquals(Arrays.asList("ghassen", "Ghassen", "", null), filter("not (name contains 'noi')"));
+        Assert.assertEquals(Arrays.asList("Benoit", "Benoit 2eme"), filter("not (not (name contains 'noi'))"));
+    }
+
+    @Test
+    public void testIsValidUnsupported() throws Exception {
+        expectedException.expectMessage("Unsupported expression");
+        filter("name is valid");
+    }
+}
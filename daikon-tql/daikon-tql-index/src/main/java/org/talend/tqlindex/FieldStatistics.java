@@ -0,0 +1,90 @@
+package org.talend.tqlindex;
+
+/**
+ * Cardinality statistics of an indexed field, computed when the index is built.
+ */
+public class FieldStatistics {
+
+    private final String field;
+
+    private final int count;
+
+    private final int nullCount;
+
+    private final int numericCount;
+
+    private final int distinctCount;
+
+    private final double min;
+
+    private final double max;
+
+    FieldStatistics(String field, int count, int nullCount, int numericCount, int distinctCount, double min, double max) {
+        this.field = field;
+        this.count = count;
+        this.nullCount = nullCount;
+        this.numericCount = numericCount;
+        this.distinctCount = distinctCount;
+        this.min = min;
+        this.max = max;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    /**
+     * @return the number of indexed records.
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * @return the number of records without value for the field.
+     */
+    public int getNullCount() {
+        return nullCount;
+    }
+
+    /**
+     * @return the number of records with a numeric value for the field.
+     */
+    public int getNumericCount() {
+        return numericCount;
+    }
+
+    /**
+     * @return the number of distinct (non null) values, <code>-1</code> if the field has no hash index.
+     */
+    public int getDistinctCount() {
+        return distinctCount;
+    }
+
+    /**
+     * @return the smallest numeric value, {@link Double#NaN} if the field has no numeric value.
+     */
+    public double getMin() {
+        return min;
+    }
+
+    /**
+     * @return the largest numeric value, {@link Double#NaN} if the field has no numeric value.
+     */
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * @return the average number of records per distinct value, the expected result size of an equality lookup.
+     */
+    public double getAverageFrequency() {
+        return distinctCount > 0 ? (double) (count - nullCount) / distinctCount : 0;
+    }
+
+    @Override
+    public String toString() {
+        return "FieldStatistics{" + "field='" + field + '\'' + ", count=" + count + ", nullCount=" + nullCount
+                + ", numericCount=" + numericCount + ", distinctCount=" + distinctCount + ", min=" + min + ", max=" + max + '}';
+    }
+}
@@ -0,0 +1,83 @@
+package org.talend.tqlindex;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Equality index of a field: record numbers (ascending) by value. Values are indexed both by number (when numeric,
+ * for numeric literals) and by string (for quoted literals), as read by {@link org.talend.tql.eval.ColumnBatch}.
+ */
+class HashIndex {
+
+    private static final int[] NONE = new int[0];
+
+    private final Map<Double, int[]> numbers;
+
+    private final Map<String, int[]> strings;
+
+    private HashIndex(Map<Double, int[]> numbers, Map<String, int[]> strings) {
+        this.numbers = numbers;
+        this.strings = strings;
+    }
+
+    /**
+     * @param numbers numeric values of the field ({@link Double#NaN} if not numeric).
+     * @param strings string values of the field (<code>null</code> if missing).
+     */
+    static HashIndex build(double[] numbers, String[] strings) {
+        return new HashIndex(group(numbers.length, row -> Double.isNaN(numbers[row]) ? null : key(numbers[row])),
+                group(strings.length, row -> strings[row]));
+    }
+
+    /**
+     * @return records with the given numeric value.
+     */
+    int[] lookup(double number) {
+        int[] rows = numbers.get(key(number));
+        return rows == null ? NONE : rows;
+    }
+
+    /**
+     * @return records with the given string value.
+     */
+    int[] lookup(String value) {
+        int[] rows = strings.get(value);
+        return rows == null ? NONE : rows;
+    }
+
+    int distinctCount() {
+        return strings.size();
+    }
+
+    private static Double key(double number) {
+        // -0.0 and 0.0 are equal numbers but not equal Doubles
+        return number == 0 ? 0d : number;
+    }
+
+    /**
+     * Groups records by key, a first pass counts records per key so that a second pass fills exactly sized arrays.
+     */
+    private static <K> Map<K, int[]> group(int size, IntFunction<K> keys) {
+        Map<K, int[]> counts = new HashMap<>();
+        for (int row = 0; row < size; row++) {
+            K key = keys.apply(row);
+            if (key != null) {
+                counts.computeIfAbsent(key, k -> new int[1])[0]++;
+            }
+        }
+        Map<K, int[]> rows = new HashMap<>(counts.size() * 4 / 3 + 1);
+        for (Map.Entry<K, int[]> count : counts.entrySet()) {
+            rows.put(count.getKey(), new int[count.getValue()[0]]);
+            // Reuse the counter as fill position
+            count.getValue()[0] = 0;
+        }
+        for (int row = 0; row < size; row++) {
+            K key = keys.apply(row);
+            if (key != null) {
+                rows.get(key)[counts.get(key)[0]++] = row;
+            }
+        }
+        return rows;
+    }
+}
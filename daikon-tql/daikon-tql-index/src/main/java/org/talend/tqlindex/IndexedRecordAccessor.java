@@ -0,0 +1,30 @@
+package org.talend.tqlindex;
+
+import org.apache.avro.Schema;
+import org.apache.avro.generic.IndexedRecord;
+import org.talend.tql.eval.FieldAccessor;
+
+/**
+ * Reads TQL fields from Avro {@link IndexedRecord}s: a field is either a field of the record schema, or a dotted path
+ * (<code>address.city</code>) to a field of a nested record.
+ */
+public class IndexedRecordAccessor implements FieldAccessor<IndexedRecord> {
+
+    public static final IndexedRecordAccessor INSTANCE = new IndexedRecordAccessor();
+
+    @Override
+    public Object get(IndexedRecord record, String field) {
+        Schema.Field schemaField = record.getSchema().getField(field);
+        if (schemaField != null) {
+            return record.get(schemaField.pos());
+        }
+        int dot = field.indexOf('.');
+        if (dot > 0) {
+            Object parent = get(record, field.substring(0, dot));
+            if (parent instanceof IndexedRecord) {
+                return get((IndexedRecord) parent, field.substring(dot + 1));
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,93 @@
+package org.talend.tqlindex;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.talend.tql.eval.Bitmaps;
+import org.talend.tql.model.Expression;
+
+/**
+ * Execution plan of a TQL query over a {@link TqlIndex}: candidate records are read from the index of one conjunct of
+ * the query (the most selective one), the remaining conjuncts are evaluated as a residual predicate on candidates only.
+ * Without any usable index, all records are scanned.
+ *
+ * @param <T> the record type.
+ */
+public class QueryPlan<T> {
+
+    /**
+     * Candidate records provided by an index.
+     */
+    interface IndexAccess {
+
+        /**
+         * @return the number of candidates (an upper bound when the same record may be returned several times).
+         */
+        int count();
+
+        /**
+         * Sets candidate record numbers in the bitmap.
+         */
+        void collect(long[] bitmap);
+    }
+
+    private final List<T> records;
+
+    private final Expression indexedExpression;
+
+    private final IndexAccess access;
+
+    private final Predicate<T> residual;
+
+    QueryPlan(List<T> records, Expression indexedExpression, IndexAccess access, Predicate<T> residual) {
+        this.records = records;
+        this.indexedExpression = indexedExpression;
+        this.access = access;
+        this.residual = residual;
+    }
+
+    /**
+     * @return the conjunct of the query answered by an index, <code>null</code> for a full scan.
+     */
+    public Expression getIndexedExpression() {
+        return indexedExpression;
+    }
+
+    /**
+     * @return the number of records the residual predicate is evaluated on.
+     */
+    public int getCandidateCount() {
+        return access == null ? records.size() : access.count();
+    }
+
+    /**
+     * @return the records matching the query, in their original order.
+     */
+    public List<T> execute() {
+        List<T> result = new ArrayList<>();
+        if (access == null) {
+            for (T record : records) {
+                if (residual == null || residual.test(record)) {
+                    result.add(record);
+                }
+            }
+            return result;
+        }
+        long[] candidates = Bitmaps.create(records.size());
+        access.collect(candidates);
+        for (int row = Bitmaps.nextSetBit(candidates, 0); row >= 0; row = Bitmaps.nextSetBit(candidates, row + 1)) {
+            T record = records.get(row);
+            if (residual == null || residual.test(record)) {
+                result.add(record);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryPlan{" + "indexedExpression=" + (indexedExpression == null ? "<full scan>" : indexedExpression)
+                + ", candidateCount=" + getCandidateCount() + ", residual=" + (residual != null) + '}';
+    }
+}
@@ -0,0 +1,174 @@
+package org.talend.tqlindex;
+
+import org.talend.tql.model.ComparisonOperator;
+
+/**
+ * Range index of a field: the numeric values of the field sorted in ascending order, with their record numbers.
+ * Records without numeric value are not indexed.
+ */
+class SortedIndex {
+
+    private final double[] values;
+
+    private final int[] rows;
+
+    private SortedIndex(double[] values, int[] rows) {
+        this.values = values;
+        this.rows = rows;
+    }
+
+    /**
+     * @param numbers numeric values of the field ({@link Double#NaN} if not numeric).
+     */
+    static SortedIndex build(double[] numbers) {
+        int count = 0;
+        for (double number : numbers) {
+            if (!Double.isNaN(number)) {
+                count++;
+            }
+        }
+        double[] values = new double[count];
+        int[] rows = new int[count];
+        int i = 0;
+        for (int row = 0; row < numbers.length; row++) {
+            if (!Double.isNaN(numbers[row])) {
+                values[i] = numbers[row];
+                rows[i++] = row;
+            }
+        }
+        sort(values, rows, 0, count - 1);
+        return new SortedIndex(values, rows);
+    }
+
+    /**
+     * @return the range of positions (<code>[from, to[</code>) of values matching <code>value operator number</code>,
+     * <code>null</code> for <code>!=</code> which is not a range.
+     */
+    int[] range(ComparisonOperator.Enum operator, double number) {
+        switch (operator) {
+        case EQ:
+            return new int[] { lowerBound(number), upperBound(number) };
+        case LT:
+            return new int[] { 0, lowerBound(number) };
+        case LET:
+            return new int[] { 0, upperBound(number) };
+        case GT:
+            return new int[] { upperBound(number), values.length };
+        case GET:
+            return new int[] { lowerBound(number), values.length };
+        default:
+            return null;
+        }
+    }
+
+    /**
+     * @return the range of positions (<code>[from, to[</code>) of values in <code>[low, high[</code>.
+     */
+    int[] between(double low, double high) {
+        int from = lowerBound(low);
+        return new int[] { from, Math.max(from, lowerBound(high)) };
+    }
+
+    /**
+     * @return the record number at a position of the index.
+     */
+    int row(int position) {
+        return rows[position];
+    }
+
+    /**
+     * @return the first position with a value greater or equal to <code>number</code>.
+     */
+    private int lowerBound(double number) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] < number) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return the first position with a value strictly greater than <code>number</code>.
+     */
+    private int upperBound(double number) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (values[middle] <= number) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Sorts values (and rows along) with a quicksort on primitive arrays, to avoid boxing millions of records.
+     */
+    private static void sort(double[] values, int[] rows, int low, int high) {
+        while (high - low > 16) {
+            int middle = (low + high) >>> 1;
+            // Median of three as pivot
+            if (values[middle] < values[low]) {
+                swap(values, rows, middle, low);
+            }
+            if (values[high] < values[low]) {
+                swap(values, rows, high, low);
+            }
+            if (values[high] < values[middle]) {
+                swap(values, rows, high, middle);
+            }
+            double pivot = values[middle];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (values[i] < pivot) {
+                    i++;
+                }
+                while (values[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(values, rows, i++, j--);
+                }
+            }
+            // Recurse on the smaller part, loop on the larger one
+            if (j - low < high - i) {
+                sort(values, rows, low, j);
+                low = i;
+            } else {
+                sort(values, rows, i, high);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            double value = values[i];
+            int row = rows[i];
+            int j = i - 1;
+            while (j >= low && values[j] > value) {
+                values[j + 1] = values[j];
+                rows[j + 1] = rows[j];
+                j--;
+            }
+            values[j + 1] = value;
+            rows[j + 1] = row;
+        }
+    }
+
+    private static void swap(double[] values, int[] rows, int i, int j) {
+        double value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+        int row = rows[i];
+        rows[i] = rows[j];
+        rows[j] = row;
+    }
+}
@@ -0,0 +1,284 @@
+package org.talend.tqlindex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import org.apache.avro.generic.IndexedRecord;
+import org.talend.tql.eval.ColumnBatch;
+import org.talend.tql.eval.FieldAccessor;
+import org.talend.tql.eval.PredicateVisitor;
+import org.talend.tql.model.AndExpression;
+import org.talend.tql.model.ComparisonExpression;
+import org.talend.tql.model.ComparisonOperator;
+import org.talend.tql.model.Expression;
+import org.talend.tql.model.FieldBetweenExpression;
+import org.talend.tql.model.FieldInExpression;
+import org.talend.tql.model.LiteralValue;
+import org.talend.tql.model.OrExpression;
+import org.talend.tql.model.TqlElement;
+
+/**
+ * Secondary indexes over an in-memory collection of records, used to answer TQL queries without a full scan.
+ * <p>
+ * Hash indexes answer <code>=</code> and <code>in</code>, sorted (numeric) indexes answer <code>&lt;</code>,
+ * <code>&lt;=</code>, <code>&gt;</code>, <code>&gt;=</code>, <code>=</code> and <code>between</code>. For a query, the
+ * {@link #plan(TqlElement) planner} computes the exact number of candidates of each indexable conjunct (a hash lookup or
+ * two binary searches), reads the most selective one from its index and evaluates the rest of the query on these
+ * candidates only. Results are the same as {@link PredicateVisitor}.
+ * </p>
+ * <p>
+ * Indexes are built once for the given records and are not updated: the collection must not change afterwards. Once
+ * built, an index can be queried by several threads.
+ * </p>
+ *
+ * @param <T> the record type.
+ */
+public class TqlIndex<T> {
+
+    private final List<T> records;
+
+    private final Map<String, HashIndex> hashIndexes = new HashMap<>();
+
+    private final Map<String, SortedIndex> sortedIndexes = new HashMap<>();
+
+    private final Map<String, FieldStatistics> statistics = new HashMap<>();
+
+    private final FieldAccessor<T> accessor;
+
+    /**
+     * Builds the indexes.
+     *
+     * @param records the records to index.
+     * @param accessor the accessor used to read record fields.
+     * @param hashFields fields to index for equality lookups.
+     * @param sortedFields fields to index for numeric range lookups.
+     */
+    public TqlIndex(List<T> records, FieldAccessor<T> accessor, Collection<String> hashFields, Collection<String> sortedFields) {
+        this.records = records;
+        this.accessor = accessor;
+        ColumnBatch columns = ColumnBatch.of(records, accessor);
+        Set<String> fields = new LinkedHashSet<>(hashFields);
+        fields.addAll(sortedFields);
+        for (String field : fields) {
+            double[] numbers = columns.numbers(field);
+            String[] strings = columns.strings(field);
+            int distinctCount = -1;
+            if (hashFields.contains(field)) {
+                HashIndex hashIndex = HashIndex.build(numbers, strings);
+                hashIndexes.put(field, hashIndex);
+                distinctCount = hashIndex.distinctCount();
+            }
+            if (sortedFields.contains(field)) {
+                sortedIndexes.put(field, SortedIndex.build(numbers));
+            }
+            statistics.put(field, statistics(field, numbers, strings, distinctCount));
+        }
+    }
+
+    /**
+     * Builds indexes over Avro records.
+     *
+     * @see #TqlIndex(List, FieldAccessor, Collection, Collection)
+     */
+    public static TqlIndex<IndexedRecord> of(List<IndexedRecord> records, Collection<String> hashFields,
+            Collection<String> sortedFields) {
+        return new TqlIndex<>(records, IndexedRecordAccessor.INSTANCE, hashFields, sortedFields);
+    }
+
+    /**
+     * @return the statistics of an indexed field, <code>null</code> if the field is not indexed.
+     */
+    public FieldStatistics getStatistics(String field) {
+        return statistics.get(field);
+    }
+
+    /**
+     * @return the records matching the query, in their original order.
+     */
+    public List<T> filter(TqlElement expression) {
+        return plan(expression).execute();
+    }
+
+    /**
+     * Chooses how to execute a query.
+     *
+     * @param expression the TQL query.
+     * @return the execution plan.
+     */
+    public QueryPlan<T> plan(TqlElement expression) {
+        List<Expression> conjuncts = new ArrayList<>();
+        flatten(expression, conjuncts);
+        int best = -1;
+        QueryPlan.IndexAccess bestAccess = null;
+        for (int i = 0; i < conjuncts.size(); i++) {
+            QueryPlan.IndexAccess access = access(conjuncts.get(i));
+            if (access != null && (bestAccess == null || access.count() < bestAccess.count())) {
+                best = i;
+                bestAccess = access;
+            }
+        }
+        Expression indexed = best < 0 ? null : conjuncts.remove(best);
+        Predicate<T> residual = null;
+        if (!conjuncts.isEmpty()) {
+            Expression remaining = conjuncts.size() == 1 ? conjuncts.get(0)
+                    : new AndExpression(conjuncts.toArray(new Expression[conjuncts.size()]));
+            residual = PredicateVisitor.compile(remaining, accessor);
+        }
+        return new QueryPlan<>(records, indexed, bestAccess, residual);
+    }
+
+    /**
+     * Collects the conjuncts of an expression, looking through the single-child <code>or</code> and <code>and</code>
+     * nodes the TQL parser wraps atoms in.
+     */
+    private static void flatten(TqlElement expression, List<Expression> conjuncts) {
+        if (expression instanceof AndExpression) {
+            for (Expression child : ((AndExpression) expression).getExpressions()) {
+                flatten(child, conjuncts);
+            }
+        } else if (expression instanceof OrExpression && ((OrExpression) expression).getExpressions().length == 1) {
+            flatten(((OrExpression) expression).getExpressions()[0], conjuncts);
+        } else {
+            conjuncts.add((Expression) expression);
+        }
+    }
+
+    /**
+     * @return how to read the candidates of a conjunct from an index, <code>null</code> if no index can be used.
+     */
+    private QueryPlan.IndexAccess access(Expression conjunct) {
+        if (conjunct instanceof ComparisonExpression) {
+            ComparisonExpression comparison = (ComparisonExpression) conjunct;
+            if (!(comparison.getValueOrField() instanceof LiteralValue)) {
+                return null;
+            }
+            String field = comparison.getField().getPath();
+            ComparisonOperator.Enum operator = comparison.getOperator().getOperator();
+            LiteralValue literal = (LiteralValue) comparison.getValueOrField();
+            HashIndex hashIndex = hashIndexes.get(field);
+            if (operator == ComparisonOperator.Enum.EQ && hashIndex != null) {
+                int[] rows = lookup(hashIndex, literal);
+                return rows == null ? null : rows(Collections.singletonList(rows));
+            }
+            SortedIndex sortedIndex = sortedIndexes.get(field);
+            if (sortedIndex != null && isNumeric(literal)) {
+                int[] range = sortedIndex.range(operator, Double.parseDouble(literal.getValue()));
+                return range == null ? null : range(sortedIndex, range);
+            }
+        } else if (conjunct instanceof FieldInExpression) {
+            FieldInExpression in = (FieldInExpression) conjunct;
+            HashIndex hashIndex = hashIndexes.get(in.getFieldName());
+            if (hashIndex == null) {
+                return null;
+            }
+            List<int[]> rows = new ArrayList<>();
+            for (LiteralValue literal : in.getValues()) {
+                int[] valueRows = lookup(hashIndex, literal);
+                if (valueRows == null) {
+                    return null;
+                }
+                rows.add(valueRows);
+            }
+            return rows(rows);
+        } else if (conjunct instanceof FieldBetweenExpression) {
+            FieldBetweenExpression between = (FieldBetweenExpression) conjunct;
+            SortedIndex sortedIndex = sortedIndexes.get(between.getFieldName());
+            if (sortedIndex != null && isNumeric(between.getLeft()) && isNumeric(between.getRight())) {
+                return range(sortedIndex, sortedIndex.between(Double.parseDouble(between.getLeft().getValue()),
+                        Double.parseDouble(between.getRight().getValue())));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the records equal to the literal, <code>null</code> if the literal cannot be looked up (booleans compare
+     * case insensitively).
+     */
+    private static int[] lookup(HashIndex hashIndex, LiteralValue literal) {
+        switch (literal.getLiteral()) {
+        case INT:
+        case DECIMAL:
+            return hashIndex.lookup(Double.parseDouble(literal.getValue()));
+        case QUOTED_VALUE:
+            return hashIndex.lookup(literal.getValue());
+        default:
+            return null;
+        }
+    }
+
+    private static boolean isNumeric(LiteralValue literal) {
+        return literal.getLiteral() == LiteralValue.Enum.INT || literal.getLiteral() == LiteralValue.Enum.DECIMAL;
+    }
+
+    private static QueryPlan.IndexAccess rows(List<int[]> rows) {
+        return new QueryPlan.IndexAccess() {
+
+            @Override
+            public int count() {
+                int count = 0;
+                for (int[] valueRows : rows) {
+                    count += valueRows.length;
+                }
+                return count;
+            }
+
+            @Override
+            public void collect(long[] bitmap) {
+                for (int[] valueRows : rows) {
+                    for (int row : valueRows) {
+                        bitmap[row >>> 6] |= 1L << row;
+                    }
+                }
+            }
+        };
+    }
+
+    private static QueryPlan.IndexAccess range(SortedIndex sortedIndex, int[] range) {
+        return new QueryPlan.IndexAccess() {
+
+            @Override
+            public int count() {
+                return range[1] - range[0];
+            }
+
+            @Override
+            public void collect(long[] bitmap) {
+                for (int position = range[0]; position < range[1]; position++) {
+                    int row = sortedIndex.row(position);
+                    bitmap[row >>> 6] |= 1L << row;
+                }
+            }
+        };
+    }
+
+    private static FieldStatistics statistics(String field, double[] numbers, String[] strings, int distinctCount) {
+        int nullCount = 0;
+        int numericCount = 0;
+        double min = Double.NaN;
+        double max = Double.NaN;
+        for (int row = 0; row < strings.length; row++) {
+            if (strings[row] == null) {
+                nullCount++;
+            }
+            double number = numbers[row];
+            if (!Double.isNaN(number)) {
+                numericCount++;
+                if (Double.isNaN(min) || number < min) {
+                    min = number;
+                }
+                if (Double.isNaN(max) || number > max) {
+                    max = number;
+                }
+            }
+        }
+        return new FieldStatistics(field, strings.length, nullCount, numericCount, distinctCount, min, max);
+    }
+}
@@ -0,0 +1,131 @@
+package org.talend.tqlindex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.IndexedRecord;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.talend.tql.eval.PredicateVisitor;
+import org.talend.tql.model.Expression;
+import org.talend.tql.parser.Tql;
+
+public class TestTqlIndex {
+
+    private static final Schema ADDRESS = SchemaBuilder.record("address").fields() //
+            .name("city").type().nullable().stringType().noDefault() //
+            .endRecord();
+
+    private static final Schema PERSON = SchemaBuilder.record("person").fields() //
+            .name("id").type().intType().noDefault() //
+            .name("name").type().nullable().stringType().noDefault() //
+            .name("age").type().nullable().doubleType().noDefault() //
+            .name("address").type(ADDRESS).noDefault() //
+            .endRecord();
+
+    private static final String[] NAMES = { "ghassen", "Ghassen", "Benoit", "Benoit 2eme", "", null };
+
+    private static final String[] CITIES = { "Nantes", "Paris", "Suresnes", null };
+
+    private List<IndexedRecord> records;
+
+    private TqlIndex<IndexedRecord> index;
+
+    @Before
+    public void setup() {
+        Random random = new Random(42);
+        records = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            GenericData.Record address = new GenericData.Record(ADDRESS);
+            address.put("city", CITIES[random.nextInt(CITIES.length)]);
+            GenericData.Record person = new GenericData.Record(PERSON);
+            person.put("id", i);
+            person.put("name", NAMES[random.nextInt(NAMES.length)]);
+            person.put("age", random.nextInt(10) == 0 ? null : random.nextInt(800) / 10d);
+            person.put("address", address);
+            records.add(person);
+        }
+        index = TqlIndex.of(records, Arrays.asList("id", "name", "address.city"), Arrays.asList("id", "age"));
+    }
+
+    @Test
+    public void testEqualsUsesHashIndex() throws Exception {
+        QueryPlan<IndexedRecord> plan = index.plan(Tql.parse("id = 42"));
+        Assert.assertNotNull(plan.getIndexedExpression());
+        Assert.assertEquals(1, plan.getCandidateCount());
+        Assert.assertEquals(42, plan.execute().get(0).get(0));
+    }
+
+    @Test
+    public void testMostSelectiveConjunctIsIndexed() throws Exception {
+        QueryPlan<IndexedRecord> plan = index.plan(Tql.parse("name = 'Benoit' and id < 100 and age > 10"));
+        Assert.assertEquals(100, plan.getCandidateCount());
+        Assert.assertTrue(plan.getIndexedExpression().toString().contains("path='id'"));
+        assertSameAsScan("name = 'Benoit' and id < 100 and age > 10");
+    }
+
+    @Test
+    public void testNestedField() throws Exception {
+        QueryPlan<IndexedRecord> plan = index.plan(Tql.parse("address.city = 'Paris' and age between [10, 20]"));
+        Assert.assertNotNull(plan.getIndexedExpression());
+        assertSameAsScan("address.city = 'Paris' and age between [10, 20]");
+    }
+
+    @Test
+    public void testFullScan() throws Exception {
+        QueryPlan<IndexedRecord> plan = index.plan(Tql.parse("name contains 'ssen' or id = 3"));
+        Assert.assertNull(plan.getIndexedExpression());
+        Assert.assertEquals(records.size(), plan.getCandidateCount());
+        assertSameAsScan("name contains 'ssen' or id = 3");
+    }
+
+    @Test
+    public void testSameResultsAsScan() throws Exception {
+        String[] queries = { "name = 'Benoit'", "name in ['Benoit', 'ghassen', 'nobody']", "age < 10.5", "age <= 10",
+                "age > 70", "age >= 70 and name is empty", "age = 42", "id between [10, 20]", "age between [10.5, 12]",
+                "id != 3 and age > 79", "age > 10 and not (name = 'Benoit')", "name = 'Benoit' and address.city = 'Nantes'",
+                "id in [1, 2, 3] and age < 40", "age = field(id)", "id > 6000", "name = '' and id < 50" };
+        for (String query : queries) {
+            assertSameAsScan(query);
+        }
+    }
+
+    @Test
+    public void testStatistics() throws Exception {
+        FieldStatistics name = index.getStatistics("name");
+        Assert.assertEquals(records.size(), name.getCount());
+        // 5 distinct values, including the empty string
+        Assert.assertEquals(5, name.getDistinctCount());
+        Assert.assertTrue(name.getNullCount() > 0);
+        FieldStatistics id = index.getStatistics("id");
+        Assert.assertEquals(0d, id.getMin(), 0);
+        Assert.assertEquals(4999d, id.getMax(), 0);
+        Assert.assertEquals(records.size(), id.getDistinctCount());
+        Assert.assertEquals(1d, id.getAverageFrequency(), 0);
+        Assert.assertEquals(-1, index.getStatistics("age").getDistinctCount());
+        Assert.assertNull(index.getStatistics("unknown"));
+    }
+
+    @Test
+    public void testEmptyCollection() throws Exception {
+        TqlIndex<IndexedRecord> empty = TqlIndex.of(Collections.emptyList(), Collections.singleton("id"),
+                Collections.singleton("age"));
+        Assert.assertTrue(empty.filter(Tql.parse("id = 1 and age > 3")).isEmpty());
+    }
+
+    private void assertSameAsScan(String query) {
+        Expression expression = Tql.parse(query);
+        Predicate<IndexedRecord> predicate = PredicateVisitor.compile(expression, IndexedRecordAccessor.INSTANCE);
+        List<IndexedRecord> expected = records.stream().filter(predicate).collect(Collectors.toList());
+        Assert.assertEquals(query, expected, index.filter(expression));
+    }
+}
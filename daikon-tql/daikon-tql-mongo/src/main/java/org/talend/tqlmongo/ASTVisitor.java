@@ -13,6 +13,10 @@ import org.talend.tqlmongo.excp.TqlMongoException;
 
 /**
  * Created by gmzoughi on 30/06/16.
+ * <p>
+ * Instances keep the negation state of the current traversal and must not be shared between threads, see
+ * {@link MongoCriteriaTranslator} for a thread-safe alternative.
+ * </p>
  */
 public class ASTVisitor implements IASTVisitor<Object> {
 
@@ -68,7 +72,7 @@ public class ASTVisitor implements IASTVisitor<Object> {
         }).collect(Collectors.toList());
         if (criteria.size() == 1)
             return criteria.get(0);
-        if (!isNegation)
+        if (!isNegation())
             return new Criteria().andOperator(criteria.toArray(new Criteria[criteria.size()]));
         return new Criteria().orOperator(criteria.toArray(new Criteria[criteria.size()]));
     }
@@ -85,7 +89,7 @@ public class ASTVisitor implements IASTVisitor<Object> {
         }).collect(Collectors.toList());
         if (criteria.size() == 1)
             return criteria.get(0);
-        if (!isNegation)
+        if (!isNegation())
             return new Criteria().orOperator(criteria.toArray(new Criteria[criteria.size()]));
         return new Criteria().andOperator(criteria.toArray(new Criteria[criteria.size()]));
     }
@@ -102,27 +106,27 @@ public class ASTVisitor implements IASTVisitor<Object> {
         Criteria cr = Criteria.where(f);
         switch (o) {
         case EQ:
-            if (!isNegation)
+            if (!isNegation())
                 return cr.is(v);
             return cr.ne(v);
         case NEQ:
-            if (!isNegation)
+            if (!isNegation())
                 return cr.ne(v);
             return cr.is(v);
         case LT:
-            if (!isNegation)
+            if (!isNegation())
                 return cr.lt(v);
             return cr.gte(v);
         case GT:
-            if (!isNegation)
+            if (!isNegation())
                 return cr.gt(v);
             return cr.lte(v);
         case LET:
-            if (!isNegation)
+            if (!isNegation())
                 return cr.lte(v);
             return cr.gt(v);
         case GET:
-            if (!isNegation)
+            if (!isNegation())
                 return cr.gte(v);
             return cr.lt(v);
         default:
@@ -141,7 +145,7 @@ public class ASTVisitor implements IASTVisitor<Object> {
                 throw new TqlMongoException(e1.getMessage(), e1);
             }
         }).collect(Collectors.toList());
-        if (!isNegation)
+        if (!isNegation())
             return Criteria.where(fieldName).in(values);
         return Criteria.where(fieldName).nin(values);
     }
@@ -149,7 +153,7 @@ public class ASTVisitor implements IASTVisitor<Object> {
     @Override
     public Object visit(FieldIsEmptyExpression elt) {
         String fieldName = getFieldName(elt.getFieldName());
-        if (!isNegation) {
+        if (!isNegation()) {
             return new Criteria().orOperator(Criteria.where(fieldName).is(""), Criteria.where(fieldName).is(null));
         }
         return new Criteria().andOperator(Criteria.where(fieldName).ne(""), Criteria.where(fieldName).ne(null));
@@ -170,13 +174,13 @@ public class ASTVisitor implements IASTVisitor<Object> {
         String fieldName = getFieldName(elt.getFieldName());
         String regex = elt.getRegex();
         if (StringUtils.isEmpty(regex)) {
-            if (!isNegation)
+            if (!isNegation())
                 return Criteria.where(fieldName).is("");
             return Criteria.where(fieldName).ne("");
         }
 
         Pattern regexCompiled = Pattern.compile(regex);
-        if (!isNegation)
+        if (!isNegation())
             return Criteria.where(fieldName).regex(regexCompiled);
         return Criteria.where(fieldName).not().regex(regexCompiled);
     }
@@ -186,13 +190,13 @@ public class ASTVisitor implements IASTVisitor<Object> {
         String fieldName = getFieldName(elt.getFieldName());
         String pattern = elt.getPattern();
         if (StringUtils.isEmpty(pattern)) {
-            if (!isNegation)
+            if (!isNegation())
                 return Criteria.where(fieldName).is("");
             return Criteria.where(fieldName).ne("");
         }
         String regex = this.patternToMongoRegex(pattern);
         Pattern regexCompiled = Pattern.compile(regex);
-        if (!isNegation)
+        if (!isNegation())
             return Criteria.where(fieldName).regex(regexCompiled);
         return Criteria.where(fieldName).not().regex(regexCompiled);
     }
@@ -201,7 +205,7 @@ public class ASTVisitor implements IASTVisitor<Object> {
     public Object visit(FieldContainsExpression elt) {
         String fieldName = getFieldName(elt.getFieldName());
         String value = elt.getValue();
-        if (!isNegation)
+        if (!isNegation())
             return Criteria.where(fieldName).regex(value);
         return Criteria.where(fieldName).not().regex(value);
     }
@@ -214,7 +218,7 @@ public class ASTVisitor implements IASTVisitor<Object> {
         LiteralValue right = elt.getRight();
         Object rightValue = right.accept(this);
 
-        if (!isNegation)
+        if (!isNegation())
             return Criteria.where(fieldName).gte(leftValue).lt(rightValue);
         return new Criteria().orOperator(Criteria.where(fieldName).lt(leftValue), Criteria.where(fieldName).gte(rightValue));
     }
@@ -231,7 +235,10 @@ public class ASTVisitor implements IASTVisitor<Object> {
         return c;
     }
 
-    // May be needed in sub-classes.
+    /**
+     * @return <code>true</code> if the element being visited is negated (sub-classes may carry the negation
+     * differently, see {@link CriteriaVisitor}).
+     */
     protected boolean isNegation() {
         return isNegation;
     }
@@ -241,6 +248,16 @@ public class ASTVisitor implements IASTVisitor<Object> {
     }
 
     protected String patternToMongoRegex(String pattern) {
+        return toMongoRegex(pattern);
+    }
+
+    /**
+     * Converts a TQL "complies" pattern into a PCRE regular expression (as used by MongoDB).
+     *
+     * @param pattern the TQL pattern (a: lower case letter, A: upper case letter, 9: digit).
+     * @return the anchored regular expression.
+     */
+    static String toMongoRegex(String pattern) {
         StringBuilder sb = new StringBuilder();
         sb.append("^");
         for (int i = 0; i < pattern.length(); i++) {
@@ -264,5 +281,4 @@ public class ASTVisitor implements IASTVisitor<Object> {
         sb.append("$");
         return sb.toString();
     }
-
 }
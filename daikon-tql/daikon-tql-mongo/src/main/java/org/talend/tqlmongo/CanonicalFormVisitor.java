@@ -0,0 +1,187 @@
+package org.talend.tqlmongo;
+
+import org.talend.tql.model.*;
+import org.talend.tql.visitor.IASTVisitor;
+
+/**
+ * Writes an unambiguous string form of a TQL AST, used as cache key by {@link MongoCriteriaTranslator}: field names
+ * and values are quoted and escaped, so two different ASTs never have the same form (unlike their
+ * {@link Object#toString()}, which does not escape values).
+ */
+class CanonicalFormVisitor implements IASTVisitor<Void> {
+
+    private final StringBuilder builder = new StringBuilder();
+
+    /**
+     * @return the canonical form of the given element.
+     */
+    static String of(TqlElement elt) {
+        final CanonicalFormVisitor visitor = new CanonicalFormVisitor();
+        elt.accept(visitor);
+        return visitor.builder.toString();
+    }
+
+    @Override
+    public Void visit(TqlElement elt) {
+        // Unknown element, its class and identity make it unique
+        builder.append(elt.getClass().getName()).append('@').append(System.identityHashCode(elt));
+        return null;
+    }
+
+    @Override
+    public Void visit(ComparisonOperator elt) {
+        builder.append(elt.getOperator());
+        return null;
+    }
+
+    @Override
+    public Void visit(LiteralValue elt) {
+        builder.append(elt.getLiteral()).append(':');
+        return quote(elt.getValue());
+    }
+
+    @Override
+    public Void visit(FieldReference elt) {
+        builder.append("field:");
+        return quote(elt.getPath());
+    }
+
+    @Override
+    public Void visit(Expression elt) {
+        return visit((TqlElement) elt);
+    }
+
+    @Override
+    public Void visit(AndExpression elt) {
+        return group("and", elt.getExpressions());
+    }
+
+    @Override
+    public Void visit(OrExpression elt) {
+        return group("or", elt.getExpressions());
+    }
+
+    @Override
+    public Void visit(ComparisonExpression elt) {
+        builder.append("compare(");
+        elt.getField().accept(this);
+        builder.append(',');
+        elt.getOperator().accept(this);
+        builder.append(',');
+        elt.getValueOrField().accept(this);
+        builder.append(')');
+        return null;
+    }
+
+    @Override
+    public Void visit(FieldInExpression elt) {
+        field("in", elt.getFieldName());
+        for (LiteralValue value : elt.getValues()) {
+            builder.append(',');
+            value.accept(this);
+        }
+        builder.append(')');
+        return null;
+    }
+
+    @Override
+    public Void visit(FieldIsEmptyExpression elt) {
+        field("isEmpty", elt.getFieldName());
+        builder.append(')');
+        return null;
+    }
+
+    @Override
+    public Void visit(FieldIsValidExpression elt) {
+        field("isValid", elt.getFieldName());
+        builder.append(')');
+        return null;
+    }
+
+    @Override
+    public Void visit(FieldIsInvalidExpression elt) {
+        field("isInvalid", elt.getFieldName());
+        builder.append(')');
+        return null;
+    }
+
+    @Override
+    public Void visit(FieldMatchesRegex elt) {
+        field("matches", elt.getFieldName());
+        builder.append(',');
+        quote(elt.getRegex());
+        builder.append(')');
+        return null;
+    }
+
+    @Override
+    public Void visit(FieldCompliesPattern elt) {
+        field("complies", elt.getFieldName());
+        builder.append(',');
+        quote(elt.getPattern());
+        builder.append(')');
+        return null;
+    }
+
+    @Override
+    public Void visit(FieldBetweenExpression elt) {
+        field("between", elt.getFieldName());
+        builder.append(',');
+        elt.getLeft().accept(this);
+        builder.append(',');
+        elt.getRight().accept(this);
+        builder.append(')');
+        return null;
+    }
+
+    @Override
+    public Void visit(NotExpression elt) {
+        builder.append("not(");
+        elt.getExpression().accept(this);
+        builder.append(')');
+        return null;
+    }
+
+    @Override
+    public Void visit(FieldContainsExpression elt) {
+        field("contains", elt.getFieldName());
+        builder.append(',');
+        quote(elt.getValue());
+        builder.append(')');
+        return null;
+    }
+
+    private Void group(String operator, Expression[] expressions) {
+        builder.append(operator).append('(');
+        for (int i = 0; i < expressions.length; i++) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            expressions[i].accept(this);
+        }
+        builder.append(')');
+        return null;
+    }
+
+    private void field(String operator, String fieldName) {
+        builder.append(operator).append('(');
+        quote(fieldName);
+    }
+
+    private Void quote(String value) {
+        if (value == null) {
+            builder.append("null");
+            return null;
+        }
+        builder.append('\'');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c == '\'' || c == '\\') {
+                builder.append('\\');
+            }
+            builder.append(c);
+        }
+        builder.append('\'');
+        return null;
+    }
+}
@@ -0,0 +1,43 @@
+package org.talend.tqlmongo;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.talend.tql.model.NotExpression;
+
+/**
+ * Stateless {@link ASTVisitor}: the negation state is carried by the visitor instance itself (there is exactly one
+ * positive and one negated instance), and {@link #visit(NotExpression)} continues the traversal with the opposite
+ * instance instead of flipping a field. Both instances can therefore be shared by any number of threads, the
+ * translation itself is the one of {@link ASTVisitor}.
+ *
+ * @see MongoCriteriaTranslator
+ */
+final class CriteriaVisitor extends ASTVisitor {
+
+    static final CriteriaVisitor POSITIVE = new CriteriaVisitor(false);
+
+    static final CriteriaVisitor NEGATED = new CriteriaVisitor(true);
+
+    private final boolean negation;
+
+    private CriteriaVisitor(boolean negation) {
+        this.negation = negation;
+    }
+
+    /**
+     * @return the visitor to use for a sub-tree with the given negation.
+     */
+    static CriteriaVisitor of(boolean negation) {
+        return negation ? NEGATED : POSITIVE;
+    }
+
+    @Override
+    protected boolean isNegation() {
+        return negation;
+    }
+
+    @Override
+    public Criteria visit(NotExpression elt) {
+        // Negate sub-tree by switching to the opposite visitor, no state is modified.
+        return (Criteria) elt.getExpression().accept(of(!negation));
+    }
+}
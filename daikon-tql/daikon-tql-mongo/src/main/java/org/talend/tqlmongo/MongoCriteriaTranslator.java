@@ -0,0 +1,154 @@
+package org.talend.tqlmongo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.CriteriaDefinition;
+import org.talend.tql.model.TqlElement;
+import org.talend.tqlmongo.excp.TqlMongoException;
+
+import com.mongodb.BasicDBList;
+import com.mongodb.BasicDBObject;
+import com.mongodb.DBObject;
+
+/**
+ * Thread-safe translator of TQL expressions to MongoDB criteria.
+ * <p>
+ * Unlike {@link ASTVisitor}, a single instance can be shared by all threads: translation is done by a stateless
+ * visitor and results are returned as immutable {@link CriteriaDefinition}s. Translations are cached per canonical
+ * form of the AST (its structure with escaped names and values, see {@link CanonicalFormVisitor}), so repeated filters
+ * skip the translation step. The cache is bounded and simply cleared once it reaches its maximum size.
+ * </p>
+ * <p>
+ * Usage: <code>query.addCriteria(translator.translate(Tql.parse("name = 'value'")))</code>
+ * </p>
+ */
+public class MongoCriteriaTranslator {
+
+    /** Default maximum number of cached translations. */
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+
+    private final Map<String, CriteriaDefinition> cache = new ConcurrentHashMap<>();
+
+    private final int maxCacheSize;
+
+    public MongoCriteriaTranslator() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param maxCacheSize the maximum number of translations kept in cache, <code>0</code> disables caching.
+     */
+    public MongoCriteriaTranslator(int maxCacheSize) {
+        if (maxCacheSize < 0) {
+            throw new IllegalArgumentException("Cache size must be positive (was " + maxCacheSize + ").");
+        }
+        this.maxCacheSize = maxCacheSize;
+    }
+
+    /**
+     * Translates a TQL expression to a MongoDB criteria, reusing a previous translation of an identical expression
+     * when available.
+     *
+     * @param tqlElement the TQL expression to translate.
+     * @return an immutable criteria definition, suitable for <code>Query.addCriteria(...)</code>.
+     * @throws TqlMongoException if the expression cannot be translated.
+     */
+    public CriteriaDefinition translate(TqlElement tqlElement) {
+        if (maxCacheSize == 0) {
+            return new ImmutableCriteria(toCriteria(tqlElement));
+        }
+        final String canonical = CanonicalFormVisitor.of(tqlElement);
+        CriteriaDefinition criteria = cache.get(canonical);
+        if (criteria == null) {
+            criteria = new ImmutableCriteria(toCriteria(tqlElement));
+            if (cache.size() >= maxCacheSize) {
+                cache.clear();
+            }
+            cache.put(canonical, criteria);
+        }
+        return criteria;
+    }
+
+    /**
+     * Translates a TQL expression to a new (mutable) {@link Criteria}, without any caching.
+     *
+     * @param tqlElement the TQL expression to translate.
+     * @return a new criteria the caller may further modify.
+     * @throws TqlMongoException if the expression cannot be translated.
+     */
+    public Criteria toCriteria(TqlElement tqlElement) {
+        Object result = tqlElement.accept(CriteriaVisitor.POSITIVE);
+        if (!(result instanceof Criteria)) {
+            throw new TqlMongoException("Supplied TQL element is not an expression.");
+        }
+        return (Criteria) result;
+    }
+
+    /**
+     * A {@link CriteriaDefinition} frozen at translation time: each call to {@link #getCriteriaObject()} returns a deep
+     * copy (nested objects and lists such as the values of <code>$in</code> included), so callers cannot alter the cached
+     * value.
+     */
+    private static class ImmutableCriteria implements CriteriaDefinition {
+
+        private final String key;
+
+        private final DBObject criteriaObject;
+
+        private ImmutableCriteria(Criteria criteria) {
+            this.key = criteria.getKey();
+            // Not shared with the criteria, which may still be modified by the caller of toCriteria()
+            this.criteriaObject = (DBObject) deepCopy(criteria.getCriteriaObject());
+        }
+
+        @Override
+        public DBObject getCriteriaObject() {
+            return (DBObject) deepCopy(criteriaObject);
+        }
+
+        /**
+         * @return a copy of the documents, lists and collections of <code>value</code> (other values are immutable or
+         * not modified by the criteria users, such as patterns or dates).
+         */
+        private static Object deepCopy(Object value) {
+            if (value instanceof BasicDBList) {
+                final BasicDBList copy = new BasicDBList();
+                for (Object item : (BasicDBList) value) {
+                    copy.add(deepCopy(item));
+                }
+                return copy;
+            }
+            if (value instanceof DBObject) {
+                final DBObject document = (DBObject) value;
+                final BasicDBObject copy = new BasicDBObject();
+                for (String field : document.keySet()) {
+                    copy.put(field, deepCopy(document.get(field)));
+                }
+                return copy;
+            }
+            if (value instanceof Collection) {
+                final List<Object> copy = new ArrayList<>(((Collection<?>) value).size());
+                for (Object item : (Collection<?>) value) {
+                    copy.add(deepCopy(item));
+                }
+                return copy;
+            }
+            return value;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public String toString() {
+            return criteriaObject.toString();
+        }
+    }
+}
@@ -14,6 +14,7 @@ import org.junit.Rule;
 import org.junit.rules.ExpectedException;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.CriteriaDefinition;
 import org.springframework.data.mongodb.core.query.Query;
 import org.talend.tql.TqlLexer;
 import org.talend.tql.TqlParser;
@@ -71,7 +72,7 @@ public abstract class TestMongoCriteria_Abstract {
         return (Criteria) accept;
     }
 
-    List<Record> getRecords(Criteria criteria) {
+    List<Record> getRecords(CriteriaDefinition criteria) {
         Query q = new Query();
         q.addCriteria(criteria);
         return mongoTemplate.find(q, Record.class);
@@ -0,0 +1,132 @@
+package org.talend.tqlmongo.criteria;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.CriteriaDefinition;
+import org.talend.tql.model.FieldContainsExpression;
+import org.talend.tql.model.TqlElement;
+import org.talend.tql.parser.Tql;
+import org.talend.tqlmongo.MongoCriteriaTranslator;
+
+import com.mongodb.DBObject;
+
+public class TestMongoCriteria_Translator extends TestMongoCriteria_Abstract {
+
+    private static final String[] QUERIES = { "field1='value1'", "not (field1='value1')", "not(not (field1='value1'))",
+            "not (field1='value1' and field1 complies 'aaa9' or field1>999)",
+            "not (field1='value1' or field1 complies 'aaa9' and not(field1>999))",
+            "not (field1='value1' or not (field1 complies 'aaa9' and field1>999))", "name in ['ghassen', 'Benoit']",
+            "not (name in ['ghassen', 'Benoit'])", "age between [29, 31]", "not (age between [29, 31])", "name is empty",
+            "not (name is empty)", "name contains 'ssen'", "not (name contains 'ssen')", "name ~ '^B.*'", "age >= 29.5",
+            "not (age < 29 or age > 31)" };
+
+    private final MongoCriteriaTranslator translator = new MongoCriteriaTranslator();
+
+    @Test
+    public void testSameCriteriaAsASTVisitor() throws Exception {
+        for (String query : QUERIES) {
+            Criteria expected = doTest(query);
+            CriteriaDefinition actual = translator.translate(Tql.parse(query));
+            Assert.assertEquals(query, expected.getCriteriaObject().toString(), actual.getCriteriaObject().toString());
+            Assert.assertEquals(query, expected.getKey(), actual.getKey());
+        }
+    }
+
+    @Test
+    public void testSameRecordsAsASTVisitor() throws Exception {
+        for (String query : QUERIES) {
+            Assert.assertEquals(query, getRecords(doTest(query)).size(), getRecords(translator.translate(Tql.parse(query))).size());
+        }
+    }
+
+    @Test
+    public void testTranslationIsCached() throws Exception {
+        CriteriaDefinition first = translator.translate(Tql.parse("not (name = 'ghassen')"));
+        CriteriaDefinition second = translator.translate(Tql.parse("not (name='ghassen')"));
+        Assert.assertSame(first, second);
+        Assert.assertNotSame(first, translator.translate(Tql.parse("name = 'ghassen'")));
+    }
+
+    @Test
+    public void testDifferentExpressionsWithSameStringAreNotMixedUp() throws Exception {
+        // Same toString(): fieldName='a', value='b', value='c'
+        TqlElement first = new FieldContainsExpression("a', value='b", "c");
+        TqlElement second = new FieldContainsExpression("a", "b', value='c");
+        Assert.assertEquals(first.toString(), second.toString());
+
+        CriteriaDefinition firstCriteria = translator.translate(first);
+        CriteriaDefinition secondCriteria = translator.translate(second);
+
+        Assert.assertNotSame(firstCriteria, secondCriteria);
+        Assert.assertEquals("a', value='b", firstCriteria.getKey());
+        Assert.assertEquals("a", secondCriteria.getKey());
+    }
+
+    @Test
+    public void testNoCache() throws Exception {
+        MongoCriteriaTranslator noCache = new MongoCriteriaTranslator(0);
+        CriteriaDefinition first = noCache.translate(Tql.parse("name = 'ghassen'"));
+        CriteriaDefinition second = noCache.translate(Tql.parse("name = 'ghassen'"));
+        Assert.assertNotSame(first, second);
+        Assert.assertEquals(first.getCriteriaObject().toString(), second.getCriteriaObject().toString());
+    }
+
+    @Test
+    public void testCachedCriteriaCannotBeModified() throws Exception {
+        CriteriaDefinition criteria = translator.translate(Tql.parse("name = 'ghassen'"));
+        criteria.getCriteriaObject().put("name", "Benoit");
+        Assert.assertEquals(1, getRecords(translator.translate(Tql.parse("name = 'ghassen'"))).size());
+        Assert.assertEquals("ghassen", criteria.getCriteriaObject().get("name"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCachedInValuesCannotBeModified() throws Exception {
+        CriteriaDefinition criteria = translator.translate(Tql.parse("name in ['ghassen', 'Benoit']"));
+        DBObject in = (DBObject) criteria.getCriteriaObject().get("name");
+        ((Collection<Object>) in.get("$in")).clear();
+        Assert.assertEquals(2, getRecords(translator.translate(Tql.parse("name in ['ghassen', 'Benoit']"))).size());
+        Assert.assertEquals(2, ((Collection<Object>) ((DBObject) criteria.getCriteriaObject().get("name")).get("$in")).size());
+    }
+
+    @Test
+    public void testConcurrentTranslation() throws Exception {
+        final MongoCriteriaTranslator shared = new MongoCriteriaTranslator(4);
+        final List<TqlElement> elements = new ArrayList<>();
+        final List<String> expected = new ArrayList<>();
+        for (String query : QUERIES) {
+            elements.add(Tql.parse(query));
+            expected.add(doTest(query).getCriteriaObject().toString());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                final int offset = t;
+                futures.add(executor.submit((Callable<Void>) () -> {
+                    for (int i = 0; i < 500; i++) {
+                        int index = (i + offset) % elements.size();
+                        String actual = shared.translate(elements.get(index)).getCriteriaObject().toString();
+                        Assert.assertEquals(expected.get(index), actual);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package org.talend.tqlsql;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.talend.tql.model.*;
+import org.talend.tql.visitor.IASTVisitor;
+import org.talend.tqlsql.excp.TqlSqlException;
+
+/**
+ * Translates a TQL expression into a parameterized SQL condition ({@link SqlWhereClause}).
+ * <p>
+ * The visitor holds no traversal state (negation is expressed with SQL <code>NOT</code>), so a single instance can be
+ * shared between threads. Generated SQL only depends on the query shape: all values are bind parameters and
+ * <code>in</code> lists are padded to the next power of two, which bounds the number of distinct statements to
+ * prepare. Note that, as usual in SQL, comparisons involving <code>NULL</code> columns (negated or not) do not match.
+ * </p>
+ * <p>
+ * Usage: <code>SqlWhereClause where = (SqlWhereClause) Tql.parse(query).accept(new SqlASTVisitor(SqlDialect.H2))</code>
+ * </p>
+ */
+public class SqlASTVisitor implements IASTVisitor<Object> {
+
+    /** Escape character used in generated <code>LIKE</code> conditions. */
+    private static final char LIKE_ESCAPE = '!';
+
+    private final SqlDialect dialect;
+
+    public SqlASTVisitor(SqlDialect dialect) {
+        this.dialect = dialect;
+    }
+
+    @Override
+    public Object visit(TqlElement elt) {
+        throw new TqlSqlException("Should not enter here!!");
+    }
+
+    @Override
+    public ComparisonOperator.Enum visit(ComparisonOperator elt) {
+        return elt.getOperator();
+    }
+
+    @Override
+    public Object visit(LiteralValue elt) {
+        LiteralValue.Enum literal = elt.getLiteral();
+        String value = elt.getValue();
+        switch (literal) {
+        case INT:
+            return Long.valueOf(value);
+        case DECIMAL:
+            return new BigDecimal(value);
+        case QUOTED_VALUE:
+            return value;
+        case BOOLEAN:
+            return Boolean.valueOf(value);
+        default:
+            throw new TqlSqlException("Unknown literal value type: " + literal);
+        }
+    }
+
+    @Override
+    public String visit(FieldReference elt) {
+        return column(elt.getPath());
+    }
+
+    @Override
+    public SqlWhereClause visit(Expression elt) {
+        throw new TqlSqlException("Should not enter here!!");
+    }
+
+    @Override
+    public SqlWhereClause visit(AndExpression elt) {
+        return join(elt.getExpressions(), " AND ");
+    }
+
+    @Override
+    public SqlWhereClause visit(OrExpression elt) {
+        return join(elt.getExpressions(), " OR ");
+    }
+
+    @Override
+    public SqlWhereClause visit(ComparisonExpression elt) {
+        String column = visit(elt.getField());
+        String operator = toSql(elt.getOperator().getOperator());
+        TqlElement valueOrField = elt.getValueOrField();
+        if (valueOrField instanceof FieldReference) {
+            return new SqlWhereClause(column + operator + visit((FieldReference) valueOrField));
+        }
+        return new SqlWhereClause(column + operator + "?", valueOrField.accept(this));
+    }
+
+    @Override
+    public SqlWhereClause visit(FieldInExpression elt) {
+        LiteralValue[] values = elt.getValues();
+        if (values.length == 0) {
+            throw new TqlSqlException("Empty value list for field " + elt.getFieldName());
+        }
+        // Pad the list (repeating the last value) so that lists of similar sizes share the same SQL text
+        int size = Integer.highestOneBit(values.length);
+        if (size < values.length) {
+            size <<= 1;
+        }
+        List<Object> parameters = new ArrayList<>(size);
+        StringBuilder sql = new StringBuilder(column(elt.getFieldName())).append(" IN (");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append('?');
+            parameters.add(visit(values[Math.min(i, values.length - 1)]));
+        }
+        sql.append(')');
+        return new SqlWhereClause(sql.toString(), parameters);
+    }
+
+    @Override
+    public SqlWhereClause visit(FieldIsEmptyExpression elt) {
+        String column = column(elt.getFieldName());
+        return new SqlWhereClause("(" + column + " IS NULL OR " + column + " = '')");
+    }
+
+    @Override
+    public Object visit(FieldIsValidExpression elt) {
+        throw new TqlSqlException("Unsupported expression");
+    }
+
+    @Override
+    public Object visit(FieldIsInvalidExpression elt) {
+        throw new TqlSqlException("Unsupported expression");
+    }
+
+    @Override
+    public SqlWhereClause visit(FieldMatchesRegex elt) {
+        return regex(elt.getFieldName(), elt.getRegex());
+    }
+
+    @Override
+    public SqlWhereClause visit(FieldCompliesPattern elt) {
+        String pattern = elt.getPattern();
+        return regex(elt.getFieldName(), pattern == null || pattern.isEmpty() ? pattern : patternToRegex(pattern));
+    }
+
+    @Override
+    public SqlWhereClause visit(FieldContainsExpression elt) {
+        String column = column(elt.getFieldName());
+        String value = "%" + escapeLike(elt.getValue()) + "%";
+        return new SqlWhereClause(column + " LIKE ? ESCAPE '" + LIKE_ESCAPE + "'", value);
+    }
+
+    @Override
+    public SqlWhereClause visit(FieldBetweenExpression elt) {
+        // Same bounds as the MongoDB translation: lower bound included, upper bound excluded
+        String column = column(elt.getFieldName());
+        return new SqlWhereClause("(" + column + " >= ? AND " + column + " < ?)", visit(elt.getLeft()), visit(elt.getRight()));
+    }
+
+    @Override
+    public SqlWhereClause visit(NotExpression elt) {
+        SqlWhereClause clause = (SqlWhereClause) elt.getExpression().accept(this);
+        return new SqlWhereClause("NOT (" + clause.getSql() + ")", clause.getParameters());
+    }
+
+    private SqlWhereClause join(Expression[] expressions, String operator) {
+        if (expressions.length == 1) {
+            return (SqlWhereClause) expressions[0].accept(this);
+        }
+        StringBuilder sql = new StringBuilder("(");
+        List<Object> parameters = new ArrayList<>();
+        for (int i = 0; i < expressions.length; i++) {
+            SqlWhereClause clause = (SqlWhereClause) expressions[i].accept(this);
+            if (i > 0) {
+                sql.append(operator);
+            }
+            sql.append(clause.getSql());
+            parameters.addAll(clause.getParameters());
+        }
+        sql.append(')');
+        return new SqlWhereClause(sql.toString(), parameters);
+    }
+
+    private SqlWhereClause regex(String fieldName, String regex) {
+        String column = column(fieldName);
+        if (regex == null || regex.isEmpty()) {
+            return new SqlWhereClause(column + " = ''");
+        }
+        return new SqlWhereClause(dialect.regexMatch(column), regex);
+    }
+
+    private String column(String fieldName) {
+        return dialect.quoteIdentifier(fieldName);
+    }
+
+    private static String toSql(ComparisonOperator.Enum operator) {
+        switch (operator) {
+        case EQ:
+            return " = ";
+        case NEQ:
+            return " <> ";
+        case LT:
+            return " < ";
+        case GT:
+            return " > ";
+        case LET:
+            return " <= ";
+        case GET:
+            return " >= ";
+        default:
+            throw new TqlSqlException("Unknown operator.");
+        }
+    }
+
+    private static String escapeLike(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                sb.append(LIKE_ESCAPE);
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Converts a TQL "complies" pattern into an anchored regular expression.
+     *
+     * @param pattern the TQL pattern (a: lower case letter, A: upper case letter, 9: digit).
+     * @return the regular expression.
+     */
+    protected String patternToRegex(String pattern) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("^");
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            switch (c) {
+            case 'a':
+                sb.append("[a-zà-ÿ]");
+                break;
+            case 'A':
+                sb.append("[A-ZÀ-ß]");
+                break;
+            case '9':
+                sb.append("[0-9]");
+                break;
+            default:
+                if ("\\^$.|?*+()[]{}".indexOf(c) >= 0) {
+                    sb.append('\\');
+                }
+                sb.append(c);
+                break;
+            }
+        }
+        sb.append("$");
+        return sb.toString();
+    }
+}
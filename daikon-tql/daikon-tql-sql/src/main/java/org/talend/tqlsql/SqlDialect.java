@@ -0,0 +1,58 @@
+package org.talend.tqlsql;
+
+/**
+ * SQL dialects supported by {@link SqlASTVisitor}: they differ on identifier quoting and on regular expression
+ * matching, the rest of the generated SQL is standard.
+ */
+public enum SqlDialect {
+
+    /** H2 database (<code>REGEXP</code> operator, Java regular expressions). */
+    H2('"', '"', "%s REGEXP ?"),
+
+    /** PostgreSQL (<code>~</code> operator, POSIX regular expressions). */
+    POSTGRESQL('"', '"', "%s ~ ?"),
+
+    /** MySQL and MariaDB (<code>REGEXP</code> operator). */
+    MYSQL('`', '`', "%s REGEXP ?"),
+
+    /** Oracle (<code>REGEXP_LIKE</code> condition). */
+    ORACLE('"', '"', "REGEXP_LIKE(%s, ?)");
+
+    private final char openQuote;
+
+    private final char closeQuote;
+
+    private final String regexTemplate;
+
+    SqlDialect(char openQuote, char closeQuote, String regexTemplate) {
+        this.openQuote = openQuote;
+        this.closeQuote = closeQuote;
+        this.regexTemplate = regexTemplate;
+    }
+
+    /**
+     * @param identifier a column name (without any quote).
+     * @return the quoted identifier, quote characters within the name are doubled.
+     */
+    public String quoteIdentifier(String identifier) {
+        StringBuilder sb = new StringBuilder(identifier.length() + 2);
+        sb.append(openQuote);
+        for (int i = 0; i < identifier.length(); i++) {
+            char c = identifier.charAt(i);
+            if (c == closeQuote) {
+                sb.append(c);
+            }
+            sb.append(c);
+        }
+        sb.append(closeQuote);
+        return sb.toString();
+    }
+
+    /**
+     * @param column the (quoted) column.
+     * @return a SQL condition matching the column against a regular expression given as single bind parameter.
+     */
+    public String regexMatch(String column) {
+        return String.format(regexTemplate, column);
+    }
+}
@@ -0,0 +1,78 @@
+package org.talend.tqlsql;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable result of a TQL to SQL translation: a SQL condition with <code>?</code> placeholders and the values to
+ * bind to them, in order.
+ * <p>
+ * Values never appear in the SQL text, so the same query shape always produces the same SQL, which lets both the
+ * JDBC statement cache and the database plan cache reuse a prepared statement.
+ * </p>
+ */
+public class SqlWhereClause {
+
+    private final String sql;
+
+    private final List<Object> parameters;
+
+    public SqlWhereClause(String sql, List<Object> parameters) {
+        this.sql = sql;
+        this.parameters = Collections.unmodifiableList(new ArrayList<>(parameters));
+    }
+
+    public SqlWhereClause(String sql, Object... parameters) {
+        this(sql, Arrays.asList(parameters));
+    }
+
+    /**
+     * @return the SQL condition (without the <code>WHERE</code> keyword).
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * @return the values of the bind parameters, in placeholder order.
+     */
+    public List<Object> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Binds all parameters of this clause to the statement, starting at the first placeholder.
+     *
+     * @param statement a statement prepared with a SQL text including {@link #getSql()}.
+     * @return the index of the next placeholder of the statement.
+     * @throws SQLException if a parameter cannot be bound.
+     */
+    public int bind(PreparedStatement statement) throws SQLException {
+        return bind(statement, 1);
+    }
+
+    /**
+     * Binds all parameters of this clause to the statement, starting at the given placeholder index.
+     *
+     * @param statement a statement prepared with a SQL text including {@link #getSql()}.
+     * @param startIndex index (1-based) of the first placeholder of this clause in the statement.
+     * @return the index of the next placeholder of the statement.
+     * @throws SQLException if a parameter cannot be bound.
+     */
+    public int bind(PreparedStatement statement, int startIndex) throws SQLException {
+        int index = startIndex;
+        for (Object parameter : parameters) {
+            statement.setObject(index++, parameter);
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return "SqlWhereClause{" + "sql='" + sql + '\'' + ", parameters=" + parameters + '}';
+    }
+}
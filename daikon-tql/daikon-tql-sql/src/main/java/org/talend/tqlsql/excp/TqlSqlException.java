@@ -0,0 +1,29 @@
+package org.talend.tqlsql.excp;
+
+/*
+ * Thrown to indicate that the Tql filter could not be
+ * converted to a SQL where clause.
+ */
+
+import org.talend.tql.excp.TqlException;
+
+public class TqlSqlException extends TqlException {
+
+    /**
+     * Constructs a <code>TqlSqlException</code> with the specified detail message.
+     * @param message Exception message
+     */
+    public TqlSqlException(String message) {
+        super(message);
+    }
+
+    /**
+     * Constructs a <code>TqlSqlException</code> with the specified detail message
+     * and the specified cause.
+     * @param message Exception message
+     * @param cause Exception cause
+     */
+    public TqlSqlException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
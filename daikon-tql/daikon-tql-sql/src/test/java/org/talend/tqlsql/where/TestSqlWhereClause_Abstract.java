@@ -0,0 +1,77 @@
+package org.talend.tqlsql.where;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.rules.ExpectedException;
+import org.talend.tql.model.TqlElement;
+import org.talend.tql.parser.Tql;
+import org.talend.tqlsql.SqlASTVisitor;
+import org.talend.tqlsql.SqlDialect;
+import org.talend.tqlsql.SqlWhereClause;
+
+public abstract class TestSqlWhereClause_Abstract {
+
+    private static final Object[][] RECORDS = { { "ghassen", 30d }, { "Ghassen", 31.2d }, { "Benoit", 29d },
+            { "Benoit 2eme", 28.8d }, { "100%_sure", 27d }, { null, 50d } };
+
+    @Rule
+    public ExpectedException expectedException = ExpectedException.none();
+
+    private Connection connection;
+
+    @Before
+    public void setup() throws SQLException {
+        connection = DriverManager.getConnection("jdbc:h2:mem:tql-sql");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE \"record\" (\"name\" VARCHAR(255), \"age\" DOUBLE, \"isGoodBoy\" BOOLEAN)");
+        }
+        try (PreparedStatement statement = connection.prepareStatement("INSERT INTO \"record\" VALUES (?, ?, ?)")) {
+            for (Object[] record : RECORDS) {
+                statement.setObject(1, record[0]);
+                statement.setObject(2, record[1]);
+                statement.setObject(3, ((Double) record[1]) % 2 == 0);
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    @After
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE \"record\"");
+        }
+        connection.close();
+    }
+
+    protected SqlWhereClause doTest(String query) {
+        TqlElement tqlElement = Tql.parse(query);
+        return (SqlWhereClause) tqlElement.accept(new SqlASTVisitor(SqlDialect.H2));
+    }
+
+    /**
+     * @return the names of the records matching the clause, in insertion order.
+     */
+    protected List<String> getRecords(SqlWhereClause where) throws SQLException {
+        List<String> names = new ArrayList<>();
+        try (PreparedStatement statement = connection
+                .prepareStatement("SELECT \"name\" FROM \"record\" WHERE " + where.getSql() + " ORDER BY \"age\" DESC")) {
+            where.bind(statement);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    names.add(resultSet.getString(1));
+                }
+            }
+        }
+        return names;
+    }
+}
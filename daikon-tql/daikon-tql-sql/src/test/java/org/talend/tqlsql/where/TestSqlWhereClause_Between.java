@@ -0,0 +1,24 @@
+package org.talend.tqlsql.where;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.talend.tqlsql.SqlWhereClause;
+
+public class TestSqlWhereClause_Between extends TestSqlWhereClause_Abstract {
+
+    @Test
+    public void testBetween() throws Exception {
+        SqlWhereClause where = doTest("age between [29, 31.2]");
+        Assert.assertEquals("(\"age\" >= ? AND \"age\" < ?)", where.getSql());
+        Assert.assertEquals(Arrays.asList("ghassen", "Benoit"), getRecords(where));
+    }
+
+    @Test
+    public void testNotBetween() throws Exception {
+        SqlWhereClause where = doTest("not (age between [29, 31.2])");
+        Assert.assertEquals("NOT ((\"age\" >= ? AND \"age\" < ?))", where.getSql());
+        Assert.assertEquals(Arrays.asList(null, "Ghassen", "Benoit 2eme", "100%_sure"), getRecords(where));
+    }
+}
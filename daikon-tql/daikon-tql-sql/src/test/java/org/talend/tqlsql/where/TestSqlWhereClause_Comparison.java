@@ -0,0 +1,80 @@
+package org.talend.tqlsql.where;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.talend.tqlsql.SqlWhereClause;
+
+public class TestSqlWhereClause_Comparison extends TestSqlWhereClause_Abstract {
+
+    @Test
+    public void testEquals() throws Exception {
+        SqlWhereClause where = doTest("name = 'Benoit'");
+        Assert.assertEquals("\"name\" = ?", where.getSql());
+        Assert.assertEquals(Collections.singletonList("Benoit"), where.getParameters());
+        Assert.assertEquals(Collections.singletonList("Benoit"), getRecords(where));
+    }
+
+    @Test
+    public void testNotEquals() throws Exception {
+        SqlWhereClause where = doTest("name != 'Benoit'");
+        Assert.assertEquals("\"name\" <> ?", where.getSql());
+        Assert.assertEquals(Arrays.asList("Ghassen", "ghassen", "Benoit 2eme", "100%_sure"), getRecords(where));
+    }
+
+    @Test
+    public void testGreaterThanDecimal() throws Exception {
+        SqlWhereClause where = doTest("age > 30.5");
+        Assert.assertEquals("\"age\" > ?", where.getSql());
+        Assert.assertEquals(Collections.singletonList(new BigDecimal("30.5")), where.getParameters());
+        Assert.assertEquals(Arrays.asList(null, "Ghassen"), getRecords(where));
+    }
+
+    @Test
+    public void testLowerOrEqualInteger() throws Exception {
+        SqlWhereClause where = doTest("age <= 29");
+        Assert.assertEquals("\"age\" <= ?", where.getSql());
+        Assert.assertEquals(Collections.singletonList(29L), where.getParameters());
+        Assert.assertEquals(Arrays.asList("Benoit", "Benoit 2eme", "100%_sure"), getRecords(where));
+    }
+
+    @Test
+    public void testBoolean() throws Exception {
+        SqlWhereClause where = doTest("isGoodBoy = true");
+        Assert.assertEquals("\"isGoodBoy\" = ?", where.getSql());
+        Assert.assertEquals(Arrays.asList(null, "ghassen"), getRecords(where));
+    }
+
+    @Test
+    public void testFieldComparison() throws Exception {
+        SqlWhereClause where = doTest("name = field(name)");
+        Assert.assertEquals("\"name\" = \"name\"", where.getSql());
+        Assert.assertTrue(where.getParameters().isEmpty());
+    }
+
+    @Test
+    public void testAndOr() throws Exception {
+        SqlWhereClause where = doTest("name = 'Benoit' or age > 31 and age < 40");
+        Assert.assertEquals("(\"name\" = ? OR (\"age\" > ? AND \"age\" < ?))", where.getSql());
+        Assert.assertEquals(Arrays.asList("Benoit", 31L, 40L), where.getParameters());
+        Assert.assertEquals(Arrays.asList("Ghassen", "Benoit"), getRecords(where));
+    }
+
+    @Test
+    public void testSameShapeSameSql() throws Exception {
+        SqlWhereClause where1 = doTest("name = 'Benoit' and age between [1, 2]");
+        SqlWhereClause where2 = doTest("name = 'ghassen' and age between [20, 35]");
+        Assert.assertEquals(where1.getSql(), where2.getSql());
+        Assert.assertNotEquals(where1.getParameters(), where2.getParameters());
+    }
+
+    @Test
+    public void testInjection() throws Exception {
+        SqlWhereClause where = doTest("name = 'x OR 1=1 --'");
+        Assert.assertEquals("\"name\" = ?", where.getSql());
+        Assert.assertTrue(getRecords(where).isEmpty());
+    }
+}
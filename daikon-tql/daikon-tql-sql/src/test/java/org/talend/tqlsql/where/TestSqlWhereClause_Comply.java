@@ -0,0 +1,54 @@
+package org.talend.tqlsql.where;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.talend.tql.parser.Tql;
+import org.talend.tqlsql.SqlASTVisitor;
+import org.talend.tqlsql.SqlDialect;
+import org.talend.tqlsql.SqlWhereClause;
+
+public class TestSqlWhereClause_Comply extends TestSqlWhereClause_Abstract {
+
+    @Test
+    public void testComplies() throws Exception {
+        SqlWhereClause where = doTest("name complies 'Aaaaaa'");
+        Assert.assertEquals("\"name\" REGEXP ?", where.getSql());
+        Assert.assertEquals(Collections.singletonList("^[A-ZÀ-ß][a-zà-ÿ][a-zà-ÿ][a-zà-ÿ][a-zà-ÿ][a-zà-ÿ]$"), where.getParameters());
+        Assert.assertEquals(Collections.singletonList("Benoit"), getRecords(where));
+    }
+
+    @Test
+    public void testCompliesSpecialCharacters() throws Exception {
+        SqlWhereClause where = doTest("name complies 'Aaaaaa 9aaa'");
+        Assert.assertEquals(Collections.singletonList("Benoit 2eme"), getRecords(where));
+        Assert.assertEquals(Collections.singletonList("100%_sure"), getRecords(doTest("name complies '999%_aaaa'")));
+    }
+
+    @Test
+    public void testCompliesEmpty() throws Exception {
+        SqlWhereClause where = doTest("name complies ''");
+        Assert.assertEquals("\"name\" = ''", where.getSql());
+        Assert.assertTrue(getRecords(where).isEmpty());
+    }
+
+    @Test
+    public void testMatches() throws Exception {
+        SqlWhereClause where = doTest("name ~ '^[gG].*'");
+        Assert.assertEquals(Arrays.asList("Ghassen", "ghassen"), getRecords(where));
+    }
+
+    @Test
+    public void testDialects() throws Exception {
+        Assert.assertEquals("\"name\" ~ ?", translate("name ~ 'a'", SqlDialect.POSTGRESQL));
+        Assert.assertEquals("`name` REGEXP ?", translate("name ~ 'a'", SqlDialect.MYSQL));
+        Assert.assertEquals("`na``me`", SqlDialect.MYSQL.quoteIdentifier("na`me"));
+        Assert.assertEquals("REGEXP_LIKE(\"name\", ?)", translate("name ~ 'a'", SqlDialect.ORACLE));
+    }
+
+    private static String translate(String query, SqlDialect dialect) {
+        return ((SqlWhereClause) Tql.parse(query).accept(new SqlASTVisitor(dialect))).getSql();
+    }
+}
@@ -0,0 +1,35 @@
+package org.talend.tqlsql.where;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.talend.tqlsql.SqlWhereClause;
+
+public class TestSqlWhereClause_Contains extends TestSqlWhereClause_Abstract {
+
+    @Test
+    public void testContains() throws Exception {
+        SqlWhereClause where = doTest("name contains 'ssen'");
+        Assert.assertEquals("\"name\" LIKE ? ESCAPE '!'", where.getSql());
+        Assert.assertEquals(Collections.singletonList("%ssen%"), where.getParameters());
+        Assert.assertEquals(Arrays.asList("Ghassen", "ghassen"), getRecords(where));
+    }
+
+    @Test
+    public void testContainsWildcards() throws Exception {
+        SqlWhereClause where = doTest("name contains '0%_s'");
+        Assert.assertEquals(Collections.singletonList("%0!%!_s%"), where.getParameters());
+        Assert.assertEquals(Collections.singletonList("100%_sure"), getRecords(where));
+        Assert.assertTrue(getRecords(doTest("name contains 'B_noit'")).isEmpty());
+        Assert.assertTrue(getRecords(doTest("name contains '%'")).contains("100%_sure"));
+        Assert.assertEquals(1, getRecords(doTest("name contains '%'")).size());
+    }
+
+    @Test
+    public void testNotContains() throws Exception {
+        SqlWhereClause where = doTest("not (name contains 'noi')");
+        Assert.assertEquals(Arrays.asList("Ghassen", "ghassen", "100%_sure"), getRecords(where));
+    }
+}
@@ -0,0 +1,31 @@
+package org.talend.tqlsql.where;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.talend.tqlsql.SqlWhereClause;
+
+public class TestSqlWhereClause_Empty extends TestSqlWhereClause_Abstract {
+
+    @Test
+    public void testIsEmpty() throws Exception {
+        SqlWhereClause where = doTest("name is empty");
+        Assert.assertEquals("(\"name\" IS NULL OR \"name\" = '')", where.getSql());
+        Assert.assertTrue(where.getParameters().isEmpty());
+        Assert.assertEquals(Collections.singletonList(null), getRecords(where));
+    }
+
+    @Test
+    public void testIsNotEmpty() throws Exception {
+        SqlWhereClause where = doTest("not (name is empty)");
+        Assert.assertEquals(Arrays.asList("Ghassen", "ghassen", "Benoit", "Benoit 2eme", "100%_sure"), getRecords(where));
+    }
+
+    @Test
+    public void testIsValidUnsupported() throws Exception {
+        expectedException.expectMessage("Unsupported expression");
+        doTest("name is valid");
+    }
+}
@@ -0,0 +1,41 @@
+package org.talend.tqlsql.where;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.talend.tqlsql.SqlWhereClause;
+
+public class TestSqlWhereClause_In extends TestSqlWhereClause_Abstract {
+
+    @Test
+    public void testInSingleValue() throws Exception {
+        SqlWhereClause where = doTest("name in ['Benoit']");
+        Assert.assertEquals("\"name\" IN (?)", where.getSql());
+        Assert.assertEquals(Arrays.asList("Benoit"), getRecords(where));
+    }
+
+    @Test
+    public void testInIsPadded() throws Exception {
+        SqlWhereClause where = doTest("name in ['Benoit', 'ghassen', 'nobody']");
+        Assert.assertEquals("\"name\" IN (?, ?, ?, ?)", where.getSql());
+        Assert.assertEquals(Arrays.asList("Benoit", "ghassen", "nobody", "nobody"), where.getParameters());
+        Assert.assertEquals(Arrays.asList("ghassen", "Benoit"), getRecords(where));
+        // 3 and 4 values share the same statement
+        Assert.assertEquals(where.getSql(), doTest("name in ['a', 'b', 'c', 'd']").getSql());
+    }
+
+    @Test
+    public void testInNumbers() throws Exception {
+        SqlWhereClause where = doTest("age in [29, 31.2]");
+        Assert.assertEquals("\"age\" IN (?, ?)", where.getSql());
+        Assert.assertEquals(Arrays.asList("Ghassen", "Benoit"), getRecords(where));
+    }
+
+    @Test
+    public void testNotIn() throws Exception {
+        SqlWhereClause where = doTest("not (name in ['Benoit', 'ghassen'])");
+        Assert.assertEquals("NOT (\"name\" IN (?, ?))", where.getSql());
+        Assert.assertEquals(Arrays.asList("Ghassen", "Benoit 2eme", "100%_sure"), getRecords(where));
+    }
+}